@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import androidx.annotation.Nullable;
+import com.facebook.infer.annotation.Nullsafe;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the @OnCalculateCachedValue results of a tree in slots identified by the global key of a
+ * component and the name of a cached value. A slot only holds the latest entry, i.e. the inputs a
+ * value was calculated from and the value; so the store holds at most one entry per cached value of
+ * every component of the tree. The slots of a component are dropped once it leaves the tree, see
+ * {@link #retainAll(Set)}.
+ *
+ * <p>Reads don't take any lock. Writes to the slots of a component are serialised, and replace the
+ * array of its slots so that concurrent reads always see a consistent one.
+ */
+@Nullsafe(Nullsafe.Mode.LOCAL)
+final class CachedValueStore {
+
+  private static final Object[] EMPTY_SLOTS = new Object[0];
+
+  private final ConcurrentHashMap<String, Slots> mSlotsByGlobalKey = new ConcurrentHashMap<>();
+
+  /** @return the latest entry stored for the given cached value, or null if there's none. */
+  @Nullable
+  Object get(String globalKey, String cachedValueName) {
+    final @Nullable Slots slots = mSlotsByGlobalKey.get(globalKey);
+    return slots != null ? slots.get(cachedValueName) : null;
+  }
+
+  /** Drops the slots of the components whose global keys aren't in the given set. */
+  void retainAll(Set<String> globalKeys) {
+    mSlotsByGlobalKey.keySet().retainAll(globalKeys);
+  }
+
+  /** Stores the given entry for the given cached value, replacing the previous one. */
+  void put(String globalKey, String cachedValueName, Object entry) {
+    @Nullable Slots slots = mSlotsByGlobalKey.get(globalKey);
+    if (slots == null) {
+      final Slots newSlots = new Slots();
+      slots = mSlotsByGlobalKey.putIfAbsent(globalKey, newSlots);
+      if (slots == null) {
+        slots = newSlots;
+      }
+    }
+
+    slots.put(cachedValueName, entry);
+  }
+
+  /** The slots of a component, as an array of alternating cached value names and entries. */
+  private static final class Slots {
+
+    private volatile Object[] mNamesAndEntries = EMPTY_SLOTS;
+
+    @Nullable
+    Object get(String cachedValueName) {
+      final Object[] namesAndEntries = mNamesAndEntries;
+      for (int i = 0; i < namesAndEntries.length; i += 2) {
+        final Object name = namesAndEntries[i];
+        // The names are constants of the generated code, so they're usually the same instance.
+        if (name == cachedValueName || cachedValueName.equals(name)) {
+          return namesAndEntries[i + 1];
+        }
+      }
+
+      return null;
+    }
+
+    synchronized void put(String cachedValueName, Object entry) {
+      final Object[] namesAndEntries = mNamesAndEntries;
+      for (int i = 0; i < namesAndEntries.length; i += 2) {
+        if (cachedValueName.equals(namesAndEntries[i])) {
+          final Object[] copy = namesAndEntries.clone();
+          copy[i + 1] = entry;
+          mNamesAndEntries = copy;
+          return;
+        }
+      }
+
+      final Object[] copy = new Object[namesAndEntries.length + 2];
+      System.arraycopy(namesAndEntries, 0, copy, 0, namesAndEntries.length);
+      copy[namesAndEntries.length] = cachedValueName;
+      copy[namesAndEntries.length + 1] = entry;
+      mNamesAndEntries = copy;
+    }
+  }
+}
@@ -25,7 +25,7 @@ import com.facebook.rendercore.RenderCoreSystrace;
 /** Click listener that triggers its underlying event handler. */
 class ComponentClickListener implements View.OnClickListener {
 
-  private final @Nullable EventHandler<ClickEvent> mEventHandler;
+  private @Nullable EventHandler<ClickEvent> mEventHandler;
 
   public ComponentClickListener(@Nullable EventHandler<ClickEvent> eventHandler) {
     mEventHandler = eventHandler;
@@ -54,4 +54,13 @@ class ComponentClickListener implements View.OnClickListener {
       }
     }
   }
+
+  @Nullable
+  EventHandler<ClickEvent> getEventHandler() {
+    return mEventHandler;
+  }
+
+  void setEventHandler(@Nullable EventHandler<ClickEvent> eventHandler) {
+    mEventHandler = eventHandler;
+  }
 }
@@ -638,6 +638,29 @@ public class ComponentContext implements Cloneable {
     mComponentTree.putCachedValue(cachedValueInputs, cachedValue, isNestedTreeContext());
   }
 
+  /**
+   * @return the latest entry stored for the given @OnCalculateCachedValue of the component with
+   *     the given global key, or null if there's none.
+   */
+  @Nullable
+  public Object getCachedValueEntry(String globalKey, String cachedValueName) {
+    if (mComponentTree == null) {
+      return null;
+    }
+    return mComponentTree.getCachedValueEntry(globalKey, cachedValueName, isNestedTreeContext());
+  }
+
+  /**
+   * Stores the entry, i.e. the inputs and the value, of the given @OnCalculateCachedValue of the
+   * component with the given global key, replacing the previous entry.
+   */
+  public void putCachedValueEntry(String globalKey, String cachedValueName, Object entry) {
+    if (mComponentTree == null) {
+      return;
+    }
+    mComponentTree.putCachedValueEntry(globalKey, cachedValueName, entry, isNestedTreeContext());
+  }
+
   /**
    * @return New instance of {@link EventTrigger} that is created by the current mComponentScope.
    */
@@ -40,7 +40,6 @@ import android.view.ViewParent;
 import android.view.accessibility.AccessibilityNodeInfo;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
-import androidx.collection.SparseArrayCompat;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.view.ViewCompat;
 import com.facebook.litho.config.ComponentsConfiguration;
@@ -67,18 +66,10 @@ public class ComponentHost extends Host implements DisappearingHost {
   public static final String TEXTURE_TOO_BIG = "TextureTooBig";
   public static final String TEXTURE_ZERO_DIM = "TextureZeroDim";
   public static final String PARTIAL_ALPHA_TEXTURE_TOO_BIG = "PartialAlphaTextureTooBig";
-  private static final int SCRAP_ARRAY_INITIAL_SIZE = 4;
 
   private static boolean sHasWarnedAboutPartialAlpha = false;
 
-  private final SparseArrayCompat<MountItem> mMountItems = new SparseArrayCompat<>();
-  private SparseArrayCompat<MountItem> mScrapMountItemsArray;
-
-  private final SparseArrayCompat<MountItem> mViewMountItems = new SparseArrayCompat<>();
-  private SparseArrayCompat<MountItem> mScrapViewMountItemsArray;
-
-  private final SparseArrayCompat<MountItem> mDrawableMountItems = new SparseArrayCompat<>();
-  private SparseArrayCompat<MountItem> mScrapDrawableMountItems;
+  private final ComponentHostMountItems mMountItems = new ComponentHostMountItems();
 
   private @Nullable ArrayList<MountItem> mDisappearingItems;
 
@@ -154,9 +145,8 @@ public class ComponentHost extends Host implements DisappearingHost {
     final Object content = mountItem.getContent();
     final LayoutOutput output = getLayoutOutput(mountItem);
     if (content instanceof Drawable) {
-      mountDrawable(index, mountItem, bounds);
+      mountDrawable(mountItem, bounds);
     } else if (content instanceof View) {
-      mViewMountItems.put(index, mountItem);
       mountView((View) content, output.getFlags());
       maybeRegisterTouchExpansion(index, mountItem);
     }
@@ -173,18 +163,7 @@ public class ComponentHost extends Host implements DisappearingHost {
 
   @Override
   public void unmount(MountItem item) {
-    final int index;
-    final int indexOfValue = mMountItems.indexOfValue(item);
-
-    if (indexOfValue == -1) {
-      ensureScrapMountItemsArray();
-      final int indexOfValueInScrap = mScrapMountItemsArray.indexOfValue(item);
-      index = mScrapMountItemsArray.keyAt(indexOfValueInScrap);
-    } else {
-      index = mMountItems.keyAt(indexOfValue);
-    }
-
-    unmount(index, item);
+    unmount(mMountItems.indexOf(item), item);
   }
 
   /**
@@ -199,16 +178,13 @@ public class ComponentHost extends Host implements DisappearingHost {
     final Object content = mountItem.getContent();
     if (content instanceof Drawable) {
       unmountDrawable((Drawable) content);
-      ComponentHostUtils.removeItem(index, mDrawableMountItems, mScrapDrawableMountItems);
     } else if (content instanceof View) {
       unmountView((View) content);
-      ComponentHostUtils.removeItem(index, mViewMountItems, mScrapViewMountItemsArray);
       mIsChildDrawingOrderDirty = true;
       maybeUnregisterTouchExpansion(index, mountItem);
     }
 
-    ComponentHostUtils.removeItem(index, mMountItems, mScrapMountItemsArray);
-    releaseScrapDataStructuresIfNeeded();
+    mMountItems.remove(index);
     updateAccessibilityState(getLayoutOutput(mountItem));
   }
 
@@ -220,22 +196,15 @@ public class ComponentHost extends Host implements DisappearingHost {
    */
   @Override
   public void startDisappearingMountItem(MountItem mountItem) {
-    final int index = mMountItems.keyAt(mMountItems.indexOfValue(mountItem));
-    startUnmountDisappearingItem(index, mountItem);
+    startUnmountDisappearingItem(mMountItems.indexOf(mountItem), mountItem);
   }
 
   void startUnmountDisappearingItem(int index, MountItem mountItem) {
-    final Object content = mountItem.getContent();
-
-    if (content instanceof Drawable) {
-      ComponentHostUtils.removeItem(index, mDrawableMountItems, mScrapDrawableMountItems);
-    } else if (content instanceof View) {
-      ComponentHostUtils.removeItem(index, mViewMountItems, mScrapViewMountItemsArray);
+    if (mountItem.getContent() instanceof View) {
       mIsChildDrawingOrderDirty = true;
       maybeUnregisterTouchExpansion(index, mountItem);
     }
-    ComponentHostUtils.removeItem(index, mMountItems, mScrapMountItemsArray);
-    releaseScrapDataStructuresIfNeeded();
+    mMountItems.remove(index);
     ensureDisappearingItems();
     mDisappearingItems.add(mountItem);
   }
@@ -351,18 +320,17 @@ public class ComponentHost extends Host implements DisappearingHost {
 
   /** @return list of drawables that are mounted on this host. */
   public List<Drawable> getDrawables() {
-    final int size = mDrawableMountItems.size();
-    if (size == 0) {
-      return Collections.emptyList();
-    }
-
-    final List<Drawable> drawables = new ArrayList<>(size);
-    for (int i = 0; i < size; i++) {
-      Drawable drawable = (Drawable) mDrawableMountItems.valueAt(i).getContent();
-      drawables.add(drawable);
+    List<Drawable> drawables = null;
+    for (int i = 0, size = mMountItems.size(); i < size; i++) {
+      if (mMountItems.typeAt(i) == ComponentHostMountItems.TYPE_DRAWABLE) {
+        if (drawables == null) {
+          drawables = new ArrayList<>();
+        }
+        drawables.add((Drawable) mMountItems.valueAt(i).getContent());
+      }
     }
 
-    return drawables;
+    return drawables != null ? drawables : Collections.<Drawable>emptyList();
   }
 
   /** @return list of names of content mounted on this host. */
@@ -457,8 +425,8 @@ public class ComponentHost extends Host implements DisappearingHost {
    */
   @Override
   public void moveItem(MountItem item, int oldIndex, int newIndex) {
-    if (item == null && mScrapMountItemsArray != null) {
-      item = mScrapMountItemsArray.get(oldIndex);
+    if (item == null) {
+      item = mMountItems.getDisplaced(oldIndex);
     }
 
     if (item == null) {
@@ -488,31 +456,16 @@ public class ComponentHost extends Host implements DisappearingHost {
 
     maybeMoveTouchExpansionIndexes(item, oldIndex, newIndex);
 
-    final Object content = item.getContent();
+    mMountItems.move(oldIndex, newIndex);
 
+    final Object content = item.getContent();
     if (content instanceof Drawable) {
-      moveDrawableItem(item, oldIndex, newIndex);
+      assertMainThread();
+      // Drawing order changed, invalidate the whole view.
+      invalidate();
     } else if (content instanceof View) {
       mIsChildDrawingOrderDirty = true;
-
-      if (mViewMountItems.get(newIndex) != null) {
-        ensureScrapViewMountItemsArray();
-
-        ComponentHostUtils.scrapItemAt(newIndex, mViewMountItems, mScrapViewMountItemsArray);
-      }
-
-      ComponentHostUtils.moveItem(oldIndex, newIndex, mViewMountItems, mScrapViewMountItemsArray);
     }
-
-    if (mMountItems.get(newIndex) != null) {
-      ensureScrapMountItemsArray();
-
-      ComponentHostUtils.scrapItemAt(newIndex, mMountItems, mScrapMountItemsArray);
-    }
-
-    ComponentHostUtils.moveItem(oldIndex, newIndex, mMountItems, mScrapMountItemsArray);
-
-    releaseScrapDataStructuresIfNeeded();
   }
 
   private boolean isIllegalMountItemMove(MountItem mountItem, int moveFromIndex) {
@@ -521,9 +474,9 @@ public class ComponentHost extends Host implements DisappearingHost {
       return false;
     }
 
-    // If the mount item exists at the given index in the scrap array, this is a legal move.
-    // Otherwise, it is illegal.
-    return mScrapMountItemsArray == null || mountItem != mScrapMountItemsArray.get(moveFromIndex);
+    // If the mount item was displaced from the given index, this is a legal move. Otherwise, it is
+    // illegal.
+    return mountItem != mMountItems.getDisplaced(moveFromIndex);
   }
 
   /**
@@ -661,8 +614,12 @@ public class ComponentHost extends Host implements DisappearingHost {
 
   public List<CharSequence> getContentDescriptions() {
     final List<CharSequence> contentDescriptions = new ArrayList<>();
-    for (int i = 0, size = mDrawableMountItems.size(); i < size; i++) {
-      final NodeInfo nodeInfo = getLayoutOutput(mDrawableMountItems.valueAt(i)).getNodeInfo();
+    for (int i = 0, size = mMountItems.size(); i < size; i++) {
+      if (mMountItems.typeAt(i) != ComponentHostMountItems.TYPE_DRAWABLE) {
+        continue;
+      }
+
+      final NodeInfo nodeInfo = getLayoutOutput(mMountItems.valueAt(i)).getNodeInfo();
       if (nodeInfo == null) {
         continue;
       }
@@ -799,9 +756,12 @@ public class ComponentHost extends Host implements DisappearingHost {
 
     if (isEnabled()) {
       // Iterate drawable from last to first to respect drawing order.
-      for (int i = mDrawableMountItems.size() - 1; i >= 0; i--) {
-        final MountItem item = mDrawableMountItems.valueAt(i);
+      for (int i = mMountItems.size() - 1; i >= 0; i--) {
+        if (mMountItems.typeAt(i) != ComponentHostMountItems.TYPE_DRAWABLE) {
+          continue;
+        }
 
+        final MountItem item = mMountItems.valueAt(i);
         if (item.getContent() instanceof Touchable
             && !isTouchableDisabled(getLayoutOutput(item).getFlags())) {
           final Touchable t = (Touchable) item.getContent();
@@ -865,8 +825,12 @@ public class ComponentHost extends Host implements DisappearingHost {
   protected void drawableStateChanged() {
     super.drawableStateChanged();
 
-    for (int i = 0, size = mDrawableMountItems.size(); i < size; i++) {
-      final MountItem mountItem = mDrawableMountItems.valueAt(i);
+    for (int i = 0, size = mMountItems.size(); i < size; i++) {
+      if (mMountItems.typeAt(i) != ComponentHostMountItems.TYPE_DRAWABLE) {
+        continue;
+      }
+
+      final MountItem mountItem = mMountItems.valueAt(i);
       final LayoutOutput output = getLayoutOutput(mountItem);
       maybeSetDrawableState(
           this, (Drawable) mountItem.getContent(), output.getFlags(), output.getNodeInfo());
@@ -877,8 +841,12 @@ public class ComponentHost extends Host implements DisappearingHost {
   public void jumpDrawablesToCurrentState() {
     super.jumpDrawablesToCurrentState();
 
-    for (int i = 0, size = mDrawableMountItems.size(); i < size; i++) {
-      final Drawable drawable = (Drawable) mDrawableMountItems.valueAt(i).getContent();
+    for (int i = 0, size = mMountItems.size(); i < size; i++) {
+      if (mMountItems.typeAt(i) != ComponentHostMountItems.TYPE_DRAWABLE) {
+        continue;
+      }
+
+      final Drawable drawable = (Drawable) mMountItems.valueAt(i).getContent();
       DrawableCompat.jumpToCurrentState(drawable);
     }
   }
@@ -887,16 +855,21 @@ public class ComponentHost extends Host implements DisappearingHost {
   public void setVisibility(int visibility) {
     super.setVisibility(visibility);
 
-    final int size = mDrawableMountItems.size();
-    if (size > 0) {
+    boolean hasAssertedMainThread = false;
+    for (int i = 0, size = mMountItems.size(); i < size; i++) {
+      if (mMountItems.typeAt(i) != ComponentHostMountItems.TYPE_DRAWABLE) {
+        continue;
+      }
+
       // We only do a main thread assert if there are drawable mount items because visibility may
       // be set on a LithoView during background layout inflation (AsyncLayoutInflater) before
       // we have any mounted content - we don't want to crash in that case.
-      assertMainThread();
-      for (int i = 0; i < size; i++) {
-        final Drawable drawable = (Drawable) mDrawableMountItems.valueAt(i).getContent();
-        drawable.setVisible(visibility == View.VISIBLE, false);
+      if (!hasAssertedMainThread) {
+        assertMainThread();
+        hasAssertedMainThread = true;
       }
+      final Drawable drawable = (Drawable) mMountItems.valueAt(i).getContent();
+      drawable.setVisible(visibility == View.VISIBLE, false);
     }
   }
 
@@ -1192,8 +1165,12 @@ public class ComponentHost extends Host implements DisappearingHost {
   public @Nullable List<Drawable> getLinkedDrawablesForAnimation() {
     List<Drawable> drawables = null;
 
-    for (int i = 0, size = mDrawableMountItems.size(); i < size; i++) {
-      final MountItem mountItem = mDrawableMountItems.valueAt(i);
+    for (int i = 0, size = mMountItems.size(); i < size; i++) {
+      if (mMountItems.typeAt(i) != ComponentHostMountItems.TYPE_DRAWABLE) {
+        continue;
+      }
+
+      final MountItem mountItem = mMountItems.valueAt(i);
       if ((getLayoutOutput(mountItem).getFlags() & LayoutOutput.LAYOUT_FLAG_MATCH_HOST_BOUNDS)
           != 0) {
         if (drawables == null) {
@@ -1216,10 +1193,11 @@ public class ComponentHost extends Host implements DisappearingHost {
     }
 
     int index = 0;
-    final int viewMountItemCount = mViewMountItems.size();
-    for (int i = 0; i < viewMountItemCount; i++) {
-      final View child = (View) mViewMountItems.valueAt(i).getContent();
-      mChildDrawingOrder[index++] = indexOfChild(child);
+    for (int i = 0, size = mMountItems.size(); i < size; i++) {
+      if (mMountItems.typeAt(i) == ComponentHostMountItems.TYPE_VIEW) {
+        final View child = (View) mMountItems.valueAt(i).getContent();
+        mChildDrawingOrder[index++] = indexOfChild(child);
+      }
     }
 
     // Draw disappearing items on top of mounted views.
@@ -1235,32 +1213,9 @@ public class ComponentHost extends Host implements DisappearingHost {
     mIsChildDrawingOrderDirty = false;
   }
 
-  private void ensureScrapViewMountItemsArray() {
-    if (mScrapViewMountItemsArray == null) {
-      mScrapViewMountItemsArray = new SparseArrayCompat<>(SCRAP_ARRAY_INITIAL_SIZE);
-    }
-  }
-
-  private void ensureScrapMountItemsArray() {
-    if (mScrapMountItemsArray == null) {
-      mScrapMountItemsArray = new SparseArrayCompat<>(SCRAP_ARRAY_INITIAL_SIZE);
-    }
-  }
-
-  private void releaseScrapDataStructuresIfNeeded() {
-    if (mScrapMountItemsArray != null && mScrapMountItemsArray.size() == 0) {
-      mScrapMountItemsArray = null;
-    }
-
-    if (mScrapViewMountItemsArray != null && mScrapViewMountItemsArray.size() == 0) {
-      mScrapViewMountItemsArray = null;
-    }
-  }
-
-  private void mountDrawable(int index, MountItem mountItem, Rect bounds) {
+  private void mountDrawable(MountItem mountItem, Rect bounds) {
     assertMainThread();
 
-    mDrawableMountItems.put(index, mountItem);
     final Drawable drawable = (Drawable) mountItem.getContent();
 
     final LayoutOutput output = getLayoutOutput(mountItem);
@@ -1279,33 +1234,6 @@ public class ComponentHost extends Host implements DisappearingHost {
 
     drawable.setCallback(null);
     invalidate(drawable.getBounds());
-
-    releaseScrapDataStructuresIfNeeded();
-  }
-
-  private void moveDrawableItem(MountItem item, int oldIndex, int newIndex) {
-    assertMainThread();
-
-    // When something is already present in newIndex position we need to keep track of it.
-    if (mDrawableMountItems.get(newIndex) != null) {
-      ensureScrapDrawableMountItemsArray();
-
-      ComponentHostUtils.scrapItemAt(newIndex, mDrawableMountItems, mScrapDrawableMountItems);
-    }
-
-    // Move the MountItem in the new position.
-    ComponentHostUtils.moveItem(oldIndex, newIndex, mDrawableMountItems, mScrapDrawableMountItems);
-
-    // Drawing order changed, invalidate the whole view.
-    this.invalidate();
-
-    releaseScrapDataStructuresIfNeeded();
-  }
-
-  private void ensureScrapDrawableMountItemsArray() {
-    if (mScrapDrawableMountItems == null) {
-      mScrapDrawableMountItems = new SparseArrayCompat<>(SCRAP_ARRAY_INITIAL_SIZE);
-    }
   }
 
   /**
@@ -1324,7 +1252,7 @@ public class ComponentHost extends Host implements DisappearingHost {
     private void start(Canvas canvas) {
       mCanvas = canvas;
       mDrawIndex = 0;
-      mItemsToDraw = mMountItems == null ? 0 : mMountItems.size();
+      mItemsToDraw = mMountItems.size();
     }
 
     private boolean isRunning() {
@@ -1336,22 +1264,20 @@ public class ComponentHost extends Host implements DisappearingHost {
         return;
       }
 
-      for (int i = mDrawIndex, size = (mMountItems == null) ? 0 : mMountItems.size();
-          i < size;
-          i++) {
-        final MountItem mountItem = mMountItems.valueAt(i);
-        final Object content = mountItem.getContent();
+      for (int i = mDrawIndex, size = mMountItems.size(); i < size; i++) {
+        final byte type = mMountItems.typeAt(i);
 
         // During a ViewGroup's dispatchDraw() call with children drawing order enabled,
         // getChildDrawingOrder() will be called before each child view is drawn. This
         // method will only draw the drawables "between" the child views and the let
         // the host draw its children as usual. This is why views are skipped here.
-        if (content instanceof View) {
+        if (type == ComponentHostMountItems.TYPE_VIEW) {
           mDrawIndex = i + 1;
           return;
         }
 
-        if (!mountItem.isBound()) {
+        final MountItem mountItem = mMountItems.valueAt(i);
+        if (type != ComponentHostMountItems.TYPE_DRAWABLE || !mountItem.isBound()) {
           continue;
         }
 
@@ -1359,7 +1285,7 @@ public class ComponentHost extends Host implements DisappearingHost {
         if (isTracing) {
           RenderCoreSystrace.beginSection("draw: " + getMountItemName(mountItem));
         }
-        ((Drawable) content).draw(mCanvas);
+        ((Drawable) mountItem.getContent()).draw(mCanvas);
         if (isTracing) {
           RenderCoreSystrace.endSection();
         }
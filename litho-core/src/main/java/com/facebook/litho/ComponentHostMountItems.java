@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import android.graphics.drawable.Drawable;
+import android.view.View;
+import androidx.annotation.Nullable;
+import com.facebook.rendercore.MountItem;
+
+/**
+ * The {@link MountItem}s mounted in a {@link ComponentHost}, ordered by their mount index. Every
+ * item is tagged with the type of its content, so that the views or the drawables of the host can
+ * be iterated in drawing order without keeping a separate collection for each of them.
+ *
+ * <p>While the host re-arranges its items, an item can be moved to an index which is still occupied
+ * by an item that is going to be moved or unmounted right after. The occupant is then displaced: it
+ * is not part of the ordered items anymore, but it can still be found by its index. The arrays
+ * backing both the ordered and the displaced items only grow, so moving items doesn't allocate.
+ */
+class ComponentHostMountItems {
+
+  static final byte TYPE_OTHER = 0;
+  static final byte TYPE_VIEW = 1;
+  static final byte TYPE_DRAWABLE = 2;
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int[] mIndices = new int[INITIAL_CAPACITY];
+  private MountItem[] mItems = new MountItem[INITIAL_CAPACITY];
+  private byte[] mTypes = new byte[INITIAL_CAPACITY];
+  private int mSize;
+
+  private @Nullable int[] mDisplacedIndices;
+  private @Nullable MountItem[] mDisplacedItems;
+  private @Nullable byte[] mDisplacedTypes;
+  private int mDisplacedSize;
+
+  /** @return the number of ordered items, displaced items are not counted. */
+  int size() {
+    return mSize;
+  }
+
+  /** @return the number of items which are currently displaced by a move. */
+  int displacedSize() {
+    return mDisplacedSize;
+  }
+
+  int indexAt(int position) {
+    return mIndices[position];
+  }
+
+  MountItem valueAt(int position) {
+    return mItems[position];
+  }
+
+  byte typeAt(int position) {
+    return mTypes[position];
+  }
+
+  /** @return the ordered item mounted at the given index, or null. */
+  @Nullable
+  MountItem get(int index) {
+    final int position = binarySearch(index);
+    return position >= 0 ? mItems[position] : null;
+  }
+
+  /** @return the displaced item which was mounted at the given index, or null. */
+  @Nullable
+  MountItem getDisplaced(int index) {
+    final int position = displacedPositionOf(index);
+    return position >= 0 ? mDisplacedItems[position] : null;
+  }
+
+  /**
+   * @return the index the given item is mounted at, looking at the displaced items if it isn't one
+   *     of the ordered ones, or -1.
+   */
+  int indexOf(MountItem item) {
+    for (int i = 0; i < mSize; i++) {
+      if (mItems[i] == item) {
+        return mIndices[i];
+      }
+    }
+
+    for (int i = 0; i < mDisplacedSize; i++) {
+      if (mDisplacedItems[i] == item) {
+        return mDisplacedIndices[i];
+      }
+    }
+
+    return -1;
+  }
+
+  /** Puts the given item at the given index, replacing the ordered item which was there. */
+  void put(int index, MountItem item) {
+    int position = binarySearch(index);
+    if (position < 0) {
+      position = ~position;
+      ensureCapacity(mSize + 1);
+      shift(position, mSize, 1);
+      mSize++;
+    }
+
+    mIndices[position] = index;
+    mItems[position] = item;
+    mTypes[position] = typeOf(item);
+  }
+
+  /**
+   * Removes the item at the given index. The displaced item is removed if there is one for that
+   * index, otherwise the ordered one is.
+   */
+  void remove(int index) {
+    final int displacedPosition = displacedPositionOf(index);
+    if (displacedPosition >= 0) {
+      removeDisplacedAt(displacedPosition);
+      return;
+    }
+
+    final int position = binarySearch(index);
+    if (position >= 0) {
+      shift(position + 1, mSize, -1);
+      mSize--;
+      mItems[mSize] = null;
+    }
+  }
+
+  /**
+   * Moves the item at oldIndex to newIndex. The item is taken from the displaced items if one was
+   * displaced from oldIndex, otherwise the ordered one is taken. If an ordered item is already at
+   * newIndex it is displaced.
+   */
+  void move(int oldIndex, int newIndex) {
+    final int occupantPosition = binarySearch(newIndex);
+    if (occupantPosition >= 0) {
+      displace(occupantPosition);
+    }
+
+    final int displacedPosition = displacedPositionOf(oldIndex);
+    if (displacedPosition >= 0) {
+      final MountItem item = mDisplacedItems[displacedPosition];
+      final byte type = mDisplacedTypes[displacedPosition];
+      removeDisplacedAt(displacedPosition);
+      insert(newIndex, item, type);
+      return;
+    }
+
+    final int oldPosition = binarySearch(oldIndex);
+    if (oldPosition < 0) {
+      return;
+    }
+
+    final MountItem item = mItems[oldPosition];
+    final byte type = mTypes[oldPosition];
+
+    // Shift the items between the old and the new position by one instead of removing and
+    // re-inserting the item, so that the arrays are only traversed once.
+    final int insertionPoint = ~binarySearch(newIndex);
+    final int newPosition;
+    if (insertionPoint > oldPosition) {
+      newPosition = insertionPoint - 1;
+      shift(oldPosition + 1, insertionPoint, -1);
+    } else {
+      newPosition = insertionPoint;
+      shift(insertionPoint, oldPosition, 1);
+    }
+
+    mIndices[newPosition] = newIndex;
+    mItems[newPosition] = item;
+    mTypes[newPosition] = type;
+  }
+
+  private void insert(int index, MountItem item, byte type) {
+    final int position = ~binarySearch(index);
+    ensureCapacity(mSize + 1);
+    shift(position, mSize, 1);
+    mSize++;
+
+    mIndices[position] = index;
+    mItems[position] = item;
+    mTypes[position] = type;
+  }
+
+  private void displace(int position) {
+    if (mDisplacedItems == null) {
+      mDisplacedIndices = new int[INITIAL_CAPACITY];
+      mDisplacedItems = new MountItem[INITIAL_CAPACITY];
+      mDisplacedTypes = new byte[INITIAL_CAPACITY];
+    } else if (mDisplacedSize == mDisplacedItems.length) {
+      final int newCapacity = mDisplacedSize * 2;
+      mDisplacedIndices = copyOf(mDisplacedIndices, newCapacity);
+      mDisplacedItems = copyOf(mDisplacedItems, newCapacity);
+      mDisplacedTypes = copyOf(mDisplacedTypes, newCapacity);
+    }
+
+    mDisplacedIndices[mDisplacedSize] = mIndices[position];
+    mDisplacedItems[mDisplacedSize] = mItems[position];
+    mDisplacedTypes[mDisplacedSize] = mTypes[position];
+    mDisplacedSize++;
+
+    shift(position + 1, mSize, -1);
+    mSize--;
+    mItems[mSize] = null;
+  }
+
+  private void removeDisplacedAt(int position) {
+    // The order of the displaced items doesn't matter, fill the gap with the last one.
+    final int last = mDisplacedSize - 1;
+    mDisplacedIndices[position] = mDisplacedIndices[last];
+    mDisplacedItems[position] = mDisplacedItems[last];
+    mDisplacedTypes[position] = mDisplacedTypes[last];
+    mDisplacedItems[last] = null;
+    mDisplacedSize = last;
+  }
+
+  private int displacedPositionOf(int index) {
+    for (int i = 0; i < mDisplacedSize; i++) {
+      if (mDisplacedIndices[i] == index) {
+        return i;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * @return the position of the ordered item at the given index if it exists, otherwise the
+   *     bitwise complement of the position it would be inserted at.
+   */
+  private int binarySearch(int index) {
+    int low = 0;
+    int high = mSize - 1;
+
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int midIndex = mIndices[mid];
+
+      if (midIndex < index) {
+        low = mid + 1;
+      } else if (midIndex > index) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+
+    return ~low;
+  }
+
+  /** Moves the entries in [from, to) by the given offset. */
+  private void shift(int from, int to, int offset) {
+    final int count = to - from;
+    if (count <= 0) {
+      return;
+    }
+
+    System.arraycopy(mIndices, from, mIndices, from + offset, count);
+    System.arraycopy(mItems, from, mItems, from + offset, count);
+    System.arraycopy(mTypes, from, mTypes, from + offset, count);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= mItems.length) {
+      return;
+    }
+
+    final int newCapacity = Math.max(capacity, mItems.length * 2);
+    mIndices = copyOf(mIndices, newCapacity);
+    mItems = copyOf(mItems, newCapacity);
+    mTypes = copyOf(mTypes, newCapacity);
+  }
+
+  private static byte typeOf(MountItem item) {
+    final Object content = item.getContent();
+    if (content instanceof View) {
+      return TYPE_VIEW;
+    } else if (content instanceof Drawable) {
+      return TYPE_DRAWABLE;
+    }
+
+    return TYPE_OTHER;
+  }
+
+  private static int[] copyOf(int[] array, int capacity) {
+    final int[] copy = new int[capacity];
+    System.arraycopy(array, 0, copy, 0, array.length);
+    return copy;
+  }
+
+  private static byte[] copyOf(byte[] array, int capacity) {
+    final byte[] copy = new byte[capacity];
+    System.arraycopy(array, 0, copy, 0, array.length);
+    return copy;
+  }
+
+  private static MountItem[] copyOf(MountItem[] array, int capacity) {
+    final MountItem[] copy = new MountItem[capacity];
+    System.arraycopy(array, 0, copy, 0, array.length);
+    return copy;
+  }
+}
@@ -20,7 +20,6 @@ import android.graphics.drawable.Drawable;
 import android.view.View;
 import androidx.annotation.Nullable;
 import androidx.collection.SparseArrayCompat;
-import com.facebook.rendercore.MountItem;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -98,7 +97,7 @@ class ComponentHostUtils {
     }
   }
 
-  static List<?> extractContent(SparseArrayCompat<MountItem> items) {
+  static List<?> extractContent(ComponentHostMountItems items) {
     final int size = items.size();
     if (size == 1) {
       return Collections.singletonList(items.valueAt(0).getContent());
@@ -364,8 +364,11 @@ public class ComponentTree implements LithoLifecycleListener {
   @GuardedBy("this")
   private @Nullable LayoutState mCommittedLayoutState;
 
-  @GuardedBy("this")
-  private @Nullable TreeState mTreeState;
+  // Written with the lock held. Volatile so that cached values can be read without the lock.
+  private volatile @Nullable TreeState mTreeState;
+
+  /** Async state updates not yet queued on {@link #mTreeState}, null if they're queued directly. */
+  private final @Nullable StateUpdateQueue mStateUpdateQueue;
 
   @ThreadConfined(ThreadConfined.UI)
   private @Nullable RenderState mPreviousRenderState;
@@ -425,6 +428,8 @@ public class ComponentTree implements LithoLifecycleListener {
 
   protected ComponentTree(Builder builder) {
     mComponentsConfiguration = builder.componentsConfiguration;
+    mStateUpdateQueue =
+        ComponentsConfiguration.useLockFreeStateUpdateQueue ? new StateUpdateQueue() : null;
 
     BatchedUpdatesConfiguration batchedUpdatesConfiguration =
         ComponentsConfiguration.sBatchedUpdatesConfiguration;
@@ -627,6 +632,24 @@ public class ComponentTree implements LithoLifecycleListener {
     mLayoutThreadHandler = ensureAndInstrumentLayoutThreadHandler(layoutThreadHandler);
   }
 
+  /**
+   * Removes the async layout calculation which was scheduled but didn't start yet, if any. A
+   * calculation which is already running isn't affected.
+   *
+   * @return whether a scheduled calculation was removed
+   */
+  public boolean cancelPendingAsyncLayout() {
+    synchronized (mCurrentCalculateLayoutRunnableLock) {
+      if (mCurrentCalculateLayoutRunnable == null) {
+        return false;
+      }
+
+      mLayoutThreadHandler.remove(mCurrentCalculateLayoutRunnable);
+      mCurrentCalculateLayoutRunnable = null;
+      return true;
+    }
+  }
+
   @VisibleForTesting
   public RunnableHandler getLayoutThreadHandler() {
     return mLayoutThreadHandler;
@@ -934,6 +957,18 @@ public class ComponentTree implements LithoLifecycleListener {
         || isCompatibleSpec(mCommittedLayoutState, widthSpec, heightSpec);
   }
 
+  /**
+   * @return whether the committed layout was computed for the current root and can be reused as is
+   *     for the given measure specs. The specs don't need to be the ones the layout was computed
+   *     with, they only need to be compatible with its measured size (see {@link
+   *     MeasureComparisonUtils#isMeasureSpecCompatible(int, int, int)}).
+   */
+  public synchronized boolean hasCompatibleLayoutForCurrentRoot(int widthSpec, int heightSpec) {
+    return mRoot != null
+        && isCompatibleComponentAndSpec(
+            mCommittedLayoutState, mRoot.getId(), widthSpec, heightSpec);
+  }
+
   @UiThread
   void mountComponent(@Nullable Rect currentVisibleArea, boolean processVisibilityOutputs) {
     assertMainThread();
@@ -962,6 +997,11 @@ public class ComponentTree implements LithoLifecycleListener {
     if (lithoViewRef == null) {
       return;
     }
+
+    if (layoutState.hasDeferredResults()) {
+      collectDeferredResults(layoutState, lithoViewRef, currentVisibleArea);
+    }
+
     final boolean isDirtyMount = lithoViewRef.isMountStateDirty();
 
     mIsMounting = true;
@@ -996,6 +1036,31 @@ public class ComponentTree implements LithoLifecycleListener {
     }
   }
 
+  /**
+   * Collects the results of the subtrees of the given layout which are about to become visible,
+   * if its results are collected lazily, and marks the mount state dirty if there are new outputs.
+   */
+  @UiThread
+  private void collectDeferredResults(
+      LayoutState layoutState, LithoView lithoView, @Nullable Rect currentVisibleArea) {
+    if (!layoutState.collectDeferredResults(currentVisibleArea)) {
+      return;
+    }
+
+    final @Nullable List<ScopedComponentInfo> scopedComponentInfos;
+    synchronized (this) {
+      scopedComponentInfos = layoutState.consumeScopedComponentInfos();
+      bindHandlesToComponentTree(this, layoutState);
+      dispatchOnAttached();
+    }
+
+    if (scopedComponentInfos != null) {
+      bindEventAndTriggerHandlers(scopedComponentInfos);
+    }
+
+    lithoView.setMountStateDirty();
+  }
+
   private void collectReentrantMount(ReentrantMount reentrantMount) {
     if (mReentrantMounts == null) {
       mReentrantMounts = new ArrayDeque<>();
@@ -1375,6 +1440,9 @@ public class ComponentTree implements LithoLifecycleListener {
   synchronized void resetState(
       long selectedRevision, Component root, TreeProps props, TreeState newTreeState) {
     ThreadUtils.assertMainThread();
+    if (mStateUpdateQueue != null) {
+      mStateUpdateQueue.clear();
+    }
     mTreeState = newTreeState;
     mRootTreeProps = props;
     final DebugComponentTimeMachine.TreeRevisions timeline = mTimeline;
@@ -1430,23 +1498,26 @@ public class ComponentTree implements LithoLifecycleListener {
     }
   }
 
+  /**
+   * @return the LayoutState that will be mounted next: the main thread LayoutState if there is one,
+   *     otherwise the committed one.
+   */
+  @ThreadSafe(enableChecks = false)
+  synchronized @Nullable LayoutState getLatestLayoutState() {
+    return mMainThreadLayoutState != null ? mMainThreadLayoutState : mCommittedLayoutState;
+  }
+
   /**
    * Pre-allocate the mount content of all MountSpec in this tree. Must be called after layout is
    * created.
    */
   @ThreadSafe(enableChecks = false)
   private void preAllocateMountContent(boolean shouldPreallocatePerMountSpec) {
-    final LayoutState toPrePopulate;
-
-    synchronized (this) {
-      if (mMainThreadLayoutState != null) {
-        toPrePopulate = mMainThreadLayoutState;
-      } else if (mCommittedLayoutState != null) {
-        toPrePopulate = mCommittedLayoutState;
-      } else {
-        return;
-      }
+    final LayoutState toPrePopulate = getLatestLayoutState();
+    if (toPrePopulate == null) {
+      return;
     }
+
     final ComponentsLogger logger = getContextLogger();
     final PerfEvent event =
         logger != null
@@ -1488,6 +1559,7 @@ public class ComponentTree implements LithoLifecycleListener {
     }
 
     if (mTreeState != null) {
+      drainStateUpdateQueue();
       mTreeState.queueStateUpdate(componentKey, stateUpdate, true, isNestedTree);
     }
   }
@@ -1523,6 +1595,7 @@ public class ComponentTree implements LithoLifecycleListener {
       }
 
       if (mTreeState != null) {
+        drainStateUpdateQueue();
         mTreeState.queueStateUpdate(componentKey, stateUpdate, false, isNestedTree);
       }
     }
@@ -1551,6 +1624,14 @@ public class ComponentTree implements LithoLifecycleListener {
               + "disabled, use sync state updates.");
     }
 
+    final @Nullable StateUpdateQueue stateUpdateQueue = mStateUpdateQueue;
+    if (stateUpdateQueue != null) {
+      stateUpdateQueue.enqueueStateUpdate(componentKey, stateUpdate, isNestedTree);
+      LithoStats.incrementComponentStateUpdateAsyncCount();
+      onAsyncStateUpdateEnqueued(attribution, isCreateLayoutInProgress);
+      return;
+    }
+
     synchronized (this) {
       if (mRoot == null) {
         return;
@@ -1577,6 +1658,7 @@ public class ComponentTree implements LithoLifecycleListener {
       }
 
       if (mTreeState != null) {
+        drainStateUpdateQueue();
         mTreeState.queueHookStateUpdate(globalKey, updater, isNestedTree);
       }
     }
@@ -1590,6 +1672,14 @@ public class ComponentTree implements LithoLifecycleListener {
       String attribution,
       boolean isCreateLayoutInProgress,
       boolean isNestedTree) {
+    final @Nullable StateUpdateQueue stateUpdateQueue = mStateUpdateQueue;
+    if (stateUpdateQueue != null) {
+      stateUpdateQueue.enqueueHookStateUpdate(globalKey, updater, isNestedTree);
+      LithoStats.incrementComponentStateUpdateAsyncCount();
+      onAsyncStateUpdateEnqueued(attribution, isCreateLayoutInProgress);
+      return;
+    }
+
     synchronized (this) {
       if (mRoot == null) {
         return;
@@ -1604,6 +1694,25 @@ public class ComponentTree implements LithoLifecycleListener {
     onAsyncStateUpdateEnqueued(attribution, isCreateLayoutInProgress);
   }
 
+  /**
+   * Queues the async state updates enqueued on {@link #mStateUpdateQueue} on the TreeState, which
+   * must be done before its pending state updates are read or new updates are queued on it.
+   */
+  @GuardedBy("this")
+  private void drainStateUpdateQueue() {
+    final @Nullable StateUpdateQueue stateUpdateQueue = mStateUpdateQueue;
+    if (stateUpdateQueue == null || stateUpdateQueue.isEmpty()) {
+      return;
+    }
+
+    if (mRoot == null || mTreeState == null) {
+      // Updates enqueued while there's no root are dropped, as they would be without the queue.
+      stateUpdateQueue.clear();
+    } else {
+      stateUpdateQueue.drainTo(mTreeState);
+    }
+  }
+
   private void onAsyncStateUpdateEnqueued(String attribution, boolean isCreateLayoutInProgress) {
     if (mBatchedStateUpdatesStrategy == null
         || !mBatchedStateUpdatesStrategy.onAsyncStateUpdateEnqueued(isCreateLayoutInProgress)) {
@@ -1662,6 +1771,12 @@ public class ComponentTree implements LithoLifecycleListener {
     final @Nullable TreeProps rootTreeProps;
 
     synchronized (this) {
+      // With the StateUpdateQueue, a flush is only posted when none is pending: the strategy is
+      // notified even without a root, so that it doesn't keep waiting for a pending flush.
+      if (mStateUpdateQueue != null && mBatchedStateUpdatesStrategy != null) {
+        mBatchedStateUpdatesStrategy.onInternalStateUpdateStart();
+      }
+
       if (mRoot == null) {
         return;
       }
@@ -1672,7 +1787,7 @@ public class ComponentTree implements LithoLifecycleListener {
         logStateUpdatesFromCreateLayout(attribution);
       }
 
-      if (mBatchedStateUpdatesStrategy != null) {
+      if (mStateUpdateQueue == null && mBatchedStateUpdatesStrategy != null) {
         mBatchedStateUpdatesStrategy.onInternalStateUpdateStart();
       }
     }
@@ -1968,6 +2083,7 @@ public class ComponentTree implements LithoLifecycleListener {
    * @return a copy of tree state instance help by ComponentTree
    */
   public synchronized TreeState acquireTreeState() {
+    drainStateUpdateQueue();
     return mTreeState == null ? new TreeState() : new TreeState(mTreeState);
   }
 
@@ -2174,6 +2290,7 @@ public class ComponentTree implements LithoLifecycleListener {
         mExternalRootVersion = externalRootVersion;
       }
 
+      drainStateUpdateQueue();
       if (root != null) {
         if ((mTreeState != null && mTreeState.hasUncommittedUpdates())) {
           root = root.makeShallowCopyWithNewId();
@@ -2196,6 +2313,10 @@ public class ComponentTree implements LithoLifecycleListener {
               resolvedRoot.getId(), resolvedWidthSpec, resolvedHeightSpec)) {
         // The spec and the root haven't changed and we have a compatible LayoutState already
         // committed
+        if (!mostRecentLayoutState.hasSizeSpecs(resolvedWidthSpec, resolvedHeightSpec)) {
+          LithoStats.incrementComponentCompatibleSpecLayoutReuseCount();
+        }
+
         if (output != null) {
           output.height = mostRecentLayoutState.getHeight();
           output.width = mostRecentLayoutState.getWidth();
@@ -2485,8 +2606,7 @@ public class ComponentTree implements LithoLifecycleListener {
         final ComponentContext scopedContext = scopedComponentInfo.getContext();
         final Component component = scopedComponentInfo.getComponent();
         if (component instanceof SpecGeneratedComponent) {
-          mEventHandlersController.bindEventHandlers(
-              scopedContext, component, scopedContext.getGlobalKey());
+          mEventHandlersController.bindEventHandlers(scopedComponentInfo);
           ((SpecGeneratedComponent) component)
               .recordEventTrigger(scopedContext, mEventTriggersContainer);
         }
@@ -2599,6 +2719,9 @@ public class ComponentTree implements LithoLifecycleListener {
       mMainThreadLayoutState = null;
       mCommittedLayoutState = null;
       mTreeState = null;
+      if (mStateUpdateQueue != null) {
+        mStateUpdateQueue.clear();
+      }
       mPreviousRenderState = null;
       mMeasureListeners = null;
     }
@@ -2659,6 +2782,23 @@ public class ComponentTree implements LithoLifecycleListener {
     mTreeState.putCachedValue(cachedValueInputs, cachedValue, isNestedTree);
   }
 
+  @Nullable
+  Object getCachedValueEntry(String globalKey, String cachedValueName, boolean isNestedTree) {
+    // The TreeState is only replaced when the tree is released or reset to an earlier state.
+    final @Nullable TreeState treeState = mTreeState;
+    return treeState != null
+        ? treeState.getCachedValueEntry(globalKey, cachedValueName, isNestedTree)
+        : null;
+  }
+
+  void putCachedValueEntry(
+      String globalKey, String cachedValueName, Object entry, boolean isNestedTree) {
+    final @Nullable TreeState treeState = mTreeState;
+    if (treeState != null) {
+      treeState.putCachedValueEntry(globalKey, cachedValueName, entry, isNestedTree);
+    }
+  }
+
   public static synchronized Looper getDefaultLayoutThreadLooper() {
     if (sDefaultLayoutThreadLooper == null) {
       final HandlerThread defaultThread =
@@ -2965,6 +3105,7 @@ public class ComponentTree implements LithoLifecycleListener {
 
       final TreeState treeState;
       synchronized (ComponentTree.this) {
+        drainStateUpdateQueue();
         treeState =
             ComponentTree.this.mTreeState == null
                 ? new TreeState()
@@ -3661,6 +3802,13 @@ public class ComponentTree implements LithoLifecycleListener {
     private final Object mUpdateStateAsyncRunnableLock = new Object();
     private final String mTag;
 
+    /**
+     * The runnable posted to flush the updates of the {@link StateUpdateQueue}, if any. Updates
+     * enqueued while it's pending are flushed by it, as it removes itself before they are read.
+     */
+    private final AtomicReference<FlushAsyncStateUpdatesRunnable> mPendingQueueFlushRunnable =
+        new AtomicReference<>();
+
     PostStateUpdateToFrontOfMainThread() {
       this("FrontOfMainThread");
     }
@@ -3674,6 +3822,11 @@ public class ComponentTree implements LithoLifecycleListener {
 
     @Override
     public boolean onAsyncStateUpdateEnqueued(boolean isCreateLayoutInProgress) {
+      if (mStateUpdateQueue != null) {
+        postQueueFlushIfNotPending(isCreateLayoutInProgress);
+        return true;
+      }
+
       synchronized (mUpdateStateAsyncRunnableLock) {
         if (mFlushAsyncStateUpdatesRunnable != null) {
           mMainThreadHandler.remove(mFlushAsyncStateUpdatesRunnable);
@@ -3695,6 +3848,30 @@ public class ComponentTree implements LithoLifecycleListener {
       return true;
     }
 
+    /** Lock-free version of {@link #onAsyncStateUpdateEnqueued} used with the StateUpdateQueue. */
+    private void postQueueFlushIfNotPending(boolean isCreateLayoutInProgress) {
+      if (mPendingQueueFlushRunnable.get() != null) {
+        return;
+      }
+
+      final FlushAsyncStateUpdatesRunnable flushAsyncStateUpdatesRunnable =
+          new FlushAsyncStateUpdatesRunnable(mTag, isCreateLayoutInProgress);
+      if (!mPendingQueueFlushRunnable.compareAndSet(null, flushAsyncStateUpdatesRunnable)) {
+        // Another thread posted a runnable meanwhile.
+        return;
+      }
+
+      String tag = EMPTY_STRING;
+      if (mMainThreadHandler.isTracing()) {
+        tag = "updateStateAsync " + mTag;
+        final @Nullable Component root = mRoot;
+        if (root != null) {
+          tag = tag + root.getSimpleName();
+        }
+      }
+      mMainThreadHandler.postAtFront(flushAsyncStateUpdatesRunnable, tag);
+    }
+
     @Override
     public void onInternalStateUpdateStart() {
       removePendingRunnable();
@@ -3716,6 +3893,15 @@ public class ComponentTree implements LithoLifecycleListener {
     }
 
     private void removePendingRunnable() {
+      if (mStateUpdateQueue != null) {
+        final @Nullable FlushAsyncStateUpdatesRunnable flushAsyncStateUpdatesRunnable =
+            mPendingQueueFlushRunnable.getAndSet(null);
+        if (flushAsyncStateUpdatesRunnable != null) {
+          mMainThreadHandler.remove(flushAsyncStateUpdatesRunnable);
+        }
+        return;
+      }
+
       synchronized (mUpdateStateAsyncRunnableLock) {
         if (mFlushAsyncStateUpdatesRunnable != null) {
           mMainThreadHandler.remove(mFlushAsyncStateUpdatesRunnable);
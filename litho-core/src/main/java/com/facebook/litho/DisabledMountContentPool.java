@@ -52,4 +52,10 @@ public class DisabledMountContentPool implements MountContentPool {
   public int getCurrentSize() {
     return 0;
   }
+
+  /** Nothing is ever pooled, so there's no pooled count which preallocation could fill up. */
+  @Override
+  public int getPooledItemCount() {
+    return -1;
+  }
 }
@@ -22,11 +22,14 @@ import android.util.SparseArray;
 import android.view.View;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
+import com.facebook.litho.choreographercompat.ChoreographerCompat;
+import com.facebook.litho.choreographercompat.ChoreographerCompatImpl;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.rendercore.MountState;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Takes care of dynamic Props
@@ -40,6 +43,11 @@ import java.util.Set;
  * keeps the mounted content the Components is rendered into in sync with {@link
  * DynamicValue#mValue} until the Component gets unbound, at which point, the DynamicPropsManager
  * unsubscribes from the DynamicValues.
+ *
+ * <p>When {@link ComponentsConfiguration#coalesceDynamicValueUpdatesPerFrame} is on, a changed
+ * DynamicValue is only marked dirty, and the latest value of every dirty DynamicValue is bound to
+ * the content once, in the next frame. This avoids redundant binds and invalidations when a value
+ * is set several times per frame, e.g. by a scroll listener.
  */
 public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
   public static final int KEY_ALPHA = 1;
@@ -53,10 +61,34 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
   public static final int KEY_BACKGROUND_DRAWABLE = 9;
   public static final int KEY_FOREGROUND_COLOR = 10;
 
-  private final Map<DynamicValue<?>, Set<Component>> mDependentComponents = new HashMap<>();
-  private final Map<Component, Set<DynamicValue<?>>> mAffectingDynamicValues = new HashMap<>();
+  private static final DynamicValue<?>[] EMPTY_DYNAMIC_VALUES = new DynamicValue<?>[0];
+
+  private final Map<DynamicValue<?>, DependentComponents> mDependentComponents = new HashMap<>();
+  private final Map<Component, DynamicValue<?>[]> mAffectingDynamicValues = new HashMap<>();
   private final Map<Component, Object> mContents = new HashMap<>();
 
+  private final boolean mCoalesceUpdatesPerFrame;
+  private DynamicValue<?>[] mDirtyValues = EMPTY_DYNAMIC_VALUES;
+  private int mDirtyValuesCount;
+  private boolean mIsFrameCallbackPosted;
+
+  private final ChoreographerCompat.FrameCallback mFrameCallback =
+      new ChoreographerCompat.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          applyDirtyValues();
+        }
+      };
+
+  public DynamicPropsManager() {
+    this(ComponentsConfiguration.coalesceDynamicValueUpdatesPerFrame);
+  }
+
+  @VisibleForTesting
+  DynamicPropsManager(boolean coalesceUpdatesPerFrame) {
+    mCoalesceUpdatesPerFrame = coalesceUpdatesPerFrame;
+  }
+
   void onBindComponentToContent(
       final Component component,
       final @Nullable ComponentContext scopedContext,
@@ -68,11 +100,15 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
       return;
     }
 
-    final Set<DynamicValue<?>> dynamicValues = new HashSet<>();
-
-    if (hasCommonDynamicPropsToBind) {
-      final SparseArray<DynamicValue<?>> commonDynamicProps = component.getCommonDynamicProps();
+    final SparseArray<DynamicValue<?>> commonDynamicProps =
+        hasCommonDynamicPropsToBind ? component.getCommonDynamicProps() : null;
+    final DynamicValue[] dynamicProps = component.getDynamicProps();
+    final int maxDynamicValuesCount =
+        (commonDynamicProps != null ? commonDynamicProps.size() : 0) + dynamicProps.length;
+    final DynamicValue<?>[] dynamicValues = new DynamicValue<?>[maxDynamicValuesCount];
+    int dynamicValuesCount = 0;
 
+    if (commonDynamicProps != null) {
       // Go through all common dynamic props
       for (int i = 0; i < commonDynamicProps.size(); i++) {
         final int key = commonDynamicProps.keyAt(i);
@@ -80,12 +116,10 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
 
         bindCommonDynamicProp(key, value, (View) content);
 
-        addDependentComponentAndSubscribeIfNeeded(value, component);
-        dynamicValues.add(value);
+        dynamicValuesCount = addDynamicValue(dynamicValues, dynamicValuesCount, value, component);
       }
     }
 
-    final DynamicValue[] dynamicProps = component.getDynamicProps();
     // Go through all the other dynamic props
     for (int i = 0; i < dynamicProps.length; i++) {
       final @Nullable DynamicValue<?> value = dynamicProps[i];
@@ -94,8 +128,7 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
         ((SpecGeneratedComponent) component)
             .bindDynamicProp(i, value != null ? value.get() : null, content);
 
-        addDependentComponentAndSubscribeIfNeeded(value, component);
-        dynamicValues.add(value);
+        dynamicValuesCount = addDynamicValue(dynamicValues, dynamicValuesCount, value, component);
       } catch (Exception e) {
         if (scopedContext != null) {
           ComponentUtils.handle(scopedContext, e);
@@ -105,10 +138,39 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
       }
     }
 
-    mAffectingDynamicValues.put(component, dynamicValues);
+    mAffectingDynamicValues.put(
+        component,
+        dynamicValuesCount == dynamicValues.length
+            ? dynamicValues
+            : Arrays.copyOf(dynamicValues, dynamicValuesCount));
     mContents.put(component, content);
   }
 
+  /**
+   * Adds the value to the values affecting the component, unless it is null or already one of them.
+   *
+   * @return the new number of values affecting the component.
+   */
+  private int addDynamicValue(
+      final DynamicValue<?>[] dynamicValues,
+      final int count,
+      final @Nullable DynamicValue<?> value,
+      final Component component) {
+    if (value == null) {
+      return count;
+    }
+
+    for (int i = 0; i < count; i++) {
+      if (dynamicValues[i] == value) {
+        return count;
+      }
+    }
+
+    addDependentComponentAndSubscribeIfNeeded(value, component);
+    dynamicValues[count] = value;
+    return count + 1;
+  }
+
   void onUnbindComponent(Component component, Object content) {
     if (!hasCommonDynamicPropsToBind(component, content)
         && component.getDynamicProps().length == 0) {
@@ -117,7 +179,7 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
 
     mContents.remove(component);
 
-    final Set<DynamicValue<?>> dynamicValues = mAffectingDynamicValues.get(component);
+    final DynamicValue<?>[] dynamicValues = mAffectingDynamicValues.get(component);
     if (dynamicValues == null) {
       return;
     }
@@ -172,14 +234,11 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
   }
 
   private void addDependentComponentAndSubscribeIfNeeded(
-      @Nullable DynamicValue<?> value, Component component) {
-    if (value == null) {
-      return;
-    }
-    Set<Component> dependentComponents = mDependentComponents.get(value);
+      DynamicValue<?> value, Component component) {
+    DependentComponents dependentComponents = mDependentComponents.get(value);
 
     if (dependentComponents == null) {
-      dependentComponents = new HashSet<>();
+      dependentComponents = new DependentComponents();
       mDependentComponents.put(value, dependentComponents);
 
       value.attachListener(this);
@@ -193,7 +252,7 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
     if (value == null) {
       return;
     }
-    final Set<Component> dependentComponents = mDependentComponents.get(value);
+    final DependentComponents dependentComponents = mDependentComponents.get(value);
     if (dependentComponents == null) {
       return;
     }
@@ -259,15 +318,70 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
 
   @Override
   public void onValueChange(DynamicValue value) {
-    final Set<Component> dependentComponents = mDependentComponents.get(value);
+    final DependentComponents dependentComponents = mDependentComponents.get(value);
     if (dependentComponents == null) {
       return;
     }
 
+    if (!mCoalesceUpdatesPerFrame) {
+      applyValueChange(value, dependentComponents);
+      return;
+    }
+
+    if (dependentComponents.mIsDirty) {
+      LithoStats.incrementDynamicValueCoalescedUpdateCount();
+      return;
+    }
+
+    dependentComponents.mIsDirty = true;
+    if (mDirtyValuesCount == mDirtyValues.length) {
+      mDirtyValues = Arrays.copyOf(mDirtyValues, Math.max(4, mDirtyValuesCount * 2));
+    }
+    mDirtyValues[mDirtyValuesCount++] = value;
+
+    if (!mIsFrameCallbackPosted) {
+      mIsFrameCallbackPosted = true;
+      ChoreographerCompatImpl.getInstance().postFrameCallback(mFrameCallback);
+    }
+  }
+
+  /**
+   * Binds the latest value of the DynamicValues marked dirty since the last frame. Values which
+   * change while they are being applied are left for the next frame.
+   */
+  @VisibleForTesting
+  void applyDirtyValues() {
+    mIsFrameCallbackPosted = false;
+
+    final int count = mDirtyValuesCount;
+    for (int i = 0; i < count; i++) {
+      final DynamicValue<?> value = mDirtyValues[i];
+      mDirtyValues[i] = null;
+
+      // The value may have been unsubscribed from since it was marked dirty.
+      final DependentComponents dependentComponents = mDependentComponents.get(value);
+      if (dependentComponents != null && dependentComponents.mIsDirty) {
+        dependentComponents.mIsDirty = false;
+        LithoStats.incrementDynamicValueFrameUpdateCount();
+        applyValueChange(value, dependentComponents);
+      }
+    }
+
+    final int remaining = mDirtyValuesCount - count;
+    System.arraycopy(mDirtyValues, count, mDirtyValues, 0, remaining);
+    Arrays.fill(mDirtyValues, remaining, mDirtyValuesCount, null);
+    mDirtyValuesCount = remaining;
+
+    if (remaining > 0) {
+      mIsFrameCallbackPosted = true;
+      ChoreographerCompatImpl.getInstance().postFrameCallback(mFrameCallback);
+    }
+  }
+
+  private void applyValueChange(DynamicValue value, DependentComponents dependentComponents) {
     // It's possible that applying a dynamic prop could bind or unbind a component - snapshot the
     // components here to prevent a ConcurrentModificationException during iteration
-    Component[] dependentComponentSnapshot =
-        dependentComponents.toArray(new Component[dependentComponents.size()]);
+    final Component[] dependentComponentSnapshot = dependentComponents.toArray();
     for (Component component : dependentComponentSnapshot) {
       final Object content = mContents.get(component);
       if (content == null) {
@@ -310,4 +424,43 @@ public class DynamicPropsManager implements DynamicValue.OnValueChangeListener {
   boolean hasCachedContent(Component component) {
     return mContents.containsKey(component);
   }
+
+  /** The components bound to the content with a DynamicValue, in an array that only grows. */
+  private static final class DependentComponents {
+
+    private Component[] mComponents = new Component[2];
+    private int mSize;
+    private boolean mIsDirty;
+
+    void add(Component component) {
+      for (int i = 0; i < mSize; i++) {
+        if (mComponents[i] == component) {
+          return;
+        }
+      }
+
+      if (mSize == mComponents.length) {
+        mComponents = Arrays.copyOf(mComponents, mSize * 2);
+      }
+      mComponents[mSize++] = component;
+    }
+
+    void remove(Component component) {
+      for (int i = 0; i < mSize; i++) {
+        if (mComponents[i] == component) {
+          System.arraycopy(mComponents, i + 1, mComponents, i, mSize - i - 1);
+          mComponents[--mSize] = null;
+          return;
+        }
+      }
+    }
+
+    boolean isEmpty() {
+      return mSize == 0;
+    }
+
+    Component[] toArray() {
+      return Arrays.copyOf(mComponents, mSize);
+    }
+  }
 }
@@ -21,15 +21,46 @@ import androidx.annotation.VisibleForTesting;
 import androidx.collection.SparseArrayCompat;
 import com.facebook.infer.annotation.ThreadSafe;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
-/** Manages the mapping of event handlers to dispatchers. */
+/**
+ * Manages the mapping of event handlers to dispatchers.
+ *
+ * <p>Besides being keyed by global key, every {@link EventHandlersWrapper} gets a stable integer id
+ * and is stored in a dense array, so that after a layout the wrappers can be cleared without
+ * hashing, and components which were already looked up (see {@link
+ * #bindEventHandlers(ScopedComponentInfo)}) can be rebound without hashing their global key.
+ */
 @ThreadSafe
 public class EventHandlersController {
 
+  static final int NO_WRAPPER_ID = -1;
+
+  private static final int INITIAL_WRAPPERS_CAPACITY = 8;
+
+  /**
+   * Source of versions unique across all controllers, so that a cached lookup miss recorded against
+   * one controller is never mistaken for a miss in another one.
+   */
+  private static final AtomicInteger sVersionGenerator = new AtomicInteger();
+
   private final Map<String, EventHandlersWrapper> mEventHandlers = new HashMap<>();
 
+  /** Wrappers indexed by id, null for unused ids. */
+  private EventHandlersWrapper[] mWrappersById =
+      new EventHandlersWrapper[INITIAL_WRAPPERS_CAPACITY];
+
+  private int mWrappersCount;
+
+  /** Ids released by {@link #clearUnusedEventHandlers()} which can be given to new wrappers. */
+  private int[] mFreeIds = new int[INITIAL_WRAPPERS_CAPACITY];
+
+  private int mFreeIdsCount;
+
+  /** Changes every time a wrapper is added, which invalidates all cached lookup misses. */
+  private int mVersion = sVersionGenerator.incrementAndGet();
+
   /**
    * Update all the known event handlers for a dispatcher with the given key with the new dispatcher
    * instance.
@@ -46,19 +77,61 @@ public class EventHandlersController {
       return;
     }
 
-    // Mark that the list of event handlers for this component is still needed.
-    eventHandlers.mUsedInCurrentTree = true;
     eventHandlers.bindAllToDispatcher(dispatcher, c);
   }
 
+  /**
+   * Same as {@link #bindEventHandlers(ComponentContext, HasEventDispatcher, String)} for the
+   * component of the given {@link ScopedComponentInfo}. The result of the global key lookup is
+   * cached on the ScopedComponentInfo, so binding it again after a later layout (e.g. because its
+   * subtree was reused) is O(1), and handlers already bound to the same component aren't touched.
+   */
+  synchronized void bindEventHandlers(ScopedComponentInfo scopedComponentInfo) {
+    final ComponentContext c = scopedComponentInfo.getContext();
+    final String globalKey = c.getGlobalKey();
+    if (globalKey == null) {
+      return;
+    }
+
+    EventHandlersWrapper eventHandlers = null;
+    final int cachedId = scopedComponentInfo.getEventHandlersWrapperId();
+    if (cachedId != NO_WRAPPER_ID) {
+      if (cachedId < mWrappersCount) {
+        final EventHandlersWrapper cached = mWrappersById[cachedId];
+        if (cached != null && cached.mGlobalKey.equals(globalKey)) {
+          eventHandlers = cached;
+        }
+      }
+    } else if (scopedComponentInfo.getEventHandlersLookupVersion() == mVersion) {
+      // Nothing was recorded for any key since we last found no handlers for this component.
+      return;
+    }
+
+    if (eventHandlers == null) {
+      eventHandlers = mEventHandlers.get(globalKey);
+      if (eventHandlers == null) {
+        scopedComponentInfo.setEventHandlersLookupResult(NO_WRAPPER_ID, mVersion);
+        return;
+      }
+      scopedComponentInfo.setEventHandlersLookupResult(eventHandlers.mId, mVersion);
+    }
+
+    eventHandlers.bindAllToDispatcher(scopedComponentInfo.getComponent(), c);
+  }
+
   /** Remove entries for dispatchers that are no longer present in the tree. */
   public synchronized void clearUnusedEventHandlers() {
-    final Iterator<String> iterator = mEventHandlers.keySet().iterator();
-    while (iterator.hasNext()) {
-      final EventHandlersWrapper eventHandlersWrapper = mEventHandlers.get(iterator.next());
+    for (int id = 0; id < mWrappersCount; id++) {
+      final EventHandlersWrapper eventHandlersWrapper = mWrappersById[id];
+
+      if (eventHandlersWrapper == null) {
+        continue;
+      }
 
-      if (eventHandlersWrapper == null || !eventHandlersWrapper.mUsedInCurrentTree) {
-        iterator.remove();
+      if (!eventHandlersWrapper.mUsedInCurrentTree) {
+        mEventHandlers.remove(eventHandlersWrapper.mGlobalKey);
+        mWrappersById[id] = null;
+        releaseId(id);
       } else {
         eventHandlersWrapper.mUsedInCurrentTree = false;
       }
@@ -75,8 +148,10 @@ public class EventHandlersController {
     EventHandler<?> prevEventHandler = null;
 
     if (eventHandlersForKey == null) {
-      eventHandlersForKey = new EventHandlersWrapper();
+      eventHandlersForKey = new EventHandlersWrapper(globalKey, acquireId());
       mEventHandlers.put(globalKey, eventHandlersForKey);
+      mWrappersById[eventHandlersForKey.mId] = eventHandlersForKey;
+      mVersion = sVersionGenerator.incrementAndGet();
     } else {
       prevEventHandler = eventHandlersForKey.getEventHandlers().get(eventHandler.id);
     }
@@ -86,6 +161,30 @@ public class EventHandlersController {
     }
   }
 
+  private int acquireId() {
+    if (mFreeIdsCount > 0) {
+      return mFreeIds[--mFreeIdsCount];
+    }
+
+    if (mWrappersCount == mWrappersById.length) {
+      final EventHandlersWrapper[] wrappers = new EventHandlersWrapper[mWrappersCount * 2];
+      System.arraycopy(mWrappersById, 0, wrappers, 0, mWrappersCount);
+      mWrappersById = wrappers;
+    }
+
+    return mWrappersCount++;
+  }
+
+  private void releaseId(int id) {
+    if (mFreeIdsCount == mFreeIds.length) {
+      final int[] freeIds = new int[mFreeIdsCount * 2];
+      System.arraycopy(mFreeIds, 0, freeIds, 0, mFreeIdsCount);
+      mFreeIds = freeIds;
+    }
+
+    mFreeIds[mFreeIdsCount++] = id;
+  }
+
   private static void bindEventHandlerToDispatcher(
       EventHandler<?> eventHandler, HasEventDispatcher dispatcher, @Nullable ComponentContext c) {
     eventHandler.dispatchInfo.hasEventDispatcher = dispatcher;
@@ -102,18 +201,42 @@ public class EventHandlersController {
   public static class EventHandlersWrapper {
 
     private final SparseArrayCompat<EventHandler<?>> mEventHandlers = new SparseArrayCompat<>();
+    private final String mGlobalKey;
+    private final int mId;
+
+    private @Nullable HasEventDispatcher mBoundDispatcher;
+    private @Nullable ComponentContext mBoundContext;
+    private boolean mHasUnboundEventHandlers;
 
     boolean mUsedInCurrentTree;
 
+    EventHandlersWrapper(String globalKey, int id) {
+      mGlobalKey = globalKey;
+      mId = id;
+    }
+
     void addEventHandler(EventHandler<?> eventHandler) {
       mEventHandlers.put(eventHandler.id, eventHandler);
+      mHasUnboundEventHandlers = true;
     }
 
     void bindAllToDispatcher(HasEventDispatcher dispatcher, ComponentContext c) {
+      // Mark that the list of event handlers for this component is still needed.
+      mUsedInCurrentTree = true;
+
+      if (!mHasUnboundEventHandlers && mBoundDispatcher == dispatcher && mBoundContext == c) {
+        // All the handlers already point to this dispatcher.
+        return;
+      }
+
       for (int i = 0, size = mEventHandlers.size(); i < size; i++) {
         final EventHandler<?> eventHandler = mEventHandlers.valueAt(i);
         bindEventHandlerToDispatcher(eventHandler, dispatcher, c);
       }
+
+      mBoundDispatcher = dispatcher;
+      mBoundContext = c;
+      mHasUnboundEventHandlers = false;
     }
 
     @VisibleForTesting
@@ -34,6 +34,7 @@ import androidx.annotation.Nullable;
 import androidx.core.util.Preconditions;
 import com.facebook.infer.annotation.Nullsafe;
 import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.rendercore.RenderCoreSystrace;
 import com.facebook.rendercore.RenderState.LayoutContext;
 import com.facebook.yoga.YogaConstants;
@@ -424,6 +425,16 @@ class Layout {
       return currentLayout;
     }
 
+    // 1.b Yoga may measure the holder several times with different size specs in a single pass,
+    // check if a tree resolved for earlier specs is compatible with these ones.
+    if (isLayoutSpecWithSizeSpec(component)) {
+      final @Nullable LithoLayoutResult memoizedLayout =
+          holderResult.getMemoizedNestedResult(widthSpec, heightSpec);
+      if (memoizedLayout != null) {
+        return memoizedLayout;
+      }
+    }
+
     // 2. Check if cached layout result is compatible and can be reused or not.
     final @Nullable LithoLayoutResult cachedLayout =
         consumeCachedLayout(layoutStateContext, node, holderResult, widthSpec, heightSpec);
@@ -468,6 +479,7 @@ class Layout {
     }
 
     // 4.b Create a new layout.
+    LithoStats.incrementComponentNestedTreeResolveCount();
     final @Nullable LithoNode newNode =
         create(
             layoutStateContext.getRenderStateContext(),
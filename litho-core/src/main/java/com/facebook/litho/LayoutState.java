@@ -32,6 +32,7 @@ import static com.facebook.litho.SizeSpec.EXACTLY;
 import static com.facebook.rendercore.MountState.ROOT_HOST_ID;
 import static com.facebook.rendercore.utils.MeasureSpecUtils.exactly;
 
+import android.content.Context;
 import android.graphics.Rect;
 import android.text.TextUtils;
 import android.view.accessibility.AccessibilityManager;
@@ -41,11 +42,13 @@ import androidx.annotation.VisibleForTesting;
 import androidx.collection.LongSparseArray;
 import androidx.core.util.Preconditions;
 import com.facebook.infer.annotation.Nullsafe;
+import com.facebook.infer.annotation.ThreadConfined;
 import com.facebook.infer.annotation.ThreadSafe;
 import com.facebook.litho.ComponentTree.LayoutStateFuture;
 import com.facebook.litho.EndToEndTestingExtension.EndToEndTestingExtensionInput;
 import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.stats.LithoStats;
+import com.facebook.rendercore.ContentAllocator;
 import com.facebook.rendercore.MeasureResult;
 import com.facebook.rendercore.MountItemsPool;
 import com.facebook.rendercore.MountState;
@@ -53,6 +56,7 @@ import com.facebook.rendercore.RenderCoreSystrace;
 import com.facebook.rendercore.RenderState;
 import com.facebook.rendercore.RenderTree;
 import com.facebook.rendercore.RenderTreeNode;
+import com.facebook.rendercore.RenderUnit;
 import com.facebook.rendercore.incrementalmount.IncrementalMountExtensionInput;
 import com.facebook.rendercore.incrementalmount.IncrementalMountOutput;
 import com.facebook.rendercore.incrementalmount.IncrementalMountRenderCoreExtension;
@@ -62,8 +66,8 @@ import com.facebook.rendercore.visibility.VisibilityExtensionInput;
 import com.facebook.rendercore.visibility.VisibilityOutput;
 import com.facebook.yoga.YogaEdge;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -122,6 +126,19 @@ public class LayoutState
   private static final AtomicInteger sIdGenerator = new AtomicInteger(1);
   private static final int NO_PREVIOUS_LAYOUT_STATE_ID = -1;
 
+  // The number of screens of content whose results are collected eagerly when collecting results
+  // lazily; and the number of screens below the visible rect whose results are collected ahead.
+  private static final int LAZY_COLLECT_RESULTS_EAGER_SCREENS = 2;
+  private static final int LAZY_COLLECT_RESULTS_AHEAD_SCREENS = 1;
+
+  private static final ThreadLocal<SortBuffers> sSortBuffers =
+      new ThreadLocal<SortBuffers>() {
+        @Override
+        protected SortBuffers initialValue() {
+          return new SortBuffers();
+        }
+      };
+
   private final Map<String, Rect> mComponentKeyToBounds = new HashMap<>();
   private final Map<Handle, Rect> mComponentHandleToBounds = new HashMap<>();
   private @Nullable List<ScopedComponentInfo> mScopedComponentInfos;
@@ -210,6 +227,18 @@ public class LayoutState
 
   private boolean mShouldProcessVisibilityOutputs;
 
+  // The subtrees whose results are collected lazily, in the order they'd have been collected, and
+  // the minimum top of the subtrees from each index onwards, which is non decreasing.
+  private @Nullable ArrayList<DeferredResult> mDeferredResults;
+  private @Nullable int[] mDeferredResultsMinTops;
+  private int mCollectedDeferredResultsCount;
+  private int mLazyCollectResultsBottom;
+  private int mScreenHeight;
+  private boolean mCanDeferChildrenResults;
+  private boolean mIsCollectingDeferredResults;
+  // The results whose children are being collected while no subtree was deferred yet.
+  private final ArrayList<DeferralFrame> mDeferralFrames = new ArrayList<>();
+
   /** @deprecated create a real instance with `calculate` instead */
   @Deprecated
   LayoutState(ComponentContext context) {
@@ -320,7 +349,8 @@ public class LayoutState
       return null;
     }
 
-    if (layoutState.getLayoutStateContext().isReleased()) {
+    if (!layoutState.mIsCollectingDeferredResults
+        && layoutState.getLayoutStateContext().isReleased()) {
       // back out if layout got released
       return null;
     }
@@ -631,6 +661,9 @@ public class LayoutState
               SizeSpec.makeSizeSpec(result.getWidth(), EXACTLY),
               SizeSpec.makeSizeSpec(result.getHeight(), EXACTLY));
 
+      // The nested tree is final, the ones measured for other size specs can't be reused anymore.
+      ((NestedTreeHolderResult) result).clearMemoizedNestedResults();
+
       if (isTracing) {
         ComponentsSystrace.endSection();
       }
@@ -712,6 +745,14 @@ public class LayoutState
             || layoutState.isLayoutRoot(result)
             || (shouldDuplicateParentState && node.isDuplicateParentStateEnabled());
 
+    // The results of children can only be collected later if they'd be mounted after all the
+    // outputs of their ancestors in the same host, i.e. none of these ancestors draws over them.
+    final boolean canDeferChildrenResults = layoutState.mCanDeferChildrenResults;
+    layoutState.mCanDeferChildrenResults =
+        (needsHostView || canDeferChildrenResults)
+            && !result.shouldDrawBorders()
+            && node.getForeground() == null;
+
     // 2. Add background if defined.
     if (!layoutState.mShouldDisableDrawableOutputs) {
       final LithoRenderUnit backgroundRenderUnit = result.getBackgroundRenderUnit(layoutState);
@@ -824,12 +865,37 @@ public class LayoutState
     layoutState.mCurrentX += result.getX();
     layoutState.mCurrentY += result.getY();
 
+    // Keeps track of the children being collected, while the results of a child could start being
+    // deferred, so that it can be checked whether all the results after it can be deferred too.
+    final @Nullable DeferralFrame deferralFrame;
+    if (layoutState.mDeferredResults != null
+        && layoutState.mDeferredResults.isEmpty()
+        && !layoutState.mIsCollectingDeferredResults) {
+      deferralFrame =
+          new DeferralFrame(
+              result,
+              layoutState.mCanDeferChildrenResults && layoutState.mCurrentTransitionId == null);
+      layoutState.mDeferralFrames.add(deferralFrame);
+    } else {
+      deferralFrame = null;
+    }
+
     // We must process the nodes in order so that the layout state output order is correct.
     for (int i = 0, size = result.getChildCount(); i < size; i++) {
       final LithoLayoutResult child = result.getChildAt(i);
+      if (deferralFrame != null) {
+        deferralFrame.mChildIndex = i;
+      }
+      if (layoutState.maybeDeferCollectResults(context, child, parent, hierarchy)) {
+        continue;
+      }
       collectResults(context, child, child.getNode(), layoutState, parent, diffNode, hierarchy);
     }
 
+    if (deferralFrame != null) {
+      layoutState.mDeferralFrames.remove(layoutState.mDeferralFrames.size() - 1);
+    }
+
     layoutState.mCurrentX -= result.getX();
     layoutState.mCurrentY -= result.getY();
 
@@ -969,12 +1035,254 @@ public class LayoutState
       layoutState.mCurrentHostOutputPosition = currentHostOutputPosition;
     }
     layoutState.mShouldDuplicateParentState = shouldDuplicateParentState;
+    layoutState.mCanDeferChildrenResults = canDeferChildrenResults;
 
     addCurrentAffinityGroupToTransitionMapping(layoutState);
     layoutState.mCurrentTransitionId = currentTransitionId;
     layoutState.mCurrentLayoutOutputAffinityGroup = currentLayoutOutputAffinityGroup;
   }
 
+  /**
+   * Defers collecting the results of the given subtree if results are collected lazily, and either
+   * the subtree is below the region collected eagerly or a previous subtree was deferred; so that
+   * the deferred subtrees are always collected in the same order they would have been. The first
+   * subtree is only deferred if every result collected after it can be deferred too, otherwise no
+   * result of the layout is deferred.
+   *
+   * @return true if the results of the subtree will be collected later.
+   */
+  private boolean maybeDeferCollectResults(
+      ComponentContext parentContext,
+      LithoLayoutResult result,
+      @Nullable RenderTreeNode parent,
+      @Nullable DebugHierarchy.Node parentHierarchy) {
+    final @Nullable ArrayList<DeferredResult> deferredResults = mDeferredResults;
+    if (deferredResults == null
+        || mIsCollectingDeferredResults
+        || !mCanDeferChildrenResults
+        || mCurrentTransitionId != null) {
+      return false;
+    }
+
+    if (deferredResults.isEmpty() && mCurrentY + result.getY() < mLazyCollectResultsBottom) {
+      return false;
+    }
+
+    if (!canCollectResultsLazily(result)) {
+      return false;
+    }
+
+    if (deferredResults.isEmpty() && !canDeferRemainingResults()) {
+      // A result after this one would be collected before it, so nothing is deferred.
+      mDeferredResults = null;
+      return false;
+    }
+
+    deferredResults.add(
+        new DeferredResult(
+            parentContext,
+            result,
+            parent,
+            parentHierarchy,
+            mCurrentX,
+            mCurrentY,
+            mCurrentHostMarker,
+            mCurrentHostOutputPosition,
+            mShouldDuplicateParentState));
+
+    return true;
+  }
+
+  /**
+   * @return whether the results of the given subtree can be collected after the layout was
+   *     released, i.e. it doesn't need to resolve nested trees or measure Mountables, and it
+   *     doesn't take part in transitions.
+   */
+  private static boolean canCollectResultsLazily(LithoLayoutResult result) {
+    if (result instanceof NestedTreeHolderResult) {
+      return false;
+    }
+
+    final LithoNode node = result.getNode();
+    if (node.getTransitionKey() != null
+        || node.getTransitions() != null
+        || (isMountable(node.getTailComponent()) && !result.wasMeasured())) {
+      return false;
+    }
+
+    for (int i = 0, size = result.getChildCount(); i < size; i++) {
+      if (!canCollectResultsLazily(result.getChildAt(i))) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * @return whether all the results collected after the child being collected can be deferred,
+   *     i.e. the later siblings of the child and of each of its ancestors can be collected lazily,
+   *     and none of these ancestors adds outputs over its children or takes part in transitions.
+   */
+  private boolean canDeferRemainingResults() {
+    for (int i = mDeferralFrames.size() - 1; i >= 0; i--) {
+      final DeferralFrame frame = mDeferralFrames.get(i);
+      if (!frame.mCanDeferChildrenResults) {
+        return false;
+      }
+
+      for (int j = frame.mChildIndex + 1, size = frame.mResult.getChildCount(); j < size; j++) {
+        if (!canCollectResultsLazily(frame.mResult.getChildAt(j))) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /** @return whether there are subtrees whose results weren't collected yet. */
+  synchronized boolean hasDeferredResults() {
+    return mDeferredResults != null;
+  }
+
+  /**
+   * Collects the results of the deferred subtrees which are visible or about to be, i.e. whose top
+   * is above the bottom of the given visible rect plus a screen, along with the subtrees deferred
+   * before them. If the visible rect is null, the results of all the subtrees are collected.
+   *
+   * <p>This LayoutState may be read on other threads meanwhile, e.g. to preallocate mount
+   * content, so these read the outputs with {@link #getMountableOutputsSnapshot()}.
+   *
+   * @return whether the results of any subtree were collected, in which case the render tree and
+   *     the outputs of this LayoutState changed and need to be mounted again.
+   */
+  @ThreadConfined(ThreadConfined.UI)
+  synchronized boolean collectDeferredResults(@Nullable Rect visibleRect) {
+    final @Nullable ArrayList<DeferredResult> deferredResults = mDeferredResults;
+    final @Nullable int[] minTops = mDeferredResultsMinTops;
+    if (deferredResults == null || minTops == null) {
+      return false;
+    }
+
+    final int bottom =
+        visibleRect != null
+            ? visibleRect.bottom + LAZY_COLLECT_RESULTS_AHEAD_SCREENS * mScreenHeight
+            : Integer.MAX_VALUE;
+    final int start = mCollectedDeferredResultsCount;
+    if (minTops[start] >= bottom) {
+      return false;
+    }
+
+    // Finds the first subtree from which all the tops are below the bottom.
+    int low = start;
+    int high = deferredResults.size();
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (minTops[mid] < bottom) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    final int end = low;
+
+    final boolean isTracing = ComponentsSystrace.isTracing();
+    if (isTracing) {
+      ComponentsSystrace.beginSection("collectDeferredResults");
+    }
+
+    if (mScopedComponentInfos == null) {
+      mScopedComponentInfos = new ArrayList<>();
+    }
+
+    final int sortedCount = mMountableOutputs.size();
+
+    mIsCollectingDeferredResults = true;
+    for (int i = start; i < end; i++) {
+      final DeferredResult deferredResult = deferredResults.get(i);
+      mCurrentX = deferredResult.mX;
+      mCurrentY = deferredResult.mY;
+      mCurrentHostMarker = deferredResult.mHostMarker;
+      mCurrentHostOutputPosition = deferredResult.mHostOutputPosition;
+      mShouldDuplicateParentState = deferredResult.mShouldDuplicateParentState;
+      collectResults(
+          deferredResult.mParentContext,
+          deferredResult.mResult,
+          deferredResult.mResult.getNode(),
+          this,
+          deferredResult.mParent,
+          null,
+          deferredResult.mParentHierarchy);
+    }
+    mIsCollectingDeferredResults = false;
+
+    mCollectedDeferredResultsCount = end;
+    if (end == deferredResults.size()) {
+      mDeferredResults = null;
+      mDeferredResultsMinTops = null;
+    }
+
+    mergeSortedOutputs(mMountableOutputTops, sortedCount, false);
+    mergeSortedOutputs(mMountableOutputBottoms, sortedCount, true);
+    mCachedRenderTree = null;
+
+    if (isTracing) {
+      ComponentsSystrace.endSection();
+    }
+
+    return true;
+  }
+
+  /**
+   * Sorts the outputs of the given list from the given count onwards, which were added after the
+   * others were sorted, and merges them with the others; so that, unlike {@link
+   * #sortTopsAndBottoms}, only the new outputs are sorted.
+   */
+  private static void mergeSortedOutputs(
+      ArrayList<IncrementalMountOutput> outputs, int sortedCount, boolean byBottom) {
+    final int size = outputs.size();
+    final int addedCount = size - sortedCount;
+    final SortBuffers buffers = sSortBuffers.get();
+    buffers.ensureCapacity(addedCount);
+    final long[] newKeys = buffers.mKeys;
+    final IncrementalMountOutput[] newOutputs = buffers.mOutputs;
+
+    for (int i = sortedCount; i < size; i++) {
+      newKeys[i - sortedCount] = getSortKey(outputs.get(i), byBottom);
+    }
+    Arrays.sort(newKeys, 0, addedCount);
+
+    // The new outputs were added in the order of their indices, from the sorted count onwards.
+    for (int i = 0; i < addedCount; i++) {
+      final int index = byBottom ? Integer.MAX_VALUE - (int) newKeys[i] : (int) newKeys[i];
+      newOutputs[i] = outputs.get(index);
+    }
+
+    // Merges from the end, so that the sorted outputs are only moved once.
+    int sorted = sortedCount - 1;
+    int added = addedCount - 1;
+    for (int i = size - 1; added >= 0; i--) {
+      if (sorted >= 0 && getSortKey(outputs.get(sorted), byBottom) > newKeys[added]) {
+        outputs.set(i, outputs.get(sorted--));
+      } else {
+        outputs.set(i, newOutputs[added--]);
+      }
+    }
+
+    buffers.release(addedCount);
+  }
+
+  /**
+   * @return the key an output is sorted by, made of its top or bottom bound in the high bits and
+   *     of its index in the low bits; for equal bottoms, the higher index comes first.
+   */
+  private static long getSortKey(IncrementalMountOutput output, boolean byBottom) {
+    return byBottom
+        ? ((long) output.getBounds().bottom << 32) | (Integer.MAX_VALUE - output.getIndex())
+        : ((long) output.getBounds().top << 32) | output.getIndex();
+  }
+
   Map<String, Rect> getComponentKeyToBounds() {
     return mComponentKeyToBounds;
   }
@@ -1229,6 +1537,7 @@ public class LayoutState
     layoutState.mIsCreateLayoutInProgress = true;
 
     // 1. Resolve Tree
+    final long resolveStartTime = LithoStats.getPhaseStartTime();
     final @Nullable ResolvedTree resolvedTree =
         Layout.createResolvedTree(
             layoutStateContext.getRenderStateContext(),
@@ -1239,6 +1548,8 @@ public class LayoutState
             currentRoot,
             logLayoutState);
     final @Nullable LithoNode node = resolvedTree == null ? null : resolvedTree.getRoot();
+    LithoStats.recordPhaseLatency(
+        LithoStats.PHASE_RESOLVE, layoutState.mRootComponentName, resolveStartTime);
 
     // Check if layout was interrupted.
     if (layoutStateContext.getRenderStateContext().isLayoutInterrupted() && node != null) {
@@ -1253,9 +1564,12 @@ public class LayoutState
     layoutState.mRootTransitionId = getTransitionIdForNode(node);
 
     // 2. Measure tree
+    final long measureStartTime = LithoStats.getPhaseStartTime();
     final @Nullable LithoLayoutResult root =
         Layout.measureTree(
             layoutStateContext, c.getAndroidContext(), node, widthSpec, heightSpec, logLayoutState);
+    LithoStats.recordPhaseLatency(
+        LithoStats.PHASE_MEASURE, layoutState.mRootComponentName, measureStartTime);
 
     layoutState.mLayoutResult = root;
     layoutState.mIsCreateLayoutInProgress = false;
@@ -1265,7 +1579,10 @@ public class LayoutState
       logLayoutState.markerPoint("start_collect_results");
     }
 
+    final long collectResultsStartTime = LithoStats.getPhaseStartTime();
     setSizeAfterMeasureAndCollectResults(c, layoutState);
+    LithoStats.recordPhaseLatency(
+        LithoStats.PHASE_COLLECT_RESULTS, layoutState.mRootComponentName, collectResultsStartTime);
 
     if (logLayoutState != null) {
       logLayoutState.markerPoint("end_collect_results");
@@ -1352,11 +1669,15 @@ public class LayoutState
       }
 
       try {
+        final long resolveStartTime = LithoStats.getPhaseStartTime();
         final ResolvedTree resolvedTree =
             Layout.resumeResolvingTree(
                 layoutStateContext.getRenderStateContext(), partialResolvedRoot);
         layoutState.mRoot = resolvedTree.getRoot();
+        LithoStats.recordPhaseLatency(
+            LithoStats.PHASE_RESOLVE, layoutState.mRootComponentName, resolveStartTime);
 
+        final long measureStartTime = LithoStats.getPhaseStartTime();
         final LithoLayoutResult result =
             Layout.measureTree(
                 layoutStateContext,
@@ -1365,6 +1686,8 @@ public class LayoutState
                 widthSpec,
                 heightSpec,
                 logLayoutState);
+        LithoStats.recordPhaseLatency(
+            LithoStats.PHASE_MEASURE, layoutState.mRootComponentName, measureStartTime);
 
         if (result != null) {
           layoutState.mLayoutResult = result;
@@ -1375,7 +1698,12 @@ public class LayoutState
         }
       }
 
+      final long collectResultsStartTime = LithoStats.getPhaseStartTime();
       setSizeAfterMeasureAndCollectResults(c, layoutState);
+      LithoStats.recordPhaseLatency(
+          LithoStats.PHASE_COLLECT_RESULTS,
+          layoutState.mRootComponentName,
+          collectResultsStartTime);
 
       layoutState.getLayoutStateContext().releaseReference();
 
@@ -1479,6 +1807,21 @@ public class LayoutState
       layoutState.mCurrentHostOutputPosition = 0;
     }
 
+    // Deferred results are only collected as the visible rect moves when mounting incrementally.
+    if (ComponentsConfiguration.collectResultsLazilyForTallLayouts
+        && layoutState.isIncrementalMountEnabled()
+        && !layoutState.mShouldGenerateDiffTree
+        && layoutState.mTestOutputs == null) {
+      layoutState.mScreenHeight =
+          c.getAndroidContext().getResources().getDisplayMetrics().heightPixels;
+      layoutState.mLazyCollectResultsBottom =
+          LAZY_COLLECT_RESULTS_EAGER_SCREENS * layoutState.mScreenHeight;
+      if (rootHeight > layoutState.mLazyCollectResultsBottom) {
+        layoutState.mDeferredResults = new ArrayList<>();
+        layoutState.mCanDeferChildrenResults = true;
+      }
+    }
+
     if (isTracing) {
       ComponentsSystrace.beginSection("collectResults");
     }
@@ -1487,12 +1830,18 @@ public class LayoutState
       ComponentsSystrace.endSection();
     }
 
+    if (layoutState.mDeferredResults != null) {
+      layoutState.mDeferredResultsMinTops = computeMinTops(layoutState.mDeferredResults);
+      if (layoutState.mDeferredResultsMinTops == null) {
+        layoutState.mDeferredResults = null;
+      }
+    }
+
     if (isTracing) {
       ComponentsSystrace.beginSection("sortMountableOutputs");
     }
 
-    sortTops(layoutState);
-    sortBottoms(layoutState);
+    sortTopsAndBottoms(layoutState);
 
     if (isTracing) {
       ComponentsSystrace.endSection();
@@ -1507,50 +1856,114 @@ public class LayoutState
     }
   }
 
-  private static void sortTops(LayoutState layoutState) {
-    final List<IncrementalMountOutput> unsorted = new ArrayList<>(layoutState.mMountableOutputTops);
+  private static @Nullable int[] computeMinTops(List<DeferredResult> deferredResults) {
+    final int size = deferredResults.size();
+    if (size == 0) {
+      return null;
+    }
+
+    final int[] minTops = new int[size];
+    int minTop = Integer.MAX_VALUE;
+    for (int i = size - 1; i >= 0; i--) {
+      final DeferredResult deferredResult = deferredResults.get(i);
+      minTop = Math.min(minTop, deferredResult.mY + deferredResult.mResult.getY());
+      minTops[i] = minTop;
+    }
+
+    return minTops;
+  }
+
+  /**
+   * Sorts the outputs by their top and by their bottom bounds, in the orders of {@link
+   * IncrementalMountRenderCoreExtension#sTopsComparator} and {@link
+   * IncrementalMountRenderCoreExtension#sBottomsComparator}. Every output is sorted as a primitive
+   * key made of its bound in the high bits and its index in the low bits, see {@link
+   * #getSortKey}, so sorting neither boxes nor calls a comparator.
+   */
+  private static void sortTopsAndBottoms(LayoutState layoutState) {
+    final ArrayList<IncrementalMountOutput> tops = layoutState.mMountableOutputTops;
+    final ArrayList<IncrementalMountOutput> bottoms = layoutState.mMountableOutputBottoms;
+    final int size = tops.size();
+    final SortBuffers buffers = sSortBuffers.get();
+    buffers.ensureCapacity(size);
+    final long[] keys = buffers.mKeys;
+    final IncrementalMountOutput[] outputsByIndex = buffers.mOutputs;
+
     try {
-      Collections.sort(
-          layoutState.mMountableOutputTops, IncrementalMountRenderCoreExtension.sTopsComparator);
-    } catch (IllegalArgumentException e) {
-      final StringBuilder errorMessage = new StringBuilder();
-      errorMessage.append(e.getMessage()).append("\n");
-      final int size = unsorted.size();
-      errorMessage.append("Error while sorting LayoutState tops. Size: " + size).append("\n");
-      final Rect rect = new Rect();
+      // The indices of the outputs are their positions in the mountable outputs.
       for (int i = 0; i < size; i++) {
-        final RenderTreeNode node = layoutState.getMountableOutputAt(i);
-        errorMessage
-            .append("   Index " + i + " top: " + node.getAbsoluteBounds(rect).top)
-            .append("\n");
+        final IncrementalMountOutput output = tops.get(i);
+        final int index = output.getIndex();
+        if (index < 0 || index >= size || outputsByIndex[index] != null || bottoms.size() != size) {
+          throw new IllegalStateException(getSortOutputsErrorMessage(layoutState, index));
+        }
+        outputsByIndex[index] = output;
+      }
+
+      for (int i = 0; i < size; i++) {
+        keys[i] = getSortKey(outputsByIndex[i], false);
+      }
+      Arrays.sort(keys, 0, size);
+      for (int i = 0; i < size; i++) {
+        tops.set(i, outputsByIndex[(int) keys[i]]);
       }
 
-      throw new IllegalStateException(errorMessage.toString());
+      for (int i = 0; i < size; i++) {
+        keys[i] = getSortKey(outputsByIndex[i], true);
+      }
+      Arrays.sort(keys, 0, size);
+      for (int i = 0; i < size; i++) {
+        bottoms.set(i, outputsByIndex[Integer.MAX_VALUE - (int) keys[i]]);
+      }
+    } finally {
+      buffers.release(size);
     }
   }
 
-  private static void sortBottoms(LayoutState layoutState) {
-    final List<IncrementalMountOutput> unsorted =
-        new ArrayList<>(layoutState.mMountableOutputBottoms);
-    try {
-      Collections.sort(
-          layoutState.mMountableOutputBottoms,
-          IncrementalMountRenderCoreExtension.sBottomsComparator);
-    } catch (IllegalArgumentException e) {
-      final StringBuilder errorMessage = new StringBuilder();
-      errorMessage.append(e.getMessage()).append("\n");
-      final int size = unsorted.size();
-      errorMessage.append("Error while sorting LayoutState bottoms. Size: " + size).append("\n");
-      final Rect rect = new Rect();
-      for (int i = 0; i < size; i++) {
-        final RenderTreeNode node = layoutState.getMountableOutputAt(i);
-        errorMessage
-            .append("   Index " + i + " bottom: " + node.getAbsoluteBounds(rect).bottom)
-            .append("\n");
+  /**
+   * The arrays used to sort the outputs of the layouts calculated on a thread, grown on demand and
+   * reused so that sorting doesn't allocate.
+   */
+  private static final class SortBuffers {
+
+    long[] mKeys = new long[0];
+    IncrementalMountOutput[] mOutputs = new IncrementalMountOutput[0];
+
+    void ensureCapacity(int size) {
+      if (mKeys.length < size) {
+        final int capacity = Math.max(size, mKeys.length * 2);
+        mKeys = new long[capacity];
+        mOutputs = new IncrementalMountOutput[capacity];
       }
+    }
+
+    /** Clears the outputs used, so that they're not retained past the layout. */
+    void release(int size) {
+      Arrays.fill(mOutputs, 0, size, null);
+    }
+  }
 
-      throw new IllegalStateException(errorMessage.toString());
+  private static String getSortOutputsErrorMessage(LayoutState layoutState, int invalidIndex) {
+    final StringBuilder errorMessage = new StringBuilder();
+    final int size = layoutState.mMountableOutputTops.size();
+    errorMessage
+        .append("Error while sorting LayoutState tops and bottoms. Size: ")
+        .append(size)
+        .append(", bottoms size: ")
+        .append(layoutState.mMountableOutputBottoms.size())
+        .append(", mountable outputs size: ")
+        .append(layoutState.getMountableOutputCount())
+        .append(", invalid or duplicate index: ")
+        .append(invalidIndex)
+        .append("\n");
+    for (int i = 0; i < size; i++) {
+      final IncrementalMountOutput output = layoutState.mMountableOutputTops.get(i);
+      errorMessage
+          .append("   Index " + output.getIndex() + " top: " + output.getBounds().top)
+          .append("\n");
     }
+
+    return errorMessage.toString();
   }
 
   static String layoutSourceToString(@CalculateLayoutSource int source) {
@@ -1593,9 +2006,10 @@ public class LayoutState
       ComponentsSystrace.beginSection("preAllocateMountContent:" + mComponent.getSimpleName());
     }
 
-    if (!mMountableOutputs.isEmpty()) {
-      for (int i = 0, size = mMountableOutputs.size(); i < size; i++) {
-        final RenderTreeNode treeNode = mMountableOutputs.get(i);
+    final List<RenderTreeNode> mountableOutputs = getMountableOutputsSnapshot();
+    if (!mountableOutputs.isEmpty()) {
+      for (int i = 0, size = mountableOutputs.size(); i < size; i++) {
+        final RenderTreeNode treeNode = mountableOutputs.get(i);
         final LayoutOutput output = LayoutOutput.getLayoutOutput(treeNode);
         final Component component = output.getComponent();
 
@@ -1635,6 +2049,50 @@ public class LayoutState
     }
   }
 
+  /**
+   * @return the mountable outputs for reading them off the main thread, where results may be
+   *     collected meanwhile, see {@link #collectDeferredResults(Rect)}.
+   */
+  private synchronized List<RenderTreeNode> getMountableOutputsSnapshot() {
+    return mDeferredResults != null ? new ArrayList<>(mMountableOutputs) : mMountableOutputs;
+  }
+
+  /**
+   * Adds the View mount content this layout will acquire when it is mounted to {@code demand},
+   * counted per content type. The root host is skipped since it is mounted on the LithoView itself.
+   */
+  void collectMountContentDemand(Map<Object, MountContentPreallocator.Demand> demand) {
+    final Context androidContext = mContext.getAndroidContext();
+    final List<RenderTreeNode> mountableOutputs = getMountableOutputsSnapshot();
+
+    for (int i = 0, size = mountableOutputs.size(); i < size; i++) {
+      final RenderTreeNode treeNode = mountableOutputs.get(i);
+      final RenderUnit<?> renderUnit = treeNode.getRenderUnit();
+      if (renderUnit.getId() == ROOT_HOST_ID || !isMountableView(renderUnit)) {
+        continue;
+      }
+
+      final ContentAllocator allocator = renderUnit.getContentAllocator();
+      if (allocator.isRecyclingDisabled()) {
+        continue;
+      }
+
+      if (ComponentsConfiguration.componentPreallocationBlocklist != null
+          && ComponentsConfiguration.componentPreallocationBlocklist.contains(
+              LayoutOutput.getLayoutOutput(treeNode).getComponent().getSimpleName())) {
+        continue;
+      }
+
+      final Object contentType = allocator.getPoolableContentType();
+      MountContentPreallocator.Demand entry = demand.get(contentType);
+      if (entry == null) {
+        entry = new MountContentPreallocator.Demand(androidContext, allocator);
+        demand.put(contentType, entry);
+      }
+      entry.count++;
+    }
+  }
+
   boolean isActivityValid() {
     return getValidActivityForContext(mContext.getAndroidContext()) != null;
   }
@@ -1665,6 +2123,11 @@ public class LayoutState
     return widthIsCompatible && heightIsCompatible;
   }
 
+  /** @return whether this layout was computed with exactly these size specs. */
+  boolean hasSizeSpecs(int widthSpec, int heightSpec) {
+    return mWidthSpec == widthSpec && mHeightSpec == heightSpec;
+  }
+
   boolean isCompatibleAccessibility() {
     return AccessibilityUtils.isAccessibilityEnabled(mAccessibilityManager)
         == mAccessibilityEnabled;
@@ -2124,4 +2587,53 @@ public class LayoutState
   public static LayoutState createTestInstance(ComponentContext c) {
     return new LayoutState(c);
   }
+
+  /** A result whose children are being collected, and the index of the child being collected. */
+  private static final class DeferralFrame {
+    final LithoLayoutResult mResult;
+    final boolean mCanDeferChildrenResults;
+    int mChildIndex;
+
+    DeferralFrame(LithoLayoutResult result, boolean canDeferChildrenResults) {
+      mResult = result;
+      mCanDeferChildrenResults = canDeferChildrenResults;
+    }
+  }
+
+  /**
+   * The state needed to collect the results of a subtree later, as if it was collected in the
+   * place it was deferred.
+   */
+  private static final class DeferredResult {
+    final ComponentContext mParentContext;
+    final LithoLayoutResult mResult;
+    final @Nullable RenderTreeNode mParent;
+    final @Nullable DebugHierarchy.Node mParentHierarchy;
+    final int mX;
+    final int mY;
+    final long mHostMarker;
+    final int mHostOutputPosition;
+    final boolean mShouldDuplicateParentState;
+
+    DeferredResult(
+        ComponentContext parentContext,
+        LithoLayoutResult result,
+        @Nullable RenderTreeNode parent,
+        @Nullable DebugHierarchy.Node parentHierarchy,
+        int x,
+        int y,
+        long hostMarker,
+        int hostOutputPosition,
+        boolean shouldDuplicateParentState) {
+      mParentContext = parentContext;
+      mResult = result;
+      mParent = parent;
+      mParentHierarchy = parentHierarchy;
+      mX = x;
+      mY = y;
+      mHostMarker = hostMarker;
+      mHostOutputPosition = hostOutputPosition;
+      mShouldDuplicateParentState = shouldDuplicateParentState;
+    }
+  }
 }
@@ -1549,7 +1549,10 @@ public class LithoView extends ComponentHost implements RootHost, AnimatedRootHo
       final RenderTree renderTree = layoutState.toRenderTree();
       setupMountExtensions();
       mLithoHostListenerCoordinator.beforeMount(layoutState, currentVisibleArea);
+      final long mountStartTime = LithoStats.getPhaseStartTime();
       mMountState.mount(renderTree);
+      LithoStats.recordPhaseLatency(
+          LithoStats.PHASE_MOUNT, layoutState.getRootName(), mountStartTime);
       LithoStats.incrementComponentMountCount();
     }
   }
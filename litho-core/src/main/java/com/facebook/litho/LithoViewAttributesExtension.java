@@ -39,6 +39,7 @@ import androidx.annotation.ColorInt;
 import androidx.annotation.Nullable;
 import androidx.core.view.ViewCompat;
 import com.facebook.infer.annotation.Nullsafe;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.rendercore.ErrorReporter;
 import com.facebook.rendercore.LogLevel;
 import com.facebook.rendercore.RenderUnit;
@@ -53,6 +54,9 @@ public class LithoViewAttributesExtension
 
   private static final LithoViewAttributesExtension sInstance = new LithoViewAttributesExtension();
 
+  /** Stands for the NodeInfo of an output which has none, it has no view attribute set. */
+  private static final NodeInfo EMPTY_NODE_INFO = new NodeInfo();
+
   private LithoViewAttributesExtension() {}
 
   static LithoViewAttributesExtension getInstance() {
@@ -67,6 +71,11 @@ public class LithoViewAttributesExtension
   static class LithoViewAttributesState {
     private Map<Long, Integer> mDefaultViewAttributes = new HashMap<>();
 
+    // Whether the item being updated has its view attributes updated in place, which is decided
+    // when it's unmounted for the update and applied when it's mounted again.
+    private boolean mIsUpdatingInPlace;
+    private long mUpdatingInPlaceRenderUnitId;
+
     void setDefaultViewAttributes(long renderUnitId, int flags) {
       mDefaultViewAttributes.put(renderUnitId, flags);
     }
@@ -131,6 +140,90 @@ public class LithoViewAttributesExtension
     }
   }
 
+  @Override
+  public void onUnmountItemForUpdate(
+      final ExtensionState<LithoViewAttributesState> extensionState,
+      final RenderUnit<?> previousRenderUnit,
+      final @Nullable Object previousLayoutData,
+      final RenderUnit<?> nextRenderUnit,
+      final @Nullable Object nextLayoutData,
+      final Object content) {
+    final LithoViewAttributesState state = extensionState.getState();
+    state.mIsUpdatingInPlace = false;
+
+    if (ComponentsConfiguration.updateViewAttributesInPlace
+        && content instanceof View
+        && previousRenderUnit instanceof LithoRenderUnit
+        && nextRenderUnit instanceof LithoRenderUnit
+        && state.hasDefaultViewAttributes(previousRenderUnit.getId())
+        && canUpdateInPlace(
+            (LithoRenderUnit) previousRenderUnit,
+            previousLayoutData,
+            (LithoRenderUnit) nextRenderUnit,
+            nextLayoutData)) {
+      // The view attributes which changed are reset in onMountItemForUpdate.
+      state.mIsUpdatingInPlace = true;
+      state.mUpdatingInPlaceRenderUnitId = previousRenderUnit.getId();
+      return;
+    }
+
+    onUnmountItem(extensionState, previousRenderUnit, content, previousLayoutData);
+  }
+
+  @Override
+  public void onMountItemForUpdate(
+      final ExtensionState<LithoViewAttributesState> extensionState,
+      final RenderUnit<?> previousRenderUnit,
+      final @Nullable Object previousLayoutData,
+      final RenderUnit<?> nextRenderUnit,
+      final @Nullable Object nextLayoutData,
+      final Object content) {
+    final LithoViewAttributesState state = extensionState.getState();
+    final boolean isUpdatingInPlace =
+        state.mIsUpdatingInPlace && state.mUpdatingInPlaceRenderUnitId == nextRenderUnit.getId();
+    state.mIsUpdatingInPlace = false;
+
+    if (isUpdatingInPlace) {
+      updateViewAttributes(
+          (View) content,
+          ((LithoRenderUnit) previousRenderUnit).getLayoutOutput(),
+          ((LithoRenderUnit) nextRenderUnit).getLayoutOutput(),
+          state.getDefaultViewAttributes(nextRenderUnit.getId()));
+      return;
+    }
+
+    onMountItem(extensionState, nextRenderUnit, content, nextLayoutData);
+  }
+
+  /**
+   * The view attributes of an item can be updated in place unless its mount spec is mounted again,
+   * which may override them, or the attributes are applied differently. Hosts are never mounted
+   * again when they're updated.
+   */
+  private static boolean canUpdateInPlace(
+      final LithoRenderUnit previousRenderUnit,
+      final @Nullable Object previousLayoutData,
+      final LithoRenderUnit nextRenderUnit,
+      final @Nullable Object nextLayoutData) {
+    if (!(nextRenderUnit.getLayoutOutput().getComponent() instanceof HostComponent)
+        && previousRenderUnit instanceof MountSpecLithoRenderUnit
+        && nextRenderUnit instanceof MountSpecLithoRenderUnit
+        && MountSpecLithoRenderUnit.shouldUpdateMountItem(
+            (MountSpecLithoRenderUnit) previousRenderUnit,
+            (MountSpecLithoRenderUnit) nextRenderUnit,
+            previousLayoutData,
+            nextLayoutData)) {
+      return false;
+    }
+
+    final LayoutOutput previousOutput = previousRenderUnit.getLayoutOutput();
+    final LayoutOutput nextOutput = nextRenderUnit.getLayoutOutput();
+    return isHostSpec(previousOutput.getComponent()) == isHostSpec(nextOutput.getComponent())
+        && LayoutOutput.areDrawableOutputsDisabled(previousOutput.getFlags())
+            == LayoutOutput.areDrawableOutputsDisabled(nextOutput.getFlags())
+        && (previousOutput.getViewNodeInfo() == null) == (nextOutput.getViewNodeInfo() == null);
+  }
+
   @Override
   public boolean shouldUpdateItem(
       final RenderUnit<?> previousRenderUnit,
@@ -317,6 +410,239 @@ public class LithoViewAttributesExtension
     unsetViewLayerType(view, mountFlags);
   }
 
+  /**
+   * Updates the view attributes of a mounted View from the current output to the next one: only
+   * the attributes which changed are unset and set again. The listeners are retargeted to the
+   * event handlers of the next output, without being replaced.
+   */
+  static void updateViewAttributes(
+      final View view,
+      final LayoutOutput currentOutput,
+      final LayoutOutput nextOutput,
+      final int mountFlags) {
+    final NodeInfo currentNodeInfo = getNodeInfoOrEmpty(currentOutput);
+    final NodeInfo nextNodeInfo = getNodeInfoOrEmpty(nextOutput);
+    final int changed = NodeInfoUtils.getChangedViewAttributes(currentNodeInfo, nextNodeInfo);
+
+    if ((changed & NodeInfo.VIEW_ATTR_CLICK) != 0) {
+      if (currentNodeInfo.getClickHandler() != null) {
+        unsetClickHandler(view);
+      }
+      view.setClickable(isViewClickable(mountFlags));
+      setClickHandler(nextNodeInfo.getClickHandler(), view);
+      setClickable(view, nextNodeInfo.getClickableState());
+    } else {
+      retargetClickHandler(nextNodeInfo.getClickHandler(), view);
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_LONG_CLICK) != 0) {
+      if (currentNodeInfo.getLongClickHandler() != null) {
+        unsetLongClickHandler(view);
+      }
+      view.setLongClickable(isViewLongClickable(mountFlags));
+      setLongClickHandler(nextNodeInfo.getLongClickHandler(), view);
+    } else {
+      retargetLongClickHandler(nextNodeInfo.getLongClickHandler(), view);
+    }
+
+    // The focus change and touch listeners are only created once, setting them retargets them.
+    if ((changed & NodeInfo.VIEW_ATTR_FOCUS_CHANGE) != 0
+        && currentNodeInfo.getFocusChangeHandler() != null) {
+      unsetFocusChangeHandler(view);
+    }
+    setFocusChangeHandler(nextNodeInfo.getFocusChangeHandler(), view);
+
+    if ((changed & NodeInfo.VIEW_ATTR_TOUCH) != 0 && currentNodeInfo.getTouchHandler() != null) {
+      unsetTouchHandler(view);
+    }
+    setTouchHandler(nextNodeInfo.getTouchHandler(), view);
+
+    if ((changed & NodeInfo.VIEW_ATTR_INTERCEPT_TOUCH) != 0
+        && currentNodeInfo.getInterceptTouchHandler() != null) {
+      unsetInterceptTouchEventHandler(view);
+    }
+    setInterceptTouchHandler(nextNodeInfo.getInterceptTouchHandler(), view);
+
+    if ((changed & NodeInfo.VIEW_ATTR_ACCESSIBILITY) != 0) {
+      unsetAccessibilityDelegate(view);
+    }
+    setAccessibilityDelegate(view, nextNodeInfo);
+
+    if ((changed & NodeInfo.VIEW_ATTR_VIEW_TAG) != 0) {
+      setViewTag(view, nextNodeInfo.getViewTag());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_VIEW_TAGS) != 0) {
+      unsetViewTags(view, currentNodeInfo.getViewTags());
+      setViewTags(view, nextNodeInfo.getViewTags());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_SHADOW_ELEVATION) != 0) {
+      unsetShadowElevation(view, currentNodeInfo.getShadowElevation());
+      setShadowElevation(view, nextNodeInfo.getShadowElevation());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_AMBIENT_SHADOW_COLOR) != 0) {
+      unsetAmbientShadowColor(view, currentNodeInfo.getAmbientShadowColor());
+      setAmbientShadowColor(view, nextNodeInfo.getAmbientShadowColor());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_SPOT_SHADOW_COLOR) != 0) {
+      unsetSpotShadowColor(view, currentNodeInfo.getSpotShadowColor());
+      setSpotShadowColor(view, nextNodeInfo.getSpotShadowColor());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_OUTLINE_PROVIDER) != 0) {
+      unsetOutlineProvider(view, currentNodeInfo.getOutlineProvider());
+      setOutlineProvider(view, nextNodeInfo.getOutlineProvider());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_CLIP_TO_OUTLINE) != 0) {
+      unsetClipToOutline(view, currentNodeInfo.getClipToOutline());
+      setClipToOutline(view, nextNodeInfo.getClipToOutline());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_CLIP_CHILDREN) != 0) {
+      unsetClipChildren(view, currentNodeInfo.getClipChildren());
+      setClipChildren(view, nextNodeInfo);
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_CONTENT_DESCRIPTION) != 0) {
+      if (!TextUtils.isEmpty(currentNodeInfo.getContentDescription())) {
+        unsetContentDescription(view);
+      }
+      setContentDescription(view, nextNodeInfo.getContentDescription());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_FOCUSABLE) != 0) {
+      unsetFocusable(view, mountFlags);
+      setFocusable(view, nextNodeInfo.getFocusState());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_ENABLED) != 0) {
+      unsetEnabled(view, mountFlags);
+      setEnabled(view, nextNodeInfo.getEnabledState());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_SELECTED) != 0) {
+      unsetSelected(view, mountFlags);
+      setSelected(view, nextNodeInfo.getSelectedState());
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_SCALE) != 0) {
+      unsetScale(view, currentNodeInfo);
+      setScale(view, nextNodeInfo);
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_ALPHA) != 0) {
+      unsetAlpha(view, currentNodeInfo);
+      setAlpha(view, nextNodeInfo);
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_ROTATION) != 0) {
+      unsetRotation(view, currentNodeInfo);
+      setRotation(view, nextNodeInfo);
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_ROTATION_X) != 0) {
+      unsetRotationX(view, currentNodeInfo);
+      setRotationX(view, nextNodeInfo);
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_ROTATION_Y) != 0) {
+      unsetRotationY(view, currentNodeInfo);
+      setRotationY(view, nextNodeInfo);
+    }
+
+    if ((changed & NodeInfo.VIEW_ATTR_TRANSITION_NAME) != 0) {
+      setTransitionName(view, nextNodeInfo.getTransitionName());
+    }
+
+    final int currentImportantForAccessibility = currentOutput.getImportantForAccessibility();
+    final int nextImportantForAccessibility = nextOutput.getImportantForAccessibility();
+    if (currentImportantForAccessibility != nextImportantForAccessibility) {
+      if (currentImportantForAccessibility != IMPORTANT_FOR_ACCESSIBILITY_AUTO) {
+        unsetImportantForAccessibility(view);
+      }
+      setImportantForAccessibility(view, nextImportantForAccessibility);
+    }
+
+    final ViewNodeInfo currentViewNodeInfo = currentOutput.getViewNodeInfo();
+    final ViewNodeInfo nextViewNodeInfo = nextOutput.getViewNodeInfo();
+    if (currentViewNodeInfo != null && nextViewNodeInfo != null) {
+      updateViewNodeInfoAttributes(
+          view, currentOutput, currentViewNodeInfo, nextOutput, nextViewNodeInfo, mountFlags);
+    }
+  }
+
+  private static void updateViewNodeInfoAttributes(
+      final View view,
+      final LayoutOutput currentOutput,
+      final ViewNodeInfo currentViewNodeInfo,
+      final LayoutOutput nextOutput,
+      final ViewNodeInfo nextViewNodeInfo,
+      final int mountFlags) {
+    final int changed = currentViewNodeInfo.getChangedViewAttributes(nextViewNodeInfo);
+    if (changed == 0) {
+      return;
+    }
+
+    final boolean isHostSpec = isHostSpec(nextOutput.getComponent());
+    final boolean areDrawableOutputsDisabled =
+        LayoutOutput.areDrawableOutputsDisabled(nextOutput.getFlags());
+
+    if ((changed & ViewNodeInfo.VIEW_ATTR_LAYER_TYPE) != 0) {
+      unsetViewLayerType(view, mountFlags);
+      setViewLayerType(view, nextViewNodeInfo);
+    }
+
+    if ((changed & ViewNodeInfo.VIEW_ATTR_STATE_LIST_ANIMATOR) != 0) {
+      unsetViewStateListAnimator(view, currentViewNodeInfo);
+      setViewStateListAnimator(view, nextViewNodeInfo);
+    }
+
+    if (!areDrawableOutputsDisabled && isHostSpec) {
+      return;
+    }
+
+    final boolean isBackgroundChanged = (changed & ViewNodeInfo.VIEW_ATTR_BACKGROUND) != 0;
+    if (isBackgroundChanged) {
+      unsetViewBackground(view, currentViewNodeInfo);
+      setViewBackground(view, nextViewNodeInfo);
+    }
+
+    if ((changed & ViewNodeInfo.VIEW_ATTR_FOREGROUND) != 0) {
+      unsetViewForeground(view, currentViewNodeInfo);
+      ViewUtils.setViewForeground(view, nextViewNodeInfo.getForeground());
+    }
+
+    if (isHostSpec) {
+      // A background can set the padding of a view, see setViewAttributes.
+      if (isBackgroundChanged) {
+        view.setPadding(0, 0, 0, 0);
+      }
+      return;
+    }
+
+    // Setting a background can override the padding, so it's set again too.
+    if ((changed & ViewNodeInfo.VIEW_ATTR_PADDING) != 0) {
+      unsetViewPadding(view, currentOutput, currentViewNodeInfo);
+      setViewPadding(view, nextViewNodeInfo);
+    } else if (isBackgroundChanged) {
+      setViewPadding(view, nextViewNodeInfo);
+    }
+
+    if ((changed & ViewNodeInfo.VIEW_ATTR_LAYOUT_DIRECTION) != 0) {
+      unsetViewLayoutDirection(view);
+      setViewLayoutDirection(view, nextViewNodeInfo);
+    }
+  }
+
+  private static NodeInfo getNodeInfoOrEmpty(LayoutOutput output) {
+    final NodeInfo nodeInfo = output.getNodeInfo();
+    return nodeInfo != null ? nodeInfo : EMPTY_NODE_INFO;
+  }
+
   /**
    * Store a {@link NodeInfo} as a tag in {@code view}. {@link LithoView} contains the logic for
    * setting/unsetting it whenever accessibility is enabled/disabled
@@ -352,13 +678,49 @@ public class LithoViewAttributesExtension
       return;
     }
 
-    view.setOnClickListener(new ComponentClickListener(clickHandler));
+    ComponentClickListener listener = getComponentClickListener(view);
+
+    if (listener == null) {
+      listener = new ComponentClickListener(clickHandler);
+      view.setTag(R.id.component_click_listener, listener);
+    } else {
+      listener.setEventHandler(clickHandler);
+    }
+
+    view.setOnClickListener(listener);
     view.setClickable(true);
   }
 
   private static void unsetClickHandler(View view) {
     view.setOnClickListener(null);
     view.setClickable(false);
+
+    final ComponentClickListener listener = getComponentClickListener(view);
+
+    if (listener != null) {
+      listener.setEventHandler(null);
+    }
+  }
+
+  /** Dispatches the clicks of the view to the given handler, if the view already has a listener. */
+  private static void retargetClickHandler(
+      @Nullable EventHandler<ClickEvent> clickHandler, View view) {
+    if (clickHandler == null) {
+      return;
+    }
+
+    final ComponentClickListener listener = getComponentClickListener(view);
+
+    if (listener != null) {
+      listener.setEventHandler(clickHandler);
+    } else {
+      setClickHandler(clickHandler, view);
+    }
+  }
+
+  @Nullable
+  static ComponentClickListener getComponentClickListener(View v) {
+    return (ComponentClickListener) v.getTag(R.id.component_click_listener);
   }
 
   /**
@@ -389,6 +751,21 @@ public class LithoViewAttributesExtension
     }
   }
 
+  private static void retargetLongClickHandler(
+      @Nullable EventHandler<LongClickEvent> longClickHandler, View view) {
+    if (longClickHandler == null) {
+      return;
+    }
+
+    final ComponentLongClickListener listener = getComponentLongClickListener(view);
+
+    if (listener != null) {
+      listener.setEventHandler(longClickHandler);
+    } else {
+      setLongClickHandler(longClickHandler, view);
+    }
+  }
+
   @Nullable
   static ComponentLongClickListener getComponentLongClickListener(View v) {
     if (v instanceof ComponentHost) {
@@ -17,35 +17,287 @@
 package com.facebook.litho;
 
 import android.content.res.Configuration;
-import androidx.collection.LruCache;
 import com.facebook.infer.annotation.Nullsafe;
+import java.util.Arrays;
 import javax.annotation.Nullable;
 
+/**
+ * A {@link ResourceCache} which keeps resources in an open addressing table keyed by resource id
+ * and type, so that looking up a resource doesn't box its id or, for ints, its value. The cache is
+ * bounded by the approximate number of bytes of its entries and evicts the least recently used ones
+ * first.
+ */
 @Nullsafe(Nullsafe.Mode.LOCAL)
 class LruResourceCache extends ResourceCache {
-  private final LruCache<Integer, Object> mCache =
-      new LruCache<Integer, Object>(500) {
-        @Override
-        protected int sizeOf(Integer key, Object value) {
-          if (value instanceof String) {
-            return ((String) value).length();
-          }
-          return 1;
-        }
-      };
+
+  private static final int DEFAULT_MAX_SIZE_BYTES = 64 * 1024;
+  private static final int INITIAL_CAPACITY = 64;
+
+  // Approximate sizes, in bytes, of an entry of the table and of the header of an object.
+  private static final int ENTRY_SIZE_BYTES = 32;
+  private static final int OBJECT_SIZE_BYTES = 16;
+
+  // Resource id 0 is never cached, and types are never negative, so no entry has these keys.
+  private static final long EMPTY = 0L;
+  private static final long DELETED = 0xFFFFFFFFL;
+
+  private static final int NONE = -1;
+
+  private final int mMaxSizeBytes;
+
+  private long[] mKeys;
+  private int[] mIntValues;
+  private Object[] mObjectValues;
+  private int[] mSizesBytes;
+
+  // A doubly linked list of the entries, from the least to the most recently used.
+  private int[] mPrevious;
+  private int[] mNext;
+  private int mHead = NONE;
+  private int mTail = NONE;
+
+  private int mSize;
+  private int mDeletedCount;
+  private int mSizeBytes;
+  private int mHitCount;
+  private int mMissCount;
 
   LruResourceCache(Configuration configuration) {
+    this(configuration, DEFAULT_MAX_SIZE_BYTES);
+  }
+
+  LruResourceCache(Configuration configuration, int maxSizeBytes) {
     super(configuration);
+    mMaxSizeBytes = maxSizeBytes;
+    allocate(INITIAL_CAPACITY);
   }
 
   @Override
   @Nullable
-  <T> T get(int key) {
-    return (T) mCache.get(key);
+  synchronized <T> T get(int resId, int type) {
+    final int index = indexOf(toKey(resId, type));
+    if (index == NONE) {
+      mMissCount++;
+      return null;
+    }
+
+    mHitCount++;
+    moveToTail(index);
+    return (T) mObjectValues[index];
+  }
+
+  @Override
+  synchronized void put(int resId, int type, Object value) {
+    insert(toKey(resId, type), 0, value, ENTRY_SIZE_BYTES + sizeOf(value));
   }
 
   @Override
-  void put(int key, Object object) {
-    mCache.put(key, object);
+  synchronized long getInt(int resId, int type) {
+    final int index = indexOf(toKey(resId, type));
+    if (index == NONE) {
+      mMissCount++;
+      return MISSING;
+    }
+
+    mHitCount++;
+    moveToTail(index);
+    return mIntValues[index];
+  }
+
+  @Override
+  synchronized void putInt(int resId, int type, int value) {
+    insert(toKey(resId, type), value, null, ENTRY_SIZE_BYTES);
+  }
+
+  @Override
+  synchronized void clear() {
+    Arrays.fill(mKeys, EMPTY);
+    Arrays.fill(mObjectValues, null);
+    mHead = NONE;
+    mTail = NONE;
+    mSize = 0;
+    mDeletedCount = 0;
+    mSizeBytes = 0;
+  }
+
+  @Override
+  public synchronized int getHitCount() {
+    return mHitCount;
+  }
+
+  @Override
+  public synchronized int getMissCount() {
+    return mMissCount;
+  }
+
+  synchronized int size() {
+    return mSize;
+  }
+
+  synchronized int getSizeBytes() {
+    return mSizeBytes;
+  }
+
+  private void insert(long key, int intValue, @Nullable Object objectValue, int sizeBytes) {
+    if (key >>> 32 == 0 || sizeBytes > mMaxSizeBytes) {
+      return;
+    }
+
+    int index = indexOf(key);
+    if (index != NONE) {
+      mSizeBytes += sizeBytes - mSizesBytes[index];
+      moveToTail(index);
+    } else {
+      // Keep the table at most half full, counting deleted entries which lengthen the probes.
+      if ((mSize + mDeletedCount + 1) * 2 > mKeys.length) {
+        int capacity = mKeys.length;
+        while ((mSize + 1) * 2 > capacity) {
+          capacity *= 2;
+        }
+        rehash(capacity);
+      }
+
+      index = indexOfFreeSlot(key);
+      if (mKeys[index] == DELETED) {
+        mDeletedCount--;
+      }
+      mKeys[index] = key;
+      mSize++;
+      mSizeBytes += sizeBytes;
+      linkAtTail(index);
+    }
+
+    mIntValues[index] = intValue;
+    mObjectValues[index] = objectValue;
+    mSizesBytes[index] = sizeBytes;
+
+    while (mSizeBytes > mMaxSizeBytes && mHead != index) {
+      remove(mHead);
+    }
+  }
+
+  private int indexOf(long key) {
+    final int mask = mKeys.length - 1;
+    for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+      final long k = mKeys[i];
+      if (k == key) {
+        return i;
+      }
+      if (k == EMPTY) {
+        return NONE;
+      }
+    }
+  }
+
+  private int indexOfFreeSlot(long key) {
+    final int mask = mKeys.length - 1;
+    int i = hash(key) & mask;
+    while (mKeys[i] != EMPTY && mKeys[i] != DELETED) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private void remove(int index) {
+    unlink(index);
+    mKeys[index] = DELETED;
+    mObjectValues[index] = null;
+    mSizeBytes -= mSizesBytes[index];
+    mSize--;
+    mDeletedCount++;
+  }
+
+  private void rehash(int capacity) {
+    final long[] keys = mKeys;
+    final int[] intValues = mIntValues;
+    final Object[] objectValues = mObjectValues;
+    final int[] sizesBytes = mSizesBytes;
+    final int[] next = mNext;
+    final int head = mHead;
+
+    allocate(capacity);
+
+    // Re-inserted from the least to the most recently used to keep their order.
+    for (int i = head; i != NONE; i = next[i]) {
+      final int index = indexOfFreeSlot(keys[i]);
+      mKeys[index] = keys[i];
+      mIntValues[index] = intValues[i];
+      mObjectValues[index] = objectValues[i];
+      mSizesBytes[index] = sizesBytes[i];
+      linkAtTail(index);
+      mSize++;
+    }
+  }
+
+  private void allocate(int capacity) {
+    mKeys = new long[capacity];
+    mIntValues = new int[capacity];
+    mObjectValues = new Object[capacity];
+    mSizesBytes = new int[capacity];
+    mPrevious = new int[capacity];
+    mNext = new int[capacity];
+    mHead = NONE;
+    mTail = NONE;
+    mSize = 0;
+    mDeletedCount = 0;
+  }
+
+  private void moveToTail(int index) {
+    if (index != mTail) {
+      unlink(index);
+      linkAtTail(index);
+    }
+  }
+
+  private void linkAtTail(int index) {
+    mPrevious[index] = mTail;
+    mNext[index] = NONE;
+    if (mTail != NONE) {
+      mNext[mTail] = index;
+    } else {
+      mHead = index;
+    }
+    mTail = index;
+  }
+
+  private void unlink(int index) {
+    final int previous = mPrevious[index];
+    final int next = mNext[index];
+    if (previous != NONE) {
+      mNext[previous] = next;
+    } else {
+      mHead = next;
+    }
+    if (next != NONE) {
+      mPrevious[next] = previous;
+    } else {
+      mTail = previous;
+    }
+  }
+
+  private static long toKey(int resId, int type) {
+    return ((long) resId << 32) | type;
+  }
+
+  private static int hash(long key) {
+    final int h = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int sizeOf(Object value) {
+    if (value instanceof String) {
+      return OBJECT_SIZE_BYTES + ((String) value).length() * 2;
+    }
+    if (value instanceof String[]) {
+      int size = OBJECT_SIZE_BYTES;
+      for (String string : (String[]) value) {
+        size += 4 + (string != null ? OBJECT_SIZE_BYTES + string.length() * 2 : 0);
+      }
+      return size;
+    }
+    if (value instanceof int[]) {
+      return OBJECT_SIZE_BYTES + ((int[]) value).length * 4;
+    }
+    return OBJECT_SIZE_BYTES;
   }
 }
@@ -25,4 +25,14 @@ import com.facebook.rendercore.MountItemsPool;
  */
 public interface MountContentPool extends PoolWithDebugInfo, MountItemsPool.ItemPool {
   // All relevant methods extended from MountItemsPool.ItemPool<T> and PoolWithDebugInfo
+
+  @Override
+  default int getPooledItemCount() {
+    return getCurrentSize();
+  }
+
+  @Override
+  default boolean hasFreeCapacity() {
+    return getCurrentSize() < getMaxSize();
+  }
 }
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+import androidx.annotation.VisibleForTesting;
+import com.facebook.litho.choreographercompat.ChoreographerCompat;
+import com.facebook.litho.choreographercompat.ChoreographerCompatImpl;
+import com.facebook.rendercore.ContentAllocator;
+import com.facebook.rendercore.MountItemsPool;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Creates the View mount content that laid out but not yet mounted {@link ComponentTree}s are
+ * predicted to need, so that it is already pooled when they get mounted.
+ *
+ * <p>Every call to {@link #preallocateFor(List)} replaces the predicted demand. The content that
+ * isn't already pooled is then created on the main thread while it is idle, creating at most the
+ * configured number of items per frame.
+ */
+public class MountContentPreallocator {
+
+  private final int mMaxPreallocationsPerFrame;
+  private final Handler mMainThreadHandler = new Handler(Looper.getMainLooper());
+
+  @GuardedBy("this")
+  private @Nullable Map<Object, Demand> mPendingDemand;
+
+  @GuardedBy("this")
+  private boolean mIsScheduled;
+
+  /** Number of items created so far. Main thread only. */
+  private int mPreallocatedCount;
+
+  private final Runnable mScheduleRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+      };
+
+  private final MessageQueue.IdleHandler mIdleHandler =
+      new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+          if (preallocateNextBatch()) {
+            ChoreographerCompatImpl.getInstance().postFrameCallback(mNextFrameCallback);
+          }
+          return false;
+        }
+      };
+
+  private final ChoreographerCompat.FrameCallback mNextFrameCallback =
+      new ChoreographerCompat.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+      };
+
+  /** @param maxPreallocationsPerFrame the max number of items created in a single frame. */
+  public MountContentPreallocator(int maxPreallocationsPerFrame) {
+    if (maxPreallocationsPerFrame <= 0) {
+      throw new IllegalArgumentException("maxPreallocationsPerFrame must be > 0");
+    }
+    mMaxPreallocationsPerFrame = maxPreallocationsPerFrame;
+  }
+
+  /**
+   * Replaces the predicted demand with the mount content required by the latest layouts of the
+   * given trees, and schedules the creation of what isn't pooled yet. Trees without a layout are
+   * ignored. Can be called from any thread.
+   */
+  public void preallocateFor(List<ComponentTree> componentTrees) {
+    final Map<Object, Demand> demand = new HashMap<>();
+    for (int i = 0, size = componentTrees.size(); i < size; i++) {
+      final LayoutState layoutState = componentTrees.get(i).getLatestLayoutState();
+      if (layoutState != null) {
+        layoutState.collectMountContentDemand(demand);
+      }
+    }
+
+    preallocateFor(demand);
+  }
+
+  @VisibleForTesting
+  void preallocateFor(Map<Object, Demand> demand) {
+    synchronized (this) {
+      mPendingDemand = demand.isEmpty() ? null : demand;
+      if (mPendingDemand == null || mIsScheduled) {
+        return;
+      }
+      mIsScheduled = true;
+    }
+
+    mMainThreadHandler.post(mScheduleRunnable);
+  }
+
+  /** Drops the predicted demand. Items which were already created stay in their pools. */
+  public synchronized void cancel() {
+    mPendingDemand = null;
+  }
+
+  /** @return the number of items created by this preallocator so far. */
+  @UiThread
+  public int getPreallocatedCount() {
+    return mPreallocatedCount;
+  }
+
+  /**
+   * Creates up to the per-frame budget of items.
+   *
+   * @return whether there is demand left for the next frame
+   */
+  @UiThread
+  @VisibleForTesting
+  boolean preallocateNextBatch() {
+    final Map<Object, Demand> pendingDemand;
+    synchronized (this) {
+      if (mPendingDemand == null) {
+        mIsScheduled = false;
+        return false;
+      }
+      pendingDemand = mPendingDemand;
+    }
+
+    final boolean isTracing = ComponentsSystrace.isTracing();
+    if (isTracing) {
+      ComponentsSystrace.beginSection("MountContentPreallocator.preallocateNextBatch");
+    }
+
+    final List<Demand> toPreallocate = new ArrayList<>(pendingDemand.values());
+    int budget = mMaxPreallocationsPerFrame;
+    boolean hasDemandLeft = false;
+
+    try {
+      for (int i = 0, size = toPreallocate.size(); i < size && !hasDemandLeft; i++) {
+        final Demand demand = toPreallocate.get(i);
+        int pooledCount = MountItemsPool.getPooledContentCount(demand.context, demand.allocator);
+        if (pooledCount < 0) {
+          continue;
+        }
+
+        while (pooledCount < demand.count) {
+          if (budget == 0) {
+            hasDemandLeft = true;
+            break;
+          }
+
+          if (!MountItemsPool.preallocateContent(demand.context, demand.allocator)) {
+            // The pool is full, there's no point in creating more items of this type.
+            break;
+          }
+          budget--;
+          mPreallocatedCount++;
+          pooledCount++;
+        }
+      }
+    } finally {
+      if (isTracing) {
+        ComponentsSystrace.endSection();
+      }
+    }
+
+    synchronized (this) {
+      if (mPendingDemand != pendingDemand) {
+        // The demand was replaced while we were preallocating, keep going with the new one.
+        hasDemandLeft = mPendingDemand != null;
+      }
+
+      if (!hasDemandLeft) {
+        mPendingDemand = null;
+        mIsScheduled = false;
+      }
+    }
+
+    return hasDemandLeft;
+  }
+
+  /** The number of items of one type of mount content a set of layouts will acquire. */
+  static final class Demand {
+
+    final Context context;
+    final ContentAllocator allocator;
+    int count;
+
+    Demand(Context context, ContentAllocator allocator) {
+      this.context = context;
+      this.allocator = allocator;
+    }
+  }
+}
@@ -17,6 +17,7 @@
 package com.facebook.litho;
 
 import androidx.annotation.Nullable;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.rendercore.MeasureResult;
 import com.facebook.rendercore.RenderState;
 import com.facebook.yoga.YogaNode;
@@ -27,8 +28,16 @@ import com.facebook.yoga.YogaNode;
  */
 public class NestedTreeHolderResult extends LithoLayoutResult {
 
+  /** The max number of nested trees measured with different size specs kept for reuse. */
+  static final int MAX_MEMOIZED_NESTED_RESULTS = 4;
+
   @Nullable LithoLayoutResult mNestedTree;
 
+  /** The nested trees set on this holder, most recent ones overwrite the oldest ones. */
+  private @Nullable LithoLayoutResult[] mMemoizedNestedResults;
+
+  private int mNextMemoizedIndex;
+
   public NestedTreeHolderResult(
       final ComponentContext c,
       final NestedTreeHolder internalNode,
@@ -50,7 +59,62 @@ public class NestedTreeHolderResult extends LithoLayoutResult {
     mNestedTree = tree;
     if (tree != null) {
       tree.setParent(this);
+      memoize(tree);
+    }
+  }
+
+  /**
+   * Yoga can measure a flexible child several times with different size specs in a single layout
+   * pass. This returns a nested tree which was set earlier on this holder and whose measured size
+   * is still valid for the given size specs, if any, so that it doesn't have to be resolved again.
+   * Hits are counted in {@link LithoStats#getComponentNestedTreeMemoHitCount()}.
+   */
+  @Nullable
+  LithoLayoutResult getMemoizedNestedResult(int widthSpec, int heightSpec) {
+    if (mMemoizedNestedResults == null) {
+      return null;
+    }
+
+    for (int i = 0; i < MAX_MEMOIZED_NESTED_RESULTS; i++) {
+      final LithoLayoutResult result = mMemoizedNestedResults[i];
+      if (result != null
+          && MeasureComparisonUtils.hasCompatibleSizeSpec(
+              result.getLastWidthSpec(),
+              result.getLastHeightSpec(),
+              widthSpec,
+              heightSpec,
+              result.getLastMeasuredWidth(),
+              result.getLastMeasuredHeight())) {
+        LithoStats.incrementComponentNestedTreeMemoHitCount();
+        return result;
+      }
     }
+
+    return null;
+  }
+
+  /**
+   * Drops the nested trees kept for reuse. Called once the nested tree of this holder is committed
+   * to the layout, so that the trees measured for other size specs are not retained with it.
+   */
+  void clearMemoizedNestedResults() {
+    mMemoizedNestedResults = null;
+    mNextMemoizedIndex = 0;
+  }
+
+  private void memoize(LithoLayoutResult tree) {
+    if (mMemoizedNestedResults == null) {
+      mMemoizedNestedResults = new LithoLayoutResult[MAX_MEMOIZED_NESTED_RESULTS];
+    }
+
+    for (int i = 0; i < MAX_MEMOIZED_NESTED_RESULTS; i++) {
+      if (mMemoizedNestedResults[i] == tree) {
+        return;
+      }
+    }
+
+    mMemoizedNestedResults[mNextMemoizedIndex] = tree;
+    mNextMemoizedIndex = (mNextMemoizedIndex + 1) % MAX_MEMOIZED_NESTED_RESULTS;
   }
 
   @Override
@@ -129,6 +129,33 @@ public class NodeInfo implements Equivalence<NodeInfo> {
   private static final int PFLAG_AMBIENT_SHADOW_COLOR_IS_SET = 1 << 27;
   private static final int PFLAG_SPOT_SHADOW_COLOR_IS_SET = 1 << 28;
 
+  // The groups of view attributes which are set from a NodeInfo, see
+  // NodeInfoUtils#getChangedViewAttributes.
+  static final int VIEW_ATTR_CLICK = 1 << 0;
+  static final int VIEW_ATTR_LONG_CLICK = 1 << 1;
+  static final int VIEW_ATTR_FOCUS_CHANGE = 1 << 2;
+  static final int VIEW_ATTR_TOUCH = 1 << 3;
+  static final int VIEW_ATTR_INTERCEPT_TOUCH = 1 << 4;
+  static final int VIEW_ATTR_ACCESSIBILITY = 1 << 5;
+  static final int VIEW_ATTR_VIEW_TAG = 1 << 6;
+  static final int VIEW_ATTR_VIEW_TAGS = 1 << 7;
+  static final int VIEW_ATTR_SHADOW_ELEVATION = 1 << 8;
+  static final int VIEW_ATTR_AMBIENT_SHADOW_COLOR = 1 << 9;
+  static final int VIEW_ATTR_SPOT_SHADOW_COLOR = 1 << 10;
+  static final int VIEW_ATTR_OUTLINE_PROVIDER = 1 << 11;
+  static final int VIEW_ATTR_CLIP_TO_OUTLINE = 1 << 12;
+  static final int VIEW_ATTR_CLIP_CHILDREN = 1 << 13;
+  static final int VIEW_ATTR_CONTENT_DESCRIPTION = 1 << 14;
+  static final int VIEW_ATTR_FOCUSABLE = 1 << 15;
+  static final int VIEW_ATTR_ENABLED = 1 << 16;
+  static final int VIEW_ATTR_SELECTED = 1 << 17;
+  static final int VIEW_ATTR_SCALE = 1 << 18;
+  static final int VIEW_ATTR_ALPHA = 1 << 19;
+  static final int VIEW_ATTR_ROTATION = 1 << 20;
+  static final int VIEW_ATTR_ROTATION_X = 1 << 21;
+  static final int VIEW_ATTR_ROTATION_Y = 1 << 22;
+  static final int VIEW_ATTR_TRANSITION_NAME = 1 << 23;
+
   private @Nullable CharSequence mContentDescription;
   private @Nullable Object mViewTag;
   private @Nullable String mTransitionName;
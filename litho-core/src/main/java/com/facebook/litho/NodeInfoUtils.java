@@ -168,4 +168,146 @@ public class NodeInfoUtils {
 
     return true;
   }
+
+  /**
+   * @return the groups of view attributes, i.e. the {@code NodeInfo.VIEW_ATTR_*} flags, which are
+   *     set differently from the two NodeInfos. Event handlers are compared by equivalence, so an
+   *     equivalent handler doesn't mark its group as changed.
+   */
+  static int getChangedViewAttributes(NodeInfo x, NodeInfo y) {
+    if (x == y) {
+      return 0;
+    }
+
+    int changed = 0;
+
+    if (!CommonUtils.isEquivalentTo(x.getClickHandler(), y.getClickHandler())
+        || x.getClickableState() != y.getClickableState()) {
+      changed |= NodeInfo.VIEW_ATTR_CLICK;
+    }
+
+    if (!CommonUtils.isEquivalentTo(x.getLongClickHandler(), y.getLongClickHandler())) {
+      changed |= NodeInfo.VIEW_ATTR_LONG_CLICK;
+    }
+
+    if (!CommonUtils.isEquivalentTo(x.getFocusChangeHandler(), y.getFocusChangeHandler())) {
+      changed |= NodeInfo.VIEW_ATTR_FOCUS_CHANGE;
+    }
+
+    if (!CommonUtils.isEquivalentTo(x.getTouchHandler(), y.getTouchHandler())) {
+      changed |= NodeInfo.VIEW_ATTR_TOUCH;
+    }
+
+    if (!CommonUtils.isEquivalentTo(x.getInterceptTouchHandler(), y.getInterceptTouchHandler())) {
+      changed |= NodeInfo.VIEW_ATTR_INTERCEPT_TOUCH;
+    }
+
+    if (x.needsAccessibilityDelegate() != y.needsAccessibilityDelegate()
+        || !isAccessibilityEquivalentTo(x, y)) {
+      changed |= NodeInfo.VIEW_ATTR_ACCESSIBILITY;
+    }
+
+    if (!CommonUtils.equals(x.getViewTag(), y.getViewTag())) {
+      changed |= NodeInfo.VIEW_ATTR_VIEW_TAG;
+    }
+
+    if (!CommonUtils.equals(x.getViewTags(), y.getViewTags())) {
+      changed |= NodeInfo.VIEW_ATTR_VIEW_TAGS;
+    }
+
+    if (x.getShadowElevation() != y.getShadowElevation()) {
+      changed |= NodeInfo.VIEW_ATTR_SHADOW_ELEVATION;
+    }
+
+    if (x.getAmbientShadowColor() != y.getAmbientShadowColor()) {
+      changed |= NodeInfo.VIEW_ATTR_AMBIENT_SHADOW_COLOR;
+    }
+
+    if (x.getSpotShadowColor() != y.getSpotShadowColor()) {
+      changed |= NodeInfo.VIEW_ATTR_SPOT_SHADOW_COLOR;
+    }
+
+    if (!CommonUtils.equals(x.getOutlineProvider(), y.getOutlineProvider())) {
+      changed |= NodeInfo.VIEW_ATTR_OUTLINE_PROVIDER;
+    }
+
+    if (x.getClipToOutline() != y.getClipToOutline()) {
+      changed |= NodeInfo.VIEW_ATTR_CLIP_TO_OUTLINE;
+    }
+
+    if (x.isClipChildrenSet() != y.isClipChildrenSet()
+        || x.getClipChildren() != y.getClipChildren()) {
+      changed |= NodeInfo.VIEW_ATTR_CLIP_CHILDREN;
+    }
+
+    if (!CommonUtils.equals(x.getContentDescription(), y.getContentDescription())) {
+      changed |= NodeInfo.VIEW_ATTR_CONTENT_DESCRIPTION;
+    }
+
+    if (x.getFocusState() != y.getFocusState()) {
+      changed |= NodeInfo.VIEW_ATTR_FOCUSABLE;
+    }
+
+    if (x.getEnabledState() != y.getEnabledState()) {
+      changed |= NodeInfo.VIEW_ATTR_ENABLED;
+    }
+
+    if (x.getSelectedState() != y.getSelectedState()) {
+      changed |= NodeInfo.VIEW_ATTR_SELECTED;
+    }
+
+    if (x.isScaleSet() != y.isScaleSet() || x.getScale() != y.getScale()) {
+      changed |= NodeInfo.VIEW_ATTR_SCALE;
+    }
+
+    if (x.isAlphaSet() != y.isAlphaSet() || x.getAlpha() != y.getAlpha()) {
+      changed |= NodeInfo.VIEW_ATTR_ALPHA;
+    }
+
+    if (x.isRotationSet() != y.isRotationSet() || x.getRotation() != y.getRotation()) {
+      changed |= NodeInfo.VIEW_ATTR_ROTATION;
+    }
+
+    if (x.isRotationXSet() != y.isRotationXSet() || x.getRotationX() != y.getRotationX()) {
+      changed |= NodeInfo.VIEW_ATTR_ROTATION_X;
+    }
+
+    if (x.isRotationYSet() != y.isRotationYSet() || x.getRotationY() != y.getRotationY()) {
+      changed |= NodeInfo.VIEW_ATTR_ROTATION_Y;
+    }
+
+    if (!CommonUtils.equals(x.getTransitionName(), y.getTransitionName())) {
+      changed |= NodeInfo.VIEW_ATTR_TRANSITION_NAME;
+    }
+
+    return changed;
+  }
+
+  private static boolean isAccessibilityEquivalentTo(NodeInfo x, NodeInfo y) {
+    return CommonUtils.equals(x.getAccessibilityRole(), y.getAccessibilityRole())
+        && CommonUtils.equals(
+            x.getAccessibilityRoleDescription(), y.getAccessibilityRoleDescription())
+        && x.getAccessibilityHeadingState() == y.getAccessibilityHeadingState()
+        && CommonUtils.isEquivalentTo(
+            x.getDispatchPopulateAccessibilityEventHandler(),
+            y.getDispatchPopulateAccessibilityEventHandler())
+        && CommonUtils.isEquivalentTo(
+            x.getOnInitializeAccessibilityEventHandler(),
+            y.getOnInitializeAccessibilityEventHandler())
+        && CommonUtils.isEquivalentTo(
+            x.getOnInitializeAccessibilityNodeInfoHandler(),
+            y.getOnInitializeAccessibilityNodeInfoHandler())
+        && CommonUtils.isEquivalentTo(
+            x.getOnPopulateAccessibilityEventHandler(), y.getOnPopulateAccessibilityEventHandler())
+        && CommonUtils.isEquivalentTo(
+            x.getOnRequestSendAccessibilityEventHandler(),
+            y.getOnRequestSendAccessibilityEventHandler())
+        && CommonUtils.isEquivalentTo(
+            x.getPerformAccessibilityActionHandler(), y.getPerformAccessibilityActionHandler())
+        && CommonUtils.isEquivalentTo(
+            x.getSendAccessibilityEventHandler(), y.getSendAccessibilityEventHandler())
+        && CommonUtils.isEquivalentTo(
+            x.getSendAccessibilityEventUncheckedHandler(),
+            y.getSendAccessibilityEventUncheckedHandler());
+  }
 }
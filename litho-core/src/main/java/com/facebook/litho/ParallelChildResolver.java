@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.facebook.litho.config.ComponentsConfiguration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Resolves the children of a Column or Row concurrently when {@link
+ * ComponentsConfiguration#enableParallelResolve} is on.
+ *
+ * <p>The global keys of all the children are generated on the calling thread, in order, before any
+ * child is resolved; so the keys, and the state containers registered against them, are the same
+ * as the ones of a sequential resolve. As in {@link Layout#create}, a child whose layout was
+ * created in {@link Component#willRender} uses that layout, and doesn't get a key. Children whose
+ * estimated cost reaches {@link ComponentsConfiguration#parallelResolveCostThreshold} are forked
+ * onto a thread pool, the others are resolved on the calling thread. The calling thread then runs
+ * the forked children which no pool thread has picked up yet, so that a saturated pool can't
+ * deadlock nested forks, and the resolved nodes are added to the parent in the order of the
+ * children.
+ *
+ * <p>The subtree of a LayoutSpec can't be inspected before it is resolved, so its cost is the
+ * number of nodes it resolved into the last time it was a child resolved here. LayoutSpecs which
+ * weren't resolved here yet are considered cheap, and resolved on the calling thread.
+ */
+final class ParallelChildResolver {
+
+  private static @Nullable ThreadPoolExecutor sExecutor;
+
+  /** The last resolved cost of the LayoutSpecs by type id, capped to the cost threshold. */
+  private static final Map<Integer, Integer> sLayoutSpecCosts = new ConcurrentHashMap<>();
+
+  private ParallelChildResolver() {}
+
+  /** @return whether the given children should be resolved by {@link #resolveChildren}. */
+  static boolean shouldResolveInParallel(
+      final RenderStateContext renderStateContext, final List<Component> children) {
+    if (!ComponentsConfiguration.enableParallelResolve
+        || children.size() < 2
+        || renderStateContext.isLayoutInterrupted()) {
+      return false;
+    }
+
+    int forkableChildren = 0;
+    boolean hasUnknownCost = false;
+    for (int i = 0, size = children.size(); i < size; i++) {
+      final Component child = children.get(i);
+      if (isForkable(child) && ++forkableChildren == 2) {
+        return true;
+      }
+      hasUnknownCost |= isLayoutSpec(child) && !sLayoutSpecCosts.containsKey(child.getTypeId());
+    }
+
+    // Resolve the children here anyway so that the cost of their LayoutSpecs is recorded.
+    return hasUnknownCost;
+  }
+
+  /**
+   * Resolves the children and adds them to the given node.
+   *
+   * @return the node, or null if the layout was released while its children were resolved.
+   */
+  static @Nullable LithoNode resolveChildren(
+      final RenderStateContext renderStateContext,
+      final ComponentContext parent,
+      final LithoNode node,
+      final List<Component> children) {
+    final int size = children.size();
+
+    // Generate the keys in order; this mutates the child counters of the parent's scope.
+    final LithoNode[] resolved = new LithoNode[size];
+    final String[] globalKeys = new String[size];
+    for (int i = 0; i < size; i++) {
+      final Component child = children.get(i);
+      resolved[i] = child.consumeLayoutCreatedInWillRender(renderStateContext, parent);
+      if (resolved[i] == null) {
+        globalKeys[i] =
+            ComponentKeyUtils.generateGlobalKey(parent, parent.getComponentScope(), child);
+      }
+    }
+
+    final ThreadPoolExecutor executor = getExecutor();
+    @SuppressWarnings("unchecked")
+    final FutureTask<LithoNode>[] forks = new FutureTask[size];
+    for (int i = 0; i < size; i++) {
+      final Component child = children.get(i);
+      if (globalKeys[i] != null && isForkable(child)) {
+        forks[i] =
+            new FutureTask<>(new ResolveTask(renderStateContext, parent, child, globalKeys[i]));
+        executor.execute(forks[i]);
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      if (globalKeys[i] != null && forks[i] == null) {
+        resolved[i] = Layout.create(renderStateContext, parent, children.get(i), globalKeys[i]);
+      }
+    }
+
+    for (int i = 0; i < size; i++) {
+      if (forks[i] != null) {
+        // A no-op if a pool thread already started the task.
+        forks[i].run();
+        resolved[i] = join(forks[i]);
+      }
+    }
+
+    if (renderStateContext.isLayoutReleased()) {
+      return null;
+    }
+
+    final int threshold = ComponentsConfiguration.parallelResolveCostThreshold;
+    for (int i = 0; i < size; i++) {
+      final Component child = children.get(i);
+      if (resolved[i] != null && isLayoutSpec(child)) {
+        sLayoutSpecCosts.put(child.getTypeId(), countNodes(resolved[i], threshold));
+      }
+      node.child(resolved[i]);
+    }
+
+    return node;
+  }
+
+  @VisibleForTesting
+  static boolean isForkable(final Component child) {
+    return estimateCost(child, ComponentsConfiguration.parallelResolveCostThreshold)
+        >= ComponentsConfiguration.parallelResolveCostThreshold;
+  }
+
+  /**
+   * Estimates the number of components the given component will resolve into, stopping as soon as
+   * the estimate reaches the given limit.
+   */
+  @VisibleForTesting
+  static int estimateCost(final Component component, final int limit) {
+    final List<Component> children;
+    if (component instanceof Column) {
+      children = ((Column) component).getChildren();
+    } else if (component instanceof Row) {
+      children = ((Row) component).getChildren();
+    } else if (isLayoutSpec(component)) {
+      final Integer lastCost = sLayoutSpecCosts.get(component.getTypeId());
+      return lastCost != null ? Math.min(lastCost, limit) : 1;
+    } else {
+      // MountSpecs are leaves, and nested trees are only resolved when they are measured.
+      return 1;
+    }
+
+    int cost = 1;
+    if (children != null) {
+      for (int i = 0, size = children.size(); i < size && cost < limit; i++) {
+        final int childCost = estimateCost(children.get(i), limit - cost);
+        cost = childCost >= limit - cost ? limit : cost + childCost;
+      }
+    }
+
+    return cost;
+  }
+
+  /** @return the number of nodes of the given tree, stopping as soon as it reaches the limit. */
+  private static int countNodes(final LithoNode node, final int limit) {
+    int count = 1;
+    for (int i = 0, size = node.getChildCount(); i < size && count < limit; i++) {
+      count += countNodes(node.getChildAt(i), limit - count);
+    }
+
+    return Math.min(count, limit);
+  }
+
+  private static boolean isLayoutSpec(final Component component) {
+    return Component.isLayoutSpec(component)
+        && !Component.isNestedTree(component)
+        && !(component instanceof Column)
+        && !(component instanceof Row);
+  }
+
+  @VisibleForTesting
+  static void clearLayoutSpecCosts() {
+    sLayoutSpecCosts.clear();
+  }
+
+  private static @Nullable LithoNode join(final FutureTask<LithoNode> fork) {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return fork.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          final Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+          throw new RuntimeException(cause);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static synchronized ThreadPoolExecutor getExecutor() {
+    if (sExecutor == null) {
+      final int threadCount = Math.max(1, ComponentsConfiguration.parallelResolveThreadCount);
+      sExecutor =
+          new LayoutThreadPoolExecutor(
+              threadCount, threadCount, ComponentsConfiguration.DEFAULT_BACKGROUND_THREAD_PRIORITY);
+    }
+
+    return sExecutor;
+  }
+
+  private static final class ResolveTask implements Callable<LithoNode> {
+
+    private final RenderStateContext mRenderStateContext;
+    private final ComponentContext mParent;
+    private final Component mComponent;
+    private final String mGlobalKey;
+
+    private ResolveTask(
+        final RenderStateContext renderStateContext,
+        final ComponentContext parent,
+        final Component component,
+        final String globalKey) {
+      mRenderStateContext = renderStateContext;
+      mParent = parent;
+      mComponent = component;
+      mGlobalKey = globalKey;
+    }
+
+    @Override
+    public @Nullable LithoNode call() {
+      return Layout.create(mRenderStateContext, mParent, mComponent, mGlobalKey);
+    }
+  }
+}
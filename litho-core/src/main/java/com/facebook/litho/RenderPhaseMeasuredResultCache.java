@@ -41,7 +41,7 @@ public class RenderPhaseMeasuredResultCache {
    * @param node The node generated from the component
    * @param layoutResult The layout result
    */
-  public void addCachedResult(
+  public synchronized void addCachedResult(
       final Component component, final LithoNode node, final LithoLayoutResult layoutResult) {
     addCachedResult(component.getId(), node, layoutResult);
   }
@@ -53,48 +53,48 @@ public class RenderPhaseMeasuredResultCache {
    * @param node The node generated from the component
    * @param layoutResult The layout result
    */
-  public void addCachedResult(
+  public synchronized void addCachedResult(
       final int componentId, final LithoNode node, final LithoLayoutResult layoutResult) {
     mComponentIdToNodeCache.put(componentId, node);
     mNodeToResultCache.put(node, layoutResult);
   }
 
   /** Return true if there exists a cached layout result for the given component. */
-  public boolean hasCachedNode(final Component component) {
+  public synchronized boolean hasCachedNode(final Component component) {
     return hasCachedNode(component.getId());
   }
 
   /** Return true if there exists a cached layout result for the given component ID. */
-  public boolean hasCachedNode(final int componentId) {
+  public synchronized boolean hasCachedNode(final int componentId) {
     return mComponentIdToNodeCache.containsKey(componentId);
   }
 
   /** Return true if there exists a cached layout result for the given LithoNode. */
-  public boolean hasCachedNode(final LithoNode node) {
+  public synchronized boolean hasCachedNode(final LithoNode node) {
     return mNodeToResultCache.containsKey(node);
   }
 
   /** Returns the cached LithoNode from a given component. */
   @Nullable
-  public LithoNode getCachedNode(final Component component) {
+  public synchronized LithoNode getCachedNode(final Component component) {
     return getCachedNode(component.getId());
   }
 
   /** Returns the cached LithoNode from a given component ID. */
   @Nullable
-  public LithoNode getCachedNode(final int componentId) {
+  public synchronized LithoNode getCachedNode(final int componentId) {
     return mComponentIdToNodeCache.get(componentId);
   }
 
   /** Returns the cached layout result for the given component, or null if it does not exist. */
   @Nullable
-  public LithoLayoutResult getCachedResult(final Component component) {
+  public synchronized LithoLayoutResult getCachedResult(final Component component) {
     return getCachedResult(component.getId());
   }
 
   /** Returns the cached layout result for the given component ID, or null if it does not exist. */
   @Nullable
-  public LithoLayoutResult getCachedResult(final int componentId) {
+  public synchronized LithoLayoutResult getCachedResult(final int componentId) {
     final @Nullable LithoNode node = mComponentIdToNodeCache.get(componentId);
 
     if (node == null) {
@@ -106,17 +106,17 @@ public class RenderPhaseMeasuredResultCache {
 
   /** Returns the cached layout result for the given node, or null if it does not exist. */
   @Nullable
-  public LithoLayoutResult getCachedResult(final LithoNode node) {
+  public synchronized LithoLayoutResult getCachedResult(final LithoNode node) {
     return mNodeToResultCache.get(node);
   }
 
   /** Cleares the cache generated for the given component. */
-  public void clearCache(final Component component) {
+  public synchronized void clearCache(final Component component) {
     clearCache(component.getId());
   }
 
   /** Cleares the cache generated for the given component ID. */
-  public void clearCache(final int componentId) {
+  public synchronized void clearCache(final int componentId) {
     final @Nullable LithoNode node = mComponentIdToNodeCache.get(componentId);
 
     if (node == null) {
@@ -128,12 +128,12 @@ public class RenderPhaseMeasuredResultCache {
   }
 
   /** Cleares the cache generated for the given LithoNode. */
-  public void clearCache(final LithoNode node) {
+  public synchronized void clearCache(final LithoNode node) {
     mNodeToResultCache.remove(node);
   }
 
   /** Returns a read-only cache to be used during layout phase. */
-  public LayoutPhaseMeasuredResultCache getLayoutPhaseMeasuredResultCache() {
+  public synchronized LayoutPhaseMeasuredResultCache getLayoutPhaseMeasuredResultCache() {
     return mLayoutPhaseMeasuredResultCache;
   }
 }
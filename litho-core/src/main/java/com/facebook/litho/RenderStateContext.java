@@ -57,7 +57,7 @@ public class RenderStateContext {
   }
 
   @Nullable
-  LithoNode consumeLayoutCreatedInWillRender(int componentId) {
+  synchronized LithoNode consumeLayoutCreatedInWillRender(int componentId) {
     if (mComponentIdToWillRenderLayout != null) {
       return mComponentIdToWillRenderLayout.remove(componentId);
     } else {
@@ -66,7 +66,7 @@ public class RenderStateContext {
   }
 
   @Nullable
-  LithoNode getLayoutCreatedInWillRender(int componentId) {
+  synchronized LithoNode getLayoutCreatedInWillRender(int componentId) {
     if (mComponentIdToWillRenderLayout != null) {
       return mComponentIdToWillRenderLayout.get(componentId);
     } else {
@@ -74,7 +74,7 @@ public class RenderStateContext {
     }
   }
 
-  void setLayoutCreatedInWillRender(int componentId, final @Nullable LithoNode node) {
+  synchronized void setLayoutCreatedInWillRender(int componentId, final @Nullable LithoNode node) {
     if (mComponentIdToWillRenderLayout == null) {
       mComponentIdToWillRenderLayout = new HashMap<>();
     }
@@ -22,10 +22,29 @@ import javax.annotation.Nullable;
 
 @Nullsafe(Nullsafe.Mode.LOCAL)
 public abstract class ResourceCache {
+
+  /** Returned by {@link #getInt(int, int)} if there's no value cached for a resource. */
+  static final long MISSING = Long.MIN_VALUE;
+
+  // The types a resource can be resolved as; a resource id is cached separately for each.
+  static final int TYPE_STRING = 0;
+  static final int TYPE_STRING_ARRAY = 1;
+  static final int TYPE_INT = 2;
+  static final int TYPE_INT_ARRAY = 3;
+  static final int TYPE_BOOL = 4;
+  static final int TYPE_COLOR = 5;
+  static final int TYPE_DIMEN_SIZE = 6;
+  static final int TYPE_DIMEN_OFFSET = 7;
+  static final int TYPE_FLOAT = 8;
+
   private static ResourceCache latest;
 
   static synchronized ResourceCache getLatest(Configuration configuration) {
     if (latest == null || !latest.mConfiguration.equals(configuration)) {
+      if (latest != null) {
+        // Values resolved under the previous configuration can't be reused under the new one.
+        latest.clear();
+      }
       latest = new LruResourceCache(new Configuration(configuration));
     }
     return latest;
@@ -37,8 +56,25 @@ public abstract class ResourceCache {
     mConfiguration = configuration;
   }
 
+  /** @return the object resource cached for the given id and type, or null if there's none. */
   @Nullable
-  abstract <T> T get(int key);
+  abstract <T> T get(int resId, int type);
+
+  abstract void put(int resId, int type, Object value);
+
+  /**
+   * @return the int resource cached for the given id and type, or {@link #MISSING} if there's
+   *     none. Floats and booleans are cached as their int bits.
+   */
+  abstract long getInt(int resId, int type);
+
+  abstract void putInt(int resId, int type, int value);
+
+  abstract void clear();
+
+  /** @return the number of lookups which found a cached resource. */
+  public abstract int getHitCount();
 
-  abstract void put(int key, Object object);
+  /** @return the number of lookups which didn't find a cached resource. */
+  public abstract int getMissCount();
 }
@@ -71,13 +71,13 @@ public class ResourceResolver {
 
   public @Nullable String resolveStringRes(@StringRes int resId) {
     if (resId != 0) {
-      String cached = mResourceCache.get(resId);
+      String cached = mResourceCache.get(resId, ResourceCache.TYPE_STRING);
       if (cached != null) {
         return cached;
       }
 
       String result = mResources.getString(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.put(resId, ResourceCache.TYPE_STRING, result);
 
       return result;
     }
@@ -92,13 +92,13 @@ public class ResourceResolver {
   @Nullable
   public String[] resolveStringArrayRes(@ArrayRes int resId) {
     if (resId != 0) {
-      String[] cached = mResourceCache.get(resId);
+      String[] cached = mResourceCache.get(resId, ResourceCache.TYPE_STRING_ARRAY);
       if (cached != null) {
         return cached;
       }
 
       String[] result = mResources.getStringArray(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.put(resId, ResourceCache.TYPE_STRING_ARRAY, result);
 
       return result;
     }
@@ -108,13 +108,13 @@ public class ResourceResolver {
 
   public int resolveIntRes(@IntegerRes int resId) {
     if (resId != 0) {
-      Integer cached = mResourceCache.get(resId);
-      if (cached != null) {
-        return cached;
+      final long cached = mResourceCache.getInt(resId, ResourceCache.TYPE_INT);
+      if (cached != ResourceCache.MISSING) {
+        return (int) cached;
       }
 
       int result = mResources.getInteger(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.putInt(resId, ResourceCache.TYPE_INT, result);
 
       return result;
     }
@@ -125,13 +125,13 @@ public class ResourceResolver {
   @Nullable
   public final int[] resolveIntArrayRes(@ArrayRes int resId) {
     if (resId != 0) {
-      int[] cached = mResourceCache.get(resId);
+      int[] cached = mResourceCache.get(resId, ResourceCache.TYPE_INT_ARRAY);
       if (cached != null) {
         return cached;
       }
 
       int[] result = mResources.getIntArray(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.put(resId, ResourceCache.TYPE_INT_ARRAY, result);
 
       return result;
     }
@@ -152,13 +152,13 @@ public class ResourceResolver {
 
   public boolean resolveBoolRes(@BoolRes int resId) {
     if (resId != 0) {
-      Boolean cached = mResourceCache.get(resId);
-      if (cached != null) {
-        return cached;
+      final long cached = mResourceCache.getInt(resId, ResourceCache.TYPE_BOOL);
+      if (cached != ResourceCache.MISSING) {
+        return cached != 0;
       }
 
       boolean result = mResources.getBoolean(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.putInt(resId, ResourceCache.TYPE_BOOL, result ? 1 : 0);
 
       return result;
     }
@@ -168,13 +168,13 @@ public class ResourceResolver {
 
   public @ColorInt int resolveColorRes(@ColorRes int resId) {
     if (resId != 0) {
-      Integer cached = mResourceCache.get(resId);
-      if (cached != null) {
-        return cached;
+      final long cached = mResourceCache.getInt(resId, ResourceCache.TYPE_COLOR);
+      if (cached != ResourceCache.MISSING) {
+        return (int) cached;
       }
 
       int result = mResources.getColor(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.putInt(resId, ResourceCache.TYPE_COLOR, result);
 
       return result;
     }
@@ -184,13 +184,13 @@ public class ResourceResolver {
 
   public int resolveDimenSizeRes(@DimenRes int resId) {
     if (resId != 0) {
-      Integer cached = mResourceCache.get(resId);
-      if (cached != null) {
-        return cached;
+      final long cached = mResourceCache.getInt(resId, ResourceCache.TYPE_DIMEN_SIZE);
+      if (cached != ResourceCache.MISSING) {
+        return (int) cached;
       }
 
       int result = mResources.getDimensionPixelSize(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.putInt(resId, ResourceCache.TYPE_DIMEN_SIZE, result);
 
       return result;
     }
@@ -200,13 +200,13 @@ public class ResourceResolver {
 
   public int resolveDimenOffsetRes(@DimenRes int resId) {
     if (resId != 0) {
-      Integer cached = mResourceCache.get(resId);
-      if (cached != null) {
-        return cached;
+      final long cached = mResourceCache.getInt(resId, ResourceCache.TYPE_DIMEN_OFFSET);
+      if (cached != ResourceCache.MISSING) {
+        return (int) cached;
       }
 
       int result = mResources.getDimensionPixelOffset(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.putInt(resId, ResourceCache.TYPE_DIMEN_OFFSET, result);
 
       return result;
     }
@@ -216,13 +216,13 @@ public class ResourceResolver {
 
   public float resolveFloatRes(@DimenRes int resId) {
     if (resId != 0) {
-      Float cached = mResourceCache.get(resId);
-      if (cached != null) {
-        return cached;
+      final long cached = mResourceCache.getInt(resId, ResourceCache.TYPE_FLOAT);
+      if (cached != ResourceCache.MISSING) {
+        return Float.intBitsToFloat((int) cached);
       }
 
       float result = mResources.getDimension(resId);
-      mResourceCache.put(resId, result);
+      mResourceCache.putInt(resId, ResourceCache.TYPE_FLOAT, Float.floatToRawIntBits(result));
 
       return result;
     }
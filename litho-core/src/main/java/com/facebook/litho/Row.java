@@ -87,6 +87,11 @@ public final class Row extends Component {
     return true;
   }
 
+  @Nullable
+  List<Component> getChildren() {
+    return children;
+  }
+
   public static Builder create(ComponentContext context) {
     return create(context, 0, 0, "Row");
   }
@@ -126,6 +131,10 @@ public final class Row extends Component {
     }
 
     if (children != null) {
+      if (ParallelChildResolver.shouldResolveInParallel(renderStateContext, children)) {
+        return ParallelChildResolver.resolveChildren(renderStateContext, c, node, children);
+      }
+
       for (Component child : children) {
         if (renderStateContext.isLayoutReleased()) {
           return null;
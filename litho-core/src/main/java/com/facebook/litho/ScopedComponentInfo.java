@@ -52,6 +52,15 @@ public class ScopedComponentInfo implements Cloneable {
    */
   private @Nullable List<WorkingRangeContainer.Registration> mWorkingRangeRegistrations;
 
+  /**
+   * The id of the {@link EventHandlersController.EventHandlersWrapper} of this component found by
+   * the last lookup, and the version of the controller at that time. Lets the controller skip the
+   * lookup by global key when this info is bound again.
+   */
+  private int mEventHandlersWrapperId = EventHandlersController.NO_WRAPPER_ID;
+
+  private int mEventHandlersLookupVersion;
+
   ScopedComponentInfo(
       final Component component,
       final ComponentContext context,
@@ -155,6 +164,19 @@ public class ScopedComponentInfo implements Cloneable {
     mErrorEventHandler = errorHandler;
   }
 
+  int getEventHandlersWrapperId() {
+    return mEventHandlersWrapperId;
+  }
+
+  int getEventHandlersLookupVersion() {
+    return mEventHandlersLookupVersion;
+  }
+
+  void setEventHandlersLookupResult(int wrapperId, int version) {
+    mEventHandlersWrapperId = wrapperId;
+    mEventHandlersLookupVersion = version;
+  }
+
   public void commitToLayoutState(final TreeState treeState) {
     if (mComponent.usesLocalStateContainer()) {
       if (hasState()) {
@@ -166,6 +188,11 @@ public class ScopedComponentInfo implements Cloneable {
       treeState.keepStateContainerForGlobalKey(
           mContext.getGlobalKey(), mContext.isNestedTreeContext());
     }
+
+    if (mComponent instanceof SpecGeneratedComponent) {
+      treeState.keepCachedValuesForGlobalKey(
+          mContext.getGlobalKey(), mContext.isNestedTreeContext());
+    }
   }
 
   /**
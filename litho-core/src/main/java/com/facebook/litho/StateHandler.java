@@ -21,9 +21,11 @@ import static com.facebook.litho.StateContainer.StateUpdate;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.facebook.infer.annotation.ThreadSafe;
+import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.stats.LithoStats;
 import com.facebook.rendercore.transitions.TransitionUtils;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -68,11 +70,40 @@ public class StateHandler {
   @GuardedBy("this")
   private HashSet<String> mNeededStateContainers;
 
+  /** The number of keys in {@link #mNeededStateContainers} which have a StateContainer. */
+  @GuardedBy("this")
+  private int mNeededStateContainersWithStateCount;
+
+  /**
+   * Keys whose StateContainer was added or replaced in this StateHandler since it was copied from
+   * {@link #mBaseStateHandler}, other than by applying state updates.
+   */
+  @GuardedBy("this")
+  private @Nullable HashSet<String> mDirtyKeys;
+
+  /** The StateHandler this one was copied from, and the number of commits it had at that time. */
+  private final @Nullable StateHandler mBaseStateHandler;
+
+  private final int mBaseCommitCount;
+
+  @GuardedBy("this")
+  private int mCommitCount;
+
   /** Map of all cached values that are stored for the current ComponentTree. */
   @GuardedBy("this")
   @Nullable
   private Map<Object, Object> mCachedValues;
 
+  /** The @OnCalculateCachedValue results stored for the current ComponentTree. */
+  private volatile @Nullable CachedValueStore mCachedValueStore;
+
+  /**
+   * The global keys of the components of the layout, only tracked if the base StateHandler stored
+   * @OnCalculateCachedValue results when this one was created.
+   */
+  @GuardedBy("this")
+  private final @Nullable HashSet<String> mNeededCachedValueKeys;
+
   // These are both lists of (globalKey, updateMethod) pairs, where globalKey is the global key
   // of the component the update applies to
   @GuardedBy("this")
@@ -94,11 +125,20 @@ public class StateHandler {
 
   @VisibleForTesting
   public StateHandler(final @Nullable StateHandler stateHandler) {
+    mBaseStateHandler = stateHandler;
+    mNeededCachedValueKeys =
+        stateHandler != null && stateHandler.mCachedValueStore != null
+            ? new HashSet<String>()
+            : null;
+
     if (stateHandler == null) {
       this.mInitialStateContainer = new InitialStateContainer();
+      mBaseCommitCount = 0;
       return;
     }
 
+    mBaseCommitCount = stateHandler.getCommitCount();
+
     synchronized (this) {
       this.mInitialStateContainer = stateHandler.mInitialStateContainer;
       copyStateUpdatesMap(
@@ -167,9 +207,23 @@ public class StateHandler {
     pendingStateUpdatesForKey.add(stateUpdate);
   }
 
-  void keepStateContainerForGlobalKey(String key) {
+  synchronized void keepStateContainerForGlobalKey(String key) {
     maybeInitNeededStateContainers();
-    mNeededStateContainers.add(key);
+    if (mNeededStateContainers.add(key)
+        && mStateContainers != null
+        && mStateContainers.containsKey(key)) {
+      mNeededStateContainersWithStateCount++;
+    }
+  }
+
+  /**
+   * Keeps the @OnCalculateCachedValue entries of the component with the given global key when this
+   * StateHandler is committed; the entries of the components which aren't kept are dropped.
+   */
+  synchronized void keepCachedValuesForGlobalKey(String key) {
+    if (mNeededCachedValueKeys != null) {
+      mNeededCachedValueKeys.add(key);
+    }
   }
 
   /**
@@ -272,8 +326,7 @@ public class StateHandler {
             }
 
             final StateContainer newStateContainer = stateContainer.clone();
-            mNeededStateContainers.add(key);
-            mStateContainers.put(key, newStateContainer);
+            putNeededStateContainer(key, newStateContainer);
             applyStateUpdates(context, key, newStateContainer);
           } catch (Exception ex) {
 
@@ -366,8 +419,25 @@ public class StateHandler {
   public synchronized void addStateContainer(String key, StateContainer state) {
     maybeInitStateContainers();
     maybeInitNeededStateContainers();
-    mNeededStateContainers.add(key);
-    mStateContainers.put(key, state);
+    final StateContainer previous = putNeededStateContainer(key, state);
+
+    // Spec components get a new container with the transferred values in every layout, only new
+    // containers and hook containers replaced to hold more states are actual changes.
+    if (previous == null || (previous != state && previous instanceof KStateContainer)) {
+      if (mDirtyKeys == null) {
+        mDirtyKeys = new HashSet<>();
+      }
+      mDirtyKeys.add(key);
+    }
+  }
+
+  @GuardedBy("this")
+  private @Nullable StateContainer putNeededStateContainer(String key, StateContainer state) {
+    final StateContainer previous = mStateContainers.put(key, state);
+    if (mNeededStateContainers.add(key) || previous == null) {
+      mNeededStateContainersWithStateCount++;
+    }
+    return previous;
   }
 
   private static @Nullable Transition obtainTransitionFromStateContainer(
@@ -400,17 +470,121 @@ public class StateHandler {
    * @param stateHandler state handler that was used to apply state updates in a layout pass
    */
   void commit(StateHandler stateHandler) {
+    final boolean canCommitDirtyKeysOnly;
+    synchronized (this) {
+      // Only the keys touched by the layout differ from this StateHandler if nothing else was
+      // committed since it was copied. Debug overrides mutate containers in place, so they always
+      // commit every container.
+      canCommitDirtyKeysOnly =
+          stateHandler.mBaseStateHandler == this
+              && stateHandler.mBaseCommitCount == mCommitCount
+              && !ComponentsConfiguration.isDebugModeEnabled;
+      mCommitCount++;
+    }
+
     clearStateUpdates(stateHandler.getAppliedStateUpdates());
-    clearUnusedStateContainers(stateHandler);
-    copyCurrentStateContainers(stateHandler.getStateContainers());
+    final List<String> removedKeys = clearUnusedStateContainers(stateHandler);
+    final int committedKeysCount;
+    if (canCommitDirtyKeysOnly) {
+      committedKeysCount = commitDirtyStateContainers(stateHandler, removedKeys);
+    } else {
+      final Map<String, StateContainer> stateContainers = stateHandler.getStateContainers();
+      copyCurrentStateContainers(stateContainers);
+      committedKeysCount = stateContainers.size();
+    }
+    LithoStats.incrementComponentStateCommitCount();
+    LithoStats.incrementComponentCommittedStateKeyCountBy(committedKeysCount);
+
     copyPendingStateTransitions(stateHandler.getPendingStateUpdateTransitions());
     commitHookState(stateHandler.mAppliedHookUpdates);
+    clearUnusedCachedValues(stateHandler);
 
     if (mStateContainerNotFoundForKeys != null) {
       mStateContainerNotFoundForKeys.clear();
     }
   }
 
+  /**
+   * Drops the @OnCalculateCachedValue entries of the components which left the tree in the layout
+   * of the given StateHandler.
+   */
+  private void clearUnusedCachedValues(StateHandler stateHandler) {
+    final @Nullable CachedValueStore cachedValueStore = mCachedValueStore;
+    final @Nullable Set<String> neededCachedValueKeys = stateHandler.getNeededCachedValueKeys();
+    // The kept keys are only known for the entries of the store the layout was based on.
+    if (cachedValueStore != null
+        && neededCachedValueKeys != null
+        && stateHandler.mBaseStateHandler == this) {
+      cachedValueStore.retainAll(neededCachedValueKeys);
+    }
+  }
+
+  private synchronized @Nullable Set<String> getNeededCachedValueKeys() {
+    return mNeededCachedValueKeys;
+  }
+
+  private synchronized int getCommitCount() {
+    return mCommitCount;
+  }
+
+  /**
+   * Copies the containers of the keys the given StateHandler added, replaced or applied updates to,
+   * and removes the keys it dropped.
+   *
+   * @return the number of keys committed.
+   */
+  private int commitDirtyStateContainers(
+      final StateHandler stateHandler, final @Nullable List<String> removedKeys) {
+    final Map<String, StateContainer> stateContainers = stateHandler.getStateContainers();
+    final Set<String> dirtyKeys = stateHandler.getDirtyKeys();
+    int committedKeysCount = 0;
+
+    synchronized (this) {
+      maybeInitStateContainers();
+
+      if (removedKeys != null) {
+        for (int i = 0, size = removedKeys.size(); i < size; i++) {
+          mStateContainers.remove(removedKeys.get(i));
+        }
+        committedKeysCount += removedKeys.size();
+      }
+
+      for (String key : dirtyKeys) {
+        final StateContainer stateContainer = stateContainers.get(key);
+        if (stateContainer != null) {
+          mStateContainers.put(key, stateContainer);
+        } else {
+          mStateContainers.remove(key);
+        }
+        committedKeysCount++;
+      }
+    }
+
+    return committedKeysCount;
+  }
+
+  /**
+   * @return the keys whose StateContainer changed in this StateHandler, including the ones of
+   *     applied state and hook updates.
+   */
+  private synchronized Set<String> getDirtyKeys() {
+    final boolean hasAppliedUpdates =
+        (mAppliedStateUpdates != null && !mAppliedStateUpdates.isEmpty())
+            || (mAppliedHookUpdates != null && !mAppliedHookUpdates.isEmpty());
+    if (!hasAppliedUpdates) {
+      return mDirtyKeys != null ? mDirtyKeys : Collections.<String>emptySet();
+    }
+
+    final Set<String> keys = mDirtyKeys != null ? new HashSet<>(mDirtyKeys) : new HashSet<String>();
+    if (mAppliedStateUpdates != null) {
+      keys.addAll(mAppliedStateUpdates.keySet());
+    }
+    if (mAppliedHookUpdates != null) {
+      keys.addAll(mAppliedHookUpdates.keySet());
+    }
+    return keys;
+  }
+
   synchronized Set<String> getKeysForPendingUpdates() {
     final Set<String> keys = new HashSet<>();
     if (mAppliedStateUpdates != null) {
@@ -528,6 +702,27 @@ public class StateHandler {
     mCachedValues.put(cachedValueInputs, cachedValue);
   }
 
+  @Nullable
+  Object getCachedValueEntry(String globalKey, String cachedValueName) {
+    final @Nullable CachedValueStore cachedValueStore = mCachedValueStore;
+    return cachedValueStore != null ? cachedValueStore.get(globalKey, cachedValueName) : null;
+  }
+
+  void putCachedValueEntry(String globalKey, String cachedValueName, Object entry) {
+    @Nullable CachedValueStore cachedValueStore = mCachedValueStore;
+    if (cachedValueStore == null) {
+      synchronized (this) {
+        cachedValueStore = mCachedValueStore;
+        if (cachedValueStore == null) {
+          cachedValueStore = new CachedValueStore();
+          mCachedValueStore = cachedValueStore;
+        }
+      }
+    }
+
+    cachedValueStore.put(globalKey, cachedValueName, entry);
+  }
+
   /**
    * Copies the information from the given map of state updates into the map of pending state
    * updates.
@@ -594,20 +789,34 @@ public class StateHandler {
     }
   }
 
-  private static void clearUnusedStateContainers(StateHandler currentStateHandler) {
+  /** @return the keys of the removed state containers, or null if none was removed. */
+  private static @Nullable List<String> clearUnusedStateContainers(
+      StateHandler currentStateHandler) {
     final HashSet<String> neededStateContainers = currentStateHandler.mNeededStateContainers;
-    final List<String> stateContainerKeys = new ArrayList<>();
     if (neededStateContainers == null || currentStateHandler.mStateContainers == null) {
-      return;
+      return null;
     }
 
-    stateContainerKeys.addAll(currentStateHandler.mStateContainers.keySet());
+    // Every container is needed, there is nothing to look for.
+    if (currentStateHandler.mStateContainers.size()
+        == currentStateHandler.mNeededStateContainersWithStateCount) {
+      return null;
+    }
 
+    List<String> removedKeys = null;
+    final List<String> stateContainerKeys =
+        new ArrayList<>(currentStateHandler.mStateContainers.keySet());
     for (String key : stateContainerKeys) {
       if (!neededStateContainers.contains(key)) {
         currentStateHandler.mStateContainers.remove(key);
+        if (removedKeys == null) {
+          removedKeys = new ArrayList<>();
+        }
+        removedKeys.add(key);
       }
     }
+
+    return removedKeys;
   }
 
   private void copyPendingStateTransitions(
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import androidx.annotation.Nullable;
+import com.facebook.infer.annotation.Nullsafe;
+import com.facebook.litho.StateContainer.StateUpdate;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A lock-free queue of the async state updates of a {@link ComponentTree}.
+ *
+ * <p>Any number of threads can enqueue updates without taking a lock. The updates are moved to the
+ * {@link TreeState} of the tree in one batch, in the order they were enqueued, by {@link
+ * #drainTo(TreeState)}; which the tree calls while holding its lock, right before the pending
+ * updates of its TreeState are read.
+ */
+@Nullsafe(Nullsafe.Mode.LOCAL)
+final class StateUpdateQueue {
+
+  /** The most recently enqueued update, the updates are linked in reverse order. */
+  private final AtomicReference<Node> mHead = new AtomicReference<>();
+
+  void enqueueStateUpdate(String key, StateUpdate stateUpdate, boolean isNestedTree) {
+    push(new Node(key, stateUpdate, null, isNestedTree));
+  }
+
+  void enqueueHookStateUpdate(String key, HookUpdater updater, boolean isNestedTree) {
+    push(new Node(key, null, updater, isNestedTree));
+  }
+
+  private void push(final Node node) {
+    Node head;
+    do {
+      head = mHead.get();
+      node.mNext = head;
+    } while (!mHead.compareAndSet(head, node));
+  }
+
+  boolean isEmpty() {
+    return mHead.get() == null;
+  }
+
+  /**
+   * Queues all the enqueued updates on the given TreeState, in the order they were enqueued.
+   *
+   * @return the number of updates which were queued.
+   */
+  int drainTo(final TreeState treeState) {
+    @Nullable Node node = mHead.getAndSet(null);
+    if (node == null) {
+      return 0;
+    }
+
+    @Nullable Node first = null;
+    while (node != null) {
+      final @Nullable Node next = node.mNext;
+      node.mNext = first;
+      first = node;
+      node = next;
+    }
+
+    int count = 0;
+    for (node = first; node != null; node = node.mNext) {
+      if (node.mStateUpdate != null) {
+        treeState.queueStateUpdate(node.mKey, node.mStateUpdate, false, node.mIsNestedTree);
+      } else if (node.mHookUpdater != null) {
+        treeState.queueHookStateUpdate(node.mKey, node.mHookUpdater, node.mIsNestedTree);
+      }
+      count++;
+    }
+
+    return count;
+  }
+
+  /** Drops all the enqueued updates. */
+  void clear() {
+    mHead.set(null);
+  }
+
+  private static final class Node {
+
+    private final String mKey;
+    private final @Nullable StateUpdate mStateUpdate;
+    private final @Nullable HookUpdater mHookUpdater;
+    private final boolean mIsNestedTree;
+    private @Nullable Node mNext;
+
+    private Node(
+        String key,
+        @Nullable StateUpdate stateUpdate,
+        @Nullable HookUpdater hookUpdater,
+        boolean isNestedTree) {
+      mKey = key;
+      mStateUpdate = stateUpdate;
+      mHookUpdater = hookUpdater;
+      mIsNestedTree = isNestedTree;
+    }
+  }
+}
@@ -145,6 +145,11 @@ public class TreeState {
     stateHandler.keepStateContainerForGlobalKey(key);
   }
 
+  void keepCachedValuesForGlobalKey(String key, boolean isNestedTree) {
+    final StateHandler stateHandler = getStateHandler(isNestedTree);
+    stateHandler.keepCachedValuesForGlobalKey(key);
+  }
+
   @Nullable
   StateContainer getStateContainer(String key, boolean isNestedTree) {
     final StateHandler stateHandler = getStateHandler(isNestedTree);
@@ -258,6 +263,18 @@ public class TreeState {
     return stateHandler.getCachedValue(cachedValueInputs);
   }
 
+  void putCachedValueEntry(
+      String globalKey, String cachedValueName, Object entry, boolean isNestedTree) {
+    final StateHandler stateHandler = getStateHandler(isNestedTree);
+    stateHandler.putCachedValueEntry(globalKey, cachedValueName, entry);
+  }
+
+  @Nullable
+  Object getCachedValueEntry(String globalKey, String cachedValueName, boolean isNestedTree) {
+    final StateHandler stateHandler = getStateHandler(isNestedTree);
+    return stateHandler.getCachedValueEntry(globalKey, cachedValueName);
+  }
+
   <T> KStateContainer createOrGetInitialHookState(
       String key, int hookStateIndex, HookInitializer<T> initializer, boolean isNestedTree) {
     final StateHandler stateHandler = getStateHandler(isNestedTree);
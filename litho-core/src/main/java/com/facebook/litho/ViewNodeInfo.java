@@ -28,6 +28,15 @@ import javax.annotation.Nullable;
 /** Additional information used to set properties on Views during mounting. */
 class ViewNodeInfo {
 
+  // The groups of view attributes which are set from a ViewNodeInfo, see
+  // #getChangedViewAttributes.
+  static final int VIEW_ATTR_LAYER_TYPE = 1 << 0;
+  static final int VIEW_ATTR_STATE_LIST_ANIMATOR = 1 << 1;
+  static final int VIEW_ATTR_BACKGROUND = 1 << 2;
+  static final int VIEW_ATTR_FOREGROUND = 1 << 3;
+  static final int VIEW_ATTR_PADDING = 1 << 4;
+  static final int VIEW_ATTR_LAYOUT_DIRECTION = 1 << 5;
+
   private @Nullable Drawable mBackground;
   private @Nullable Drawable mForeground;
   private Rect mPadding;
@@ -203,4 +212,43 @@ class ViewNodeInfo {
 
     return true;
   }
+
+  /**
+   * @return the groups of view attributes, i.e. the {@code VIEW_ATTR_*} flags, which are set
+   *     differently from this ViewNodeInfo and the other one.
+   */
+  int getChangedViewAttributes(ViewNodeInfo other) {
+    if (this == other) {
+      return 0;
+    }
+
+    int changed = 0;
+
+    if (mLayoutType != other.mLayoutType || mLayerPaint != other.mLayerPaint) {
+      changed |= VIEW_ATTR_LAYER_TYPE;
+    }
+
+    if (mStateListAnimatorRes != other.mStateListAnimatorRes
+        || !CommonUtils.equals(mStateListAnimator, other.mStateListAnimator)) {
+      changed |= VIEW_ATTR_STATE_LIST_ANIMATOR;
+    }
+
+    if (!DrawableUtils.isEquivalentTo(mBackground, other.mBackground)) {
+      changed |= VIEW_ATTR_BACKGROUND;
+    }
+
+    if (!DrawableUtils.isEquivalentTo(mForeground, other.mForeground)) {
+      changed |= VIEW_ATTR_FOREGROUND;
+    }
+
+    if (!CommonUtils.equals(mPadding, other.mPadding)) {
+      changed |= VIEW_ATTR_PADDING;
+    }
+
+    if (!CommonUtils.equals(mLayoutDirection, other.mLayoutDirection)) {
+      changed |= VIEW_ATTR_LAYOUT_DIRECTION;
+    }
+
+    return changed;
+  }
 }
@@ -247,6 +247,59 @@ public class ComponentsConfiguration {
 
   public static boolean enableMountableComponents = false;
 
+  /**
+   * If true, the changes of a DynamicValue are applied to the mounted content once per frame, with
+   * the latest value, instead of on every change.
+   */
+  public static boolean coalesceDynamicValueUpdatesPerFrame = false;
+
+  /**
+   * If true, the children of a Column or Row whose estimated resolve cost reaches {@link
+   * #parallelResolveCostThreshold} are resolved concurrently on a dedicated thread pool.
+   */
+  public static boolean enableParallelResolve = false;
+
+  /**
+   * The minimum estimated number of components in a child subtree for it to be resolved on another
+   * thread when {@link #enableParallelResolve} is on.
+   */
+  public static int parallelResolveCostThreshold = 16;
+
+  /** The number of threads used to resolve children when {@link #enableParallelResolve} is on. */
+  public static int parallelResolveThreadCount =
+      Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+  /**
+   * If true, async state updates are enqueued on a lock-free queue of their ComponentTree, which is
+   * drained in one batch before the next layout reads the pending state updates.
+   */
+  public static boolean useLockFreeStateUpdateQueue = false;
+
+  /**
+   * If true, a mounted View which is updated only has the view attributes which changed reset and
+   * set again, and its listeners are retargeted to the next event handlers, instead of having all
+   * its view attributes unset and set.
+   */
+  public static boolean updateViewAttributesInPlace = false;
+
+  /**
+   * If true, Card shadows and clipped corners are drawn from bitmaps pre-rendered once per corner
+   * radius, shadow size and colours and shared by all the cards through a process-wide cache.
+   */
+  public static boolean useCardBitmapCache = false;
+
+  /**
+   * If true, the results of a layout taller than a couple of screens are only collected for its
+   * first screens, and the rest is collected on the main thread as the visible rect approaches it.
+   */
+  public static boolean collectResultsLazilyForTallLayouts = false;
+
+  /**
+   * If greater than 0, the time in milliseconds a RecyclerBinder spends applying ready async
+   * batches in a frame: the rest of a very large batch is applied on the next frames.
+   */
+  public static long asyncBatchApplyBudgetMs = 0;
+
   private static ComponentsConfiguration.Builder defaultBuilder = new Builder();
 
   private static ComponentsConfiguration defaultComponentsConfiguration = defaultBuilder.build();
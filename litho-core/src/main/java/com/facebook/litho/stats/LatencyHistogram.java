@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.stats;
+
+import androidx.annotation.VisibleForTesting;
+import com.facebook.infer.annotation.Nullsafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ *
+ * <p>Durations are counted in log-linear buckets, in the manner of an HDR histogram: every power of
+ * two is split into 8 buckets of equal width, so any recorded duration is reported with a relative
+ * error below 12.5%. Durations from 2^36 ns (about a minute) are counted in the last bucket.
+ */
+@Nullsafe(Nullsafe.Mode.LOCAL)
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 36;
+
+  /** The buckets of every power of two up to 2^MAX_EXPONENT, and one for longer durations. */
+  @VisibleForTesting
+  static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + 1;
+
+  private final AtomicLongArray mCounts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong mTotalNanos = new AtomicLong(0);
+  private final AtomicLong mMaxNanos = new AtomicLong(0);
+
+  /** Records a duration, negative durations are recorded as 0. */
+  public void record(long nanos) {
+    if (nanos < 0) {
+      nanos = 0;
+    }
+
+    mCounts.incrementAndGet(getBucketIndex(nanos));
+    mTotalNanos.addAndGet(nanos);
+
+    long max = mMaxNanos.get();
+    while (nanos > max && !mMaxNanos.compareAndSet(max, nanos)) {
+      max = mMaxNanos.get();
+    }
+  }
+
+  /**
+   * @return a copy of the recorded durations. Durations recorded concurrently may be partially
+   *     included in it.
+   */
+  public Snapshot snapshot() {
+    final long[] counts = new long[BUCKET_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = mCounts.get(i);
+      count += counts[i];
+    }
+
+    return new Snapshot(counts, count, mTotalNanos.get(), mMaxNanos.get());
+  }
+
+  /** Drops all the recorded durations. */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      mCounts.set(i, 0);
+    }
+    mTotalNanos.set(0);
+    mMaxNanos.set(0);
+  }
+
+  @VisibleForTesting
+  static int getBucketIndex(long nanos) {
+    if (nanos < SUB_BUCKET_COUNT) {
+      return (int) nanos;
+    }
+
+    final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+    if (exponent >= MAX_EXPONENT) {
+      return BUCKET_COUNT - 1;
+    }
+
+    // The buckets of a power of two are indexed by the bits following its leading one.
+    final int shift = exponent - SUB_BUCKET_BITS;
+    final int subBucket = (int) (nanos >>> shift) & (SUB_BUCKET_COUNT - 1);
+    return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  /** @return the highest duration counted in the given bucket. */
+  @VisibleForTesting
+  static long getBucketUpperBound(int index) {
+    if (index >= BUCKET_COUNT - 1) {
+      return Long.MAX_VALUE;
+    }
+
+    final int next = index + 1;
+    if (next < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    final int shift = next / SUB_BUCKET_COUNT - 1;
+    return ((long) (SUB_BUCKET_COUNT + next % SUB_BUCKET_COUNT) << shift) - 1;
+  }
+
+  /** An immutable copy of the durations recorded by a {@link LatencyHistogram}. */
+  public static final class Snapshot {
+
+    private final long[] mCounts;
+    private final long mCount;
+    private final long mTotalNanos;
+    private final long mMaxNanos;
+
+    Snapshot(long[] counts, long count, long totalNanos, long maxNanos) {
+      mCounts = counts;
+      mCount = count;
+      mTotalNanos = totalNanos;
+      mMaxNanos = maxNanos;
+    }
+
+    /** @return the number of recorded durations. */
+    public long getCount() {
+      return mCount;
+    }
+
+    /** @return the sum of the recorded durations. */
+    public long getTotalNanos() {
+      return mTotalNanos;
+    }
+
+    /** @return the longest recorded duration. */
+    public long getMaxNanos() {
+      return mMaxNanos;
+    }
+
+    /** @return the mean of the recorded durations, or 0 if none was recorded. */
+    public long getMeanNanos() {
+      return mCount == 0 ? 0 : mTotalNanos / mCount;
+    }
+
+    /**
+     * @param percentile between 0 and 100.
+     * @return the duration which the given percentage of the recorded durations doesn't exceed, or
+     *     0 if none was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+      if (mCount == 0) {
+        return 0;
+      }
+
+      final double clamped = Math.max(0, Math.min(100, percentile));
+      final long rank = Math.max(1, (long) Math.ceil(clamped / 100 * mCount));
+      long seen = 0;
+      for (int i = 0; i < mCounts.length; i++) {
+        seen += mCounts[i];
+        if (seen >= rank) {
+          return Math.min(getBucketUpperBound(i), mMaxNanos);
+        }
+      }
+
+      return mMaxNanos;
+    }
+  }
+}
@@ -16,19 +16,66 @@
 
 package com.facebook.litho.stats;
 
+import androidx.annotation.IntDef;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import com.facebook.infer.annotation.Nullsafe;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /** Provides global counters about Litho internals. Useful for performance analyses. */
 @Nullsafe(Nullsafe.Mode.LOCAL)
 public final class LithoStats {
+
+  /** Resolving the component tree into LithoNodes. */
+  public static final int PHASE_RESOLVE = 0;
+  /** Measuring the resolved tree. */
+  public static final int PHASE_MEASURE = 1;
+  /** Collecting the render units of the measured tree. */
+  public static final int PHASE_COLLECT_RESULTS = 2;
+  /** Mounting a layout into a LithoView. */
+  public static final int PHASE_MOUNT = 3;
+  /** Generating the changeset of a section tree, including the DataDiff of its sections. */
+  public static final int PHASE_CHANGESET_GENERATION = 4;
+  /** Diffing the data of a DataDiffSection. */
+  public static final int PHASE_DATA_DIFF = 5;
+
+  private static final int PHASE_COUNT = 6;
+
+  @IntDef({
+    PHASE_RESOLVE,
+    PHASE_MEASURE,
+    PHASE_COLLECT_RESULTS,
+    PHASE_MOUNT,
+    PHASE_CHANGESET_GENERATION,
+    PHASE_DATA_DIFF
+  })
+  @Retention(RetentionPolicy.SOURCE)
+  public @interface Phase {}
+
+  /** Returned by {@link #getPhaseStartTime()} when phase latencies aren't tracked. */
+  public static final long PHASE_NOT_TRACKED = Long.MIN_VALUE;
+
+  /** The maximum number of root names whose phase latencies are tracked separately. */
+  @VisibleForTesting static final int MAX_TRACKED_ROOT_NAMES = 32;
+
   private static final AtomicLong sComponentAppliedStateUpdateCount = new AtomicLong(0);
   private static final AtomicLong sComponentTriggeredSyncStateUpdateCount = new AtomicLong(0);
   private static final AtomicLong sComponentTriggeredAsyncStateUpdateCount = new AtomicLong(0);
   private static final AtomicLong sComponentCalculateLayoutCount = new AtomicLong(0);
   private static final AtomicLong sComponentCalculateLayoutOnUICount = new AtomicLong(0);
   private static final AtomicLong sComponentMountCount = new AtomicLong(0);
+  private static final AtomicLong sComponentCompatibleSpecLayoutReuseCount = new AtomicLong(0);
+  private static final AtomicLong sComponentNestedTreeResolveCount = new AtomicLong(0);
+  private static final AtomicLong sComponentNestedTreeMemoHitCount = new AtomicLong(0);
+  private static final AtomicLong sComponentStateCommitCount = new AtomicLong(0);
+  private static final AtomicLong sComponentCommittedStateKeyCount = new AtomicLong(0);
+  private static final AtomicLong sDynamicValueCoalescedUpdateCount = new AtomicLong(0);
+  private static final AtomicLong sDynamicValueFrameUpdateCount = new AtomicLong(0);
 
   private static final AtomicLong sSectionAppliedStateUpdateCount = new AtomicLong(0);
   private static final AtomicLong sSectionTriggeredSyncStateUpdateCount = new AtomicLong(0);
@@ -36,6 +83,17 @@ public final class LithoStats {
   private static final AtomicLong sSectionCalculateNewChangesetCount = new AtomicLong(0);
   private static final AtomicLong sSectionCalculateNewChangesetOnUICount = new AtomicLong(0);
 
+  private static volatile boolean sIsPhaseLatencyTrackingEnabled;
+  private static final LatencyHistogram[] sPhaseLatencies = new LatencyHistogram[PHASE_COUNT];
+  private static final ConcurrentHashMap<String, LatencyHistogram[]> sPhaseLatenciesByRootName =
+      new ConcurrentHashMap<>();
+
+  static {
+    for (int i = 0; i < PHASE_COUNT; i++) {
+      sPhaseLatencies[i] = new LatencyHistogram();
+    }
+  }
+
   /**
    * @return the global count of all applied state updates (async, lazy and sync) in Litho
    *     components that have happened in the process.
@@ -81,6 +139,59 @@ public final class LithoStats {
     return sComponentMountCount.get();
   }
 
+  /**
+   * @return the global count of layouts that were reused for size specs different from the ones
+   *     they were computed with, because the measured size was still valid for the new specs.
+   */
+  public static long getComponentCompatibleSpecLayoutReuseCount() {
+    return sComponentCompatibleSpecLayoutReuseCount.get();
+  }
+
+  /**
+   * @return the global count of nested trees (e.g. OnCreateLayoutWithSizeSpec components) that
+   *     were resolved during measure.
+   */
+  public static long getComponentNestedTreeResolveCount() {
+    return sComponentNestedTreeResolveCount.get();
+  }
+
+  /**
+   * @return the global count of nested trees that were not resolved again during measure because
+   *     a result measured earlier in the same layout was compatible with the size specs.
+   */
+  public static long getComponentNestedTreeMemoHitCount() {
+    return sComponentNestedTreeMemoHitCount.get();
+  }
+
+  /** @return the global count of the state committed to a ComponentTree after a layout. */
+  public static long getComponentStateCommitCount() {
+    return sComponentStateCommitCount.get();
+  }
+
+  /**
+   * @return the global count of the state keys whose StateContainer was copied or removed when the
+   *     state of a layout was committed to its ComponentTree.
+   */
+  public static long getComponentCommittedStateKeyCount() {
+    return sComponentCommittedStateKeyCount.get();
+  }
+
+  /**
+   * @return the global count of DynamicValue changes that were not applied on their own because
+   *     the value was already waiting to be applied in the next frame.
+   */
+  public static long getDynamicValueCoalescedUpdateCount() {
+    return sDynamicValueCoalescedUpdateCount.get();
+  }
+
+  /**
+   * @return the global count of DynamicValues whose latest value was applied to the mounted
+   *     content in a frame callback.
+   */
+  public static long getDynamicValueFrameUpdateCount() {
+    return sDynamicValueFrameUpdateCount.get();
+  }
+
   /**
    * @return the global count of all applied state updates (async, lazy and sync) in Litho sections
    *     that have happened in the process.
@@ -180,6 +291,69 @@ public final class LithoStats {
     return sComponentMountCount.addAndGet(1);
   }
 
+  /**
+   * Increment the count of layouts reused for compatible, but different, size specs (by one).
+   *
+   * @return The new total number of compatible size spec layout reuses recorded.
+   */
+  public static long incrementComponentCompatibleSpecLayoutReuseCount() {
+    return sComponentCompatibleSpecLayoutReuseCount.addAndGet(1);
+  }
+
+  /**
+   * Increment the count of nested trees resolved during measure.
+   *
+   * @return The new total number of nested tree resolves recorded.
+   */
+  public static long incrementComponentNestedTreeResolveCount() {
+    return sComponentNestedTreeResolveCount.addAndGet(1);
+  }
+
+  /**
+   * Increment the count of nested trees reused from the results measured earlier in a layout.
+   *
+   * @return The new total number of nested tree memo hits recorded.
+   */
+  public static long incrementComponentNestedTreeMemoHitCount() {
+    return sComponentNestedTreeMemoHitCount.addAndGet(1);
+  }
+
+  /**
+   * Increment the count of state commits.
+   *
+   * @return The new total number of state commits recorded.
+   */
+  public static long incrementComponentStateCommitCount() {
+    return sComponentStateCommitCount.addAndGet(1);
+  }
+
+  /**
+   * Increment the count of committed state keys by {@param num}.
+   *
+   * @return The new total number of committed state keys recorded.
+   */
+  public static long incrementComponentCommittedStateKeyCountBy(final long num) {
+    return sComponentCommittedStateKeyCount.addAndGet(num);
+  }
+
+  /**
+   * Increment the count of DynamicValue changes coalesced into an already pending frame update.
+   *
+   * @return The new total number of coalesced DynamicValue changes recorded.
+   */
+  public static long incrementDynamicValueCoalescedUpdateCount() {
+    return sDynamicValueCoalescedUpdateCount.addAndGet(1);
+  }
+
+  /**
+   * Increment the count of DynamicValues applied in a frame callback.
+   *
+   * @return The new total number of DynamicValue frame updates recorded.
+   */
+  public static long incrementDynamicValueFrameUpdateCount() {
+    return sDynamicValueFrameUpdateCount.addAndGet(1);
+  }
+
   /**
    * Increment the count of all applied state updates in Litho sections by {@param num}.
    *
@@ -227,6 +401,95 @@ public final class LithoStats {
     return sSectionCalculateNewChangesetOnUICount.addAndGet(1);
   }
 
+  /**
+   * Enables or disables the tracking of phase latencies. Phases are neither timed nor recorded
+   * while it is disabled, which is the default.
+   */
+  public static void setPhaseLatencyTrackingEnabled(boolean enabled) {
+    sIsPhaseLatencyTrackingEnabled = enabled;
+  }
+
+  /** @return whether the latencies of the phases are tracked. */
+  public static boolean isPhaseLatencyTrackingEnabled() {
+    return sIsPhaseLatencyTrackingEnabled;
+  }
+
+  /**
+   * @return the time at which a phase starts, to be passed to {@link #recordPhaseLatency} when it
+   *     ends; or {@link #PHASE_NOT_TRACKED} if phase latencies aren't tracked.
+   */
+  public static long getPhaseStartTime() {
+    return sIsPhaseLatencyTrackingEnabled ? System.nanoTime() : PHASE_NOT_TRACKED;
+  }
+
+  /**
+   * Records the latency of a phase which just ended. The latency is recorded for the phase, and
+   * for the given root name as long as fewer than {@link #MAX_TRACKED_ROOT_NAMES} root names are
+   * tracked.
+   *
+   * @param startTime the value returned by {@link #getPhaseStartTime()} when the phase started.
+   */
+  public static void recordPhaseLatency(
+      @Phase int phase, @Nullable String rootName, long startTime) {
+    if (startTime == PHASE_NOT_TRACKED) {
+      return;
+    }
+
+    final long latency = System.nanoTime() - startTime;
+    sPhaseLatencies[phase].record(latency);
+
+    if (rootName != null) {
+      final @Nullable LatencyHistogram[] rootLatencies = getRootLatencies(rootName);
+      if (rootLatencies != null) {
+        rootLatencies[phase].record(latency);
+      }
+    }
+  }
+
+  private static @Nullable LatencyHistogram[] getRootLatencies(String rootName) {
+    final @Nullable LatencyHistogram[] rootLatencies = sPhaseLatenciesByRootName.get(rootName);
+    if (rootLatencies != null || sPhaseLatenciesByRootName.size() >= MAX_TRACKED_ROOT_NAMES) {
+      return rootLatencies;
+    }
+
+    final LatencyHistogram[] newRootLatencies = new LatencyHistogram[PHASE_COUNT];
+    for (int i = 0; i < PHASE_COUNT; i++) {
+      newRootLatencies[i] = new LatencyHistogram();
+    }
+
+    final @Nullable LatencyHistogram[] previous =
+        sPhaseLatenciesByRootName.putIfAbsent(rootName, newRootLatencies);
+    return previous != null ? previous : newRootLatencies;
+  }
+
+  /** @return the latencies recorded for the given phase, across all root names. */
+  public static LatencyHistogram.Snapshot getPhaseLatencySnapshot(@Phase int phase) {
+    return sPhaseLatencies[phase].snapshot();
+  }
+
+  /**
+   * @return the latencies recorded for the given phase and root name, or null if the root name
+   *     isn't tracked.
+   */
+  public static @Nullable LatencyHistogram.Snapshot getPhaseLatencySnapshot(
+      @Phase int phase, String rootName) {
+    final @Nullable LatencyHistogram[] rootLatencies = sPhaseLatenciesByRootName.get(rootName);
+    return rootLatencies != null ? rootLatencies[phase].snapshot() : null;
+  }
+
+  /** @return the root names whose phase latencies are tracked. */
+  public static Set<String> getPhaseLatencyRootNames() {
+    return new HashSet<>(sPhaseLatenciesByRootName.keySet());
+  }
+
+  /** Drops all the recorded phase latencies, and the tracked root names. */
+  public static void resetPhaseLatencies() {
+    for (int i = 0; i < PHASE_COUNT; i++) {
+      sPhaseLatencies[i].reset();
+    }
+    sPhaseLatenciesByRootName.clear();
+  }
+
   @VisibleForTesting
   public static synchronized void resetAllCounters() {
     sComponentAppliedStateUpdateCount.set(0);
@@ -235,10 +498,18 @@ public final class LithoStats {
     sComponentCalculateLayoutCount.set(0);
     sComponentCalculateLayoutOnUICount.set(0);
     sComponentMountCount.set(0);
+    sComponentCompatibleSpecLayoutReuseCount.set(0);
+    sComponentNestedTreeResolveCount.set(0);
+    sComponentNestedTreeMemoHitCount.set(0);
+    sComponentStateCommitCount.set(0);
+    sComponentCommittedStateKeyCount.set(0);
+    sDynamicValueCoalescedUpdateCount.set(0);
+    sDynamicValueFrameUpdateCount.set(0);
     sSectionAppliedStateUpdateCount.set(0);
     sSectionTriggeredSyncStateUpdateCount.set(0);
     sSectionTriggeredAsyncStateUpdateCount.set(0);
     sSectionCalculateNewChangesetCount.set(0);
     sSectionCalculateNewChangesetOnUICount.set(0);
+    resetPhaseLatencies();
   }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import com.facebook.litho.widget.ChangeSetCompleteCallback
+import com.facebook.litho.widget.RecyclerBinder
+import com.facebook.litho.widget.RenderInfo
+import kotlin.coroutines.resume
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.produceIn
+import kotlinx.coroutines.suspendCancellableCoroutine
+
+/**
+ * A change to a list of items, in the positions of the list as it is when the change is applied.
+ * Emitted by a [Flow] given to [applyTo], so that a list can be updated without diffing it.
+ */
+sealed class ListOperation<out T> {
+
+  /** Inserts [items] at [index]. */
+  data class Insert<T>(val index: Int, val items: List<T>) : ListOperation<T>()
+
+  /** Removes [count] items starting at [index]. */
+  data class Remove(val index: Int, val count: Int) : ListOperation<Nothing>()
+
+  /** Replaces the items starting at [index] with [items]. */
+  data class Update<T>(val index: Int, val items: List<T>) : ListOperation<T>()
+
+  /** Moves the item at [fromIndex] to [toIndex]. */
+  data class Move(val fromIndex: Int, val toIndex: Int) : ListOperation<Nothing>()
+}
+
+/**
+ * Collects this flow of [ListOperation]s and applies them to the given [recyclerBinder] as async
+ * change sets, creating the [RenderInfo] of each inserted or updated item with [renderInfo].
+ *
+ * The operations emitted while a change set is being applied are applied together in the next
+ * change set, at most one per frame: consecutive inserts of adjacent ranges (e.g. pages appended to
+ * a feed) are applied as a single range insert. Operations are buffered up to [bufferCapacity],
+ * after which the flow is suspended until the [recyclerBinder] catches up.
+ *
+ * This suspends until the flow completes, and the [recyclerBinder] shouldn't be updated in any
+ * other way meanwhile. As for any async change set, the operations are only applied once the
+ * [recyclerBinder] has been measured.
+ */
+suspend fun <T> Flow<ListOperation<T>>.applyTo(
+    recyclerBinder: RecyclerBinder,
+    bufferCapacity: Int = Channel.BUFFERED,
+    renderInfo: (T) -> RenderInfo,
+) {
+  coroutineScope {
+    val operations = buffer(bufferCapacity).produceIn(this)
+    val batch = ListOperationsBatch(recyclerBinder, renderInfo)
+    for (operation in operations) {
+      batch.add(operation)
+      while (true) {
+        batch.add(operations.tryReceive().getOrNull() ?: break)
+      }
+      batch.apply()
+      recyclerBinder.awaitChangeSetComplete()
+    }
+  }
+}
+
+private suspend fun RecyclerBinder.awaitChangeSetComplete() {
+  suspendCancellableCoroutine<Unit> { continuation ->
+    notifyChangeSetCompleteAsync(
+        true,
+        object : ChangeSetCompleteCallback {
+          override fun onDataBound() {
+            if (continuation.isActive) {
+              continuation.resume(Unit)
+            }
+          }
+
+          override fun onDataRendered(isMounted: Boolean, uptimeMillis: Long) = Unit
+        })
+  }
+}
+
+/**
+ * Applies [ListOperation]s to a [RecyclerBinder], holding back inserts so that the adjacent ones
+ * are applied as a single range insert.
+ */
+private class ListOperationsBatch<T>(
+    private val recyclerBinder: RecyclerBinder,
+    private val renderInfo: (T) -> RenderInfo,
+) {
+
+  private var pendingInsertIndex = -1
+  private val pendingInserts = ArrayList<RenderInfo>()
+
+  fun add(operation: ListOperation<T>) {
+    if (operation is ListOperation.Insert<T>) {
+      if (operation.items.isEmpty()) {
+        return
+      }
+      if (pendingInsertIndex + pendingInserts.size != operation.index) {
+        applyPendingInserts()
+        pendingInsertIndex = operation.index
+      }
+      operation.items.mapTo(pendingInserts, renderInfo)
+      return
+    }
+
+    applyPendingInserts()
+    when (operation) {
+      is ListOperation.Remove ->
+          if (operation.count > 0) {
+            recyclerBinder.removeRangeAtAsync(operation.index, operation.count)
+          }
+      is ListOperation.Update ->
+          if (operation.items.isNotEmpty()) {
+            recyclerBinder.updateRangeAtAsync(operation.index, operation.items.map(renderInfo))
+          }
+      is ListOperation.Move -> recyclerBinder.moveItemAsync(operation.fromIndex, operation.toIndex)
+      is ListOperation.Insert -> Unit
+    }
+  }
+
+  fun apply() {
+    applyPendingInserts()
+  }
+
+  private fun applyPendingInserts() {
+    if (pendingInserts.isEmpty()) {
+      return
+    }
+    recyclerBinder.insertRangeAtAsync(pendingInsertIndex, ArrayList(pendingInserts))
+    pendingInserts.clear()
+    pendingInsertIndex = -1
+  }
+}
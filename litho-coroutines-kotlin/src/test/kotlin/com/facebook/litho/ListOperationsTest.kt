@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho
+
+import android.os.Looper
+import androidx.test.core.app.ApplicationProvider
+import androidx.recyclerview.widget.RecyclerView
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.facebook.litho.SizeSpec.EXACTLY
+import com.facebook.litho.testing.Whitebox
+import com.facebook.litho.widget.ComponentRenderInfo
+import com.facebook.litho.widget.RecyclerBinder
+import com.facebook.litho.widget.RenderInfo
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.consumeAsFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestCoroutineDispatcher
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.robolectric.Shadows
+import org.robolectric.annotation.LooperMode
+import org.robolectric.shadows.ShadowLooper
+
+/** Unit tests for [applyTo] with a flow of [ListOperation]s. */
+@OptIn(ExperimentalCoroutinesApi::class)
+@LooperMode(LooperMode.Mode.LEGACY)
+@RunWith(AndroidJUnit4::class)
+class ListOperationsTest {
+
+  private val testDispatcher = TestCoroutineDispatcher()
+  private val operations = Channel<ListOperation<String>>(Channel.UNLIMITED)
+
+  private lateinit var context: ComponentContext
+  private lateinit var recyclerBinder: RecyclerBinder
+  private lateinit var layoutThreadShadowLooper: ShadowLooper
+
+  @Before
+  fun setUp() {
+    testDispatcher.pauseDispatcher()
+    layoutThreadShadowLooper =
+        Shadows.shadowOf(
+            Whitebox.invokeMethod<Looper>(
+                ComponentTree::class.java, "getDefaultLayoutThreadLooper"))
+
+    context = ComponentContext(ApplicationProvider.getApplicationContext())
+    recyclerBinder = RecyclerBinder.Builder().build(context)
+    recyclerBinder.measure(
+        Size(), SizeSpec.makeSizeSpec(1000, EXACTLY), SizeSpec.makeSizeSpec(1000, EXACTLY), null)
+  }
+
+  @Test
+  fun `apply inserts emitted together`() {
+    val observer = mock<RecyclerView.AdapterDataObserver>()
+    recyclerBinder.internalAdapter.registerAdapterDataObserver(observer)
+    val job = CoroutineScope(testDispatcher).launch { applyOperations() }
+
+    operations.trySend(ListOperation.Insert(0, listOf("a", "b")))
+    operations.trySend(ListOperation.Insert(2, listOf("c")))
+    operations.trySend(ListOperation.Insert(0, listOf("z")))
+    applyChangeSets()
+
+    assertThat(items()).containsExactly("z", "a", "b", "c")
+    // The adjacent inserts are merged in a single range, the insert before them isn't.
+    verify(observer).onItemRangeInserted(0, 3)
+    verify(observer).onItemRangeInserted(0, 1)
+    verify(observer, times(2)).onItemRangeInserted(any(), any())
+
+    job.cancel()
+  }
+
+  @Test
+  fun `apply suspends the flow once the buffer is full`() {
+    var emittedCount = 0
+    val job =
+        CoroutineScope(testDispatcher).launch {
+          flow {
+                for (i in 0 until OPERATIONS_COUNT) {
+                  emit(ListOperation.Insert(i, listOf("$i")))
+                  emittedCount++
+                }
+              }
+              .applyTo(recyclerBinder, bufferCapacity = 1) { createRenderInfo(it) }
+        }
+
+    // The first change set isn't complete until the layout thread runs, meanwhile the flow fills
+    // the buffer and is suspended.
+    testDispatcher.runCurrent()
+    assertThat(emittedCount).isLessThan(OPERATIONS_COUNT)
+
+    applyChangeSets()
+
+    assertThat(emittedCount).isEqualTo(OPERATIONS_COUNT)
+    assertThat(items()).containsExactly("0", "1", "2", "3")
+    assertThat(job.isCompleted).isTrue
+
+    job.cancel()
+  }
+
+  @Test
+  fun `apply removes, moves and updates in order`() {
+    val job = CoroutineScope(testDispatcher).launch { applyOperations() }
+
+    operations.trySend(ListOperation.Insert(0, listOf("a", "b", "c")))
+    applyChangeSets()
+    operations.trySend(ListOperation.Remove(0, 1))
+    operations.trySend(ListOperation.Move(0, 1))
+    operations.trySend(ListOperation.Update(0, listOf("d")))
+    operations.trySend(ListOperation.Insert(2, listOf("e")))
+    applyChangeSets()
+
+    assertThat(items()).containsExactly("d", "b", "e")
+
+    job.cancel()
+  }
+
+  private suspend fun applyOperations() {
+    operations.consumeAsFlow().applyTo(recyclerBinder) { createRenderInfo(it) }
+  }
+
+  /** Runs the collection of the operations until their change sets have been applied. */
+  private fun applyChangeSets() {
+    // The operations may be split across change sets, depending on when they are buffered.
+    repeat(MAX_CHANGE_SETS) {
+      testDispatcher.runCurrent()
+      layoutThreadShadowLooper.runToEndOfTasks()
+      ShadowLooper.runUiThreadTasks()
+    }
+    testDispatcher.runCurrent()
+  }
+
+  private fun createRenderInfo(item: String): RenderInfo =
+      ComponentRenderInfo.create()
+          .component(Row.create(context).heightPx(10).build())
+          .customAttribute(ITEM, item)
+          .build()
+
+  private fun items(): List<Any?> =
+      (0 until recyclerBinder.itemCount).map {
+        recyclerBinder.getComponentTreeHolderAt(it).renderInfo.getCustomAttribute(ITEM)
+      }
+
+  companion object {
+    private const val ITEM = "item"
+    private const val MAX_CHANGE_SETS = 5
+    private const val OPERATIONS_COUNT = 4
+  }
+}
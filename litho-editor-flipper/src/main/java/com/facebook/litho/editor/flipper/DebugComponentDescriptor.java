@@ -65,6 +65,8 @@ import javax.annotation.Nullable;
 
 public class DebugComponentDescriptor extends NodeDescriptor<DebugComponent> {
 
+  private final DebugComponentSnapshot mSnapshot;
+
   private Map<
           String, List<Pair<String[], Pair<SetDataOperations.FlipperValueHint, FlipperDynamic>>>>
       mOverrides = new HashMap<>();
@@ -127,6 +129,18 @@ public class DebugComponentDescriptor extends NodeDescriptor<DebugComponent> {
         }
       };
 
+  public DebugComponentDescriptor() {
+    this(new DebugComponentSnapshot());
+  }
+
+  /**
+   * @param snapshot the snapshot of the hierarchies whose serialised props this descriptor reuses,
+   *     usually shared with a {@link LithoViewDescriptor}.
+   */
+  public DebugComponentDescriptor(DebugComponentSnapshot snapshot) {
+    mSnapshot = snapshot;
+  }
+
   @Override
   public void init(DebugComponent node) {
     // We rely on the LithoView being invalidated when a component hierarchy changes.
@@ -431,13 +445,12 @@ public class DebugComponentDescriptor extends NodeDescriptor<DebugComponent> {
   }
 
   @Nullable
-  private static List<Named<FlipperObject>> getPropData(DebugComponent node) throws Exception {
+  private List<Named<FlipperObject>> getPropData(DebugComponent node) throws Exception {
     if (node.canResolve()) {
       return null;
     }
 
-    final Component component = node.getComponent();
-    return DataUtils.getPropData(component);
+    return mSnapshot.getPropData(node);
   }
 
   @Nullable
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.editor.flipper;
+
+import android.view.View;
+import androidx.annotation.VisibleForTesting;
+import com.facebook.flipper.core.FlipperObject;
+import com.facebook.flipper.plugins.inspector.Named;
+import com.facebook.litho.Component;
+import com.facebook.litho.DebugComponent;
+import com.facebook.litho.LithoView;
+import com.facebook.litho.StateContainer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the last snapshot of the {@link DebugComponent} hierarchy of each {@link LithoView} shown
+ * in the inspector, keyed by their global keys, which are stable across layouts. The snapshot of a
+ * LithoView is dropped when it's detached or released.
+ *
+ * <p>{@link #update(LithoView, DebugComponent)} diffs a hierarchy against the previous snapshot and
+ * returns only the nodes whose component, state or children changed, so that the inspector
+ * refreshes those nodes instead of the whole tree. Snapshots are only taken while the inspector is
+ * connected. The props of the changed nodes are serialised on a background thread, and {@link
+ * #getPropData(DebugComponent)} serves the serialised props of a node for as long as its component
+ * stays equivalent.
+ */
+public final class DebugComponentSnapshot {
+
+  private static @Nullable ExecutorService sSerializationExecutor;
+
+  /** The entries of the nodes of the hierarchy of each LithoView, keyed by global key. */
+  private final Map<LithoView, Map<String, Entry>> mSnapshots = new WeakHashMap<>();
+
+  private final View.OnAttachStateChangeListener mOnDetachListener =
+      new View.OnAttachStateChangeListener() {
+        @Override
+        public void onViewAttachedToWindow(View view) {}
+
+        @Override
+        public void onViewDetachedFromWindow(View view) {
+          remove((LithoView) view);
+        }
+      };
+
+  /**
+   * Diffs the hierarchy under the given root against the previous snapshot of the LithoView, and
+   * makes it the new snapshot.
+   *
+   * @return the nodes which changed since the previous snapshot, or null if there's no previous
+   *     snapshot of the LithoView, in which case the whole hierarchy should be refreshed.
+   */
+  public @Nullable List<DebugComponent> update(LithoView view, DebugComponent root) {
+    final List<DebugComponent> changed = new ArrayList<>();
+    final List<Entry> toSerialize = new ArrayList<>();
+    final @Nullable Map<String, Entry> previous;
+    synchronized (this) {
+      previous = mSnapshots.get(view);
+      if (previous == null) {
+        view.removeOnAttachStateChangeListener(mOnDetachListener);
+        view.addOnAttachStateChangeListener(mOnDetachListener);
+      }
+
+      // Nodes which are gone are dropped with the previous snapshot.
+      final Map<String, Entry> next = new HashMap<>();
+      update(root, previous, next, changed, toSerialize);
+      mSnapshots.put(view, next);
+    }
+
+    if (!toSerialize.isEmpty()) {
+      getSerializationExecutor().execute(new SerializePropsTask(toSerialize));
+    }
+
+    return previous != null ? changed : null;
+  }
+
+  /**
+   * @return the serialised props of the node, reusing the ones of the previous snapshot if its
+   *     component is unchanged.
+   */
+  public @Nullable List<Named<FlipperObject>> getPropData(DebugComponent node) throws Exception {
+    final Component component = node.getComponent();
+    final @Nullable Entry entry = findEntry(node, component);
+    if (entry != null) {
+      final List<Named<FlipperObject>> propData = entry.mPropData;
+      if (propData != null) {
+        return propData;
+      }
+    }
+
+    final List<Named<FlipperObject>> propData = DataUtils.getPropData(component);
+    if (entry != null) {
+      entry.mPropData = propData;
+    }
+    return propData;
+  }
+
+  private synchronized @Nullable Entry findEntry(DebugComponent node, Component component) {
+    final @Nullable LithoView view = node.getLithoView();
+    final @Nullable Map<String, Entry> snapshot = view != null ? mSnapshots.get(view) : null;
+    final @Nullable Entry entry = snapshot != null ? snapshot.get(node.getGlobalKey()) : null;
+    return entry != null && entry.mComponent == component ? entry : null;
+  }
+
+  /**
+   * Drops the snapshot of the given LithoView, e.g. when it's released. Its next update will
+   * refresh it entirely.
+   */
+  public synchronized void remove(LithoView view) {
+    if (mSnapshots.remove(view) != null) {
+      view.removeOnAttachStateChangeListener(mOnDetachListener);
+    }
+  }
+
+  @VisibleForTesting
+  synchronized boolean hasSnapshot(LithoView view) {
+    return mSnapshots.containsKey(view);
+  }
+
+  /** Drops the snapshots, the next update of every hierarchy will refresh it entirely. */
+  public synchronized void clear() {
+    mSnapshots.clear();
+  }
+
+  private static void update(
+      final DebugComponent node,
+      final @Nullable Map<String, Entry> previous,
+      final Map<String, Entry> next,
+      final List<DebugComponent> changed,
+      final List<Entry> toSerialize) {
+    final String globalKey = node.getGlobalKey();
+    final Component component = node.getComponent();
+    final List<DebugComponent> children = node.getChildComponents();
+    final String[] childKeys = new String[children.size()];
+    for (int i = 0; i < childKeys.length; i++) {
+      childKeys[i] = children.get(i).getGlobalKey();
+    }
+
+    Entry entry = previous != null ? previous.get(globalKey) : null;
+    if (entry == null) {
+      entry = new Entry(component);
+      toSerialize.add(entry);
+      changed.add(node);
+    } else {
+      final boolean isComponentChanged =
+          entry.mComponent != component && !component.isEquivalentTo(entry.mComponent);
+      if (isComponentChanged) {
+        entry.mPropData = null;
+        toSerialize.add(entry);
+      }
+
+      if (isComponentChanged
+          || entry.mStateContainer != node.getStateContainer()
+          || !isSameKeys(entry.mChildKeys, childKeys)) {
+        changed.add(node);
+      }
+
+      // Equivalent components serialise to the same props, keep the ones already serialised.
+      entry.mComponent = component;
+    }
+
+    entry.mStateContainer = node.getStateContainer();
+    entry.mChildKeys = childKeys;
+    next.put(globalKey, entry);
+
+    for (int i = 0, size = children.size(); i < size; i++) {
+      update(children.get(i), previous, next, changed, toSerialize);
+    }
+  }
+
+  private static boolean isSameKeys(@Nullable String[] previous, String[] next) {
+    if (previous == null || previous.length != next.length) {
+      return false;
+    }
+
+    for (int i = 0; i < next.length; i++) {
+      if (!next[i].equals(previous[i])) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static synchronized ExecutorService getSerializationExecutor() {
+    if (sSerializationExecutor == null) {
+      sSerializationExecutor =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                  final Thread thread = new Thread(runnable, "LithoInspectorSerializer");
+                  thread.setDaemon(true);
+                  thread.setPriority(Thread.MIN_PRIORITY);
+                  return thread;
+                }
+              });
+    }
+
+    return sSerializationExecutor;
+  }
+
+  private static final class Entry {
+
+    volatile Component mComponent;
+    volatile @Nullable List<Named<FlipperObject>> mPropData;
+    @Nullable StateContainer mStateContainer;
+    @Nullable String[] mChildKeys;
+
+    Entry(Component component) {
+      mComponent = component;
+    }
+  }
+
+  private static final class SerializePropsTask implements Runnable {
+
+    private final List<Entry> mEntries;
+
+    SerializePropsTask(List<Entry> entries) {
+      mEntries = entries;
+    }
+
+    @Override
+    public void run() {
+      for (int i = 0, size = mEntries.size(); i < size; i++) {
+        final Entry entry = mEntries.get(i);
+        final Component component = entry.mComponent;
+        if (entry.mPropData != null) {
+          continue;
+        }
+
+        try {
+          final List<Named<FlipperObject>> propData = DataUtils.getPropData(component);
+          // Don't publish props serialised for a component which was replaced meanwhile.
+          if (entry.mComponent == component) {
+            entry.mPropData = propData;
+          }
+        } catch (Exception ignored) {
+          // The props will be serialised on demand, surfacing the error to the inspector.
+        }
+      }
+    }
+  }
+}
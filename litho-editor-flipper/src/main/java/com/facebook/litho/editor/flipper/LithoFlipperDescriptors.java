@@ -25,8 +25,9 @@ import com.facebook.litho.widget.LithoRecyclerView;
 public final class LithoFlipperDescriptors {
 
   public static void add(DescriptorMapping descriptorMapping) {
-    descriptorMapping.register(LithoView.class, new LithoViewDescriptor());
-    descriptorMapping.register(DebugComponent.class, new DebugComponentDescriptor());
+    final DebugComponentSnapshot snapshot = new DebugComponentSnapshot();
+    descriptorMapping.register(LithoView.class, new LithoViewDescriptor(snapshot));
+    descriptorMapping.register(DebugComponent.class, new DebugComponentDescriptor(snapshot));
   }
 
   public static void addWithSections(DescriptorMapping descriptorMapping) {
@@ -33,18 +33,60 @@ import javax.annotation.Nullable;
 
 public class LithoViewDescriptor extends NodeDescriptor<LithoView> {
 
+  private final DebugComponentSnapshot mSnapshot;
+
+  public LithoViewDescriptor() {
+    this(new DebugComponentSnapshot());
+  }
+
+  /**
+   * @param snapshot the snapshot used to refresh only the components which changed when the
+   *     LithoView is mounted again, usually shared with a {@link DebugComponentDescriptor}.
+   */
+  public LithoViewDescriptor(DebugComponentSnapshot snapshot) {
+    mSnapshot = snapshot;
+  }
+
   @Override
   public void init(LithoView node) throws Exception {
     node.setOnDirtyMountListener(
         new LithoView.OnDirtyMountListener() {
           @Override
           public void onDirtyMount(LithoView view) {
-            invalidate(view);
+            invalidateChanged(view);
             invalidateAX(view);
           }
         });
   }
 
+  private void invalidateChanged(LithoView view) {
+    if (!connected()) {
+      // Only snapshot hierarchies while the inspector is connected, it refreshes them all when it
+      // connects anyway.
+      mSnapshot.remove(view);
+      return;
+    }
+
+    final DebugComponent root = DebugComponent.getRootInstance(view);
+    if (root == null) {
+      // The LithoView was released.
+      mSnapshot.remove(view);
+      invalidate(view);
+      return;
+    }
+
+    final List<DebugComponent> changed = mSnapshot.update(view, root);
+    if (changed == null) {
+      invalidate(view);
+      return;
+    }
+
+    final NodeDescriptor descriptor = descriptorForClass(DebugComponent.class);
+    for (int i = 0, size = changed.size(); i < size; i++) {
+      descriptor.invalidate(changed.get(i));
+    }
+  }
+
   @Override
   public String getId(LithoView node) throws Exception {
     final NodeDescriptor descriptor = descriptorForClass(ViewGroup.class);
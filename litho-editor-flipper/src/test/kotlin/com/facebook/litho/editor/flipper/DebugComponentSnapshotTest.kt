@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.editor.flipper
+
+import android.app.Activity
+import android.view.ViewGroup
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.facebook.litho.Column
+import com.facebook.litho.Component
+import com.facebook.litho.ComponentScope
+import com.facebook.litho.DebugComponent
+import com.facebook.litho.KComponent
+import com.facebook.litho.LithoView
+import com.facebook.litho.Row
+import com.facebook.litho.Style
+import com.facebook.litho.core.height
+import com.facebook.litho.core.width
+import com.facebook.litho.px
+import com.facebook.litho.testing.LithoViewRule
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.Robolectric
+
+@RunWith(AndroidJUnit4::class)
+class DebugComponentSnapshotTest {
+
+  @Rule @JvmField val lithoViewRule = LithoViewRule()
+
+  private val snapshot = DebugComponentSnapshot()
+
+  @Test
+  fun `views with the same root type keep their own snapshot`() {
+    val first = lithoViewRule.render { Item(text = "first") }.lithoView
+    val second = lithoViewRule.render { Item(text = "second") }.lithoView
+
+    assertThat(snapshot.update(first, rootOf(first))).isNull()
+    assertThat(snapshot.update(second, rootOf(second))).isNull()
+
+    assertThat(snapshot.update(first, rootOf(first))).isEmpty()
+    assertThat(snapshot.update(second, rootOf(second))).isEmpty()
+
+    val secondLabel = rootOf(second).childComponents[0].childComponents[0]
+    val props = snapshot.getPropData(secondLabel)?.find { it.name == "Props" }
+    assertThat(props?.value?.getObject("text")?.getString("value")).isEqualTo("second")
+  }
+
+  @Test
+  fun `update returns only the components which changed`() {
+    val testLithoView = lithoViewRule.render { Item(text = "before") }
+    val lithoView = testLithoView.lithoView
+    snapshot.update(lithoView, rootOf(lithoView))
+
+    testLithoView.setRoot(Item(text = "after")).measure().layout()
+    lithoViewRule.idle()
+    val changed = snapshot.update(lithoView, rootOf(lithoView))
+
+    assertThat(changed).isNotNull
+    val changedLabels = changed!!.map { it.component }.filterIsInstance<Label>().map { it.text }
+    assertThat(changedLabels).containsExactly("after")
+  }
+
+  @Test
+  fun `snapshot of a view is dropped when it is detached`() {
+    val lithoView = lithoViewRule.render { Item(text = "detached") }.lithoView
+    val activity = Robolectric.buildActivity(Activity::class.java).setup().get()
+    activity.setContentView(lithoView)
+    snapshot.update(lithoView, rootOf(lithoView))
+    assertThat(snapshot.hasSnapshot(lithoView)).isTrue
+
+    (lithoView.parent as ViewGroup).removeView(lithoView)
+
+    assertThat(snapshot.hasSnapshot(lithoView)).isFalse
+    assertThat(snapshot.update(lithoView, rootOf(lithoView))).isNull()
+  }
+
+  @Test
+  fun `snapshot of a view is dropped when it is removed`() {
+    val lithoView = lithoViewRule.render { Item(text = "released") }.lithoView
+    snapshot.update(lithoView, rootOf(lithoView))
+
+    snapshot.remove(lithoView)
+
+    assertThat(snapshot.hasSnapshot(lithoView)).isFalse
+  }
+
+  private fun rootOf(lithoView: LithoView): DebugComponent =
+      checkNotNull(DebugComponent.getRootInstance(lithoView))
+
+  private class Item(private val text: String) : KComponent() {
+    override fun ComponentScope.render(): Component {
+      return Column {
+        child(Label(text = text))
+        child(Label(text = "static"))
+      }
+    }
+  }
+
+  private class Label(val text: String) : KComponent() {
+    override fun ComponentScope.render(): Component =
+        Row(style = Style.width(10.px).height(10.px))
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.facebook.litho.animation.AnimatedProperties;
+import com.facebook.litho.animation.AnimatedProperty;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AnimatedPropertyArrayMapTest {
+
+  @Test
+  public void put_withAllAnimatedProperties_getsEachValue() {
+    final AnimatedProperty[] properties = allProperties();
+    final AnimatedPropertyArrayMap<String> map = new AnimatedPropertyArrayMap<>();
+    for (AnimatedProperty property : properties) {
+      map.put(property, property.getName());
+    }
+
+    assertThat(map.size()).isEqualTo(properties.length);
+    for (AnimatedProperty property : properties) {
+      assertThat(map.get(property)).isEqualTo(property.getName());
+    }
+  }
+
+  @Test
+  public void put_withExistingProperty_replacesValue() {
+    final AnimatedPropertyArrayMap<String> map = new AnimatedPropertyArrayMap<>();
+    map.put(AnimatedProperties.ALPHA, "first");
+    map.put(AnimatedProperties.ALPHA, "second");
+
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(AnimatedProperties.ALPHA)).isEqualTo("second");
+  }
+
+  @Test
+  public void remove_movesLastEntryToRemovedPosition() {
+    final AnimatedPropertyArrayMap<String> map = new AnimatedPropertyArrayMap<>();
+    map.put(AnimatedProperties.X, "x");
+    map.put(AnimatedProperties.Y, "y");
+    map.put(AnimatedProperties.ALPHA, "alpha");
+
+    assertThat(map.remove(AnimatedProperties.X)).isEqualTo("x");
+    assertThat(map.remove(AnimatedProperties.X)).isNull();
+
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.keyAt(0)).isSameAs(AnimatedProperties.ALPHA);
+    assertThat(map.valueAt(0)).isEqualTo("alpha");
+    assertThat(map.get(AnimatedProperties.ALPHA)).isEqualTo("alpha");
+    assertThat(map.get(AnimatedProperties.Y)).isEqualTo("y");
+    assertThat(map.get(AnimatedProperties.X)).isNull();
+  }
+
+  @Test
+  public void put_withCustomProperty_getsValueBySearch() {
+    final AnimatedProperty custom = new TestAnimatedProperty();
+    final AnimatedPropertyArrayMap<String> map = new AnimatedPropertyArrayMap<>();
+    map.put(AnimatedProperties.ALPHA, "alpha");
+    map.put(custom, "custom");
+
+    assertThat(AnimatedProperties.getIndex(custom)).isEqualTo(-1);
+    assertThat(map.get(custom)).isEqualTo("custom");
+
+    map.removeAt(0);
+
+    assertThat(map.get(custom)).isEqualTo("custom");
+    assertThat(map.get(AnimatedProperties.ALPHA)).isNull();
+  }
+
+  @Test
+  public void clear_removesAllEntries() {
+    final AnimatedPropertyArrayMap<String> map = new AnimatedPropertyArrayMap<>();
+    for (AnimatedProperty property : allProperties()) {
+      map.put(property, property.getName());
+    }
+
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    for (AnimatedProperty property : allProperties()) {
+      assertThat(map.get(property)).isNull();
+    }
+
+    map.put(AnimatedProperties.SCALE, "scale");
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get(AnimatedProperties.SCALE)).isEqualTo("scale");
+  }
+
+  private static AnimatedProperty[] allProperties() {
+    return new AnimatedProperty[] {
+      AnimatedProperties.X,
+      AnimatedProperties.Y,
+      AnimatedProperties.WIDTH,
+      AnimatedProperties.HEIGHT,
+      AnimatedProperties.ALPHA,
+      AnimatedProperties.SCALE,
+      AnimatedProperties.SCALE_X,
+      AnimatedProperties.SCALE_Y,
+      AnimatedProperties.ROTATION,
+    };
+  }
+
+  private static class TestAnimatedProperty implements AnimatedProperty {
+
+    @Override
+    public String getName() {
+      return "custom";
+    }
+
+    @Override
+    public float get(Object mountContent) {
+      return 0;
+    }
+
+    @Override
+    public float get(AnimatableItem animatableItem) {
+      return 0;
+    }
+
+    @Override
+    public void set(Object mountContent, float value) {}
+
+    @Override
+    public void reset(Object mountContent) {}
+  }
+}
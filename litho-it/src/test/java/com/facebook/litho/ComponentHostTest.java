@@ -51,7 +51,6 @@ import android.util.SparseArray;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
-import androidx.collection.SparseArrayCompat;
 import com.facebook.litho.testing.LegacyLithoViewRule;
 import com.facebook.litho.testing.TestViewComponent;
 import com.facebook.litho.testing.Whitebox;
@@ -868,14 +867,66 @@ public class ComponentHostTest {
         .isNotNull();
   }
 
-  private int getDrawableItemsSize() throws Exception {
-    SparseArrayCompat drawableItems = Whitebox.getInternalState(mHost, "mDrawableMountItems");
-    return Whitebox.invokeMethod(drawableItems, "size");
+  @Test
+  public void testMountMoveAndUnmountManyChildren() {
+    final int count = 200;
+    final ComponentHostMountItems mountItems = Whitebox.getInternalState(mHost, "mMountItems");
+
+    // Run a few rounds so that the later ones exercise the already grown storage.
+    for (int round = 0; round < 3; round++) {
+      final MountItem[] items = new MountItem[count];
+      for (int i = 0; i < count; i++) {
+        items[i] =
+            i % 2 == 0
+                ? mount(i, new ColorDrawable())
+                : mount(i, new View(mContext.getAndroidContext()));
+      }
+
+      assertThat(mHost.getMountItemCount()).isEqualTo(count);
+      assertThat(mHost.getChildCount()).isEqualTo(count / 2);
+      assertThat(getDrawableItemsSize()).isEqualTo(count / 2);
+
+      // Reverse the items: the first half of the moves displaces the items at the target index,
+      // the second half moves the displaced items.
+      for (int i = 0; i < count; i++) {
+        mHost.moveItem(items[i], i, count - 1 - i);
+        assertThat(mountItems.displacedSize()).isEqualTo(i < count / 2 ? i + 1 : count - 1 - i);
+      }
+
+      for (int i = 0; i < count; i++) {
+        assertThat(mHost.getMountItemAt(i)).isSameAs(items[count - 1 - i]);
+      }
+      assertThat(getDrawableMountItemAt(0)).isSameAs(items[count - 2]);
+
+      for (int i = 0; i < count; i++) {
+        mHost.unmount(count - 1 - i, items[i]);
+      }
+
+      assertThat(mHost.getMountItemCount()).isEqualTo(0);
+      assertThat(mHost.getChildCount()).isEqualTo(0);
+      assertThat(mountItems.displacedSize()).isEqualTo(0);
+    }
+  }
+
+  private int getDrawableItemsSize() {
+    ComponentHostMountItems mountItems = Whitebox.getInternalState(mHost, "mMountItems");
+    int size = 0;
+    for (int i = 0; i < mountItems.size(); i++) {
+      if (mountItems.typeAt(i) == ComponentHostMountItems.TYPE_DRAWABLE) {
+        size++;
+      }
+    }
+    return size;
   }
 
-  private MountItem getDrawableMountItemAt(int index) throws Exception {
-    SparseArrayCompat drawableItems = Whitebox.getInternalState(mHost, "mDrawableMountItems");
-    return Whitebox.invokeMethod(drawableItems, "valueAt", index);
+  private MountItem getDrawableMountItemAt(int index) {
+    ComponentHostMountItems mountItems = Whitebox.getInternalState(mHost, "mMountItems");
+    for (int i = 0; i < mountItems.size(); i++) {
+      if (mountItems.typeAt(i) == ComponentHostMountItems.TYPE_DRAWABLE && index-- == 0) {
+        return mountItems.valueAt(i);
+      }
+    }
+    return null;
   }
 
   private MountItem mount(int index, Object content) {
@@ -106,4 +106,62 @@ public class ComponentTreeEventHandlerTest {
 
     assertThat(eventHandlersController.getEventHandlers().size()).isEqualTo(1);
   }
+
+  @Test
+  public void testBindWithScopedComponentInfoRebindsToNewDispatcher() {
+    Component component1 = mock(Component.class);
+    Component component2 = mock(Component.class);
+    final String componentGlobalKey = "component1";
+    ComponentContext scopedContext1 =
+        ComponentContext.withComponentScope(
+            mLayoutStateContext, mContext, component1, componentGlobalKey);
+    ComponentContext scopedContext2 =
+        ComponentContext.withComponentScope(
+            mLayoutStateContext, mContext, component2, componentGlobalKey);
+
+    ComponentTree componentTree = ComponentTree.create(mContext, component1).build();
+    EventHandlersController eventHandlersController = componentTree.getEventHandlersController();
+
+    EventHandler eventHandler = scopedContext1.newEventHandler(1);
+    componentTree.recordEventHandler(scopedContext1, eventHandler);
+
+    eventHandlersController.bindEventHandlers(scopedContext1.getScopedComponentInfo());
+    eventHandlersController.clearUnusedEventHandlers();
+    assertThat(eventHandler.dispatchInfo.hasEventDispatcher).isSameAs(component1);
+
+    eventHandlersController.bindEventHandlers(scopedContext2.getScopedComponentInfo());
+    eventHandlersController.clearUnusedEventHandlers();
+    assertThat(eventHandler.dispatchInfo.hasEventDispatcher).isSameAs(component2);
+    assertThat(eventHandler.dispatchInfo.componentContext).isSameAs(scopedContext2);
+
+    // Binding the first info again uses its cached wrapper id.
+    eventHandlersController.bindEventHandlers(scopedContext1.getScopedComponentInfo());
+    eventHandlersController.clearUnusedEventHandlers();
+    assertThat(eventHandler.dispatchInfo.hasEventDispatcher).isSameAs(component1);
+    assertThat(eventHandlersController.getEventHandlers().size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testBindWithScopedComponentInfoAfterCachedMiss() {
+    Component component = mock(Component.class);
+    final String componentGlobalKey = "component1";
+    ComponentContext scopedContext =
+        ComponentContext.withComponentScope(
+            mLayoutStateContext, mContext, component, componentGlobalKey);
+
+    ComponentTree componentTree = ComponentTree.create(mContext, component).build();
+    EventHandlersController eventHandlersController = componentTree.getEventHandlersController();
+
+    eventHandlersController.bindEventHandlers(scopedContext.getScopedComponentInfo());
+    assertThat(eventHandlersController.getEventHandlers()).isEmpty();
+
+    EventHandler eventHandler = scopedContext.newEventHandler(1);
+    eventHandler.dispatchInfo.hasEventDispatcher = null;
+    componentTree.recordEventHandler(scopedContext, eventHandler);
+
+    eventHandlersController.bindEventHandlers(scopedContext.getScopedComponentInfo());
+    eventHandlersController.clearUnusedEventHandlers();
+    assertThat(eventHandler.dispatchInfo.hasEventDispatcher).isSameAs(component);
+    assertThat(eventHandlersController.getEventHandlers().size()).isEqualTo(1);
+  }
 }
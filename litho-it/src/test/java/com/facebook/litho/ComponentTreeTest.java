@@ -2009,6 +2009,35 @@ public class ComponentTreeTest {
     assertThat(componentTree.getCachedValue("key2", false)).isNull();
   }
 
+  @Test
+  public void testCachedValueEntries() {
+    ComponentTree componentTree = ComponentTree.create(mContext, mComponent).build();
+    assertThat(componentTree.getCachedValueEntry("key1", "value", false)).isNull();
+    componentTree.putCachedValueEntry("key1", "value", "entry1", false);
+    componentTree.putCachedValueEntry("key1", "otherValue", "entry2", false);
+    assertThat(componentTree.getCachedValueEntry("key1", "value", false)).isEqualTo("entry1");
+    assertThat(componentTree.getCachedValueEntry("key1", "otherValue", false)).isEqualTo("entry2");
+    assertThat(componentTree.getCachedValueEntry("key2", "value", false)).isNull();
+
+    componentTree.putCachedValueEntry("key1", "value", "entry3", false);
+    assertThat(componentTree.getCachedValueEntry("key1", "value", false)).isEqualTo("entry3");
+    assertThat(componentTree.getCachedValueEntry("key1", "otherValue", false)).isEqualTo("entry2");
+  }
+
+  @Test
+  public void testCachedValueEntriesOfComponentsWhichLeftTheTreeAreDroppedOnCommit() {
+    final StateHandler stateHandler = new StateHandler();
+    stateHandler.putCachedValueEntry("key1", "value", "entry1");
+    stateHandler.putCachedValueEntry("key2", "value", "entry2");
+
+    final StateHandler layoutStateHandler = new StateHandler(stateHandler);
+    layoutStateHandler.keepCachedValuesForGlobalKey("key1");
+    stateHandler.commit(layoutStateHandler);
+
+    assertThat(stateHandler.getCachedValueEntry("key1", "value")).isEqualTo("entry1");
+    assertThat(stateHandler.getCachedValueEntry("key2", "value")).isNull();
+  }
+
   // TODO(T37885964): Fix me
   @Test
   @Ignore
@@ -27,13 +27,18 @@ import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.os.Build;
 import android.view.View;
+import com.facebook.litho.choreographercompat.ChoreographerCompat;
+import com.facebook.litho.choreographercompat.ChoreographerCompatImpl;
 import com.facebook.litho.config.TempComponentsConfigurations;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.litho.testing.LegacyLithoViewRule;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
 import com.facebook.litho.widget.DynamicPropsResetValueTester;
 import com.facebook.litho.widget.DynamicPropsResetValueTesterSpec;
 import com.facebook.rendercore.MountDelegateTarget;
 import com.facebook.rendercore.MountItem;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -353,6 +358,54 @@ public class DynamicPropsTest {
     assertThat(lithoView.getElevation()).isEqualTo(-50f);
   }
 
+  @Test
+  public void testDynamicValueChangesCoalescedPerFrame() {
+    final List<ChoreographerCompat.FrameCallback> frameCallbacks = new ArrayList<>();
+    ChoreographerCompatImpl.setInstance(
+        new ChoreographerCompat() {
+          @Override
+          public void postFrameCallback(FrameCallback callbackWrapper) {
+            frameCallbacks.add(callbackWrapper);
+          }
+
+          @Override
+          public void postFrameCallbackDelayed(FrameCallback callbackWrapper, long delayMillis) {
+            frameCallbacks.add(callbackWrapper);
+          }
+
+          @Override
+          public void removeFrameCallback(FrameCallback callbackWrapper) {
+            frameCallbacks.remove(callbackWrapper);
+          }
+        });
+    LithoStats.resetAllCounters();
+
+    try {
+      final DynamicValue<Float> alphaDV = new DynamicValue<>(1f);
+      final View view = new View(getApplicationContext());
+      final Component component = Column.create(mContext).alpha(alphaDV).build();
+
+      final DynamicPropsManager dynamicPropsManager = new DynamicPropsManager(true);
+      dynamicPropsManager.onBindComponentToContent(component, mContext, view);
+
+      alphaDV.set(0.8f);
+      alphaDV.set(0.5f);
+      alphaDV.set(0.2f);
+
+      assertThat(view.getAlpha()).isEqualTo(1f);
+      assertThat(frameCallbacks).hasSize(1);
+      assertThat(LithoStats.getDynamicValueCoalescedUpdateCount()).isEqualTo(2);
+
+      frameCallbacks.remove(0).doFrame(0);
+
+      assertThat(view.getAlpha()).isEqualTo(0.2f);
+      assertThat(frameCallbacks).isEmpty();
+      assertThat(LithoStats.getDynamicValueFrameUpdateCount()).isEqualTo(1);
+    } finally {
+      ChoreographerCompatImpl.setInstance(null);
+    }
+  }
+
   @Test
   public void commonDynamicProps_unbindAndRebindContent_resetValues() {
     final DynamicPropsResetValueTesterSpec.Caller stateUpdateCaller =
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.graphics.Typeface;
+import android.text.TextPaint;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.rendercore.utils.FontMetricsCache;
+import java.util.Locale;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class FontMetricsCacheTest {
+
+  @Before
+  public void setup() {
+    FontMetricsCache.clear();
+  }
+
+  @After
+  public void cleanup() {
+    FontMetricsCache.clear();
+  }
+
+  @Test
+  public void get_countsHitsAndMisses() {
+    final FontMetricsCache.Metrics first = FontMetricsCache.get(createPaint(14f, Typeface.DEFAULT));
+    final FontMetricsCache.Metrics second =
+        FontMetricsCache.get(createPaint(14f, Typeface.DEFAULT));
+
+    assertThat(second).isSameAs(first);
+    assertThat(FontMetricsCache.getMissCount()).isEqualTo(1);
+    assertThat(FontMetricsCache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void get_doesNotMixUpFractionalSizesOrTypefaces() {
+    FontMetricsCache.get(createPaint(14f, Typeface.DEFAULT));
+    FontMetricsCache.get(createPaint(14.5f, Typeface.DEFAULT));
+    FontMetricsCache.get(createPaint(14f, Typeface.DEFAULT_BOLD));
+
+    assertThat(FontMetricsCache.size()).isEqualTo(3);
+    assertThat(FontMetricsCache.getMissCount()).isEqualTo(3);
+    assertThat(FontMetricsCache.getHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void get_doesNotMixUpLocalesOrFontFeatureSettings() {
+    FontMetricsCache.get(createPaint(14f, Typeface.DEFAULT));
+
+    final TextPaint localePaint = createPaint(14f, Typeface.DEFAULT);
+    localePaint.setTextLocale(Locale.JAPAN);
+    FontMetricsCache.get(localePaint);
+
+    final TextPaint featuresPaint = createPaint(14f, Typeface.DEFAULT);
+    featuresPaint.setFontFeatureSettings("smcp");
+    FontMetricsCache.get(featuresPaint);
+
+    assertThat(FontMetricsCache.size()).isEqualTo(3);
+    assertThat(FontMetricsCache.getMissCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void get_evictsLeastRecentlyUsedFontsOverMaxSize() {
+    for (int i = 0; i <= FontMetricsCache.MAX_SIZE; i++) {
+      FontMetricsCache.get(createPaint(i + 1, Typeface.DEFAULT));
+    }
+
+    assertThat(FontMetricsCache.size()).isEqualTo(FontMetricsCache.MAX_SIZE);
+
+    FontMetricsCache.get(createPaint(FontMetricsCache.MAX_SIZE + 1, Typeface.DEFAULT));
+    assertThat(FontMetricsCache.getHitCount()).isEqualTo(1);
+
+    FontMetricsCache.get(createPaint(1, Typeface.DEFAULT));
+    assertThat(FontMetricsCache.getMissCount()).isEqualTo(FontMetricsCache.MAX_SIZE + 2);
+  }
+
+  @Test
+  public void prewarm_cachesWithoutCountingLookups() {
+    FontMetricsCache.prewarm(createPaint(20f, Typeface.DEFAULT));
+
+    assertThat(FontMetricsCache.size()).isEqualTo(1);
+    assertThat(FontMetricsCache.getMissCount()).isEqualTo(0);
+
+    FontMetricsCache.get(createPaint(20f, Typeface.DEFAULT));
+
+    assertThat(FontMetricsCache.getHitCount()).isEqualTo(1);
+    assertThat(FontMetricsCache.getMissCount()).isEqualTo(0);
+  }
+
+  private static TextPaint createPaint(float textSize, Typeface typeface) {
+    final TextPaint paint = new TextPaint();
+    paint.setTextSize(textSize);
+    paint.setTypeface(typeface);
+    return paint;
+  }
+}
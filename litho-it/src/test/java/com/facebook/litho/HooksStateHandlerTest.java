@@ -19,6 +19,7 @@ package com.facebook.litho;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import androidx.annotation.Nullable;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
 import org.assertj.core.util.Lists;
 import org.junit.Test;
@@ -210,4 +211,51 @@ public class HooksStateHandlerTest {
         .hasSize(4)
         .isEqualTo(Lists.newArrayList("test", 7, bazState, "newValue"));
   }
+
+  @Test
+  public void commit_withoutStateChanges_onlyCommitsRemovedKeys() {
+    final KStateContainer kStateContainer = KStateContainer.withNewState(null, "test");
+    final StateHandler first = new StateHandler();
+    first.getStateContainers().put(GLOBAL_KEY, kStateContainer);
+    first.getStateContainers().put("removedKey", KStateContainer.withNewState(null, 1));
+
+    final StateHandler second = new StateHandler(first);
+    second.keepStateContainerForGlobalKey(GLOBAL_KEY);
+
+    LithoStats.resetAllCounters();
+    first.commit(second);
+
+    assertThat(first.getStateContainers()).containsOnlyKeys(GLOBAL_KEY);
+    assertThat(first.getStateContainers().get(GLOBAL_KEY)).isSameAs(kStateContainer);
+    assertThat(LithoStats.getComponentStateCommitCount()).isEqualTo(1);
+    assertThat(LithoStats.getComponentCommittedStateKeyCount()).isEqualTo(1);
+
+    final StateHandler third = new StateHandler(first);
+    third.keepStateContainerForGlobalKey(GLOBAL_KEY);
+    first.commit(third);
+
+    assertThat(first.getStateContainers()).containsOnlyKeys(GLOBAL_KEY);
+    assertThat(LithoStats.getComponentStateCommitCount()).isEqualTo(2);
+    assertThat(LithoStats.getComponentCommittedStateKeyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void commit_afterAnotherCommit_commitsAllStateContainers() {
+    final StateHandler first = new StateHandler();
+    first.getStateContainers().put(GLOBAL_KEY, KStateContainer.withNewState(null, "test"));
+
+    final StateHandler second = new StateHandler(first);
+    final StateHandler third = new StateHandler(first);
+    final KStateContainer newStateContainer = KStateContainer.withNewState(null, "new");
+    third.keepStateContainerForGlobalKey(GLOBAL_KEY);
+    third.addStateContainer("newKey", newStateContainer);
+
+    first.commit(second);
+    LithoStats.resetAllCounters();
+    first.commit(third);
+
+    assertThat(first.getStateContainers()).containsKeys(GLOBAL_KEY, "newKey");
+    assertThat(first.getStateContainers().get("newKey")).isSameAs(newStateContainer);
+    assertThat(LithoStats.getComponentCommittedStateKeyCount()).isEqualTo(2);
+  }
 }
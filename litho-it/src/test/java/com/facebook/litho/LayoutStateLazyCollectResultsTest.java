@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.graphics.Rect;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.LegacyLithoViewRule;
+import com.facebook.litho.testing.inlinelayoutspec.InlineLayoutSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.litho.widget.SimpleMountSpecTester;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class LayoutStateLazyCollectResultsTest {
+
+  private static final int ROW_HEIGHT = 100;
+  private static final int SCREENS = 8;
+  private static final int NO_ROW = -1;
+
+  @Rule public final LegacyLithoViewRule mLegacyLithoViewRule = new LegacyLithoViewRule();
+
+  private ComponentContext mContext;
+  private boolean mCollectResultsLazilyForTallLayouts;
+  private int mScreenHeight;
+  private int mRowCount;
+
+  @Before
+  public void setup() {
+    mCollectResultsLazilyForTallLayouts =
+        ComponentsConfiguration.collectResultsLazilyForTallLayouts;
+    mContext = mLegacyLithoViewRule.getComponentTree().getContext();
+    mScreenHeight = mContext.getAndroidContext().getResources().getDisplayMetrics().heightPixels;
+    mRowCount = SCREENS * mScreenHeight / ROW_HEIGHT;
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts =
+        mCollectResultsLazilyForTallLayouts;
+  }
+
+  @Test
+  public void calculate_tallLayout_onlyCollectsResultsOfFirstScreens() {
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = false;
+    final LayoutState eagerLayoutState = calculateLayoutState();
+
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = true;
+    final LayoutState lazyLayoutState = calculateLayoutState();
+
+    assertThat(eagerLayoutState.hasDeferredResults()).isFalse();
+    assertThat(lazyLayoutState.hasDeferredResults()).isTrue();
+    assertThat(lazyLayoutState.getVisibilityOutputCount())
+        .isLessThan(eagerLayoutState.getVisibilityOutputCount());
+    assertThat(lazyLayoutState.getMountableOutputCount())
+        .isLessThan(eagerLayoutState.getMountableOutputCount());
+  }
+
+  @Test
+  public void collectDeferredResults_asVisibleRectMoves_collectsSameResultsAsEagerCollection() {
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = false;
+    final LayoutState eagerLayoutState = calculateLayoutState();
+
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = true;
+    final LayoutState lazyLayoutState = calculateLayoutState();
+    final int initialOutputCount = lazyLayoutState.getMountableOutputCount();
+
+    // Nothing new is about to be visible at the top of the layout.
+    assertThat(lazyLayoutState.collectDeferredResults(new Rect(0, 0, 100, mScreenHeight)))
+        .isFalse();
+
+    final Rect visibleRect = new Rect(0, 3 * mScreenHeight, 100, 4 * mScreenHeight);
+    assertThat(lazyLayoutState.collectDeferredResults(visibleRect)).isTrue();
+    assertThat(lazyLayoutState.getMountableOutputCount()).isGreaterThan(initialOutputCount);
+    assertThat(lazyLayoutState.hasDeferredResults()).isTrue();
+    assertThat(lastOutputBottom(lazyLayoutState)).isGreaterThanOrEqualTo(visibleRect.bottom);
+
+    assertThat(lazyLayoutState.collectDeferredResults(null)).isTrue();
+    assertThat(lazyLayoutState.hasDeferredResults()).isFalse();
+    assertThat(lazyLayoutState.getVisibilityOutputCount())
+        .isEqualTo(eagerLayoutState.getVisibilityOutputCount());
+    assertSameOutputs(lazyLayoutState, eagerLayoutState);
+  }
+
+  @Test
+  public void calculate_withRowWhichCantBeDeferredLast_defersNothing() {
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = false;
+    final LayoutState eagerLayoutState = calculateLayoutState(createComponent(mRowCount - 1));
+
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = true;
+    final LayoutState lazyLayoutState = calculateLayoutState(createComponent(mRowCount - 1));
+
+    // The last row would be collected before the rows deferred ahead of it.
+    assertThat(lazyLayoutState.hasDeferredResults()).isFalse();
+    assertThat(lazyLayoutState.getVisibilityOutputCount())
+        .isEqualTo(eagerLayoutState.getVisibilityOutputCount());
+    assertSameOutputs(lazyLayoutState, eagerLayoutState);
+  }
+
+  @Test
+  public void calculate_withRowWhichCantBeDeferredFirst_defersRowsBelowFirstScreens() {
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = false;
+    final LayoutState eagerLayoutState = calculateLayoutState(createComponent(0));
+
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = true;
+    final LayoutState lazyLayoutState = calculateLayoutState(createComponent(0));
+
+    assertThat(lazyLayoutState.hasDeferredResults()).isTrue();
+    assertThat(lazyLayoutState.getMountableOutputCount())
+        .isLessThan(eagerLayoutState.getMountableOutputCount());
+
+    assertThat(lazyLayoutState.collectDeferredResults(null)).isTrue();
+    assertSameOutputs(lazyLayoutState, eagerLayoutState);
+  }
+
+  @Test
+  public void mount_tallLayoutWithoutIncrementalMount_collectsAndMountsAllResults() {
+    ComponentsConfiguration.collectResultsLazilyForTallLayouts = true;
+    mLegacyLithoViewRule
+        .useComponentTree(ComponentTree.create(mContext).incrementalMount(false).build())
+        .setRoot(createComponent(NO_ROW))
+        .setSizeSpecs(makeSizeSpec(100, EXACTLY), makeSizeSpec(0, UNSPECIFIED))
+        .attachToWindow()
+        .measure()
+        .layout();
+
+    final LayoutState layoutState = mLegacyLithoViewRule.getCommittedLayoutState();
+    assertThat(layoutState).isNotNull();
+    assertThat(layoutState.hasDeferredResults()).isFalse();
+
+    // Without incremental mount, scrolling to the bottom only processes visibility outputs.
+    final int height = mRowCount * ROW_HEIGHT;
+    mLegacyLithoViewRule
+        .getLithoView()
+        .notifyVisibleBoundsChanged(new Rect(0, height - mScreenHeight, 100, height), true);
+
+    assertThat(mLegacyLithoViewRule.getLithoView().getMountItemCount()).isEqualTo(mRowCount);
+  }
+
+  private static void assertSameOutputs(LayoutState lazyLayoutState, LayoutState eagerLayoutState) {
+    assertThat(lazyLayoutState.getMountableOutputCount())
+        .isEqualTo(eagerLayoutState.getMountableOutputCount());
+
+    final Rect lazyBounds = new Rect();
+    final Rect eagerBounds = new Rect();
+    for (int i = 0; i < eagerLayoutState.getMountableOutputCount(); i++) {
+      lazyLayoutState.getMountableOutputAt(i).getAbsoluteBounds(lazyBounds);
+      eagerLayoutState.getMountableOutputAt(i).getAbsoluteBounds(eagerBounds);
+      assertThat(lazyBounds).isEqualTo(eagerBounds);
+    }
+    for (int i = 0; i < eagerLayoutState.getOutputsOrderedByTopBounds().size(); i++) {
+      assertThat(lazyLayoutState.getOutputsOrderedByTopBounds().get(i).getId())
+          .isEqualTo(eagerLayoutState.getOutputsOrderedByTopBounds().get(i).getId());
+    }
+  }
+
+  private static int lastOutputBottom(LayoutState layoutState) {
+    final Rect bounds = new Rect();
+    layoutState
+        .getMountableOutputAt(layoutState.getMountableOutputCount() - 1)
+        .getAbsoluteBounds(bounds);
+    return bounds.bottom;
+  }
+
+  private LayoutState calculateLayoutState() {
+    return calculateLayoutState(createComponent(NO_ROW));
+  }
+
+  private LayoutState calculateLayoutState(Component component) {
+    return LayoutState.calculate(
+        mContext,
+        component,
+        null,
+        new TreeState(),
+        mLegacyLithoViewRule.getComponentTree().getRenderUnitIdGenerator(),
+        -1,
+        makeSizeSpec(100, EXACTLY),
+        makeSizeSpec(0, UNSPECIFIED),
+        -1,
+        false /* shouldGenerateDiffTree */,
+        null /* previousDiffTreeRoot */,
+        null);
+  }
+
+  /**
+   * @param transitionKeyRow the row which takes part in transitions, so that its results can't be
+   *     collected lazily, or {@link #NO_ROW}.
+   */
+  private Component createComponent(final int transitionKeyRow) {
+    final int rowCount = mRowCount;
+    return new InlineLayoutSpec() {
+      @Override
+      protected Component onCreateLayout(ComponentContext c) {
+        final Column.Builder column = Column.create(c);
+        for (int i = 0; i < rowCount; i++) {
+          final SimpleMountSpecTester.Builder row =
+              SimpleMountSpecTester.create(c)
+                  .heightPx(ROW_HEIGHT)
+                  .visibleHandler(c.newEventHandler(i));
+          if (i == transitionKeyRow) {
+            row.transitionKey("row");
+          }
+          column.child(row);
+        }
+        return column.build();
+      }
+    };
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.makeSizeSpec;
+import static com.facebook.yoga.YogaEdge.TOP;
+import static com.facebook.yoga.YogaPositionType.ABSOLUTE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.facebook.litho.testing.LegacyLithoViewRule;
+import com.facebook.litho.testing.inlinelayoutspec.InlineLayoutSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.litho.widget.SimpleMountSpecTester;
+import com.facebook.rendercore.incrementalmount.IncrementalMountOutput;
+import com.facebook.rendercore.incrementalmount.IncrementalMountRenderCoreExtension;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class LayoutStateSortOutputsTest {
+
+  private static final int OUTPUT_COUNT = 2000;
+
+  @Rule public final LegacyLithoViewRule mLegacyLithoViewRule = new LegacyLithoViewRule();
+
+  @Test
+  public void calculate_withManyOverlappingOutputs_sortsTopsAndBottomsAsComparatorsWould() {
+    final LayoutState layoutState = calculateLayoutState();
+    assertThat(layoutState.getMountableOutputCount()).isGreaterThan(OUTPUT_COUNT);
+
+    final List<IncrementalMountOutput> tops = layoutState.getOutputsOrderedByTopBounds();
+    final List<IncrementalMountOutput> expectedTops = new ArrayList<>(tops);
+    Collections.sort(expectedTops, IncrementalMountRenderCoreExtension.sTopsComparator);
+    assertThat(tops).containsExactlyElementsOf(expectedTops);
+
+    final List<IncrementalMountOutput> bottoms = layoutState.getOutputsOrderedByBottomBounds();
+    final List<IncrementalMountOutput> expectedBottoms = new ArrayList<>(bottoms);
+    Collections.sort(expectedBottoms, IncrementalMountRenderCoreExtension.sBottomsComparator);
+    assertThat(bottoms).containsExactlyElementsOf(expectedBottoms);
+  }
+
+  private LayoutState calculateLayoutState() {
+    final Component component =
+        new InlineLayoutSpec() {
+          @Override
+          protected Component onCreateLayout(ComponentContext c) {
+            // A fixed seed, so that the outputs have many equal tops and bottoms in any order.
+            final Random random = new Random(42);
+            final Column.Builder column = Column.create(c).heightPx(1000);
+            for (int i = 0; i < OUTPUT_COUNT; i++) {
+              column.child(
+                  SimpleMountSpecTester.create(c)
+                      .positionType(ABSOLUTE)
+                      .positionPx(TOP, random.nextInt(100) * 10)
+                      .widthPx(10)
+                      .heightPx(random.nextInt(10) * 10));
+            }
+            return column.build();
+          }
+        };
+
+    return LayoutState.calculate(
+        mLegacyLithoViewRule.getComponentTree().getContext(),
+        component,
+        null,
+        new TreeState(),
+        mLegacyLithoViewRule.getComponentTree().getRenderUnitIdGenerator(),
+        -1,
+        makeSizeSpec(100, EXACTLY),
+        makeSizeSpec(1000, EXACTLY),
+        -1,
+        false /* shouldGenerateDiffTree */,
+        null /* previousDiffTreeRoot */,
+        null);
+  }
+}
@@ -20,6 +20,7 @@ import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.robolectric.annotation.LooperMode.Mode.LEGACY;
 
+import com.facebook.litho.stats.LatencyHistogram;
 import com.facebook.litho.stats.LithoStats;
 import com.facebook.litho.testing.LegacyLithoViewRule;
 import com.facebook.litho.testing.helper.ComponentTestHelper;
@@ -27,6 +28,7 @@ import com.facebook.litho.testing.logging.TestComponentsLogger;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
 import com.facebook.litho.widget.TextInput;
 import java.util.concurrent.CountDownLatch;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -67,6 +69,12 @@ public class LithoStatsTest {
     ComponentTestHelper.measureAndLayout(mLithoView);
   }
 
+  @After
+  public void cleanup() {
+    LithoStats.setPhaseLatencyTrackingEnabled(false);
+    LithoStats.resetPhaseLatencies();
+  }
+
   @Test
   public void updateStateAsync_incrementsAsyncCountAndTotalCount() {
     final long beforeSync = LithoStats.getComponentTriggeredSyncStateUpdateCount();
@@ -158,4 +166,46 @@ public class LithoStatsTest {
     final long afterMountCount = LithoStats.getComponentMountCount();
     assertThat(afterMountCount - beforeMountCount).isEqualTo(1);
   }
+
+  @Test
+  public void setRoot_recordsPhaseLatenciesOnlyWhenTracked() {
+    LithoStats.resetPhaseLatencies();
+    mComponentTree.setRoot(new StateUpdateTestComponent());
+
+    assertThat(LithoStats.getPhaseLatencySnapshot(LithoStats.PHASE_RESOLVE).getCount())
+        .isEqualTo(0);
+
+    LithoStats.setPhaseLatencyTrackingEnabled(true);
+    final StateUpdateTestComponent component = new StateUpdateTestComponent();
+    mComponentTree.setRoot(component);
+
+    assertThat(LithoStats.getPhaseLatencySnapshot(LithoStats.PHASE_RESOLVE).getCount())
+        .isEqualTo(1);
+    assertThat(LithoStats.getPhaseLatencySnapshot(LithoStats.PHASE_MEASURE).getCount())
+        .isEqualTo(1);
+    assertThat(LithoStats.getPhaseLatencySnapshot(LithoStats.PHASE_COLLECT_RESULTS).getCount())
+        .isEqualTo(1);
+    final String rootName = component.getSimpleName();
+    assertThat(LithoStats.getPhaseLatencyRootNames()).containsExactly(rootName);
+    assertThat(LithoStats.getPhaseLatencySnapshot(LithoStats.PHASE_RESOLVE, rootName).getCount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void latencyHistogram_reportsPercentilesWithinBucketPrecision() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    final LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.getCount()).isEqualTo(100);
+    assertThat(snapshot.getMaxNanos()).isEqualTo(100_000);
+    assertThat(snapshot.getMeanNanos()).isEqualTo(50_500);
+    assertThat(snapshot.getValueAtPercentile(50)).isBetween(50_000L, 56_250L);
+    assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(100_000);
+
+    histogram.reset();
+    assertThat(histogram.snapshot().getCount()).isEqualTo(0);
+  }
 }
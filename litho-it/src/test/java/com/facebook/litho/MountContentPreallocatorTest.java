@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.content.Context;
+import android.view.View;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.rendercore.ContentAllocator;
+import com.facebook.rendercore.MountItemsPool;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(LithoTestRunner.class)
+public class MountContentPreallocatorTest {
+
+  private final Context mContext = RuntimeEnvironment.application;
+
+  @Before
+  public void setup() {
+    MountItemsPool.clear();
+  }
+
+  @After
+  public void cleanup() {
+    MountItemsPool.clear();
+  }
+
+  @Test
+  public void preallocateNextBatch_createsAtMostBatchSizeItemsPerCall() {
+    final TestContentAllocator allocator =
+        new TestContentAllocator(new DefaultMountContentPool("TestPool", 10, true));
+    final MountContentPreallocator preallocator = new MountContentPreallocator(2);
+    preallocator.preallocateFor(createDemand(allocator, 5));
+
+    assertThat(preallocator.preallocateNextBatch()).isTrue();
+    assertThat(allocator.mCreatedCount).isEqualTo(2);
+
+    assertThat(preallocator.preallocateNextBatch()).isTrue();
+    assertThat(allocator.mCreatedCount).isEqualTo(4);
+
+    assertThat(preallocator.preallocateNextBatch()).isFalse();
+    assertThat(allocator.mCreatedCount).isEqualTo(5);
+    assertThat(preallocator.getPreallocatedCount()).isEqualTo(5);
+    assertThat(MountItemsPool.getPooledContentCount(mContext, allocator)).isEqualTo(5);
+  }
+
+  @Test
+  public void preallocateNextBatch_withFullPool_stopsWithoutCreatingContent() {
+    final TestContentAllocator allocator =
+        new TestContentAllocator(new DefaultMountContentPool("TestPool", 3, true));
+    final MountContentPreallocator preallocator = new MountContentPreallocator(10);
+    preallocator.preallocateFor(createDemand(allocator, 5));
+
+    assertThat(preallocator.preallocateNextBatch()).isFalse();
+
+    assertThat(allocator.mCreatedCount).isEqualTo(3);
+    assertThat(preallocator.getPreallocatedCount()).isEqualTo(3);
+    assertThat(MountItemsPool.getPooledContentCount(mContext, allocator)).isEqualTo(3);
+  }
+
+  @Test
+  public void preallocateNextBatch_withDisabledPool_createsNothing() {
+    final TestContentAllocator allocator =
+        new TestContentAllocator(new DisabledMountContentPool());
+    final MountContentPreallocator preallocator = new MountContentPreallocator(10);
+    preallocator.preallocateFor(createDemand(allocator, 5));
+
+    assertThat(MountItemsPool.getPooledContentCount(mContext, allocator)).isEqualTo(-1);
+    assertThat(preallocator.preallocateNextBatch()).isFalse();
+
+    assertThat(allocator.mCreatedCount).isEqualTo(0);
+    assertThat(preallocator.getPreallocatedCount()).isEqualTo(0);
+  }
+
+  private Map<Object, MountContentPreallocator.Demand> createDemand(
+      ContentAllocator allocator, int count) {
+    final MountContentPreallocator.Demand demand =
+        new MountContentPreallocator.Demand(mContext, allocator);
+    demand.count = count;
+
+    final Map<Object, MountContentPreallocator.Demand> demandByType = new HashMap<>();
+    demandByType.put(allocator.getPoolableContentType(), demand);
+    return demandByType;
+  }
+
+  private static class TestContentAllocator implements ContentAllocator {
+
+    private final MountItemsPool.ItemPool mPool;
+    private int mCreatedCount;
+
+    TestContentAllocator(MountItemsPool.ItemPool pool) {
+      mPool = pool;
+    }
+
+    @Override
+    public Object createContent(Context context) {
+      mCreatedCount++;
+      return new View(context);
+    }
+
+    @Override
+    public MountItemsPool.ItemPool createRecyclingPool() {
+      return mPool;
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.view.View;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.rendercore.ContentAllocator;
+import com.facebook.rendercore.MountItemsPool;
+import com.facebook.rendercore.RenderCoreConfig;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(LithoTestRunner.class)
+public class MountItemsPoolTest {
+
+  private final Context mContext = RuntimeEnvironment.application;
+  private final TestContentAllocator mAllocator = new TestContentAllocator();
+  private int mDefaultAdaptiveMaxSize;
+
+  @Before
+  public void setup() {
+    MountItemsPool.clear();
+    mDefaultAdaptiveMaxSize = RenderCoreConfig.adaptiveMountContentPoolMaxSize;
+  }
+
+  @After
+  public void cleanup() {
+    MountItemsPool.clear();
+    RenderCoreConfig.adaptiveMountContentPoolMaxSize = mDefaultAdaptiveMaxSize;
+  }
+
+  @Test
+  public void acquireAndRelease_recordsHitsMissesAndCreations() {
+    final Object first = MountItemsPool.acquireMountContent(mContext, mAllocator);
+    MountItemsPool.release(mContext, mAllocator, first);
+    final Object second = MountItemsPool.acquireMountContent(mContext, mAllocator);
+
+    assertThat(second).isSameAs(first);
+
+    final MountItemsPool.PoolStats stats = getOnlyStats();
+    assertThat(stats.contentType).isEqualTo(TestContentAllocator.class);
+    assertThat(stats.hitCount).isEqualTo(1);
+    assertThat(stats.missCount).isEqualTo(1);
+    assertThat(stats.creationCount).isEqualTo(1);
+  }
+
+  @Test
+  public void release_withoutAdaptiveSizing_keepsConfiguredSize() {
+    acquireAndReleaseAll(10);
+
+    final MountItemsPool.PoolStats stats = getOnlyStats();
+    assertThat(stats.pooledCount).isEqualTo(ContentAllocator.DEFAULT_MAX_PREALLOCATION);
+    assertThat(stats.capacity).isEqualTo(ContentAllocator.DEFAULT_MAX_PREALLOCATION);
+    assertThat(stats.peakInUseCount).isEqualTo(10);
+  }
+
+  @Test
+  public void release_withAdaptiveSizing_growsToPeakDemandUpToCap() {
+    RenderCoreConfig.adaptiveMountContentPoolMaxSize = 8;
+
+    acquireAndReleaseAll(6);
+    assertThat(getOnlyStats().pooledCount).isEqualTo(6);
+
+    acquireAndReleaseAll(10);
+    final MountItemsPool.PoolStats stats = getOnlyStats();
+    assertThat(stats.pooledCount).isEqualTo(8);
+    assertThat(stats.capacity).isEqualTo(8);
+  }
+
+  @Test
+  public void prefill_whileItemsInUse_doesNotLowerPeakDemand() {
+    RenderCoreConfig.adaptiveMountContentPoolMaxSize = 8;
+
+    final Object[] contents = new Object[8];
+    for (int i = 0; i < 5; i++) {
+      contents[i] = MountItemsPool.acquireMountContent(mContext, mAllocator);
+    }
+    MountItemsPool.prefillMountContentPool(mContext, 3, mAllocator);
+    assertThat(getOnlyStats().pooledCount).isEqualTo(3);
+
+    for (int i = 5; i < 8; i++) {
+      contents[i] = MountItemsPool.acquireMountContent(mContext, mAllocator);
+    }
+    assertThat(getOnlyStats().peakInUseCount).isEqualTo(8);
+
+    for (Object content : contents) {
+      MountItemsPool.release(mContext, mAllocator, content);
+    }
+
+    final MountItemsPool.PoolStats stats = getOnlyStats();
+    assertThat(stats.capacity).isEqualTo(8);
+    assertThat(stats.pooledCount).isEqualTo(8);
+  }
+
+  @Test
+  public void onTrimMemory_shrinksOrClearsPools() {
+    RenderCoreConfig.adaptiveMountContentPoolMaxSize = 8;
+    acquireAndReleaseAll(6);
+
+    MountItemsPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+    assertThat(getOnlyStats().pooledCount).isEqualTo(ContentAllocator.DEFAULT_MAX_PREALLOCATION);
+    assertThat(getOnlyStats().capacity).isEqualTo(ContentAllocator.DEFAULT_MAX_PREALLOCATION);
+
+    MountItemsPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    assertThat(getOnlyStats().pooledCount).isEqualTo(0);
+  }
+
+  private void acquireAndReleaseAll(int count) {
+    final Object[] contents = new Object[count];
+    for (int i = 0; i < count; i++) {
+      contents[i] = MountItemsPool.acquireMountContent(mContext, mAllocator);
+    }
+    for (Object content : contents) {
+      MountItemsPool.release(mContext, mAllocator, content);
+    }
+  }
+
+  private static MountItemsPool.PoolStats getOnlyStats() {
+    final List<MountItemsPool.PoolStats> stats = MountItemsPool.getPoolStats();
+    assertThat(stats).hasSize(1);
+    return stats.get(0);
+  }
+
+  private static class TestContentAllocator implements ContentAllocator {
+
+    @Override
+    public Object createContent(Context context) {
+      return new View(context);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static com.facebook.litho.LithoViewAttributesExtension.getComponentClickListener;
+import static com.facebook.litho.testing.helper.ComponentTestHelper.mountComponent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.view.View;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.inlinelayoutspec.InlineLayoutSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.litho.widget.Text;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class MountStateUpdateViewAttributesInPlaceTest {
+
+  // Needed because the test uses different InlineLayoutSpecs which should be treated as the same
+  // component type.
+  private static final int COMPONENT_IDENTITY = 12345;
+  private static final int ROW_COUNT = 300;
+
+  private ComponentContext mContext;
+  private boolean mUpdateViewAttributesInPlace;
+
+  @Before
+  public void setup() {
+    mUpdateViewAttributesInPlace = ComponentsConfiguration.updateViewAttributesInPlace;
+    ComponentsConfiguration.updateViewAttributesInPlace = true;
+    mContext = new ComponentContext(getApplicationContext());
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.updateViewAttributesInPlace = mUpdateViewAttributesInPlace;
+  }
+
+  @Test
+  public void updateText_onlyUpdatesContentDescriptionAndRetargetsClickListeners() {
+    final LithoView lithoView = mountComponent(mContext, createScreen("before", true));
+    assertThat(lithoView.getChildCount()).isEqualTo(ROW_COUNT);
+
+    final View[] views = new View[ROW_COUNT];
+    final ComponentClickListener[] listeners = new ComponentClickListener[ROW_COUNT];
+    final Object[] handlers = new Object[ROW_COUNT];
+    for (int i = 0; i < ROW_COUNT; i++) {
+      views[i] = lithoView.getChildAt(i);
+      listeners[i] = getComponentClickListener(views[i]);
+      assertThat(listeners[i]).isNotNull();
+      handlers[i] = listeners[i].getEventHandler();
+      assertThat(views[i].getContentDescription()).isEqualTo("before " + i);
+    }
+
+    lithoView.getComponentTree().setRoot(createScreen("after", true));
+
+    assertThat(lithoView.getChildCount()).isEqualTo(ROW_COUNT);
+    for (int i = 0; i < ROW_COUNT; i++) {
+      final View view = lithoView.getChildAt(i);
+      assertThat(view).isSameAs(views[i]);
+      assertThat(view.getContentDescription()).isEqualTo("after " + i);
+      assertThat(view.isClickable()).isTrue();
+      assertThat(getComponentClickListener(view)).isSameAs(listeners[i]);
+      assertThat(listeners[i].getEventHandler()).isNotNull().isNotSameAs(handlers[i]);
+    }
+  }
+
+  @Test
+  public void removeClickHandler_unsetsClickListener() {
+    final LithoView lithoView = mountComponent(mContext, createScreen("before", true));
+    final View view = lithoView.getChildAt(0);
+    final ComponentClickListener listener = getComponentClickListener(view);
+    assertThat(view.isClickable()).isTrue();
+
+    lithoView.getComponentTree().setRoot(createScreen("before", false));
+
+    assertThat(lithoView.getChildAt(0)).isSameAs(view);
+    assertThat(view.isClickable()).isFalse();
+    assertThat(view.hasOnClickListeners()).isFalse();
+    assertThat(listener.getEventHandler()).isNull();
+    assertThat(view.getContentDescription()).isEqualTo("before 0");
+  }
+
+  private static Component createScreen(final String text, final boolean isClickable) {
+    return new InlineLayoutSpec(COMPONENT_IDENTITY) {
+      @Override
+      protected Component onCreateLayout(ComponentContext c) {
+        final Column.Builder screen = Column.create(c);
+        for (int i = 0; i < ROW_COUNT; i++) {
+          screen.child(
+              Column.create(c)
+                  .wrapInView()
+                  .clickHandler(isClickable ? c.newEventHandler(i) : null)
+                  .contentDescription(text + " " + i)
+                  .child(Text.create(c).text(text + " " + i)));
+        }
+        return screen.build();
+      }
+    };
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static com.facebook.litho.SizeSpec.EXACTLY;
+import static com.facebook.litho.SizeSpec.UNSPECIFIED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.facebook.litho.stats.LithoStats;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
+
+@RunWith(LithoTestRunner.class)
+public class NestedTreeHolderResultTest {
+
+  private ComponentContext mContext;
+  private NestedTreeHolderResult mHolderResult;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(RuntimeEnvironment.application);
+    mHolderResult =
+        new NestedTreeHolderResult(
+            mContext, mock(NestedTreeHolder.class), NodeConfig.createYogaNode(), null);
+  }
+
+  @Test
+  public void getMemoizedNestedResult_withCompatibleSpecs_returnsEarlierResultAndCountsHit() {
+    final LithoLayoutResult first = createMeasuredResult(100, 50);
+    final LithoLayoutResult second = createMeasuredResult(200, 50);
+    mHolderResult.setNestedResult(first);
+    mHolderResult.setNestedResult(second);
+
+    final long hitCount = LithoStats.getComponentNestedTreeMemoHitCount();
+
+    assertThat(mHolderResult.getMemoizedNestedResult(exactly(100), exactly(50))).isSameAs(first);
+    assertThat(LithoStats.getComponentNestedTreeMemoHitCount()).isEqualTo(hitCount + 1);
+  }
+
+  @Test
+  public void getMemoizedNestedResult_withIncompatibleSpecs_returnsNullWithoutCountingHit() {
+    mHolderResult.setNestedResult(createMeasuredResult(100, 50));
+
+    final long hitCount = LithoStats.getComponentNestedTreeMemoHitCount();
+
+    assertThat(mHolderResult.getMemoizedNestedResult(exactly(150), exactly(50))).isNull();
+    assertThat(LithoStats.getComponentNestedTreeMemoHitCount()).isEqualTo(hitCount);
+  }
+
+  @Test
+  public void setNestedResult_overMaxMemoizedResults_evictsOldestResult() {
+    for (int i = 0; i <= NestedTreeHolderResult.MAX_MEMOIZED_NESTED_RESULTS; i++) {
+      mHolderResult.setNestedResult(createMeasuredResult(100 + i, 50));
+    }
+
+    assertThat(mHolderResult.getMemoizedNestedResult(exactly(100), exactly(50))).isNull();
+    assertThat(mHolderResult.getMemoizedNestedResult(exactly(101), exactly(50))).isNotNull();
+  }
+
+  @Test
+  public void clearMemoizedNestedResults_keepsOnlyNestedResult() {
+    final LithoLayoutResult first = createMeasuredResult(100, 50);
+    final LithoLayoutResult second = createMeasuredResult(200, 50);
+    mHolderResult.setNestedResult(first);
+    mHolderResult.setNestedResult(second);
+
+    mHolderResult.clearMemoizedNestedResults();
+
+    assertThat(mHolderResult.getMemoizedNestedResult(exactly(100), exactly(50))).isNull();
+    assertThat(mHolderResult.getNestedResult()).isSameAs(second);
+  }
+
+  private LithoLayoutResult createMeasuredResult(int width, int height) {
+    final LithoLayoutResult result =
+        new LithoLayoutResult(mContext, mock(LithoNode.class), NodeConfig.createYogaNode(), null);
+    result.setLastWidthSpec(SizeSpec.makeSizeSpec(0, UNSPECIFIED));
+    result.setLastHeightSpec(SizeSpec.makeSizeSpec(0, UNSPECIFIED));
+    result.setLastMeasuredWidth(width);
+    result.setLastMeasuredHeight(height);
+    return result;
+  }
+
+  private static int exactly(int size) {
+    return SizeSpec.makeSizeSpec(size, EXACTLY);
+  }
+}
@@ -35,6 +35,7 @@ import static com.facebook.litho.LifecycleStep.getSteps;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.litho.stateupdates.ComponentWithMeasureCall;
 import com.facebook.litho.testing.LegacyLithoViewRule;
 import com.facebook.litho.testing.helper.ComponentTestHelper;
@@ -110,6 +111,30 @@ public class NestedTreeResolutionTest {
             LifecycleStep.ON_CREATE_LAYOUT_WITH_SIZE_SPEC);
   }
 
+  @Test
+  public void onRenderComponentWithSizeSpec_shouldCountEachNestedTreeResolve() {
+    final ComponentContext c = mLegacyLithoViewRule.getContext();
+    final RootComponentWithTreeProps component =
+        RootComponentWithTreeProps.create(c).shouldNotUpdateState(true).build();
+
+    final ExtraProps props = new ExtraProps();
+    props.steps = new ArrayList<>();
+
+    final long resolveCount = LithoStats.getComponentNestedTreeResolveCount();
+
+    mLegacyLithoViewRule
+        .setTreeProp(ExtraProps.class, props)
+        .attachToWindow()
+        .setSizePx(100, 100)
+        .measure()
+        .setRoot(component)
+        .layout();
+
+    assertThat(props.steps).isNotEmpty();
+    assertThat(LithoStats.getComponentNestedTreeResolveCount())
+        .isEqualTo(resolveCount + props.steps.size());
+  }
+
   @Test
   public void onRenderComponentWithSizeSpec_shouldNotTransferLayoutDirectionIfExplicitlySet() {
     final ComponentContext c = mLegacyLithoViewRule.getContext();
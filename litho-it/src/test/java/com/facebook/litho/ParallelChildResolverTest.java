@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static com.facebook.litho.LithoRenderUnit.getComponentContext;
+import static com.facebook.litho.testing.MeasureSpecTestingUtilsKt.unspecified;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import androidx.annotation.Nullable;
+import com.facebook.litho.annotations.OnCreateLayout;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.inlinelayoutspec.InlineLayoutSpec;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import com.facebook.litho.widget.SimpleMountSpecTester;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class ParallelChildResolverTest {
+
+  private ComponentContext mContext;
+  private boolean mEnableParallelResolve;
+  private int mParallelResolveCostThreshold;
+
+  @Before
+  public void setup() {
+    mContext = new ComponentContext(getApplicationContext());
+    mEnableParallelResolve = ComponentsConfiguration.enableParallelResolve;
+    mParallelResolveCostThreshold = ComponentsConfiguration.parallelResolveCostThreshold;
+    ParallelChildResolver.clearLayoutSpecCosts();
+  }
+
+  @After
+  public void cleanup() {
+    ComponentsConfiguration.enableParallelResolve = mEnableParallelResolve;
+    ComponentsConfiguration.parallelResolveCostThreshold = mParallelResolveCostThreshold;
+    ParallelChildResolver.clearLayoutSpecCosts();
+  }
+
+  @Test
+  public void estimateCost_countsContainersAndStopsAtLimit() {
+    final Component leaf = SimpleMountSpecTester.create(mContext).build();
+    final Component column =
+        Column.create(mContext)
+            .child(leaf)
+            .child(Row.create(mContext).child(leaf).child(leaf))
+            .build();
+
+    assertThat(ParallelChildResolver.estimateCost(leaf, 100)).isEqualTo(1);
+    assertThat(ParallelChildResolver.estimateCost(column, 100)).isEqualTo(5);
+    assertThat(ParallelChildResolver.estimateCost(column, 3)).isEqualTo(3);
+    assertThat(ParallelChildResolver.estimateCost(createLayoutSpec(2), 100)).isEqualTo(1);
+  }
+
+  @Test
+  public void estimateCost_usesLastResolvedCostOfLayoutSpecs() {
+    ComponentsConfiguration.enableParallelResolve = true;
+    ComponentsConfiguration.parallelResolveCostThreshold = 4;
+    final List<Thread> cheapResolveThreads = new ArrayList<>();
+    final Component root =
+        Column.create(mContext)
+            .child(createCheapLayoutSpec(cheapResolveThreads))
+            .child(createLayoutSpec(8))
+            .child(createCheapLayoutSpec(cheapResolveThreads))
+            .child(createLayoutSpec(8))
+            .build();
+
+    getMountedGlobalKeys(root);
+
+    assertThat(ParallelChildResolver.estimateCost(createCheapLayoutSpec(null), 4)).isEqualTo(2);
+    assertThat(ParallelChildResolver.isForkable(createCheapLayoutSpec(null))).isFalse();
+    assertThat(ParallelChildResolver.estimateCost(createLayoutSpec(8), 4)).isEqualTo(4);
+    assertThat(ParallelChildResolver.isForkable(createLayoutSpec(8))).isTrue();
+
+    cheapResolveThreads.clear();
+    getMountedGlobalKeys(root);
+
+    assertThat(cheapResolveThreads).hasSize(2).containsOnly(Thread.currentThread());
+  }
+
+  @Test
+  public void resolveInParallel_generatesSameGlobalKeysAsSequentialResolve() {
+    final Component root =
+        Column.create(mContext)
+            .child(createLayoutSpec(3))
+            .child(SimpleMountSpecTester.create(mContext).widthDip(10).heightDip(10))
+            .child(createLayoutSpec(2))
+            .child(createLayoutSpec(4))
+            .build();
+
+    ComponentsConfiguration.enableParallelResolve = false;
+    final List<String> sequentialKeys = getMountedGlobalKeys(root);
+
+    ComponentsConfiguration.enableParallelResolve = true;
+    ComponentsConfiguration.parallelResolveCostThreshold = 2;
+    final List<String> parallelKeys = getMountedGlobalKeys(root);
+
+    assertThat(sequentialKeys).hasSize(10);
+    assertThat(parallelKeys).containsExactlyElementsOf(sequentialKeys);
+  }
+
+  @Test
+  public void resolveInParallel_withWillRenderChild_generatesSameGlobalKeysAsSequentialResolve() {
+    final Component root =
+        new InlineLayoutSpec() {
+          @Override
+          @OnCreateLayout
+          protected Component onCreateLayout(ComponentContext c) {
+            // The layout of the first child is created, and its key generated, in willRender.
+            final Component willRenderChild = createLayoutSpec(3);
+            Component.willRender(c, willRenderChild);
+            return Column.create(c)
+                .child(willRenderChild)
+                .child(createLayoutSpec(3))
+                .child(createLayoutSpec(2))
+                .child(createLayoutSpec(3))
+                .build();
+          }
+        };
+
+    ComponentsConfiguration.enableParallelResolve = false;
+    final List<String> sequentialKeys = getMountedGlobalKeys(root);
+
+    ComponentsConfiguration.enableParallelResolve = true;
+    ComponentsConfiguration.parallelResolveCostThreshold = 2;
+    final List<String> parallelKeys = getMountedGlobalKeys(root);
+
+    assertThat(sequentialKeys).hasSize(11);
+    assertThat(parallelKeys).containsExactlyElementsOf(sequentialKeys);
+  }
+
+  private Component createLayoutSpec(final int childCount) {
+    // A type per child count, so that each one has its own last resolved cost.
+    return new InlineLayoutSpec(childCount) {
+      @Override
+      @OnCreateLayout
+      protected Component onCreateLayout(ComponentContext c) {
+        final Column.Builder column = Column.create(c);
+        for (int i = 0; i < childCount; i++) {
+          column.child(SimpleMountSpecTester.create(c).widthDip(10).heightDip(10));
+        }
+        return column.build();
+      }
+    };
+  }
+
+  private Component createCheapLayoutSpec(@Nullable final List<Thread> resolveThreads) {
+    return new InlineLayoutSpec() {
+      @Override
+      @OnCreateLayout
+      protected Component onCreateLayout(ComponentContext c) {
+        if (resolveThreads != null) {
+          synchronized (resolveThreads) {
+            resolveThreads.add(Thread.currentThread());
+          }
+        }
+        return Column.create(c)
+            .child(SimpleMountSpecTester.create(c).widthDip(10).heightDip(10))
+            .build();
+      }
+    };
+  }
+
+  private List<String> getMountedGlobalKeys(Component component) {
+    final LithoView lithoView = new LithoView(mContext);
+    lithoView.setComponent(component);
+    lithoView.measure(unspecified(640), unspecified(480));
+    lithoView.layout(0, 0, lithoView.getMeasuredWidth(), lithoView.getMeasuredHeight());
+
+    final List<String> keys = new ArrayList<>();
+    for (int i = 0, size = lithoView.getMountItemCount(); i < size; i++) {
+      keys.add(getComponentContext(lithoView.getMountItemAt(i)).getGlobalKey());
+    }
+    return keys;
+  }
+}
@@ -29,6 +29,8 @@ import org.junit.runner.RunWith;
 @RunWith(LithoTestRunner.class)
 public class ResourceCacheTest {
 
+  private static final int RES_ID = 0x7f010001;
+
   @Test
   public void testSameConfigurationDoesNotUpdateResourceCache() {
     Configuration configuration = getApplicationContext().getResources().getConfiguration();
@@ -55,6 +57,61 @@ public class ResourceCacheTest {
     assertThat(cache).isNotEqualTo(ResourceCache.getLatest(configuration));
   }
 
+  @Test
+  public void testSameResIdWithDifferentTypesIsCachedSeparately() {
+    LruResourceCache cache =
+        new LruResourceCache(getApplicationContext().getResources().getConfiguration());
+
+    cache.putInt(RES_ID, ResourceCache.TYPE_DIMEN_SIZE, 10);
+    cache.putInt(RES_ID, ResourceCache.TYPE_DIMEN_OFFSET, 9);
+
+    assertThat(cache.getInt(RES_ID, ResourceCache.TYPE_DIMEN_SIZE)).isEqualTo(10);
+    assertThat(cache.getInt(RES_ID, ResourceCache.TYPE_DIMEN_OFFSET)).isEqualTo(9);
+    assertThat(cache.getInt(RES_ID, ResourceCache.TYPE_INT)).isEqualTo(ResourceCache.MISSING);
+    assertThat(cache.<String>get(RES_ID, ResourceCache.TYPE_STRING)).isNull();
+    assertThat(cache.getHitCount()).isEqualTo(2);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testManyResourcesAreKeptUntilMaxSize() {
+    LruResourceCache cache =
+        new LruResourceCache(
+            getApplicationContext().getResources().getConfiguration(), Integer.MAX_VALUE);
+
+    for (int i = 1; i <= 1000; i++) {
+      cache.putInt(i, ResourceCache.TYPE_INT, -i);
+    }
+
+    assertThat(cache.size()).isEqualTo(1000);
+    for (int i = 1; i <= 1000; i++) {
+      assertThat(cache.getInt(i, ResourceCache.TYPE_INT)).isEqualTo(-i);
+    }
+  }
+
+  @Test
+  public void testExceedingMaxSizeEvictsLeastRecentlyUsedResources() {
+    LruResourceCache cache =
+        new LruResourceCache(getApplicationContext().getResources().getConfiguration(), 300);
+
+    cache.put(1, ResourceCache.TYPE_STRING, "0123456789");
+    cache.put(2, ResourceCache.TYPE_STRING, "0123456789");
+    cache.put(3, ResourceCache.TYPE_STRING, "0123456789");
+    final int entrySizeBytes = cache.getSizeBytes() / 3;
+
+    // Makes 1 more recently used than 2.
+    cache.get(1, ResourceCache.TYPE_STRING);
+    while (cache.getSizeBytes() + entrySizeBytes <= 300) {
+      cache.put(cache.size() + 10, ResourceCache.TYPE_STRING, "0123456789");
+    }
+    cache.put(4, ResourceCache.TYPE_STRING, "0123456789");
+
+    assertThat(cache.getSizeBytes()).isLessThanOrEqualTo(300);
+    assertThat(cache.<String>get(2, ResourceCache.TYPE_STRING)).isNull();
+    assertThat(cache.<String>get(1, ResourceCache.TYPE_STRING)).isEqualTo("0123456789");
+    assertThat(cache.<String>get(4, ResourceCache.TYPE_STRING)).isEqualTo("0123456789");
+  }
+
   private static void setLocale(Configuration configuration, Locale locale) {
     if (Build.VERSION.SDK_INT >= 17) {
       configuration.setLocale(locale);
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.facebook.litho.StateContainer.StateUpdate;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class StateUpdateQueueTest {
+
+  private static final int PRODUCER_COUNT = 4;
+  private static final int UPDATES_PER_PRODUCER = 5000;
+
+  @Test
+  public void drainTo_queuesUpdatesInEnqueueOrder() {
+    final StateUpdateQueue queue = new StateUpdateQueue();
+    final TreeState treeState = new TreeState();
+
+    assertThat(queue.isEmpty()).isTrue();
+    queue.enqueueStateUpdate("key", new StateUpdate(0), false);
+    queue.enqueueStateUpdate("key", new StateUpdate(1), false);
+    queue.enqueueStateUpdate("key", new StateUpdate(2), false);
+    assertThat(queue.isEmpty()).isFalse();
+
+    assertThat(queue.drainTo(treeState)).isEqualTo(3);
+    assertThat(queue.isEmpty()).isTrue();
+    assertThat(queue.drainTo(treeState)).isEqualTo(0);
+
+    final List<StateUpdate> updates =
+        treeState.getRenderStateHandler().getPendingStateUpdates().get("key");
+    assertThat(updates).hasSize(3);
+    for (int i = 0; i < updates.size(); i++) {
+      assertThat(updates.get(i).type).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void drainTo_whileFourThreadsEnqueue_keepsAllUpdatesInOrderOfEachThread()
+      throws InterruptedException {
+    final StateUpdateQueue queue = new StateUpdateQueue();
+    final TreeState treeState = new TreeState();
+    final CountDownLatch start = new CountDownLatch(1);
+    final Thread[] producers = new Thread[PRODUCER_COUNT];
+
+    for (int p = 0; p < PRODUCER_COUNT; p++) {
+      final String key = "key" + p;
+      producers[p] =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  try {
+                    start.await();
+                  } catch (InterruptedException e) {
+                    return;
+                  }
+                  for (int i = 0; i < UPDATES_PER_PRODUCER; i++) {
+                    queue.enqueueStateUpdate(key, new StateUpdate(i), false);
+                  }
+                }
+              });
+      producers[p].start();
+    }
+
+    start.countDown();
+
+    // Drain concurrently with the producers, as the layout thread would.
+    int drained = 0;
+    for (Thread producer : producers) {
+      while (producer.isAlive()) {
+        drained += queue.drainTo(treeState);
+      }
+      producer.join();
+    }
+    drained += queue.drainTo(treeState);
+
+    assertThat(drained).isEqualTo(PRODUCER_COUNT * UPDATES_PER_PRODUCER);
+
+    final Map<String, List<StateUpdate>> pendingUpdates =
+        treeState.getRenderStateHandler().getPendingStateUpdates();
+    for (int p = 0; p < PRODUCER_COUNT; p++) {
+      final List<StateUpdate> updates = pendingUpdates.get("key" + p);
+      assertThat(updates).hasSize(UPDATES_PER_PRODUCER);
+      for (int i = 0; i < UPDATES_PER_PRODUCER; i++) {
+        assertThat(updates.get(i).type).isEqualTo(i);
+      }
+    }
+  }
+}
@@ -369,6 +369,43 @@ public class TransitionManagerAnimationCreationTest {
             createPropertyAnimation("test2", AnimatedProperties.Y, -20));
   }
 
+  @Test
+  public void testCreateManyAppearAnimationsWithPooledStates() {
+    final int count = 100;
+    final String[] keys = new String[count];
+    final AnimatableItem[] items = new AnimatableItem[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = "test" + i;
+      items[i] = createMockLayoutOutput(keys[i], 0, i * 100);
+    }
+    final LayoutState current = createMockLayoutState(Transition.parallel());
+    final LayoutState next =
+        createMockLayoutState(
+            Transition.parallel(
+                Transition.create(Transition.TransitionKeyType.GLOBAL, keys)
+                    .animate(AnimatedProperties.ALPHA)
+                    .appearFrom(0)
+                    .animator(mTestVerificationAnimator)),
+            items);
+
+    // The second run reuses the states released by the reset of the first one.
+    for (int run = 0; run < 2; run++) {
+      mCreatedAnimations.clear();
+      mTransitionManager.setupTransitions(
+          current, next, TransitionManager.getRootTransition(next.getTransitions()));
+
+      assertThat(mCreatedAnimations).hasSize(count);
+      for (int i = 0; i < count; i++) {
+        final TransitionId transitionId = new TransitionId(TransitionId.Type.GLOBAL, keys[i], null);
+        assertThat(mTransitionManager.isAnimating(transitionId)).isTrue();
+        assertThat(mCreatedAnimations)
+            .contains(createPropertyAnimation(keys[i], AnimatedProperties.ALPHA, 1));
+      }
+
+      mTransitionManager.reset();
+    }
+  }
+
   private PropertyAnimation createPropertyAnimation(
       String key, AnimatedProperty property, float endValue) {
     final TransitionId transitionId = new TransitionId(TransitionId.Type.GLOBAL, key, null);
@@ -38,7 +38,6 @@ import static org.mockito.Mockito.when;
 import android.graphics.Color;
 import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
-import androidx.collection.SparseArrayCompat;
 import com.facebook.litho.config.TempComponentsConfigurations;
 import com.facebook.litho.drawable.ComparableColorDrawable;
 import com.facebook.litho.testing.LegacyLithoViewRule;
@@ -399,17 +398,13 @@ public class TreeDiffingTest {
     assertThat(mountItem2).isEqualTo(hostHolder.getMountItemAt(0));
     assertThat(mountItem1).isEqualTo(hostHolder.getMountItemAt(1));
 
-    assertThat(1)
-        .isEqualTo(
-            ((SparseArrayCompat<MountItem>) getInternalState(hostHolder, "mScrapMountItemsArray"))
-                .size());
+    final ComponentHostMountItems mountItems = getInternalState(hostHolder, "mMountItems");
+    assertThat(1).isEqualTo(mountItems.displacedSize());
 
     hostHolder.unmount(0, mountItem);
 
-    assertThat(2)
-        .isEqualTo(
-            ((SparseArrayCompat<MountItem>) getInternalState(hostHolder, "mMountItems")).size());
-    assertThat((Object) getInternalState(hostHolder, "mScrapMountItemsArray")).isNull();
+    assertThat(2).isEqualTo(mountItems.size());
+    assertThat(0).isEqualTo(mountItems.displacedSize());
   }
 
   @Test
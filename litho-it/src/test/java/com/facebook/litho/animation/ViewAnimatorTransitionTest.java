@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.animation;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static com.facebook.litho.animation.AnimatedProperties.ALPHA;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.graphics.drawable.ColorDrawable;
+import android.view.View;
+import com.facebook.litho.OutputUnitType;
+import com.facebook.litho.OutputUnitsAffinityGroup;
+import com.facebook.litho.TransitionId;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.shadows.ShadowLooper;
+
+@RunWith(LithoTestRunner.class)
+public class ViewAnimatorTransitionTest {
+
+  private static final int DURATION_MS = 100;
+
+  private View mView;
+  private AnimatedPropertyNode mAnimatedPropertyNode;
+  private PropertyAnimation mPropertyAnimation;
+  private Resolver mResolver;
+  private int mFinishCount;
+
+  @Before
+  public void setUp() {
+    mView = new View(getApplicationContext());
+    mView.setAlpha(0);
+    final OutputUnitsAffinityGroup<Object> group = new OutputUnitsAffinityGroup<>();
+    group.add(OutputUnitType.HOST, mView);
+    mAnimatedPropertyNode = new AnimatedPropertyNode(group, ALPHA);
+    mAnimatedPropertyNode.setValue(0);
+
+    final TransitionId transitionId = new TransitionId(TransitionId.Type.GLOBAL, "test", null);
+    mPropertyAnimation = new PropertyAnimation(new PropertyHandle(transitionId, ALPHA), 1);
+    mResolver =
+        new Resolver() {
+          @Override
+          public float getCurrentState(PropertyHandle propertyHandle) {
+            return mAnimatedPropertyNode.getValue();
+          }
+
+          @Override
+          public AnimatedPropertyNode getAnimatedPropertyNode(PropertyHandle propertyHandle) {
+            return mAnimatedPropertyNode;
+          }
+        };
+  }
+
+  @Test
+  public void start_onView_animatesViewPropertyWithPlatformAnimator() {
+    final ViewAnimatorTransition animation = createAnimation();
+    animation.start(mResolver);
+
+    assertThat(animation.isActive()).isTrue();
+    assertThat(mView.getAlpha()).isEqualTo(0f);
+
+    ShadowLooper.idleMainLooper(DURATION_MS / 2, TimeUnit.MILLISECONDS);
+
+    assertThat(mView.getAlpha()).isBetween(0f, 1f);
+    assertThat(mAnimatedPropertyNode.getValue()).isEqualTo(mView.getAlpha());
+
+    ShadowLooper.idleMainLooper(DURATION_MS, TimeUnit.MILLISECONDS);
+
+    assertThat(animation.isActive()).isFalse();
+    assertThat(mFinishCount).isEqualTo(1);
+    assertThat(mView.getAlpha()).isEqualTo(1f);
+    assertThat(mAnimatedPropertyNode.getValue()).isEqualTo(1f);
+  }
+
+  @Test
+  public void setValue_whileAnimating_releasesViewButStillFinishes() {
+    final ViewAnimatorTransition animation = createAnimation();
+    animation.start(mResolver);
+
+    mAnimatedPropertyNode.setValue(0.25f);
+    ShadowLooper.idleMainLooper(2 * DURATION_MS, TimeUnit.MILLISECONDS);
+
+    assertThat(mView.getAlpha()).isEqualTo(0.25f);
+    assertThat(mAnimatedPropertyNode.getValue()).isEqualTo(0.25f);
+    assertThat(mFinishCount).isEqualTo(1);
+  }
+
+  @Test
+  public void stop_whileAnimating_doesNotFinish() {
+    final ViewAnimatorTransition animation = createAnimation();
+    animation.start(mResolver);
+
+    ShadowLooper.idleMainLooper(DURATION_MS / 2, TimeUnit.MILLISECONDS);
+    animation.stop();
+    final float stoppedAlpha = mView.getAlpha();
+    ShadowLooper.idleMainLooper(2 * DURATION_MS, TimeUnit.MILLISECONDS);
+
+    assertThat(animation.isActive()).isFalse();
+    assertThat(mFinishCount).isEqualTo(0);
+    assertThat(mView.getAlpha()).isEqualTo(stoppedAlpha);
+    assertThat(mAnimatedPropertyNode.getValue()).isEqualTo(stoppedAlpha);
+  }
+
+  @Test
+  public void start_onDrawable_fallsBackToDataFlowAnimation() {
+    final OutputUnitsAffinityGroup<Object> group = new OutputUnitsAffinityGroup<>();
+    group.add(OutputUnitType.CONTENT, new ColorDrawable());
+    mAnimatedPropertyNode = new AnimatedPropertyNode(group, ALPHA);
+
+    final ViewAnimatorTransition animation = createAnimation();
+    animation.start(mResolver);
+
+    assertThat(mAnimatedPropertyNode.getSingleView()).isNull();
+    assertThat(animation.isActive()).isTrue();
+    animation.stop();
+    assertThat(animation.isActive()).isFalse();
+  }
+
+  private ViewAnimatorTransition createAnimation() {
+    final ViewAnimatorTransition animation =
+        new ViewAnimatorTransition(
+            mPropertyAnimation,
+            DURATION_MS,
+            null,
+            new TimingTransition(DURATION_MS, mPropertyAnimation));
+    animation.addListener(
+        new AnimationBindingListener() {
+          @Override
+          public void onScheduledToStartLater(AnimationBinding binding) {}
+
+          @Override
+          public void onWillStart(AnimationBinding binding) {}
+
+          @Override
+          public void onFinish(AnimationBinding binding) {
+            mFinishCount++;
+          }
+
+          @Override
+          public void onCanceledBeforeStart(AnimationBinding binding) {}
+
+          @Override
+          public boolean shouldStart(AnimationBinding binding) {
+            return true;
+          }
+        });
+    return animation;
+  }
+}
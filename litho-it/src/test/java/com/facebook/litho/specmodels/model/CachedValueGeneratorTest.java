@@ -163,29 +163,13 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class ExpensiveValueInputs {\n"
-                + "  private final String globalKey;\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
                 + "\n"
-                + "  ExpensiveValueInputs(String globalKey) {\n"
-                + "    this.globalKey = globalKey;\n"
+                + "  ExpensiveValueInputs(java.lang.Object mCachedValue$) {\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, getClass());\n"
-                + "  }\n"
-                + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof ExpensiveValueInputs)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    ExpensiveValueInputs cachedValueInputs = (ExpensiveValueInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
-                + "      return false;\n"
-                + "    }\n"
+                + "  boolean hasInputs() {\n"
                 + "    return true;\n"
                 + "  }\n"
                 + "}\n");
@@ -212,12 +196,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getExpensiveValue(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final ExpensiveValueInputs inputs = new ExpensiveValueInputs(globalKey);\n"
-                + "  java.lang.String expensiveValue = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (expensiveValue == null) {\n"
-                + "    expensiveValue = CachedValueTestSpec.onCreateExpensiveValue();\n"
-                + "    c.putCachedValue(inputs, expensiveValue);\n"
+                + "  final ExpensiveValueInputs inputs = (ExpensiveValueInputs) c.getCachedValueEntry(globalKey, \"expensiveValue\");\n"
+                + "  if (inputs != null && inputs.hasInputs()) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String expensiveValue = CachedValueTestSpec.onCreateExpensiveValue();\n"
+                + "  c.putCachedValueEntry(globalKey, \"expensiveValue\", new ExpensiveValueInputs(expensiveValue));\n"
                 + "  return expensiveValue;\n"
                 + "}\n");
   }
@@ -242,29 +226,13 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class ExpensiveValueWithContextInputs {\n"
-                + "  private final String globalKey;\n"
-                + "\n"
-                + "  ExpensiveValueWithContextInputs(String globalKey) {\n"
-                + "    this.globalKey = globalKey;\n"
-                + "  }\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, getClass());\n"
+                + "  ExpensiveValueWithContextInputs(java.lang.Object mCachedValue$) {\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof ExpensiveValueWithContextInputs)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    ExpensiveValueWithContextInputs cachedValueInputs = (ExpensiveValueWithContextInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
-                + "      return false;\n"
-                + "    }\n"
+                + "  boolean hasInputs() {\n"
                 + "    return true;\n"
                 + "  }\n"
                 + "}\n");
@@ -292,12 +260,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getExpensiveValueWithContext(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final ExpensiveValueWithContextInputs inputs = new ExpensiveValueWithContextInputs(globalKey);\n"
-                + "  java.lang.String expensiveValueWithContext = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (expensiveValueWithContext == null) {\n"
-                + "    expensiveValueWithContext = CachedValueTestSpec.onCreateExpensiveValueWithContext(c);\n"
-                + "    c.putCachedValue(inputs, expensiveValueWithContext);\n"
+                + "  final ExpensiveValueWithContextInputs inputs = (ExpensiveValueWithContextInputs) c.getCachedValueEntry(globalKey, \"expensiveValueWithContext\");\n"
+                + "  if (inputs != null && inputs.hasInputs()) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String expensiveValueWithContext = CachedValueTestSpec.onCreateExpensiveValueWithContext(c);\n"
+                + "  c.putCachedValueEntry(globalKey, \"expensiveValueWithContext\", new ExpensiveValueWithContextInputs(expensiveValueWithContext));\n"
                 + "  return expensiveValueWithContext;\n"
                 + "}\n");
   }
@@ -322,33 +290,17 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class ExpensiveValueWithGenericInputs<E extends java.lang.CharSequence> {\n"
-                + "  private final String globalKey;\n"
-                + "\n"
                 + "  private final E genericArg;\n"
                 + "\n"
-                + "  ExpensiveValueWithGenericInputs(String globalKey, E genericArg) {\n"
-                + "    this.globalKey = globalKey;\n"
-                + "    this.genericArg = genericArg;\n"
-                + "  }\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, genericArg, getClass());\n"
+                + "  ExpensiveValueWithGenericInputs(E genericArg, java.lang.Object mCachedValue$) {\n"
+                + "    this.genericArg = genericArg;\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof ExpensiveValueWithGenericInputs)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    ExpensiveValueWithGenericInputs cachedValueInputs = (ExpensiveValueWithGenericInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    if (genericArg != null ? !genericArg.equals(cachedValueInputs.genericArg) : cachedValueInputs.genericArg != null) {\n"
+                + "  boolean hasInputs(E genericArg) {\n"
+                + "    if (genericArg != null ? !genericArg.equals(this.genericArg) : this.genericArg != null) {\n"
                 + "      return false;\n"
                 + "    }\n"
                 + "    return true;\n"
@@ -377,12 +329,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getExpensiveValueWithGeneric(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final ExpensiveValueWithGenericInputs inputs = new ExpensiveValueWithGenericInputs(globalKey,genericArg);\n"
-                + "  java.lang.String expensiveValueWithGeneric = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (expensiveValueWithGeneric == null) {\n"
-                + "    expensiveValueWithGeneric = CachedValueTestSpec.onCreateExpensiveValueWithGeneric(genericArg);\n"
-                + "    c.putCachedValue(inputs, expensiveValueWithGeneric);\n"
+                + "  final ExpensiveValueWithGenericInputs inputs = (ExpensiveValueWithGenericInputs) c.getCachedValueEntry(globalKey, \"expensiveValueWithGeneric\");\n"
+                + "  if (inputs != null && inputs.hasInputs(genericArg)) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String expensiveValueWithGeneric = CachedValueTestSpec.onCreateExpensiveValueWithGeneric(genericArg);\n"
+                + "  c.putCachedValueEntry(globalKey, \"expensiveValueWithGeneric\", new ExpensiveValueWithGenericInputs(genericArg,expensiveValueWithGeneric));\n"
                 + "  return expensiveValueWithGeneric;\n"
                 + "}\n");
   }
@@ -407,39 +359,23 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class ExpensiveValueWithMoreGenericsInputs<E extends java.lang.CharSequence> {\n"
-                + "  private final String globalKey;\n"
-                + "\n"
                 + "  private final E genericArg;\n"
                 + "\n"
                 + "  private final E genericArg2;\n"
                 + "\n"
-                + "  ExpensiveValueWithMoreGenericsInputs(String globalKey, E genericArg, E genericArg2) {\n"
-                + "    this.globalKey = globalKey;\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
+                + "\n"
+                + "  ExpensiveValueWithMoreGenericsInputs(E genericArg, E genericArg2, java.lang.Object mCachedValue$) {\n"
                 + "    this.genericArg = genericArg;\n"
                 + "    this.genericArg2 = genericArg2;\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, genericArg, genericArg2, getClass());\n"
-                + "  }\n"
-                + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof ExpensiveValueWithMoreGenericsInputs)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    ExpensiveValueWithMoreGenericsInputs cachedValueInputs = (ExpensiveValueWithMoreGenericsInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
+                + "  boolean hasInputs(E genericArg, E genericArg2) {\n"
+                + "    if (genericArg != null ? !genericArg.equals(this.genericArg) : this.genericArg != null) {\n"
                 + "      return false;\n"
                 + "    }\n"
-                + "    if (genericArg != null ? !genericArg.equals(cachedValueInputs.genericArg) : cachedValueInputs.genericArg != null) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    if (genericArg2 != null ? !genericArg2.equals(cachedValueInputs.genericArg2) : cachedValueInputs.genericArg2 != null) {\n"
+                + "    if (genericArg2 != null ? !genericArg2.equals(this.genericArg2) : this.genericArg2 != null) {\n"
                 + "      return false;\n"
                 + "    }\n"
                 + "    return true;\n"
@@ -468,12 +404,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getExpensiveValueWithMoreGenerics(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final ExpensiveValueWithMoreGenericsInputs inputs = new ExpensiveValueWithMoreGenericsInputs(globalKey,genericArg,genericArg2);\n"
-                + "  java.lang.String expensiveValueWithMoreGenerics = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (expensiveValueWithMoreGenerics == null) {\n"
-                + "    expensiveValueWithMoreGenerics = CachedValueTestSpec.onCreateExpensiveValueWithMoreGenerics(genericArg,genericArg2);\n"
-                + "    c.putCachedValue(inputs, expensiveValueWithMoreGenerics);\n"
+                + "  final ExpensiveValueWithMoreGenericsInputs inputs = (ExpensiveValueWithMoreGenericsInputs) c.getCachedValueEntry(globalKey, \"expensiveValueWithMoreGenerics\");\n"
+                + "  if (inputs != null && inputs.hasInputs(genericArg,genericArg2)) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String expensiveValueWithMoreGenerics = CachedValueTestSpec.onCreateExpensiveValueWithMoreGenerics(genericArg,genericArg2);\n"
+                + "  c.putCachedValueEntry(globalKey, \"expensiveValueWithMoreGenerics\", new ExpensiveValueWithMoreGenericsInputs(genericArg,genericArg2,expensiveValueWithMoreGenerics));\n"
                 + "  return expensiveValueWithMoreGenerics;\n"
                 + "}\n");
   }
@@ -499,39 +435,23 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class ExpensiveValueWithMoreGenericsAndContextInputs<E extends java.lang.CharSequence> {\n"
-                + "  private final String globalKey;\n"
-                + "\n"
                 + "  private final E genericArg;\n"
                 + "\n"
                 + "  private final E genericArg2;\n"
                 + "\n"
-                + "  ExpensiveValueWithMoreGenericsAndContextInputs(String globalKey, E genericArg, E genericArg2) {\n"
-                + "    this.globalKey = globalKey;\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
+                + "\n"
+                + "  ExpensiveValueWithMoreGenericsAndContextInputs(E genericArg, E genericArg2, java.lang.Object mCachedValue$) {\n"
                 + "    this.genericArg = genericArg;\n"
                 + "    this.genericArg2 = genericArg2;\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, genericArg, genericArg2, getClass());\n"
-                + "  }\n"
-                + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof ExpensiveValueWithMoreGenericsAndContextInputs)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    ExpensiveValueWithMoreGenericsAndContextInputs cachedValueInputs = (ExpensiveValueWithMoreGenericsAndContextInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
+                + "  boolean hasInputs(E genericArg, E genericArg2) {\n"
+                + "    if (genericArg != null ? !genericArg.equals(this.genericArg) : this.genericArg != null) {\n"
                 + "      return false;\n"
                 + "    }\n"
-                + "    if (genericArg != null ? !genericArg.equals(cachedValueInputs.genericArg) : cachedValueInputs.genericArg != null) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    if (genericArg2 != null ? !genericArg2.equals(cachedValueInputs.genericArg2) : cachedValueInputs.genericArg2 != null) {\n"
+                + "    if (genericArg2 != null ? !genericArg2.equals(this.genericArg2) : this.genericArg2 != null) {\n"
                 + "      return false;\n"
                 + "    }\n"
                 + "    return true;\n"
@@ -561,12 +481,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getExpensiveValueWithMoreGenericsAndContext(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final ExpensiveValueWithMoreGenericsAndContextInputs inputs = new ExpensiveValueWithMoreGenericsAndContextInputs(globalKey,genericArg,genericArg2);\n"
-                + "  java.lang.String expensiveValueWithMoreGenericsAndContext = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (expensiveValueWithMoreGenericsAndContext == null) {\n"
-                + "    expensiveValueWithMoreGenericsAndContext = CachedValueTestSpec.onCreateExpensiveValueWithMoreGenericsAndContext(c,genericArg,genericArg2);\n"
-                + "    c.putCachedValue(inputs, expensiveValueWithMoreGenericsAndContext);\n"
+                + "  final ExpensiveValueWithMoreGenericsAndContextInputs inputs = (ExpensiveValueWithMoreGenericsAndContextInputs) c.getCachedValueEntry(globalKey, \"expensiveValueWithMoreGenericsAndContext\");\n"
+                + "  if (inputs != null && inputs.hasInputs(genericArg,genericArg2)) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String expensiveValueWithMoreGenericsAndContext = CachedValueTestSpec.onCreateExpensiveValueWithMoreGenericsAndContext(c,genericArg,genericArg2);\n"
+                + "  c.putCachedValueEntry(globalKey, \"expensiveValueWithMoreGenericsAndContext\", new ExpensiveValueWithMoreGenericsAndContextInputs(genericArg,genericArg2,expensiveValueWithMoreGenericsAndContext));\n"
                 + "  return expensiveValueWithMoreGenericsAndContext;\n"
                 + "}\n");
   }
@@ -591,39 +511,23 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class MoreExpensiveValueInputs {\n"
-                + "  private final String globalKey;\n"
-                + "\n"
                 + "  private final boolean arg0;\n"
                 + "\n"
                 + "  private final int arg1;\n"
                 + "\n"
-                + "  MoreExpensiveValueInputs(String globalKey, boolean arg0, int arg1) {\n"
-                + "    this.globalKey = globalKey;\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
+                + "\n"
+                + "  MoreExpensiveValueInputs(boolean arg0, int arg1, java.lang.Object mCachedValue$) {\n"
                 + "    this.arg0 = arg0;\n"
                 + "    this.arg1 = arg1;\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, arg0, arg1, getClass());\n"
-                + "  }\n"
-                + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof MoreExpensiveValueInputs)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    MoreExpensiveValueInputs cachedValueInputs = (MoreExpensiveValueInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    if (arg0 != cachedValueInputs.arg0) {\n"
+                + "  boolean hasInputs(boolean arg0, int arg1) {\n"
+                + "    if (arg0 != this.arg0) {\n"
                 + "      return false;\n"
                 + "    }\n"
-                + "    if (arg1 != cachedValueInputs.arg1) {\n"
+                + "    if (arg1 != this.arg1) {\n"
                 + "      return false;\n"
                 + "    }\n"
                 + "    return true;\n"
@@ -652,12 +556,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getMoreExpensiveValue(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final MoreExpensiveValueInputs inputs = new MoreExpensiveValueInputs(globalKey,arg0,getStateContainerImpl(c).arg1);\n"
-                + "  java.lang.String moreExpensiveValue = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (moreExpensiveValue == null) {\n"
-                + "    moreExpensiveValue = CachedValueTestSpec.onCreateMoreExpensiveValue(arg0,getStateContainerImpl(c).arg1);\n"
-                + "    c.putCachedValue(inputs, moreExpensiveValue);\n"
+                + "  final MoreExpensiveValueInputs inputs = (MoreExpensiveValueInputs) c.getCachedValueEntry(globalKey, \"moreExpensiveValue\");\n"
+                + "  if (inputs != null && inputs.hasInputs(arg0,getStateContainerImpl(c).arg1)) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String moreExpensiveValue = CachedValueTestSpec.onCreateMoreExpensiveValue(arg0,getStateContainerImpl(c).arg1);\n"
+                + "  c.putCachedValueEntry(globalKey, \"moreExpensiveValue\", new MoreExpensiveValueInputs(arg0,getStateContainerImpl(c).arg1,moreExpensiveValue));\n"
                 + "  return moreExpensiveValue;\n"
                 + "}\n");
   }
@@ -682,39 +586,23 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class MoreExpensiveValueWithContextInputs {\n"
-                + "  private final String globalKey;\n"
-                + "\n"
                 + "  private final boolean arg0;\n"
                 + "\n"
                 + "  private final int arg1;\n"
                 + "\n"
-                + "  MoreExpensiveValueWithContextInputs(String globalKey, boolean arg0, int arg1) {\n"
-                + "    this.globalKey = globalKey;\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
+                + "\n"
+                + "  MoreExpensiveValueWithContextInputs(boolean arg0, int arg1, java.lang.Object mCachedValue$) {\n"
                 + "    this.arg0 = arg0;\n"
                 + "    this.arg1 = arg1;\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, arg0, arg1, getClass());\n"
-                + "  }\n"
-                + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof MoreExpensiveValueWithContextInputs)) {\n"
+                + "  boolean hasInputs(boolean arg0, int arg1) {\n"
+                + "    if (arg0 != this.arg0) {\n"
                 + "      return false;\n"
                 + "    }\n"
-                + "    MoreExpensiveValueWithContextInputs cachedValueInputs = (MoreExpensiveValueWithContextInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    if (arg0 != cachedValueInputs.arg0) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    if (arg1 != cachedValueInputs.arg1) {\n"
+                + "    if (arg1 != this.arg1) {\n"
                 + "      return false;\n"
                 + "    }\n"
                 + "    return true;\n"
@@ -743,12 +631,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getMoreExpensiveValueWithContext(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final MoreExpensiveValueWithContextInputs inputs = new MoreExpensiveValueWithContextInputs(globalKey,arg0,getStateContainerImpl(c).arg1);\n"
-                + "  java.lang.String moreExpensiveValueWithContext = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (moreExpensiveValueWithContext == null) {\n"
-                + "    moreExpensiveValueWithContext = CachedValueTestSpec.onCreateMoreExpensiveValueWithContext(arg0,getStateContainerImpl(c).arg1,c);\n"
-                + "    c.putCachedValue(inputs, moreExpensiveValueWithContext);\n"
+                + "  final MoreExpensiveValueWithContextInputs inputs = (MoreExpensiveValueWithContextInputs) c.getCachedValueEntry(globalKey, \"moreExpensiveValueWithContext\");\n"
+                + "  if (inputs != null && inputs.hasInputs(arg0,getStateContainerImpl(c).arg1)) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String moreExpensiveValueWithContext = CachedValueTestSpec.onCreateMoreExpensiveValueWithContext(arg0,getStateContainerImpl(c).arg1,c);\n"
+                + "  c.putCachedValueEntry(globalKey, \"moreExpensiveValueWithContext\", new MoreExpensiveValueWithContextInputs(arg0,getStateContainerImpl(c).arg1,moreExpensiveValueWithContext));\n"
                 + "  return moreExpensiveValueWithContext;\n"
                 + "}\n");
   }
@@ -773,39 +661,23 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "@com.facebook.litho.annotations.Generated\n"
                 + "private static class ExpensiveValueWithTreePropInputs {\n"
-                + "  private final String globalKey;\n"
-                + "\n"
                 + "  private final boolean arg0;\n"
                 + "\n"
                 + "  private final long arg6;\n"
                 + "\n"
-                + "  ExpensiveValueWithTreePropInputs(String globalKey, boolean arg0, long arg6) {\n"
-                + "    this.globalKey = globalKey;\n"
+                + "  private final java.lang.Object mCachedValue$;\n"
+                + "\n"
+                + "  ExpensiveValueWithTreePropInputs(boolean arg0, long arg6, java.lang.Object mCachedValue$) {\n"
                 + "    this.arg0 = arg0;\n"
                 + "    this.arg6 = arg6;\n"
+                + "    this.mCachedValue$ = mCachedValue$;\n"
                 + "  }\n"
                 + "\n"
-                + "  @java.lang.Override\n"
-                + "  public int hashCode() {\n"
-                + "    return com.facebook.litho.CommonUtils.hash(globalKey, arg0, arg6, getClass());\n"
-                + "  }\n"
-                + "\n"
-                + "  @java.lang.Override\n"
-                + "  public boolean equals(java.lang.Object other) {\n"
-                + "    if (this == other) {\n"
-                + "      return true;\n"
-                + "    }\n"
-                + "    if (other == null || !(other instanceof ExpensiveValueWithTreePropInputs)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    ExpensiveValueWithTreePropInputs cachedValueInputs = (ExpensiveValueWithTreePropInputs) other;\n"
-                + "    if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {\n"
-                + "      return false;\n"
-                + "    }\n"
-                + "    if (arg0 != cachedValueInputs.arg0) {\n"
+                + "  boolean hasInputs(boolean arg0, long arg6) {\n"
+                + "    if (arg0 != this.arg0) {\n"
                 + "      return false;\n"
                 + "    }\n"
-                + "    if (arg6 != cachedValueInputs.arg6) {\n"
+                + "    if (arg6 != this.arg6) {\n"
                 + "      return false;\n"
                 + "    }\n"
                 + "    return true;\n"
@@ -834,12 +706,12 @@ public class CachedValueGeneratorTest {
         .isEqualTo(
             "private java.lang.String getExpensiveValueWithTreeProp(com.facebook.litho.ComponentContext c) {\n"
                 + "  String globalKey = c.getGlobalKey();\n"
-                + "  final ExpensiveValueWithTreePropInputs inputs = new ExpensiveValueWithTreePropInputs(globalKey,arg0,(c.getParentTreeProp(long.class)));\n"
-                + "  java.lang.String expensiveValueWithTreeProp = (java.lang.String) c.getCachedValue(inputs);\n"
-                + "  if (expensiveValueWithTreeProp == null) {\n"
-                + "    expensiveValueWithTreeProp = CachedValueTestSpec.onCreateExpensiveValueWithTreeProp(arg0,(c.getParentTreeProp(long.class)));\n"
-                + "    c.putCachedValue(inputs, expensiveValueWithTreeProp);\n"
+                + "  final ExpensiveValueWithTreePropInputs inputs = (ExpensiveValueWithTreePropInputs) c.getCachedValueEntry(globalKey, \"expensiveValueWithTreeProp\");\n"
+                + "  if (inputs != null && inputs.hasInputs(arg0,(c.getParentTreeProp(long.class)))) {\n"
+                + "    return (java.lang.String) inputs.mCachedValue$;\n"
                 + "  }\n"
+                + "  final java.lang.String expensiveValueWithTreeProp = CachedValueTestSpec.onCreateExpensiveValueWithTreeProp(arg0,(c.getParentTreeProp(long.class)));\n"
+                + "  c.putCachedValueEntry(globalKey, \"expensiveValueWithTreeProp\", new ExpensiveValueWithTreePropInputs(arg0,(c.getParentTreeProp(long.class)),expensiveValueWithTreeProp));\n"
                 + "  return expensiveValueWithTreeProp;\n"
                 + "}\n");
   }
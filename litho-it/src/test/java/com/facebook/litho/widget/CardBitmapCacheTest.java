@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import com.facebook.litho.config.ComponentsConfiguration;
+import com.facebook.litho.testing.testrunner.LithoTestRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(LithoTestRunner.class)
+public class CardBitmapCacheTest {
+
+  private static final int CARD_COUNT = 100;
+
+  private boolean mUseCardBitmapCache;
+  private Canvas mCanvas;
+
+  @Before
+  public void setup() {
+    mUseCardBitmapCache = ComponentsConfiguration.useCardBitmapCache;
+    ComponentsConfiguration.useCardBitmapCache = true;
+    CardBitmapCache.clear();
+    mCanvas = new Canvas(Bitmap.createBitmap(200, 200, Bitmap.Config.ARGB_8888));
+  }
+
+  @After
+  public void tearDown() {
+    ComponentsConfiguration.useCardBitmapCache = mUseCardBitmapCache;
+    CardBitmapCache.setMaxSizeBytes(CardBitmapCache.DEFAULT_MAX_SIZE_BYTES);
+    CardBitmapCache.clear();
+  }
+
+  @Test
+  public void drawShadows_withSameRadiusSizeAndColors_rendersBitmapOnce() {
+    for (int i = 0; i < CARD_COUNT; i++) {
+      createShadowDrawable(Color.BLACK).draw(mCanvas);
+    }
+
+    assertThat(CardBitmapCache.getMissCount()).isEqualTo(1);
+    assertThat(CardBitmapCache.getHitCount()).isEqualTo(CARD_COUNT - 1);
+
+    createShadowDrawable(Color.RED).draw(mCanvas);
+
+    assertThat(CardBitmapCache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void drawClips_withSameRadiusAndColor_rendersBitmapOnce() {
+    for (int i = 0; i < CARD_COUNT; i++) {
+      final CardClipDrawable drawable = new CardClipDrawable();
+      drawable.setBounds(0, 0, 100, 100);
+      drawable.setCornerRadius(8);
+      drawable.setClippingColor(Color.WHITE);
+      drawable.draw(mCanvas);
+    }
+
+    assertThat(CardBitmapCache.getMissCount()).isEqualTo(1);
+    assertThat(CardBitmapCache.getHitCount()).isEqualTo(CARD_COUNT - 1);
+  }
+
+  @Test
+  public void drawShadows_withFractionalOffsetsInSamePixel_rendersBitmapPerOffset() {
+    final CardShadowDrawable drawable = createShadowDrawable(Color.BLACK);
+    drawable.setShadowDy(0.25f);
+    drawable.draw(mCanvas);
+
+    drawable.setShadowDy(0.75f);
+    drawable.draw(mCanvas);
+
+    assertThat(CardBitmapCache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void put_overMaxSize_evictsLeastRecentlyUsedBitmaps() {
+    createShadowDrawable(Color.BLACK).draw(mCanvas);
+    final int bitmapSize = CardBitmapCache.getSizeBytes();
+    assertThat(bitmapSize).isGreaterThan(0);
+
+    CardBitmapCache.setMaxSizeBytes(bitmapSize);
+    createShadowDrawable(Color.RED).draw(mCanvas);
+    createShadowDrawable(Color.BLACK).draw(mCanvas);
+
+    assertThat(CardBitmapCache.getSizeBytes()).isEqualTo(bitmapSize);
+    assertThat(CardBitmapCache.getMissCount()).isEqualTo(3);
+  }
+
+  private static CardShadowDrawable createShadowDrawable(int shadowStartColor) {
+    final CardShadowDrawable drawable = new CardShadowDrawable();
+    drawable.setBounds(0, 0, 100, 100);
+    drawable.setCornerRadius(8);
+    drawable.setShadowSize(6);
+    drawable.setShadowStartColor(shadowStartColor);
+    drawable.setShadowEndColor(Color.TRANSPARENT);
+    return drawable;
+  }
+}
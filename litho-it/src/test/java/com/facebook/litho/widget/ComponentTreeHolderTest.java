@@ -17,6 +17,7 @@
 package com.facebook.litho.widget;
 
 import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+import static com.facebook.litho.SizeSpec.AT_MOST;
 import static com.facebook.litho.SizeSpec.EXACTLY;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -29,6 +30,7 @@ import com.facebook.litho.EventHandler;
 import com.facebook.litho.RenderCompleteEvent;
 import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.litho.testing.Whitebox;
 import com.facebook.litho.testing.testrunner.LithoTestRunner;
 import com.facebook.litho.viewcompat.ViewBinder;
@@ -84,6 +86,28 @@ public class ComponentTreeHolderTest {
     assertThat(holder.hasCompletedLatestLayout()).isFalse();
   }
 
+  @Test
+  public void testTreeIsValidForCompatibleSizeSpecs() {
+    ComponentTreeHolder holder = createComponentTreeHolder(mComponentRenderInfo);
+    final Size size = new Size();
+    holder.computeLayoutSync(mContext, SizeSpec.makeSizeSpec(200, AT_MOST), mHeightSpec, size);
+
+    final long reuseCount = LithoStats.getComponentCompatibleSpecLayoutReuseCount();
+    final int exactWidthSpec = SizeSpec.makeSizeSpec(size.width, EXACTLY);
+
+    assertThat(holder.isTreeValidForSizeSpecs(exactWidthSpec, mHeightSpec)).isTrue();
+    assertThat(holder.isTreeValidForExactSizeSpecs(exactWidthSpec, mHeightSpec)).isFalse();
+    assertThat(LithoStats.getComponentCompatibleSpecLayoutReuseCount()).isEqualTo(reuseCount);
+
+    holder.computeLayoutSync(mContext, exactWidthSpec, mHeightSpec, new Size());
+    assertThat(LithoStats.getComponentCompatibleSpecLayoutReuseCount()).isEqualTo(reuseCount + 1);
+
+    assertThat(
+            holder.isTreeValidForSizeSpecs(
+                SizeSpec.makeSizeSpec(size.width + 1, EXACTLY), mHeightSpec))
+        .isFalse();
+  }
+
   @Test
   public void testRetainAnimationStateAfterExitingRange() {
     ComponentTreeHolder holder = createComponentTreeHolder(mComponentRenderInfo);
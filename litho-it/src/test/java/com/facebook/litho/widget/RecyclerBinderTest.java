@@ -66,6 +66,8 @@ import com.facebook.litho.RenderCompleteEvent;
 import com.facebook.litho.Size;
 import com.facebook.litho.SizeSpec;
 import com.facebook.litho.ThreadUtils;
+import com.facebook.litho.choreographercompat.ChoreographerCompat;
+import com.facebook.litho.choreographercompat.ChoreographerCompatImpl;
 import com.facebook.litho.config.ComponentsConfiguration;
 import com.facebook.litho.testing.Whitebox;
 import com.facebook.litho.testing.inlinelayoutspec.InlineLayoutSpec;
@@ -452,6 +454,99 @@ public class RecyclerBinderTest {
     verify(recyclerView).removeOnScrollListener((OnScrollListener) any());
   }
 
+  @Test
+  public void testScrollToPositionWithOffsetByIdFollowsMutations() {
+    final List<RenderInfo> renderInfos = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      renderInfos.add(createRenderInfoWithId("id" + i));
+    }
+    mRecyclerBinder.insertRangeAt(0, renderInfos);
+    mRecyclerBinder.notifyChangeSetComplete(true, NO_OP_CHANGE_SET_COMPLETE_CALLBACK);
+    mRecyclerBinder.mount(mock(RecyclerView.class));
+
+    mRecyclerBinder.scrollToPositionWithOffset("id3", 10);
+    verify(mLayoutInfo).scrollToPositionWithOffset(3, 10);
+
+    mRecyclerBinder.insertItemAt(0, createRenderInfoWithId("new"));
+    mRecyclerBinder.scrollToPositionWithOffset("id3", 20);
+    verify(mLayoutInfo).scrollToPositionWithOffset(4, 20);
+
+    mRecyclerBinder.moveItem(5, 0);
+    mRecyclerBinder.scrollToPositionWithOffset("id4", 30);
+    verify(mLayoutInfo).scrollToPositionWithOffset(0, 30);
+
+    mRecyclerBinder.removeItemAt(5);
+    mRecyclerBinder.scrollToPositionWithOffset("id3", 40);
+    verify(mLayoutInfo).scrollToPositionWithOffset(-1, 40);
+
+    mRecyclerBinder.updateItemAt(2, createRenderInfoWithId("updated"));
+    mRecyclerBinder.scrollToPositionWithOffset("id0", 50);
+    verify(mLayoutInfo).scrollToPositionWithOffset(-1, 50);
+    mRecyclerBinder.scrollToPositionWithOffset("updated", 60);
+    verify(mLayoutInfo).scrollToPositionWithOffset(2, 60);
+  }
+
+  @Test
+  public void testScrollToPositionWithOffsetByDuplicateIdUsesFirstItem() {
+    final List<RenderInfo> renderInfos = new ArrayList<>();
+    renderInfos.add(createRenderInfoWithId("id0"));
+    renderInfos.add(createRenderInfoWithId("dup"));
+    renderInfos.add(createRenderInfoWithId("id2"));
+    renderInfos.add(createRenderInfoWithId("dup"));
+    mRecyclerBinder.insertRangeAt(0, renderInfos);
+    mRecyclerBinder.notifyChangeSetComplete(true, NO_OP_CHANGE_SET_COMPLETE_CALLBACK);
+    mRecyclerBinder.mount(mock(RecyclerView.class));
+
+    mRecyclerBinder.scrollToPositionWithOffset("dup", 10);
+    verify(mLayoutInfo).scrollToPositionWithOffset(1, 10);
+
+    mRecyclerBinder.removeItemAt(1);
+    mRecyclerBinder.scrollToPositionWithOffset("dup", 20);
+    verify(mLayoutInfo).scrollToPositionWithOffset(2, 20);
+
+    mRecyclerBinder.insertItemAt(3, createRenderInfoWithId("dup"));
+    mRecyclerBinder.updateItemAt(2, createRenderInfoWithId("id3"));
+    mRecyclerBinder.scrollToPositionWithOffset("dup", 30);
+    verify(mLayoutInfo).scrollToPositionWithOffset(3, 30);
+
+    mRecyclerBinder.removeItemAt(3);
+    mRecyclerBinder.scrollToPositionWithOffset("dup", 40);
+    verify(mLayoutInfo).scrollToPositionWithOffset(-1, 40);
+  }
+
+  @Test
+  public void testScrollToPositionWithOffsetByIdFollowsRangeMutations() {
+    final List<RenderInfo> renderInfos = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      renderInfos.add(createRenderInfoWithId("id" + i));
+    }
+    mRecyclerBinder.insertRangeAt(0, renderInfos);
+    mRecyclerBinder.notifyChangeSetComplete(true, NO_OP_CHANGE_SET_COMPLETE_CALLBACK);
+    mRecyclerBinder.mount(mock(RecyclerView.class));
+
+    final List<RenderInfo> insertedRenderInfos = new ArrayList<>();
+    insertedRenderInfos.add(createRenderInfoWithId("new0"));
+    insertedRenderInfos.add(createRenderInfoWithId("new1"));
+    mRecyclerBinder.insertRangeAt(1, insertedRenderInfos);
+    mRecyclerBinder.scrollToPositionWithOffset("new1", 10);
+    verify(mLayoutInfo).scrollToPositionWithOffset(2, 10);
+    mRecyclerBinder.scrollToPositionWithOffset("id2", 20);
+    verify(mLayoutInfo).scrollToPositionWithOffset(4, 20);
+
+    mRecyclerBinder.removeRangeAt(0, 3);
+    mRecyclerBinder.scrollToPositionWithOffset("new0", 30);
+    verify(mLayoutInfo).scrollToPositionWithOffset(-1, 30);
+    mRecyclerBinder.scrollToPositionWithOffset("id3", 40);
+    verify(mLayoutInfo).scrollToPositionWithOffset(2, 40);
+  }
+
+  private static RenderInfo createRenderInfoWithId(Object id) {
+    return ComponentRenderInfo.create()
+        .component(mock(Component.class))
+        .customAttribute(RecyclerBinder.ID_CUSTOM_ATTR_KEY, id)
+        .build();
+  }
+
   @Test
   public void testScrollRestorationVertical() {
     testScrollRestoration(true /* verticalScroll */, false /* reverseLayout */);
@@ -2700,6 +2795,139 @@ public class RecyclerBinderTest {
     }
   }
 
+  @Test
+  public void testInsertRangeAsyncNotifiesAdapterOfSingleRange() {
+    final int NUM_TO_INSERT = 100;
+    final RecyclerBinder recyclerBinder =
+        new RecyclerBinder.Builder().rangeRatio(RANGE_RATIO).build(mComponentContext);
+    final RecyclerView.AdapterDataObserver observer = mock(RecyclerView.AdapterDataObserver.class);
+    recyclerBinder.getInternalAdapter().registerAdapterDataObserver(observer);
+    final ArrayList<RenderInfo> renderInfos = new ArrayList<>();
+    for (int i = 0; i < NUM_TO_INSERT; i++) {
+      renderInfos.add(
+          ComponentRenderInfo.create()
+              .component(
+                  SimpleMountSpecTester.create(mComponentContext).widthPx(100).heightPx(100))
+              .build());
+    }
+
+    recyclerBinder.measure(
+        new Size(), makeSizeSpec(1000, EXACTLY), makeSizeSpec(1000, EXACTLY), null);
+
+    runOnBackgroundThreadSync(
+        new Runnable() {
+          @Override
+          public void run() {
+            recyclerBinder.insertRangeAtAsync(0, renderInfos.subList(0, NUM_TO_INSERT / 2));
+            recyclerBinder.insertRangeAtAsync(
+                NUM_TO_INSERT / 2, renderInfos.subList(NUM_TO_INSERT / 2, NUM_TO_INSERT));
+            recyclerBinder.notifyChangeSetCompleteAsync(true, NO_OP_CHANGE_SET_COMPLETE_CALLBACK);
+          }
+        });
+
+    mLayoutThreadShadowLooper.runToEndOfTasks();
+    ShadowLooper.runUiThreadTasks();
+
+    assertThat(recyclerBinder.getItemCount()).isEqualTo(NUM_TO_INSERT);
+    verify(observer).onItemRangeInserted(0, NUM_TO_INSERT);
+    verify(observer, never()).onItemRangeInserted(eq(0), eq(1));
+  }
+
+  @Test
+  public void testInsertRangeAsyncWithApplyBudgetAppliesAllBatches() {
+    final long previousBudgetMs = ComponentsConfiguration.asyncBatchApplyBudgetMs;
+    ComponentsConfiguration.asyncBatchApplyBudgetMs = 1;
+    final List<ChoreographerCompat.FrameCallback> frameCallbacks = new ArrayList<>();
+    ChoreographerCompatImpl.setInstance(
+        new ChoreographerCompat() {
+          @Override
+          public void postFrameCallback(FrameCallback callbackWrapper) {
+            frameCallbacks.add(callbackWrapper);
+          }
+
+          @Override
+          public void postFrameCallbackDelayed(FrameCallback callbackWrapper, long delayMillis) {
+            frameCallbacks.add(callbackWrapper);
+          }
+
+          @Override
+          public void removeFrameCallback(FrameCallback callbackWrapper) {
+            frameCallbacks.remove(callbackWrapper);
+          }
+        });
+    try {
+      final int NUM_TO_INSERT = 500;
+      // Every reading of the clock is 1ms later, so a frame only applies a couple of operations.
+      final RecyclerBinder.NanoClock fakeClock =
+          new RecyclerBinder.NanoClock() {
+            private long mNanoTime;
+
+            @Override
+            public long nanoTime() {
+              mNanoTime += TimeUnit.MILLISECONDS.toNanos(1);
+              return mNanoTime;
+            }
+          };
+      final RecyclerBinder recyclerBinder =
+          new RecyclerBinder.Builder()
+              .rangeRatio(RANGE_RATIO)
+              .nanoClock(fakeClock)
+              .build(mComponentContext);
+      final ChangeSetCompleteCallback changeSetCompleteCallback =
+          mock(ChangeSetCompleteCallback.class);
+      final ArrayList<RenderInfo> renderInfos = new ArrayList<>();
+      for (int i = 0; i < NUM_TO_INSERT; i++) {
+        renderInfos.add(
+            ComponentRenderInfo.create()
+                .component(
+                    SimpleMountSpecTester.create(mComponentContext).widthPx(100).heightPx(100))
+                .build());
+      }
+
+      recyclerBinder.measure(
+          new Size(), makeSizeSpec(1000, EXACTLY), makeSizeSpec(1000, EXACTLY), null);
+
+      runOnBackgroundThreadSync(
+          new Runnable() {
+            @Override
+            public void run() {
+              recyclerBinder.insertRangeAtAsync(0, renderInfos);
+              recyclerBinder.notifyChangeSetCompleteAsync(true, changeSetCompleteCallback);
+            }
+          });
+
+      mLayoutThreadShadowLooper.runToEndOfTasks();
+      ShadowLooper.runUiThreadTasks();
+      runFrame(frameCallbacks);
+
+      // The budget ran out after a couple of operations, the rest of the batch is left for the
+      // next frames.
+      assertThat(recyclerBinder.getItemCount()).isGreaterThan(0).isLessThan(NUM_TO_INSERT);
+      verify(changeSetCompleteCallback, never()).onDataBound();
+
+      // Each frame applies at least one operation, whatever the time it takes.
+      for (int i = 0; i <= NUM_TO_INSERT && recyclerBinder.getItemCount() < NUM_TO_INSERT; i++) {
+        runFrame(frameCallbacks);
+      }
+
+      assertThat(recyclerBinder.getItemCount()).isEqualTo(NUM_TO_INSERT);
+      verify(changeSetCompleteCallback).onDataBound();
+    } finally {
+      ComponentsConfiguration.asyncBatchApplyBudgetMs = previousBudgetMs;
+      ChoreographerCompatImpl.setInstance(null);
+    }
+  }
+
+  /** Runs the frame callbacks posted so far, and the main thread tasks they post. */
+  private static void runFrame(List<ChoreographerCompat.FrameCallback> frameCallbacks) {
+    final List<ChoreographerCompat.FrameCallback> callbacks = new ArrayList<>(frameCallbacks);
+    frameCallbacks.clear();
+    for (ChoreographerCompat.FrameCallback callback : callbacks) {
+      callback.doFrame(0);
+    }
+    ShadowLooper.runUiThreadTasks();
+  }
+
   @Test
   public void testInsertRangeAsyncBeforeInitialMeasure() {
     final int NUM_TO_INSERT = 5;
@@ -4408,6 +4636,56 @@ public class RecyclerBinderTest {
         .isFalse();
   }
 
+  @Test
+  public void testSpeculativeViewportFillDispatchesNextItemsAndCancelsSurplus() {
+    final RecyclerBinder recyclerBinder =
+        new RecyclerBinder.Builder()
+            .layoutInfo(
+                new LinearLayoutInfo(mComponentContext, OrientationHelper.VERTICAL, false) {
+                  @Override
+                  public int getChildHeightSpec(int heightSpec, RenderInfo renderInfo) {
+                    return makeSizeSpec(40, EXACTLY);
+                  }
+                })
+            .speculativeViewportFill(2)
+            .build(mComponentContext);
+
+    final List<ComponentTreeHolder> holders = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      holders.add(
+          new TestComponentTreeHolder(
+              create().component(SimpleMountSpecTester.create(mComponentContext)).build()));
+    }
+
+    final int numInserted =
+        recyclerBinder.computeLayoutsToFillListViewport(holders, 0, 100, 100, null);
+
+    // 3 items of 40px fill the 100px viewport.
+    assertThat(numInserted).isEqualTo(3);
+    for (int i = 0; i < 3; i++) {
+      final TestComponentTreeHolder holder = (TestComponentTreeHolder) holders.get(i);
+      assertThat(holder.mLayoutSyncCalled).isTrue();
+      assertThat(holder.mPendingAsyncLayoutCancelled).isFalse();
+      assertThat(holder.isTreeValid()).isTrue();
+    }
+
+    // The items after the first one were dispatched before being consumed in order.
+    assertThat(((TestComponentTreeHolder) holders.get(0)).mLayoutAsyncCalled).isFalse();
+    assertThat(((TestComponentTreeHolder) holders.get(1)).mLayoutAsyncCalled).isTrue();
+    assertThat(((TestComponentTreeHolder) holders.get(2)).mLayoutAsyncCalled).isTrue();
+
+    // The surplus speculative layouts were cancelled once the viewport was filled.
+    for (int i = 3; i < 5; i++) {
+      final TestComponentTreeHolder holder = (TestComponentTreeHolder) holders.get(i);
+      assertThat(holder.mLayoutAsyncCalled).isTrue();
+      assertThat(holder.mLayoutSyncCalled).isFalse();
+      assertThat(holder.mPendingAsyncLayoutCancelled).isTrue();
+      assertThat(holder.isTreeValid()).isFalse();
+    }
+
+    assertThat(((TestComponentTreeHolder) holders.get(5)).mLayoutAsyncCalled).isFalse();
+  }
+
   @Test
   public void testInitRangeAsyncThreadPool() {
     final CountDownLatch lockRangeIsNotNull = new CountDownLatch(1);
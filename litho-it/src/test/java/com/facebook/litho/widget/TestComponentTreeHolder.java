@@ -33,6 +33,7 @@ public class TestComponentTreeHolder extends ComponentTreeHolder {
   private RenderInfo mRenderInfo;
   boolean mLayoutAsyncCalled;
   boolean mLayoutSyncCalled;
+  boolean mPendingAsyncLayoutCancelled;
   boolean mDidAcquireStateHandler;
   int mChildWidth;
   int mChildHeight;
@@ -108,6 +109,14 @@ public class TestComponentTreeHolder extends ComponentTreeHolder {
     mLayoutSyncCalled = true;
   }
 
+  @Override
+  public synchronized void cancelPendingAsyncLayout() {
+    if (mLayoutAsyncCalled && !mLayoutSyncCalled) {
+      mTreeValid = false;
+      mPendingAsyncLayoutCancelled = true;
+    }
+  }
+
   @Override
   public synchronized void updateLayoutHandler(@Nullable RunnableHandler layoutHandler) {
     super.updateLayoutHandler(layoutHandler);
@@ -132,6 +141,11 @@ public class TestComponentTreeHolder extends ComponentTreeHolder {
         && mLastRequestedHeightSpec == heightSpec;
   }
 
+  @Override
+  public synchronized boolean isTreeValidForExactSizeSpecs(int widthSpec, int heightSpec) {
+    return isTreeValidForSizeSpecs(widthSpec, heightSpec);
+  }
+
   @Override
   public synchronized ComponentTree getComponentTree() {
     return mComponentTree;
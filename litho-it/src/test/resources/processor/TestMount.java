@@ -25,7 +25,6 @@ import androidx.annotation.StringRes;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
 import com.facebook.litho.ClickEvent;
-import com.facebook.litho.CommonUtils;
 import com.facebook.litho.Component;
 import com.facebook.litho.ComponentContext;
 import com.facebook.litho.ComponentLayout;
@@ -701,13 +700,16 @@ public final class TestMount<S extends View> extends SpecGeneratedComponent impl
 
   private int getCached(ComponentContext c) {
     String globalKey = c.getGlobalKey();
-    final CachedInputs inputs =
-        new CachedInputs(globalKey, prop3, prop5, getStateContainerImpl(c).state1);
-    Integer cached = (Integer) c.getCachedValue(inputs);
-    if (cached == null) {
-      cached = TestMountSpec.onCalculateCached(prop3, prop5, getStateContainerImpl(c).state1);
-      c.putCachedValue(inputs, cached);
-    }
+    final CachedInputs inputs = (CachedInputs) c.getCachedValueEntry(globalKey, "cached");
+    if (inputs != null && inputs.hasInputs(prop3, prop5, getStateContainerImpl(c).state1)) {
+      return (Integer) inputs.mCachedValue$;
+    }
+    final int cached =
+        TestMountSpec.onCalculateCached(prop3, prop5, getStateContainerImpl(c).state1);
+    c.putCachedValueEntry(
+        globalKey,
+        "cached",
+        new CachedInputs(prop3, prop5, getStateContainerImpl(c).state1, cached));
     return cached;
   }
 
@@ -916,47 +918,29 @@ public final class TestMount<S extends View> extends SpecGeneratedComponent impl
 
   @Generated
   private static class CachedInputs {
-    private final String globalKey;
-
     private final Object prop3;
 
     private final char prop5;
 
     private final long state1;
 
-    CachedInputs(String globalKey, Object prop3, char prop5, long state1) {
-      this.globalKey = globalKey;
+    private final Object mCachedValue$;
+
+    CachedInputs(Object prop3, char prop5, long state1, Object mCachedValue$) {
       this.prop3 = prop3;
       this.prop5 = prop5;
       this.state1 = state1;
+      this.mCachedValue$ = mCachedValue$;
     }
 
-    @Override
-    public int hashCode() {
-      return CommonUtils.hash(globalKey, prop3, prop5, state1, getClass());
-    }
-
-    @Override
-    public boolean equals(Object other) {
-      if (this == other) {
-        return true;
-      }
-      if (other == null || !(other instanceof CachedInputs)) {
-        return false;
-      }
-      CachedInputs cachedValueInputs = (CachedInputs) other;
-      if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {
-        return false;
-      }
-      if (prop3 != null
-          ? !prop3.equals(cachedValueInputs.prop3)
-          : cachedValueInputs.prop3 != null) {
+    boolean hasInputs(Object prop3, char prop5, long state1) {
+      if (prop3 != null ? !prop3.equals(this.prop3) : this.prop3 != null) {
         return false;
       }
-      if (prop5 != cachedValueInputs.prop5) {
+      if (prop5 != this.prop5) {
         return false;
       }
-      if (state1 != cachedValueInputs.state1) {
+      if (state1 != this.state1) {
         return false;
       }
       return true;
@@ -19,7 +19,6 @@ package com.facebook.litho.sections.processor.integration.resources;
 import android.view.View;
 import androidx.annotation.VisibleForTesting;
 import com.facebook.litho.ClickEvent;
-import com.facebook.litho.CommonUtils;
 import com.facebook.litho.Component;
 import com.facebook.litho.Diff;
 import com.facebook.litho.EventDispatcher;
@@ -354,12 +353,13 @@ public final class FullDiffSection<T> extends Section implements TestTag {
 
   private int getCached() {
     SectionContext c = getScopedContext();
-    final CachedInputs inputs = new CachedInputs(prop1);
-    Integer cached = (Integer) c.getCachedValue(inputs);
-    if (cached == null) {
-      cached = FullDiffSectionSpec.onCalculateCached(prop1);
-      c.putCachedValue(inputs, cached);
+    String globalKey = c.getGlobalKey();
+    final CachedInputs inputs = (CachedInputs) c.getCachedValueEntry(globalKey, "cached");
+    if (inputs != null && inputs.hasInputs(prop1)) {
+      return (Integer) inputs.mCachedValue$;
     }
+    final int cached = FullDiffSectionSpec.onCalculateCached(prop1);
+    c.putCachedValueEntry(globalKey, "cached", new CachedInputs(prop1, cached));
     return cached;
   }
 
@@ -465,27 +465,15 @@ public final class FullDiffSection<T> extends Section implements TestTag {
   private static class CachedInputs {
     private final Integer prop1;
 
-    CachedInputs(Integer prop1) {
-      this.prop1 = prop1;
-    }
+    private final Object mCachedValue$;
 
-    @Override
-    public int hashCode() {
-      return CommonUtils.hash(prop1);
+    CachedInputs(Integer prop1, Object mCachedValue$) {
+      this.prop1 = prop1;
+      this.mCachedValue$ = mCachedValue$;
     }
 
-    @Override
-    public boolean equals(Object other) {
-      if (this == other) {
-        return true;
-      }
-      if (other == null || !(other instanceof CachedInputs)) {
-        return false;
-      }
-      CachedInputs cachedValueInputs = (CachedInputs) other;
-      if (prop1 != null
-          ? !prop1.equals(cachedValueInputs.prop1)
-          : cachedValueInputs.prop1 != null) {
+    boolean hasInputs(Integer prop1) {
+      if (prop1 != null ? !prop1.equals(this.prop1) : this.prop1 != null) {
         return false;
       }
       return true;
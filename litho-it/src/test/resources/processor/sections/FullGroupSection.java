@@ -6,7 +6,6 @@ import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.annotation.VisibleForTesting;
 import com.facebook.litho.ClickEvent;
-import com.facebook.litho.CommonUtils;
 import com.facebook.litho.Component;
 import com.facebook.litho.Diff;
 import com.facebook.litho.EventDispatcher;
@@ -422,12 +421,12 @@ final class FullGroupSection<T> extends Section {
 
   private int getCached(SectionContext c) {
     String globalKey = c.getGlobalKey();
-    final CachedInputs inputs = new CachedInputs(globalKey, prop1);
-    Integer cached = (Integer) c.getCachedValue(inputs);
-    if (cached == null) {
-      cached = FullGroupSectionSpec.onCalculateCached(prop1);
-      c.putCachedValue(inputs, cached);
+    final CachedInputs inputs = (CachedInputs) c.getCachedValueEntry(globalKey, "cached");
+    if (inputs != null && inputs.hasInputs(prop1)) {
+      return (Integer) inputs.mCachedValue$;
     }
+    final int cached = FullGroupSectionSpec.onCalculateCached(prop1);
+    c.putCachedValueEntry(globalKey, "cached", new CachedInputs(prop1, cached));
     return cached;
   }
 
@@ -597,33 +596,17 @@ final class FullGroupSection<T> extends Section {
 
   @Generated
   private static class CachedInputs {
-    private final String globalKey;
-
     private final int prop1;
 
-    CachedInputs(String globalKey, int prop1) {
-      this.globalKey = globalKey;
-      this.prop1 = prop1;
-    }
+    private final Object mCachedValue$;
 
-    @Override
-    public int hashCode() {
-      return CommonUtils.hash(globalKey, prop1, getClass());
+    CachedInputs(int prop1, Object mCachedValue$) {
+      this.prop1 = prop1;
+      this.mCachedValue$ = mCachedValue$;
     }
 
-    @Override
-    public boolean equals(Object other) {
-      if (this == other) {
-        return true;
-      }
-      if (other == null || !(other instanceof CachedInputs)) {
-        return false;
-      }
-      CachedInputs cachedValueInputs = (CachedInputs) other;
-      if (!com.facebook.litho.CommonUtils.equals(globalKey, cachedValueInputs.globalKey)) {
-        return false;
-      }
-      if (prop1 != cachedValueInputs.prop1) {
+    boolean hasInputs(int prop1) {
+      if (prop1 != this.prop1) {
         return false;
       }
       return true;
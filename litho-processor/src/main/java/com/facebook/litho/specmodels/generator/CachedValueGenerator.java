@@ -26,7 +26,6 @@ import com.facebook.litho.specmodels.model.MethodParamModelUtils;
 import com.facebook.litho.specmodels.model.SpecMethodModel;
 import com.facebook.litho.specmodels.model.SpecModel;
 import com.facebook.litho.specmodels.model.SpecModelUtils;
-import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.MethodSpec;
@@ -35,7 +34,6 @@ import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 import java.lang.annotation.Annotation;
-import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
@@ -46,6 +44,9 @@ import javax.lang.model.element.Modifier;
 /** Class that generates the cached value methods for a Component. */
 public class CachedValueGenerator {
 
+  // Mangled, so that it can't collide with the inputs, which are named after props and states.
+  private static final String CACHED_VALUE_FIELD_NAME = "mCachedValue$";
+
   private CachedValueGenerator() {}
 
   public static TypeSpecDataHolder generate(SpecModel specModel, EnumSet<RunMode> runMode) {
@@ -85,18 +86,15 @@ public class CachedValueGenerator {
   public static List<CachedValueInput> getCachedValueInputs(
       SpecMethodModel<DelegateMethod, Void> onCalculateCachedValueMethod) {
     // Skip the ComponentContext param from the input class creation since the context can change
-    // during the lifetime of the cache.
-    List<CachedValueInput> inputParams =
-        onCalculateCachedValueMethod.methodParams.stream()
-            .filter(
-                methodParamModel ->
-                    !MethodParamModelUtils.isComponentContextParam(methodParamModel))
-            .map(
-                methodParamModel ->
-                    new MethodParamCachedValueInput(onCalculateCachedValueMethod, methodParamModel))
-            .collect(Collectors.toList());
-    inputParams.add(0, new GlobalKeyCachedValueInput("globalKey"));
-    return inputParams;
+    // during the lifetime of the cache. The global key isn't an input either, since the cached
+    // values are stored per global key.
+    return onCalculateCachedValueMethod.methodParams.stream()
+        .filter(
+            methodParamModel -> !MethodParamModelUtils.isComponentContextParam(methodParamModel))
+        .map(
+            methodParamModel ->
+                new MethodParamCachedValueInput(onCalculateCachedValueMethod, methodParamModel))
+        .collect(Collectors.toList());
   }
 
   private static String getAnnotatedName(
@@ -110,12 +108,19 @@ public class CachedValueGenerator {
     throw new RuntimeException("Should be unreachable, please report to Litho team");
   }
 
+  /**
+   * Creates the getter of a cached value. The cached value is stored, with the inputs it was
+   * calculated from, in a slot identified by the global key of the component and the name of the
+   * cached value. The current inputs are compared field by field with the stored ones, so a hit
+   * doesn't allocate.
+   */
   public static MethodSpec createGetterMethod(
       SpecModel specModel,
       SpecMethodModel<DelegateMethod, Void> onCalculateCachedValueMethod,
       List<CachedValueInput> inputParams,
       String cachedValueName) {
     final TypeName cachedValueType = onCalculateCachedValueMethod.returnType;
+    final String inputsClassName = getInputsClassName(cachedValueName);
     MethodSpec.Builder methodSpec =
         MethodSpec.methodBuilder(getCachedValueGetterName(cachedValueName))
             .addModifiers(Modifier.PRIVATE)
@@ -123,40 +128,25 @@ public class CachedValueGenerator {
             .returns(cachedValueType)
             .addStatement("String globalKey = c.getGlobalKey()");
 
-    final CodeBlock.Builder codeBlock = CodeBlock.builder();
-    codeBlock
-        .add(
-            "final $L inputs = new $L(",
-            getInputsClassName(cachedValueName),
-            getInputsClassName(cachedValueName))
-        .indent();
-
-    final int filteredParamSize = inputParams.size();
-
-    for (int i = 0; i < filteredParamSize; i++) {
-      codeBlock.add("$L", inputParams.get(i).getAccessor(specModel));
-      if (i < filteredParamSize - 1) {
-        codeBlock.add(",");
-      }
-    }
-    codeBlock.add(");\n");
-    codeBlock.unindent();
-
-    final int paramSize = onCalculateCachedValueMethod.methodParams.size();
+    final String inputAccessors = getInputAccessors(specModel, inputParams);
 
     methodSpec
-        .addCode(codeBlock.build())
         .addStatement(
-            "$T $L = ($T) c.getCachedValue(inputs)",
-            cachedValueType.box(),
-            cachedValueName,
-            cachedValueType.box())
-        .beginControlFlow("if ($L == null)", cachedValueName);
+            "final $L inputs = ($L) c.getCachedValueEntry(globalKey, $S)",
+            inputsClassName,
+            inputsClassName,
+            cachedValueName)
+        .beginControlFlow("if (inputs != null && inputs.hasInputs($L))", inputAccessors)
+        .addStatement("return ($T) inputs.$L", cachedValueType.box(), CACHED_VALUE_FIELD_NAME)
+        .endControlFlow();
+
+    final int paramSize = onCalculateCachedValueMethod.methodParams.size();
 
     final CodeBlock.Builder delegation = CodeBlock.builder();
     delegation
         .add(
-            "$L = $L.$L(",
+            "final $T $L = $L.$L(",
+            cachedValueType,
             cachedValueName,
             specModel.getSpecName(),
             onCalculateCachedValueMethod.name)
@@ -184,13 +174,31 @@ public class CachedValueGenerator {
 
     methodSpec
         .addCode(delegation.unindent().build())
-        .addStatement("c.putCachedValue(inputs, $L)", cachedValueName)
-        .endControlFlow()
+        .addStatement(
+            "c.putCachedValueEntry(globalKey, $S, new $L($L))",
+            cachedValueName,
+            inputsClassName,
+            inputAccessors.isEmpty() ? cachedValueName : inputAccessors + "," + cachedValueName)
         .addStatement("return $L", cachedValueName);
 
     return methodSpec.build();
   }
 
+  private static String getInputAccessors(SpecModel specModel, List<CachedValueInput> inputParams) {
+    final StringBuilder accessors = new StringBuilder();
+    for (int i = 0, size = inputParams.size(); i < size; i++) {
+      if (i > 0) {
+        accessors.append(",");
+      }
+      accessors.append(inputParams.get(i).getAccessor(specModel));
+    }
+    return accessors.toString();
+  }
+
+  /**
+   * Creates the class of the entries stored for a cached value: the inputs the value was
+   * calculated from, and the value.
+   */
   public static TypeSpec createInputsClass(
       List<CachedValueInput> inputParams, String cachedValueName, EnumSet<RunMode> runMode) {
     TypeSpec.Builder typeSpec =
@@ -199,6 +207,8 @@ public class CachedValueGenerator {
             .addModifiers(Modifier.PRIVATE, Modifier.STATIC);
 
     MethodSpec.Builder constructor = MethodSpec.constructorBuilder();
+    MethodSpec.Builder hasInputsMethod =
+        MethodSpec.methodBuilder("hasInputs").returns(TypeName.BOOLEAN);
 
     final Set<TypeVariableName> typeVariables = new HashSet<>();
 
@@ -210,52 +220,23 @@ public class CachedValueGenerator {
       constructor
           .addParameter(ParameterSpec.builder(param.getTypeName(), param.getName()).build())
           .addStatement("this.$L = $L", param.getName(), param.getName());
+      hasInputsMethod
+          .addParameter(ParameterSpec.builder(param.getTypeName(), param.getName()).build())
+          .addCode(param.createCompareStatement("this", runMode));
     }
 
+    typeSpec.addField(
+        FieldSpec.builder(
+                ClassNames.OBJECT, CACHED_VALUE_FIELD_NAME, Modifier.PRIVATE, Modifier.FINAL)
+            .build());
+    constructor
+        .addParameter(ParameterSpec.builder(ClassNames.OBJECT, CACHED_VALUE_FIELD_NAME).build())
+        .addStatement("this.$L = $L", CACHED_VALUE_FIELD_NAME, CACHED_VALUE_FIELD_NAME);
+    hasInputsMethod.addStatement("return true");
+
     typeSpec.addTypeVariables(typeVariables);
     typeSpec.addMethod(constructor.build());
-
-    final int paramSize = inputParams.size();
-    MethodSpec.Builder hashCodeMethod =
-        MethodSpec.methodBuilder("hashCode")
-            .addAnnotation(Override.class)
-            .returns(TypeName.INT)
-            .addModifiers(Modifier.PUBLIC);
-
-    CodeBlock.Builder codeBlock =
-        CodeBlock.builder().add("return $T.hash(", ClassNames.COMMON_UTILS);
-    for (int i = 0; i < paramSize; i++) {
-      codeBlock.add("$L, ", inputParams.get(i).getName());
-    }
-    codeBlock.add("getClass());\n");
-    hashCodeMethod.addCode(codeBlock.build());
-    typeSpec.addMethod(hashCodeMethod.build());
-
-    MethodSpec.Builder equalsMethod =
-        MethodSpec.methodBuilder("equals")
-            .addAnnotation(Override.class)
-            .returns(TypeName.BOOLEAN)
-            .addModifiers(Modifier.PUBLIC)
-            .addParameter(ClassNames.OBJECT, "other")
-            .beginControlFlow("if (this == other)")
-            .addStatement("return true")
-            .endControlFlow()
-            .beginControlFlow(
-                "if (other == null || !(other instanceof $L))", getInputsClassName(cachedValueName))
-            .addStatement("return false")
-            .endControlFlow()
-            .addStatement(
-                "$L cachedValueInputs = ($L) other",
-                getInputsClassName(cachedValueName),
-                getInputsClassName(cachedValueName));
-
-    for (CachedValueInput inputParam : inputParams) {
-      equalsMethod.addCode(inputParam.createCompareStatement("cachedValueInputs", runMode));
-    }
-
-    equalsMethod.addStatement("return true");
-
-    typeSpec.addMethod(equalsMethod.build());
+    typeSpec.addMethod(hasInputsMethod.build());
 
     return typeSpec.build();
   }
@@ -272,11 +253,7 @@ public class CachedValueGenerator {
     return name.toString().substring(0, 1).toUpperCase() + name.toString().substring(1);
   }
 
-  /**
-   * This represents a field on the Inputs class: it exists because we need to add the global key as
-   * a field, want to share code with the rest of generation in this class, but don't want to create
-   * a MethodParamModel because the globalKey isn't a method param.
-   */
+  /** This represents a field on the Inputs class. */
   public interface CachedValueInput {
     String getName();
 
@@ -332,46 +309,4 @@ public class CachedValueGenerator {
           runMode);
     }
   }
-
-  private static class GlobalKeyCachedValueInput implements CachedValueInput {
-
-    private final String mName;
-
-    private GlobalKeyCachedValueInput(String name) {
-      mName = name;
-    }
-
-    @Override
-    public String getName() {
-      return mName;
-    }
-
-    @Override
-    public TypeName getTypeName() {
-      return ClassName.bestGuess("String");
-    }
-
-    @Override
-    public String getAccessor(SpecModel specModel) {
-      return getName();
-    }
-
-    @Override
-    public List<TypeVariableName> getTypeVariables() {
-      return Collections.EMPTY_LIST;
-    }
-
-    @Override
-    public CodeBlock createCompareStatement(String otherObjectName, EnumSet<RunMode> runMode) {
-      return CodeBlock.builder()
-          .beginControlFlow(
-              "if (!$L.equals($L, $L))",
-              ClassNames.COMMON_UTILS,
-              getName(),
-              otherObjectName + "." + getName())
-          .addStatement("return false")
-          .endControlFlow()
-          .build();
-    }
-  }
 }
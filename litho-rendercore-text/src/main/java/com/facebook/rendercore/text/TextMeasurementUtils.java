@@ -18,8 +18,6 @@ package com.facebook.rendercore.text;
 
 import android.content.Context;
 import android.graphics.Paint;
-import android.graphics.Rect;
-import android.graphics.Typeface;
 import android.os.Build;
 import android.text.BoringLayout;
 import android.text.Layout;
@@ -29,9 +27,7 @@ import android.text.TextUtils;
 import android.text.style.ClickableSpan;
 import android.text.style.ImageSpan;
 import android.text.style.MetricAffectingSpan;
-import android.util.SparseIntArray;
 import android.view.View;
-import androidx.annotation.GuardedBy;
 import androidx.annotation.Nullable;
 import androidx.annotation.Size;
 import androidx.annotation.VisibleForTesting;
@@ -40,18 +36,11 @@ import com.facebook.fbui.textlayoutbuilder.TextLayoutBuilder;
 import com.facebook.fbui.textlayoutbuilder.util.LayoutMeasureUtil;
 import com.facebook.rendercore.MountableLayoutResult;
 import com.facebook.rendercore.RenderState;
+import com.facebook.rendercore.utils.FontMetricsCache;
 import com.facebook.rendercore.utils.LayoutUtils;
 
 public class TextMeasurementUtils {
 
-  private static final String CAP_MEASUREMENT_TEXT = "T";
-
-  @GuardedBy("self")
-  // Map from hash(textSize, typeface) -> cap heights array for text
-  private static final SparseIntArray sCapHeightsCache = new SparseIntArray();
-
-  private static final SparseIntArray sBaselineCache = new SparseIntArray();
-
   // The offsets of the returned values within the int array.
   private static final int CAP_HEIGHT_OFFSET_INDEX = 0;
   private static final int BASELINE_OFFSET_INDEX = 1;
@@ -408,37 +397,19 @@ public class TextMeasurementUtils {
   }
 
   /**
-   * Return the cap height values array {cap_height, cap_height_offset, baseline_offset} for the
-   * given text size and typeface.
+   * Return the cap height values array {cap_height, baseline_offset} for the given text size and
+   * typeface.
    */
   private static @Size(2) int[] getCapHeightBaselineSpacing(Paint paint, CharSequence text) {
     final TextPaint capTextPaint = new TextPaint(paint);
-    Paint.FontMetricsInt fontMetricsInt = null;
-
     if (text instanceof Spanned && text.length() > 0) {
       MetricAffectingSpan[] spans = ((Spanned) text).getSpans(0, 0, MetricAffectingSpan.class);
       for (int i = 0; i < spans.length; i++) {
         spans[i].updateMeasureState(capTextPaint);
       }
     }
+    final int capHeight = FontMetricsCache.get(capTextPaint).capHeightOffset;
 
-    final int hashCode = getKey(capTextPaint.getTextSize(), capTextPaint.getTypeface());
-
-    int capHeight;
-    synchronized (sCapHeightsCache) {
-      capHeight = sCapHeightsCache.get(hashCode, Integer.MIN_VALUE);
-    }
-
-    if (capHeight == Integer.MIN_VALUE) {
-      final Rect rect = new Rect();
-      fontMetricsInt = new Paint.FontMetricsInt();
-      capTextPaint.getFontMetricsInt(fontMetricsInt);
-      capTextPaint.getTextBounds(CAP_MEASUREMENT_TEXT, 0, CAP_MEASUREMENT_TEXT.length(), rect);
-      capHeight = (-1 * fontMetricsInt.ascent) - rect.height();
-      synchronized (sCapHeightsCache) {
-        sCapHeightsCache.put(hashCode, capHeight);
-      }
-    }
     final TextPaint baselineTextPaint = new TextPaint(paint);
     if (text instanceof Spanned && text.length() > 0) {
       MetricAffectingSpan[] spans =
@@ -448,37 +419,8 @@ public class TextMeasurementUtils {
         spans[i].updateMeasureState(baselineTextPaint);
       }
     }
-    final int baselineHashCode =
-        getKey(baselineTextPaint.getTextSize(), baselineTextPaint.getTypeface());
-    int baseline;
-    synchronized (sBaselineCache) {
-      baseline = sBaselineCache.get(baselineHashCode, Integer.MIN_VALUE);
-    }
-    if (baseline == Integer.MIN_VALUE) {
-      if (fontMetricsInt == null
-          || capTextPaint.getTextSize() != baselineTextPaint.getTextSize()
-          || capTextPaint.getTypeface() != baselineTextPaint.getTypeface()) {
-        fontMetricsInt = new Paint.FontMetricsInt();
-        baselineTextPaint.getFontMetricsInt(fontMetricsInt);
-      }
-
-      baseline = fontMetricsInt.descent;
-      synchronized (sBaselineCache) {
-        sBaselineCache.put(baselineHashCode, baseline);
-      }
-    }
+    final int baseline = FontMetricsCache.get(baselineTextPaint).descent;
 
     return new int[] {capHeight, baseline};
   }
-
-  /**
-   * Get the key for a given size + typeface.
-   *
-   * <p>We use the size + typeface as a key without checking for collisions. In theory this could
-   * collide, in which case we will return incorrect values.
-   */
-  private static int getKey(float textSizePx, Typeface typeface) {
-    // Hash code implementation, see https://stackoverflow.com/questions/113511/
-    return 31 * (int) textSizePx + typeface.hashCode();
-  }
 }
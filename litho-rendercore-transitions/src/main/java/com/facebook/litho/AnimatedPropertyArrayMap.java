@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho;
+
+import androidx.annotation.Nullable;
+import com.facebook.litho.animation.AnimatedProperties;
+import com.facebook.litho.animation.AnimatedProperty;
+
+/**
+ * A map of {@link AnimatedProperty} to values backed by arrays, which doesn't allocate once it has
+ * grown to the number of properties it holds. The properties of {@link AnimatedProperties} are
+ * looked up by their {@link AnimatedProperties#getIndex index}, any other property by a linear
+ * search.
+ *
+ * <p>Entries are iterated with {@link #keyAt} and {@link #valueAt}: removing an entry moves the
+ * last entry to its position, so iterate in reverse when removing entries along the way.
+ */
+final class AnimatedPropertyArrayMap<V> {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  /** The position of the entry of each property of {@link AnimatedProperties}, plus 1. */
+  private final int[] mPositionsByIndex = new int[AnimatedProperties.PROPERTY_COUNT];
+
+  private AnimatedProperty[] mKeys = new AnimatedProperty[INITIAL_CAPACITY];
+  private Object[] mValues = new Object[INITIAL_CAPACITY];
+  private int mSize;
+
+  int size() {
+    return mSize;
+  }
+
+  boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  AnimatedProperty keyAt(int position) {
+    return mKeys[position];
+  }
+
+  @SuppressWarnings("unchecked")
+  V valueAt(int position) {
+    return (V) mValues[position];
+  }
+
+  @Nullable
+  V get(AnimatedProperty property) {
+    final int position = getPosition(property);
+    return position < 0 ? null : valueAt(position);
+  }
+
+  void put(AnimatedProperty property, V value) {
+    final int position = getPosition(property);
+    if (position >= 0) {
+      mValues[position] = value;
+      return;
+    }
+
+    if (mSize == mKeys.length) {
+      final int capacity = mSize * 2;
+      final AnimatedProperty[] keys = new AnimatedProperty[capacity];
+      final Object[] values = new Object[capacity];
+      System.arraycopy(mKeys, 0, keys, 0, mSize);
+      System.arraycopy(mValues, 0, values, 0, mSize);
+      mKeys = keys;
+      mValues = values;
+    }
+
+    mKeys[mSize] = property;
+    mValues[mSize] = value;
+    setPosition(property, mSize);
+    mSize++;
+  }
+
+  @Nullable
+  V remove(AnimatedProperty property) {
+    final int position = getPosition(property);
+    if (position < 0) {
+      return null;
+    }
+
+    final V value = valueAt(position);
+    removeAt(position);
+    return value;
+  }
+
+  void removeAt(int position) {
+    setPosition(mKeys[position], -1);
+
+    final int last = mSize - 1;
+    if (position != last) {
+      mKeys[position] = mKeys[last];
+      mValues[position] = mValues[last];
+      setPosition(mKeys[position], position);
+    }
+    mKeys[last] = null;
+    mValues[last] = null;
+    mSize--;
+  }
+
+  void clear() {
+    for (int i = 0; i < mSize; i++) {
+      setPosition(mKeys[i], -1);
+      mKeys[i] = null;
+      mValues[i] = null;
+    }
+    mSize = 0;
+  }
+
+  private int getPosition(AnimatedProperty property) {
+    final int index = AnimatedProperties.getIndex(property);
+    if (index >= 0) {
+      return mPositionsByIndex[index] - 1;
+    }
+
+    for (int i = 0; i < mSize; i++) {
+      if (mKeys[i].equals(property)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void setPosition(AnimatedProperty property, int position) {
+    final int index = AnimatedProperties.getIndex(property);
+    if (index >= 0) {
+      mPositionsByIndex[index] = position + 1;
+    }
+  }
+}
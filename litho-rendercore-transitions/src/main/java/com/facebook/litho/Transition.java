@@ -30,9 +30,11 @@ import com.facebook.litho.animation.PropertyAnimation;
 import com.facebook.litho.animation.PropertyHandle;
 import com.facebook.litho.animation.Resolver;
 import com.facebook.litho.animation.RuntimeValue;
+import com.facebook.litho.animation.SpringInterpolator;
 import com.facebook.litho.animation.SpringTransition;
 import com.facebook.litho.animation.TimingTransition;
 import com.facebook.litho.animation.TransitionAnimationBinding;
+import com.facebook.litho.animation.ViewAnimatorTransition;
 import com.facebook.litho.dataflow.springs.SpringConfig;
 import com.facebook.rendercore.Function;
 import com.facebook.rendercore.transitions.TransitionsExtensionInput;
@@ -81,6 +83,24 @@ public abstract class Transition {
     LOCAL
   }
 
+  /** The implementations that can run the animations of a {@link Transition}. */
+  public enum AnimationBackend {
+
+    /**
+     * Animations are run by the {@link com.facebook.litho.dataflow.DataFlowGraph}, which sets the
+     * animated values on the mount content on every frame. This is the default.
+     */
+    DATA_FLOW,
+
+    /**
+     * Animations created by a {@link TimingTransitionAnimator} or a {@link
+     * SpringTransitionAnimator} on the alpha, scale, rotation or x/y of View mount content are run
+     * by platform animators, which set the View properties directly. Any other animation falls back
+     * to {@link #DATA_FLOW}.
+     */
+    PLATFORM_ANIMATOR
+  }
+
   /** The type of a {@link ComponentTarget}. */
   enum ComponentTargetType {
 
@@ -270,6 +290,7 @@ public abstract class Transition {
 
     private final AnimationTarget mAnimationTarget;
     private final TransitionAnimator mTransitionAnimator;
+    private final AnimationBackend mAnimationBackend;
     private final RuntimeValue mAppearFrom;
     private final RuntimeValue mDisappearTo;
     @Nullable private final String mTraceName;
@@ -279,12 +300,14 @@ public abstract class Transition {
     TransitionUnit(
         AnimationTarget animationTarget,
         TransitionAnimator transitionAnimator,
+        AnimationBackend animationBackend,
         RuntimeValue appearFrom,
         RuntimeValue disappearTo,
         @Nullable String traceName,
         @Nullable Function<Void> transitionEndHandler) {
       mAnimationTarget = animationTarget;
       mTransitionAnimator = transitionAnimator;
+      mAnimationBackend = animationBackend;
       mAppearFrom = appearFrom;
       mDisappearTo = disappearTo;
       mTraceName = traceName;
@@ -319,7 +342,28 @@ public abstract class Transition {
     AnimationBinding createAnimation(PropertyHandle propertyHandle, float targetValue) {
       final PropertyAnimation propertyAnimation =
           new PropertyAnimation(propertyHandle, targetValue);
-      return mTransitionAnimator.createAnimation(propertyAnimation);
+      final TransitionAnimationBinding animation =
+          mTransitionAnimator.createAnimation(propertyAnimation);
+      if (mAnimationBackend != AnimationBackend.PLATFORM_ANIMATOR) {
+        return animation;
+      }
+
+      if (mTransitionAnimator instanceof TimingTransitionAnimator) {
+        final TimingTransitionAnimator timingAnimator =
+            (TimingTransitionAnimator) mTransitionAnimator;
+        return new ViewAnimatorTransition(
+            propertyAnimation,
+            timingAnimator.mDurationMs,
+            timingAnimator.mInterpolator,
+            animation);
+      } else if (mTransitionAnimator instanceof SpringTransitionAnimator) {
+        final SpringInterpolator springInterpolator =
+            ((SpringTransitionAnimator) mTransitionAnimator).getSpringInterpolator();
+        return new ViewAnimatorTransition(
+            propertyAnimation, springInterpolator.getDurationMs(), springInterpolator, animation);
+      }
+
+      return animation;
     }
 
     @Nullable
@@ -448,6 +492,15 @@ public abstract class Transition {
       return this;
     }
 
+    /**
+     * Use to define the {@link AnimationBackend} that runs the animation. The default is {@link
+     * AnimationBackend#DATA_FLOW}.
+     */
+    public TransitionUnitsBuilder animationBackend(AnimationBackend animationBackend) {
+      mAnimationBackend = animationBackend;
+      return this;
+    }
+
     /**
      * Add a transition end handler that would get a callback whenever the transition finishes.
      *
@@ -530,6 +583,16 @@ public abstract class Transition {
       return this;
     }
 
+    /**
+     * Use to define the {@link AnimationBackend} that runs the animation. The default is {@link
+     * AnimationBackend#DATA_FLOW}, and only the x/y bounds of Views can be animated by {@link
+     * AnimationBackend#PLATFORM_ANIMATOR}.
+     */
+    public AutoBoundsTransitionBuilder animationBackend(AnimationBackend animationBackend) {
+      mAnimationBackend = animationBackend;
+      return this;
+    }
+
     /**
      * Add a transition end handler that would get a callback whenever the transition finishes.
      *
@@ -548,6 +611,7 @@ public abstract class Transition {
     ComponentTarget mComponentTarget;
     PropertyTarget mPropertyTarget;
     TransitionAnimator mTransitionAnimator = DEFAULT_ANIMATOR;
+    AnimationBackend mAnimationBackend = AnimationBackend.DATA_FLOW;
     RuntimeValue mAppearFrom;
     RuntimeValue mDisappearTo;
     String mTraceName;
@@ -561,12 +625,14 @@ public abstract class Transition {
           new TransitionUnit(
               new AnimationTarget(mComponentTarget, mPropertyTarget),
               mTransitionAnimator,
+              mAnimationBackend,
               mAppearFrom,
               mDisappearTo,
               mTraceName,
               mTransitionEndHandler));
       mPropertyTarget = null;
       mTransitionAnimator = DEFAULT_ANIMATOR;
+      mAnimationBackend = AnimationBackend.DATA_FLOW;
       mAppearFrom = null;
       mDisappearTo = null;
       mTraceName = null;
@@ -593,6 +659,7 @@ public abstract class Transition {
   public static class SpringTransitionAnimator implements TransitionAnimator {
 
     final SpringConfig mSpringConfig;
+    private @Nullable SpringInterpolator mSpringInterpolator;
 
     /**
      * Create spring-driven animator with given tension and friction values. Spring physics
@@ -618,6 +685,14 @@ public abstract class Transition {
     public TransitionAnimationBinding createAnimation(PropertyAnimation propertyAnimation) {
       return new SpringTransition(propertyAnimation, mSpringConfig);
     }
+
+    /** @return the curve of the spring, for animations run by platform animators. */
+    SpringInterpolator getSpringInterpolator() {
+      if (mSpringInterpolator == null) {
+        mSpringInterpolator = new SpringInterpolator(mSpringConfig);
+      }
+      return mSpringInterpolator;
+    }
   }
 
   /** Creates timing-driven animations with the given duration. */
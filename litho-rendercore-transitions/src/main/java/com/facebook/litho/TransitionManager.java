@@ -23,6 +23,7 @@ import android.view.ViewParent;
 import androidx.annotation.IntDef;
 import androidx.annotation.Nullable;
 import androidx.collection.SparseArrayCompat;
+import androidx.core.util.Pools;
 import com.facebook.litho.Transition.TransitionUnit;
 import com.facebook.litho.animation.AnimatedProperties;
 import com.facebook.litho.animation.AnimatedProperty;
@@ -40,11 +41,9 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Handles animating transitions defined by ComponentSpec's onCreateTransition code.
@@ -73,9 +72,13 @@ import java.util.Set;
  * <p>An {@link AnimationState} keeps track of the current mount content object, as well as the
  * state of all animating properties ({@link PropertyState}s). A {@link PropertyState} keeps track
  * of a {@link AnimatedPropertyNode}, which has the current value of that property in the animation,
- * and up to one animation and end value. A reverse mapping from animation to property(s) being
+ * and up to one animation and end value. A reverse mapping from animation to the property being
  * animated is tracked in {@link #mAnimationsToPropertyHandles}.
  *
+ * <p>Both states are pooled, and the property states of an {@link AnimationState} are held in an
+ * {@link AnimatedPropertyArrayMap}, so that content appearing and disappearing while scrolling
+ * doesn't allocate new states for every transition.
+ *
  * <p>Combined, these mean that at any point in time, we're able to tell what animation is animating
  * what property(s). Knowing this, we can properly resolve conflicting animations (animations on the
  * same property of the same mount content).
@@ -130,13 +133,27 @@ public class TransitionManager {
     public AnimationBinding animation;
 
     /** If there's an {@link #animation}, the target value it's animating to. */
-    public Float targetValue;
+    public float targetValue;
+
+    /** Whether there's a {@link #targetValue}. */
+    public boolean hasTargetValue;
 
     /** The last mounted value of this property. */
-    public Float lastMountedValue;
+    public float lastMountedValue;
+
+    /** Whether there's a {@link #lastMountedValue}. */
+    public boolean hasLastMountedValue;
 
     /** How many animations are waiting to finish for this property. */
     public int numPendingAnimations;
+
+    void reset() {
+      animatedPropertyNode = null;
+      animation = null;
+      hasTargetValue = false;
+      hasLastMountedValue = false;
+      numPendingAnimations = 0;
+    }
   }
 
   /**
@@ -150,7 +167,8 @@ public class TransitionManager {
      * The states for all the properties of this mount content that have an animated value (e.g. a
      * value that isn't necessarily their mounted value).
      */
-    public final Map<AnimatedProperty, PropertyState> propertyStates = new HashMap<>();
+    public final AnimatedPropertyArrayMap<PropertyState> propertyStates =
+        new AnimatedPropertyArrayMap<>();
 
     /**
      * The current mount content for this animation state, if it's mounted, null otherwise. This
@@ -183,13 +201,33 @@ public class TransitionManager {
     public boolean shouldFinishUndeclaredAnimation;
 
     public boolean hasDisappearingAnimation;
+
+    /** Resets this state, which must not have any property states left, to be reused. */
+    void reset() {
+      mountContentGroup = null;
+      changeType = ChangeType.UNSET;
+      currentLayoutOutputsGroup = null;
+      nextLayoutOutputsGroup = null;
+      seenInLastTransition = false;
+      shouldFinishUndeclaredAnimation = false;
+      hasDisappearingAnimation = false;
+    }
   }
 
-  private final Map<AnimationBinding, List<PropertyHandle>> mAnimationsToPropertyHandles =
+  private static final int MAX_POOLED_STATES = 64;
+
+  private final Map<AnimationBinding, PropertyHandle> mAnimationsToPropertyHandles =
       new HashMap<>();
   private final TransitionIdMap<AnimationState> mAnimationStates = new TransitionIdMap<>();
   private final SparseArrayCompat<String> mTraceNames = new SparseArrayCompat<>();
-  private final Map<PropertyHandle, Float> mInitialStatesToRestore = new HashMap<>();
+  private final ArrayList<PropertyHandle> mInitialStatesToRestore = new ArrayList<>();
+  private float[] mInitialValuesToRestore = new float[8];
+  private final Pools.SimplePool<AnimationState> mAnimationStatePool =
+      new Pools.SimplePool<>(MAX_POOLED_STATES);
+  private final Pools.SimplePool<PropertyState> mPropertyStatePool =
+      new Pools.SimplePool<>(MAX_POOLED_STATES);
+  private final ArrayList<AnimationState> mTempAnimationStates = new ArrayList<>();
+  private final ArrayList<TransitionId> mTempTransitionIds = new ArrayList<>();
   private final ArrayList<AnimationBinding> mRunningRootAnimations = new ArrayList<>();
   private final TransitionsAnimationBindingListener mAnimationBindingListener =
       new TransitionsAnimationBindingListener();
@@ -249,8 +287,6 @@ public class TransitionManager {
         recordLayoutOutputsGroupDiff(transitionId, null, nextLayoutOutputsGroup);
       }
     } else {
-      final HashSet<TransitionId> seenInNewLayout = new HashSet<>();
-
       for (TransitionId transitionId : nextTransitionIds.keySet()) {
         final boolean isAutogenerated = transitionId.mType == TransitionId.Type.AUTOGENERATED;
 
@@ -259,9 +295,7 @@ public class TransitionManager {
         final OutputUnitsAffinityGroup<AnimatableItem> currentLayoutOutputsGroup =
             currentTransitionIds.get(transitionId);
 
-        if (nextLayoutOutputsGroup != null) {
-          seenInNewLayout.add(transitionId);
-        } else if (isAutogenerated) {
+        if (nextLayoutOutputsGroup == null && isAutogenerated) {
           // Only appearing animation would be possible, but there is no way to declare appearing
           // animation for autogenerated ids
           continue;
@@ -272,7 +306,7 @@ public class TransitionManager {
       }
 
       for (TransitionId transitionId : currentTransitionIds.keySet()) {
-        if (seenInNewLayout.contains(transitionId)) {
+        if (nextTransitionIds.get(transitionId) != null) {
           // We either already processed this id or it's autogenerated and is not present in the
           // new layout, thus only disappearing animation would be possible, but there is no way to
           // declare disappearing animation for autogenerated ids
@@ -299,13 +333,21 @@ public class TransitionManager {
   //       which change without a change transition declared. Also the flag should probably belong
   //       to the properties and not to the AnimationState.
   void finishUndeclaredTransitions() {
-    for (AnimationState animationState : new ArrayList<>(mAnimationStates.values())) {
+    // Finishing animations removes their states, so iterate over a copy.
+    mTempAnimationStates.addAll(mAnimationStates.values());
+    for (int i = 0, size = mTempAnimationStates.size(); i < size; i++) {
+      final AnimationState animationState = mTempAnimationStates.get(i);
       if (animationState.shouldFinishUndeclaredAnimation) {
         animationState.shouldFinishUndeclaredAnimation = false;
 
-        for (PropertyState propertyState :
-            new ArrayList<>(animationState.propertyStates.values())) {
-          final AnimationBinding animationBinding = propertyState.animation;
+        // Finishing an animation removes its property state, so iterate in reverse order.
+        final AnimatedPropertyArrayMap<PropertyState> propertyStates =
+            animationState.propertyStates;
+        for (int j = propertyStates.size() - 1; j >= 0; j--) {
+          if (j >= propertyStates.size()) {
+            continue;
+          }
+          final AnimationBinding animationBinding = propertyStates.valueAt(j).animation;
           if (animationBinding != null) {
             animationBinding.stop();
             mAnimationBindingListener.finishAnimation(animationBinding);
@@ -313,6 +355,7 @@ public class TransitionManager {
         }
       }
     }
+    mTempAnimationStates.clear();
   }
 
   /**
@@ -376,10 +419,11 @@ public class TransitionManager {
     for (TransitionId transitionId : mAnimationStates.ids()) {
       final AnimationState animationState = mAnimationStates.get(transitionId);
       setMountContentInner(transitionId, animationState, null);
-      clearLayoutOutputs(animationState);
+      releaseAnimationState(animationState);
     }
     mAnimationStates.clear();
     mTraceNames.clear();
+    mInitialStatesToRestore.clear();
 
     // Clear these so that stopping animations below doesn't cause us to trigger any useless
     // cleanup.
@@ -410,7 +454,7 @@ public class TransitionManager {
       OutputUnitsAffinityGroup<AnimatableItem> nextLayoutOutputsGroup) {
     AnimationState animationState = mAnimationStates.get(transitionId);
     if (animationState == null) {
-      animationState = new AnimationState();
+      animationState = acquireAnimationState();
       mAnimationStates.put(transitionId, animationState);
     }
 
@@ -455,12 +499,14 @@ public class TransitionManager {
             : null;
     // The values for all members of the group should be the same, thus we'll be collected from the
     // most significant one
-    for (AnimatedProperty property : animationState.propertyStates.keySet()) {
-      final PropertyState propertyState = animationState.propertyStates.get(property);
+    final AnimatedPropertyArrayMap<PropertyState> propertyStates = animationState.propertyStates;
+    for (int i = 0, size = propertyStates.size(); i < size; i++) {
+      final PropertyState propertyState = propertyStates.valueAt(i);
       if (animatableItem == null) {
-        propertyState.lastMountedValue = null;
+        propertyState.hasLastMountedValue = false;
       } else {
-        propertyState.lastMountedValue = property.get(animatableItem);
+        propertyState.lastMountedValue = propertyStates.keyAt(i).get(animatableItem);
+        propertyState.hasLastMountedValue = true;
       }
     }
   }
@@ -669,7 +715,7 @@ public class TransitionManager {
 
     // Don't replace new animations in two cases: 1) we're already animating that property to
     // the same end value or 2) the start and end values are already the same
-    if (existingState != null && existingState.targetValue != null) {
+    if (existingState != null && existingState.hasTargetValue) {
       if (endValue == existingState.targetValue) {
         if (mDebugTag != null) {
           Log.d(mDebugTag, " - property is already animating to this end value: " + endValue);
@@ -696,7 +742,7 @@ public class TransitionManager {
 
     PropertyState propertyState = existingState;
     if (propertyState == null) {
-      propertyState = new PropertyState();
+      propertyState = acquirePropertyState();
 
       propertyState.animatedPropertyNode =
           new AnimatedPropertyNode(animationState.mountContentGroup, property);
@@ -705,13 +751,10 @@ public class TransitionManager {
     propertyState.animatedPropertyNode.setValue(startValue);
     propertyState.numPendingAnimations++;
 
-    // Currently, all supported animations can only animate one property at a time, but we think
-    // this will change in the future so we maintain a set here.
-    final List<PropertyHandle> animatedPropertyHandles = new ArrayList<>();
-    animatedPropertyHandles.add(propertyHandle);
-    mAnimationsToPropertyHandles.put(animation, animatedPropertyHandles);
+    // All supported animations can only animate one property at a time.
+    mAnimationsToPropertyHandles.put(animation, propertyHandle);
 
-    mInitialStatesToRestore.put(propertyHandle, startValue);
+    addInitialStateToRestore(propertyHandle, startValue);
 
     if (!TextUtils.isEmpty(transition.getTraceName())) {
       mTraceNames.put(animation.hashCode(), transition.getTraceName());
@@ -720,9 +763,22 @@ public class TransitionManager {
     return animation;
   }
 
+  private void addInitialStateToRestore(PropertyHandle propertyHandle, float value) {
+    final int index = mInitialStatesToRestore.size();
+    if (index == mInitialValuesToRestore.length) {
+      final float[] values = new float[index * 2];
+      System.arraycopy(mInitialValuesToRestore, 0, values, 0, index);
+      mInitialValuesToRestore = values;
+    }
+    mInitialStatesToRestore.add(propertyHandle);
+    mInitialValuesToRestore[index] = value;
+  }
+
   private void restoreInitialStates() {
-    for (PropertyHandle propertyHandle : mInitialStatesToRestore.keySet()) {
-      final float value = mInitialStatesToRestore.get(propertyHandle);
+    // If a property was recorded more than once, the last recorded value is the one that sticks.
+    for (int i = 0, size = mInitialStatesToRestore.size(); i < size; i++) {
+      final PropertyHandle propertyHandle = mInitialStatesToRestore.get(i);
+      final float value = mInitialValuesToRestore[i];
       final TransitionId transitionId = propertyHandle.getTransitionId();
       final AnimationState animationState = mAnimationStates.get(transitionId);
       if (animationState.mountContentGroup != null) {
@@ -750,16 +806,18 @@ public class TransitionManager {
       Log.d(mDebugTag, "Setting mount content for " + transitionId + " to " + newMountContentGroup);
     }
 
-    final Map<AnimatedProperty, PropertyState> animatingProperties = animationState.propertyStates;
+    final AnimatedPropertyArrayMap<PropertyState> animatingProperties =
+        animationState.propertyStates;
     if (animationState.mountContentGroup != null) {
-      for (AnimatedProperty animatedProperty : animatingProperties.keySet()) {
-        resetProperty(animatedProperty, animationState.mountContentGroup);
+      for (int i = 0, size = animatingProperties.size(); i < size; i++) {
+        resetProperty(animatingProperties.keyAt(i), animationState.mountContentGroup);
       }
       recursivelySetChildClippingForGroup(animationState.mountContentGroup, true);
     }
 
-    for (PropertyState propertyState : animatingProperties.values()) {
-      propertyState.animatedPropertyNode.setMountContentGroup(newMountContentGroup);
+    for (int i = 0, size = animatingProperties.size(); i < size; i++) {
+      animatingProperties.valueAt(i).animatedPropertyNode.setMountContentGroup(
+          newMountContentGroup);
     }
     if (newMountContentGroup != null) {
       recursivelySetChildClippingForGroup(newMountContentGroup, false);
@@ -818,21 +876,48 @@ public class TransitionManager {
    * never resulted in an animation being created.
    */
   private void cleanupNonAnimatingAnimationStates() {
-    final Set<TransitionId> toRemove = new HashSet<>();
+    final ArrayList<TransitionId> toRemove = mTempTransitionIds;
 
     for (TransitionId transitionId : mAnimationStates.ids()) {
       final AnimationState animationState = mAnimationStates.get(transitionId);
       if (animationState.propertyStates.isEmpty()) {
         setMountContentInner(transitionId, animationState, null);
-        clearLayoutOutputs(animationState);
-
         toRemove.add(transitionId);
       }
     }
 
-    for (TransitionId transitionId : toRemove) {
+    for (int i = 0, size = toRemove.size(); i < size; i++) {
+      final TransitionId transitionId = toRemove.get(i);
+      releaseAnimationState(mAnimationStates.get(transitionId));
       mAnimationStates.remove(transitionId);
     }
+    toRemove.clear();
+  }
+
+  private AnimationState acquireAnimationState() {
+    final AnimationState animationState = mAnimationStatePool.acquire();
+    return animationState != null ? animationState : new AnimationState();
+  }
+
+  /** Releases the given state, which must have been removed or be removed by the caller. */
+  private void releaseAnimationState(AnimationState animationState) {
+    final AnimatedPropertyArrayMap<PropertyState> propertyStates = animationState.propertyStates;
+    for (int i = 0, size = propertyStates.size(); i < size; i++) {
+      releasePropertyState(propertyStates.valueAt(i));
+    }
+    propertyStates.clear();
+    animationState.reset();
+    mAnimationStatePool.release(animationState);
+  }
+
+  private PropertyState acquirePropertyState() {
+    final PropertyState propertyState = mPropertyStatePool.acquire();
+    return propertyState != null ? propertyState : new PropertyState();
+  }
+
+  private void releasePropertyState(PropertyState propertyState) {
+    propertyState.reset();
+    mPropertyStatePool.release(propertyState);
   }
 
   private void debugLogStartingAnimations() {
@@ -860,15 +945,6 @@ public class TransitionManager {
     }
   }
 
-  private static void clearLayoutOutputs(AnimationState animationState) {
-    if (animationState.currentLayoutOutputsGroup != null) {
-      animationState.currentLayoutOutputsGroup = null;
-    }
-    if (animationState.nextLayoutOutputsGroup != null) {
-      animationState.nextLayoutOutputsGroup = null;
-    }
-  }
-
   private static float getPropertyValue(
       AnimatedProperty property, OutputUnitsAffinityGroup<AnimatableItem> mountContentGroup) {
     return property.get(mountContentGroup.getMostSignificantUnit());
@@ -909,12 +985,9 @@ public class TransitionManager {
 
     @Override
     public void onFinish(AnimationBinding binding) {
-      final List<PropertyHandle> keys = mAnimationsToPropertyHandles.get(binding);
-      if (keys != null && mOnAnimationCompleteListener != null) {
-        // We loop through all the properties that were animated by this animation
-        for (PropertyHandle propertyHandle : keys) {
-          mOnAnimationCompleteListener.onAnimationUnitComplete(propertyHandle, binding.getTag());
-        }
+      final PropertyHandle propertyHandle = mAnimationsToPropertyHandles.get(binding);
+      if (propertyHandle != null && mOnAnimationCompleteListener != null) {
+        mOnAnimationCompleteListener.onAnimationUnitComplete(propertyHandle, binding.getTag());
       }
       finishAnimation(binding);
     }
@@ -964,7 +1037,7 @@ public class TransitionManager {
         }
 
         if (shouldStart
-            && propertyState.lastMountedValue != null
+            && propertyState.hasLastMountedValue
             && propertyState.lastMountedValue != propertyAnimation.getTargetValue()) {
           if (mDebugTag != null) {
             Log.d(
@@ -998,6 +1071,7 @@ public class TransitionManager {
             animationState.propertyStates.get(propertyAnimation.getProperty());
 
         propertyState.targetValue = propertyAnimation.getTargetValue();
+        propertyState.hasTargetValue = true;
         propertyState.animation = binding;
       }
 
@@ -1005,79 +1079,69 @@ public class TransitionManager {
     }
 
     private void finishAnimation(AnimationBinding binding) {
-      final List<PropertyHandle> keys = mAnimationsToPropertyHandles.remove(binding);
-      if (keys == null) {
+      final PropertyHandle propertyHandle = mAnimationsToPropertyHandles.remove(binding);
+      if (propertyHandle == null) {
         return;
       }
 
-      // When an animation finishes, we want to go through all the mount contents it was animating
-      // and see if it was the last active animation. If it was, we know that item is no longer
+      // When an animation finishes, we want to go through the mount content it was animating and
+      // see if it was the last active animation. If it was, we know that item is no longer
       // animating and we can release the animation state.
-      for (int i = 0, size = keys.size(); i < size; i++) {
-        final PropertyHandle propertyHandle = keys.get(i);
-        final TransitionId transitionId = propertyHandle.getTransitionId();
-        final AnimationState animationState = mAnimationStates.get(transitionId);
-        final AnimatedProperty property = propertyHandle.getProperty();
-        final boolean isDisappearAnimation = animationState.changeType == ChangeType.DISAPPEARED;
-
-        // Disappearing animations are treated differently because we want to keep their animated
-        // value up until the point that all animations have finished and we can remove the
-        // disappearing content (disappearing items disappear to a value that is based on a provided
-        // disappearTo value and not a LayoutOutput, so we can't regenerate it).
-        //
-        // For non-disappearing content, we know the end value is already reflected by the
-        // LayoutOutput we transitioned to, so we don't need to persist an animated value.
-        final boolean didFinish;
-        if (isDisappearAnimation) {
-          final PropertyState propertyState = animationState.propertyStates.get(property);
-          if (propertyState == null) {
-            throw new RuntimeException(
-                "Some animation bookkeeping is wrong: tried to remove an animation from the list "
-                    + "of active animations, but it wasn't there.");
-          }
+      final TransitionId transitionId = propertyHandle.getTransitionId();
+      final AnimationState animationState = mAnimationStates.get(transitionId);
+      final AnimatedProperty property = propertyHandle.getProperty();
+      final boolean isDisappearAnimation = animationState.changeType == ChangeType.DISAPPEARED;
+
+      // Disappearing animations are treated differently because we want to keep their animated
+      // value up until the point that all animations have finished and we can remove the
+      // disappearing content (disappearing items disappear to a value that is based on a provided
+      // disappearTo value and not a LayoutOutput, so we can't regenerate it).
+      //
+      // For non-disappearing content, we know the end value is already reflected by the
+      // LayoutOutput we transitioned to, so we don't need to persist an animated value.
+      final boolean didFinish;
+      final PropertyState propertyState = animationState.propertyStates.get(property);
+      if (propertyState == null) {
+        throw new RuntimeException(
+            "Some animation bookkeeping is wrong: tried to remove an animation from the list "
+                + "of active animations, but it wasn't there.");
+      }
 
-          propertyState.numPendingAnimations--;
-          didFinish = areAllDisappearingAnimationsFinished(animationState);
-          if (didFinish && animationState.mountContentGroup != null) {
-            for (AnimatedProperty animatedProperty : animationState.propertyStates.keySet()) {
-              resetProperty(animatedProperty, animationState.mountContentGroup);
-            }
-          }
-        } else {
-          final PropertyState propertyState = animationState.propertyStates.get(property);
-          if (propertyState == null) {
-            throw new RuntimeException(
-                "Some animation bookkeeping is wrong: tried to remove an animation from the list "
-                    + "of active animations, but it wasn't there.");
+      propertyState.numPendingAnimations--;
+      if (isDisappearAnimation) {
+        didFinish = areAllDisappearingAnimationsFinished(animationState);
+        if (didFinish && animationState.mountContentGroup != null) {
+          final AnimatedPropertyArrayMap<PropertyState> propertyStates =
+              animationState.propertyStates;
+          for (int i = 0, size = propertyStates.size(); i < size; i++) {
+            resetProperty(propertyStates.keyAt(i), animationState.mountContentGroup);
           }
+        }
+      } else if (propertyState.numPendingAnimations > 0) {
+        didFinish = false;
+      } else {
+        animationState.propertyStates.remove(property);
+        releasePropertyState(propertyState);
+        didFinish = animationState.propertyStates.isEmpty();
 
-          propertyState.numPendingAnimations--;
-          if (propertyState.numPendingAnimations > 0) {
-            didFinish = false;
-          } else {
-            animationState.propertyStates.remove(property);
-            didFinish = animationState.propertyStates.isEmpty();
-
-            if (animationState.mountContentGroup != null) {
-              final float value = getPropertyValue(property, animationState.nextLayoutOutputsGroup);
-              setPropertyValue(property, value, animationState.mountContentGroup);
-            }
-          }
+        if (animationState.mountContentGroup != null) {
+          final float value = getPropertyValue(property, animationState.nextLayoutOutputsGroup);
+          setPropertyValue(property, value, animationState.mountContentGroup);
         }
+      }
 
-        if (didFinish) {
-          if (mDebugTag != null) {
-            Log.d(mDebugTag, "Finished all animations for transition id " + transitionId);
-          }
-          if (animationState.mountContentGroup != null) {
-            recursivelySetChildClippingForGroup(animationState.mountContentGroup, true);
-          }
-          if (mOnAnimationCompleteListener != null) {
-            mOnAnimationCompleteListener.onAnimationComplete(transitionId);
-          }
-          mAnimationStates.remove(transitionId);
-          clearLayoutOutputs(animationState);
+      if (didFinish) {
+        if (mDebugTag != null) {
+          Log.d(mDebugTag, "Finished all animations for transition id " + transitionId);
+        }
+        if (animationState.mountContentGroup != null) {
+          recursivelySetChildClippingForGroup(animationState.mountContentGroup, true);
+        }
+        if (mOnAnimationCompleteListener != null) {
+          mOnAnimationCompleteListener.onAnimationComplete(transitionId);
         }
+        mAnimationStates.remove(transitionId);
+        releaseAnimationState(animationState);
       }
 
       final String traceName = mTraceNames.get(binding.hashCode());
@@ -1091,8 +1155,9 @@ public class TransitionManager {
       if (animationState.changeType != ChangeType.DISAPPEARED) {
         throw new RuntimeException("This should only be checked for disappearing animations");
       }
-      for (PropertyState propertyState : animationState.propertyStates.values()) {
-        if (propertyState.numPendingAnimations > 0) {
+      final AnimatedPropertyArrayMap<PropertyState> propertyStates = animationState.propertyStates;
+      for (int i = 0, size = propertyStates.size(); i < size; i++) {
+        if (propertyStates.valueAt(i).numPendingAnimations > 0) {
           return false;
         }
       }
@@ -87,8 +87,29 @@ public final class AnimatedProperties {
   public static final AnimatedProperty[] AUTO_LAYOUT_PROPERTIES =
       new AnimatedProperty[] {X, Y, WIDTH, HEIGHT};
 
+  /** The properties defined here, each at its {@link #getIndex} index. */
+  private static final AnimatedProperty[] PROPERTIES =
+      new AnimatedProperty[] {X, Y, WIDTH, HEIGHT, ALPHA, SCALE, SCALE_X, SCALE_Y, ROTATION};
+
+  /** The number of properties defined here, i.e. the bound of their {@link #getIndex} index. */
+  public static final int PROPERTY_COUNT = PROPERTIES.length;
+
   private AnimatedProperties() {}
 
+  /**
+   * @return the index, from 0 to {@link #PROPERTY_COUNT} excluded, of the given property if it is
+   *     one of the properties defined here, or -1 otherwise. This can be used to key per-property
+   *     state by array index rather than in a map.
+   */
+  public static int getIndex(AnimatedProperty property) {
+    for (int i = 0; i < PROPERTY_COUNT; i++) {
+      if (PROPERTIES[i] == property) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   private static View assertIsView(Object mountContent, AnimatedProperty property) {
     if (!(mountContent instanceof View)) {
       throw new RuntimeException(
@@ -17,6 +17,7 @@
 package com.facebook.litho.animation;
 
 import android.graphics.drawable.Drawable;
+import android.view.View;
 import com.facebook.litho.OutputUnitsAffinityGroup;
 import com.facebook.litho.dataflow.ValueNode;
 import java.lang.ref.WeakReference;
@@ -35,7 +36,7 @@ public class AnimatedPropertyNode extends ValueNode {
   private final AnimatedProperty mAnimatedProperty;
   private final OutputUnitsAffinityGroup<WeakReference<Object>> mMountContentGroup =
       new OutputUnitsAffinityGroup<>();
-  private boolean mUsingRenderThread;
+  @Nullable private ViewAnimatorTransition mViewAnimation;
 
   public AnimatedPropertyNode(
       OutputUnitsAffinityGroup<Object> mountContentGroup, AnimatedProperty animatedProperty) {
@@ -46,11 +47,29 @@ public class AnimatedPropertyNode extends ValueNode {
   /** Sets the mount content that this {@link AnimatedPropertyNode} updates a value on. */
   public void setMountContentGroup(OutputUnitsAffinityGroup<Object> mountContentGroup) {
     setMountContentGroupInner(mountContentGroup);
+    if (mViewAnimation != null) {
+      final View view = getSingleView();
+      if (view != null || mMountContentGroup.size() == 0) {
+        // The platform animator carries on animating the new View, if any.
+        mViewAnimation.setView(view);
+        return;
+      }
+      releaseViewAnimation();
+    }
     setValueInner(getValue());
   }
 
+  @Override
+  public float getValue() {
+    if (mViewAnimation != null) {
+      super.setValue(mViewAnimation.getCurrentValue());
+    }
+    return super.getValue();
+  }
+
   @Override
   public void setValue(float value) {
+    releaseViewAnimation();
     super.setValue(value);
     setValueInner(value);
   }
@@ -73,6 +92,9 @@ public class AnimatedPropertyNode extends ValueNode {
       return mAnimatedProperty.get(mountContent);
     }
 
+    // A new animation is driving this property through the graph.
+    releaseViewAnimation();
+
     final float value = getInput().getValue();
     setValueInner(value);
 
@@ -80,11 +102,43 @@ public class AnimatedPropertyNode extends ValueNode {
   }
 
   /**
-   * Sets if the content is being animated on the Render thread, which means that the further passed
-   * are not be applied to the content, but just to be recorded
+   * Sets the {@link ViewAnimatorTransition} which animates the View of this property with a
+   * platform animator: until it is cleared, values passed to this node are not applied to the
+   * content, and the value of this node is the one last set by that animator. Setting a new value
+   * on this node releases the animator from the content, e.g. when another animation starts on this
+   * property.
+   */
+  void setViewAnimation(ViewAnimatorTransition viewAnimation) {
+    releaseViewAnimation();
+    mViewAnimation = viewAnimation;
+  }
+
+  /** Clears the given {@link ViewAnimatorTransition}, if it's still animating this property. */
+  void clearViewAnimation(ViewAnimatorTransition viewAnimation) {
+    if (mViewAnimation == viewAnimation) {
+      super.setValue(viewAnimation.getCurrentValue());
+      mViewAnimation = null;
+    }
+  }
+
+  /**
+   * @return the View this property is set on, if it's set on exactly one View, or null otherwise.
    */
-  void setUsingRenderThread(boolean usingRenderThread) {
-    this.mUsingRenderThread = usingRenderThread;
+  @Nullable
+  View getSingleView() {
+    if (mMountContentGroup.size() != 1) {
+      return null;
+    }
+    final Object mountContent = resolveReference(mMountContentGroup.getAt(0));
+    return mountContent instanceof View ? (View) mountContent : null;
+  }
+
+  private void releaseViewAnimation() {
+    final ViewAnimatorTransition viewAnimation = mViewAnimation;
+    if (viewAnimation != null) {
+      clearViewAnimation(viewAnimation);
+      viewAnimation.release();
+    }
   }
 
   private void setMountContentGroupInner(OutputUnitsAffinityGroup<Object> mountContentGroup) {
@@ -99,7 +153,7 @@ public class AnimatedPropertyNode extends ValueNode {
   }
 
   private void setValueInner(float value) {
-    if (mUsingRenderThread) {
+    if (mViewAnimation != null) {
       return;
     }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.animation;
+
+import android.view.animation.Interpolator;
+import com.facebook.litho.dataflow.springs.Spring;
+import com.facebook.litho.dataflow.springs.SpringConfig;
+
+/**
+ * An {@link Interpolator} that follows the curve of a {@link Spring} going from 0 to 1, so that a
+ * spring can be run by a platform animator for {@link #getDurationMs()}. The spring is simulated
+ * once, when the interpolator is created, and sampled at every frame.
+ */
+public final class SpringInterpolator implements Interpolator {
+
+  private static final double FRAME_SEC = 1 / 60.;
+  private static final int MAX_FRAMES = 10 * 60;
+
+  private final float[] mValues;
+
+  public SpringInterpolator(SpringConfig springConfig) {
+    final Spring spring = new Spring();
+    spring.setSpringConfig(springConfig);
+    spring.setCurrentValue(0);
+    spring.setEndValue(1);
+
+    final float[] values = new float[MAX_FRAMES + 1];
+    int frames = 0;
+    while (frames < MAX_FRAMES && !spring.isAtRest()) {
+      spring.advance(FRAME_SEC);
+      values[++frames] = (float) spring.getCurrentValue();
+    }
+    values[frames] = 1;
+
+    mValues = new float[frames + 1];
+    System.arraycopy(values, 0, mValues, 0, frames + 1);
+  }
+
+  /** @return how long the spring takes to come to rest. */
+  public long getDurationMs() {
+    return Math.round((mValues.length - 1) * FRAME_SEC * 1000);
+  }
+
+  @Override
+  public float getInterpolation(float input) {
+    final int lastFrame = mValues.length - 1;
+    if (input <= 0 || lastFrame == 0) {
+      return input <= 0 ? 0 : 1;
+    }
+    if (input >= 1) {
+      return 1;
+    }
+
+    final float frame = input * lastFrame;
+    final int index = (int) frame;
+    final float fraction = frame - index;
+    return mValues[index] + (mValues[index + 1] - mValues[index]) * fraction;
+  }
+}
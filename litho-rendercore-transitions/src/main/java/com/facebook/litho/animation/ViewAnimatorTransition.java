@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.animation;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.util.Property;
+import android.view.View;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+
+/**
+ * Animation for the transition of a single {@link PropertyAnimation} on a View, run by a platform
+ * {@link ValueAnimator} which sets the matching {@link View} properties (e.g. {@link View#ALPHA})
+ * directly, instead of through the {@link com.facebook.litho.dataflow.DataFlowGraph}.
+ *
+ * <p>Only the alpha, scale, rotation and x/y properties of content mounted as a single View can be
+ * animated this way: for any other property or content (e.g. Drawables), the given fallback
+ * animation is started instead.
+ */
+public class ViewAnimatorTransition extends BaseAnimationBinding {
+
+  private final PropertyAnimation mPropertyAnimation;
+  private final long mDurationMs;
+  private final @Nullable TimeInterpolator mInterpolator;
+  private final TransitionAnimationBinding mFallbackAnimation;
+  private final @Nullable Property<View, Float>[] mViewProperties;
+  private final AnimatorListener mAnimatorListener = new AnimatorListener();
+
+  private @Nullable ValueAnimator mAnimator;
+  private @Nullable AnimatedPropertyNode mAnimatedPropertyNode;
+  private @Nullable View mView;
+  private float mViewPropertyOffset;
+  private float mCurrentValue;
+  private boolean mIsUsingFallback;
+
+  public ViewAnimatorTransition(
+      PropertyAnimation propertyAnimation,
+      long durationMs,
+      @Nullable TimeInterpolator interpolator,
+      TransitionAnimationBinding fallbackAnimation) {
+    mPropertyAnimation = propertyAnimation;
+    mDurationMs = durationMs;
+    mInterpolator = interpolator;
+    mFallbackAnimation = fallbackAnimation;
+    mFallbackAnimation.addListener(new FallbackAnimationListener());
+    mViewProperties = getViewProperties(propertyAnimation.getProperty());
+  }
+
+  @Override
+  public void collectTransitioningProperties(ArrayList<PropertyAnimation> outList) {
+    outList.add(mPropertyAnimation);
+  }
+
+  @Override
+  public void prepareToStartLater() {
+    notifyScheduledToStartLater();
+  }
+
+  @Override
+  public void start(Resolver resolver) {
+    if (!shouldStart()) {
+      notifyCanceledBeforeStart();
+      return;
+    }
+
+    final PropertyHandle propertyHandle = mPropertyAnimation.getPropertyHandle();
+    final AnimatedPropertyNode animatedPropertyNode =
+        resolver.getAnimatedPropertyNode(propertyHandle);
+    final View view = animatedPropertyNode.getSingleView();
+
+    notifyWillStart();
+
+    if (view == null || mViewProperties == null) {
+      mIsUsingFallback = true;
+      mFallbackAnimation.start(resolver);
+      return;
+    }
+
+    mCurrentValue = resolver.getCurrentState(propertyHandle);
+    mAnimatedPropertyNode = animatedPropertyNode;
+    animatedPropertyNode.setViewAnimation(this);
+    setView(view);
+
+    final ValueAnimator animator =
+        ValueAnimator.ofFloat(mCurrentValue, mPropertyAnimation.getTargetValue());
+    animator.setDuration(mDurationMs);
+    if (mInterpolator != null) {
+      animator.setInterpolator(mInterpolator);
+    }
+    animator.addUpdateListener(mAnimatorListener);
+    animator.addListener(mAnimatorListener);
+    mAnimator = animator;
+    animator.start();
+  }
+
+  @Override
+  public void stop() {
+    if (mIsUsingFallback) {
+      mFallbackAnimation.stop();
+      return;
+    }
+
+    final ValueAnimator animator = mAnimator;
+    if (animator == null) {
+      return;
+    }
+
+    mAnimator = null;
+    releasePropertyNode();
+    animator.cancel();
+  }
+
+  @Override
+  public boolean isActive() {
+    return mIsUsingFallback ? mFallbackAnimation.isActive() : mAnimator != null;
+  }
+
+  /** @return the value, in the space of the {@link AnimatedProperty}, last set by the animator. */
+  float getCurrentValue() {
+    return mCurrentValue;
+  }
+
+  /**
+   * Sets the View that the animator sets its values on, e.g. when the property's content is
+   * remounted during the animation, or null if the content has been unmounted.
+   */
+  void setView(@Nullable View view) {
+    mView = view;
+    if (view == null || mViewProperties == null) {
+      return;
+    }
+
+    // X and Y are relative to the root host, while the View properties are relative to the parent.
+    final AnimatedProperty property = mPropertyAnimation.getProperty();
+    mViewPropertyOffset =
+        property == AnimatedProperties.X || property == AnimatedProperties.Y
+            ? property.get(view) - mViewProperties[0].get(view)
+            : 0;
+    applyToView(mCurrentValue);
+  }
+
+  /**
+   * Stops setting values on the View, e.g. when another animation starts on this property. The
+   * animator still runs, so that this animation finishes when it would have.
+   */
+  void release() {
+    mAnimatedPropertyNode = null;
+    mView = null;
+  }
+
+  private void releasePropertyNode() {
+    if (mAnimatedPropertyNode != null) {
+      mAnimatedPropertyNode.clearViewAnimation(this);
+    }
+    release();
+  }
+
+  private void applyToView(float value) {
+    final View view = mView;
+    final Property<View, Float>[] viewProperties = mViewProperties;
+    if (view == null || viewProperties == null) {
+      return;
+    }
+
+    final float viewValue = value - mViewPropertyOffset;
+    for (Property<View, Float> viewProperty : viewProperties) {
+      viewProperty.set(view, viewValue);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static @Nullable Property<View, Float>[] getViewProperties(AnimatedProperty property) {
+    if (property == AnimatedProperties.ALPHA) {
+      return new Property[] {View.ALPHA};
+    } else if (property == AnimatedProperties.SCALE) {
+      return new Property[] {View.SCALE_X, View.SCALE_Y};
+    } else if (property == AnimatedProperties.SCALE_X) {
+      return new Property[] {View.SCALE_X};
+    } else if (property == AnimatedProperties.SCALE_Y) {
+      return new Property[] {View.SCALE_Y};
+    } else if (property == AnimatedProperties.ROTATION) {
+      return new Property[] {View.ROTATION};
+    } else if (property == AnimatedProperties.X) {
+      return new Property[] {View.X};
+    } else if (property == AnimatedProperties.Y) {
+      return new Property[] {View.Y};
+    }
+    return null;
+  }
+
+  private class AnimatorListener extends AnimatorListenerAdapter
+      implements ValueAnimator.AnimatorUpdateListener {
+
+    @Override
+    public void onAnimationUpdate(ValueAnimator animation) {
+      if (animation != mAnimator) {
+        return;
+      }
+      mCurrentValue = (float) animation.getAnimatedValue();
+      applyToView(mCurrentValue);
+    }
+
+    @Override
+    public void onAnimationEnd(Animator animation) {
+      // Animators which were stopped end without notifying that this animation has finished.
+      if (animation != mAnimator) {
+        return;
+      }
+      mAnimator = null;
+      mCurrentValue = mPropertyAnimation.getTargetValue();
+      releasePropertyNode();
+      notifyFinished();
+    }
+  }
+
+  private class FallbackAnimationListener implements AnimationBindingListener {
+
+    @Override
+    public void onScheduledToStartLater(AnimationBinding binding) {}
+
+    @Override
+    public void onWillStart(AnimationBinding binding) {}
+
+    @Override
+    public void onFinish(AnimationBinding binding) {
+      notifyFinished();
+    }
+
+    @Override
+    public void onCanceledBeforeStart(AnimationBinding binding) {}
+
+    @Override
+    public boolean shouldStart(AnimationBinding binding) {
+      return true;
+    }
+  }
+}
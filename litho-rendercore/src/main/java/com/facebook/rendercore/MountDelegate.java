@@ -320,9 +320,9 @@ public class MountDelegate {
 
   static void onUnmountItemWhichRequiresUpdate(
       final List<ExtensionState> extensionStatesToUpdate,
-      final @Nullable RenderUnit<?> previousRenderUnit,
+      final RenderUnit<?> previousRenderUnit,
       final @Nullable Object previousLayoutData,
-      final @Nullable RenderUnit<?> nextRenderUnit,
+      final RenderUnit<?> nextRenderUnit,
       final @Nullable Object nextLayoutData,
       final Object content) {
     if (!extensionStatesToUpdate.isEmpty()) {
@@ -330,22 +330,26 @@ public class MountDelegate {
       for (int i = 0; i < size; i++) {
         extensionStatesToUpdate
             .get(i)
-            .onUnmountItem(previousRenderUnit, content, previousLayoutData);
+            .onUnmountItemForUpdate(
+                previousRenderUnit, previousLayoutData, nextRenderUnit, nextLayoutData, content);
       }
     }
   }
 
   static void onMountItemWhichRequiresUpdate(
       final List<ExtensionState> extensionStatesToUpdate,
-      final @Nullable RenderUnit<?> previousRenderUnit,
+      final RenderUnit<?> previousRenderUnit,
       final @Nullable Object previousLayoutData,
-      final @Nullable RenderUnit<?> nextRenderUnit,
+      final RenderUnit<?> nextRenderUnit,
       final @Nullable Object nextLayoutData,
       final Object content) {
     if (!extensionStatesToUpdate.isEmpty()) {
       final int size = extensionStatesToUpdate.size();
       for (int i = 0; i < size; i++) {
-        extensionStatesToUpdate.get(i).onMountItem(nextRenderUnit, content, nextLayoutData);
+        extensionStatesToUpdate
+            .get(i)
+            .onMountItemForUpdate(
+                previousRenderUnit, previousLayoutData, nextRenderUnit, nextLayoutData, content);
       }
     }
   }
@@ -20,27 +20,31 @@ import android.annotation.TargetApi;
 import android.app.Activity;
 import android.app.Application;
 import android.app.Service;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.ContextWrapper;
+import android.content.res.Configuration;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.IBinder;
 import androidx.annotation.VisibleForTesting;
-import androidx.core.util.Pools;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 
 /**
  * Pools of recycled resources.
  *
- * <p>FUTURE: Consider customizing the pool implementation such that we can match buffer sizes.
- * Without this we will tend to expand all buffers to the largest size needed.
+ * <p>Pools are looked up without taking the global lock: the lock is only held when a pool is
+ * created or when pools of a destroyed Context are cleared. Each {@link DefaultItemPool} guards its
+ * own items, so acquire/release of different content types never contend with each other.
  */
 public class MountItemsPool {
 
@@ -50,9 +54,9 @@ public class MountItemsPool {
 
   private static final Object sMountContentLock = new Object();
 
-  @GuardedBy("sMountContentLock")
+  // Writes are guarded by sMountContentLock, reads are lock-free.
   private static final Map<Context, Map<Object, ItemPool>> sMountContentPoolsByContext =
-      new HashMap<>(4);
+      new ConcurrentHashMap<>(4);
 
   @GuardedBy("sMountContentLock")
   private static final Map<Context, WeakHashMap<IBinder, ItemPool>> sHostPoolsByWindowAndContext =
@@ -83,6 +87,7 @@ public class MountItemsPool {
       return content;
     }
 
+    recordContentCreated(pool);
     return poolableMountContent.createPoolableContent(context);
   }
 
@@ -102,6 +107,37 @@ public class MountItemsPool {
     }
   }
 
+  /**
+   * Creates one item of mount content and releases it to its pool, if the pool can tell how many
+   * items it holds and has room for one more. Nothing is created otherwise.
+   *
+   * @return true if the pool kept the new item, false if it was full or doesn't report its size
+   */
+  public static boolean preallocateContent(Context context, ContentAllocator poolableMountContent) {
+    final ItemPool pool = getMountContentPool(context, poolableMountContent);
+    if (pool == null) {
+      return false;
+    }
+
+    final int pooledCount = pool.getPooledItemCount();
+    if (pooledCount < 0 || !pool.hasFreeCapacity()) {
+      return false;
+    }
+
+    recordContentCreated(pool);
+    pool.releasePreallocated(poolableMountContent.createPoolableContent(context));
+    return pool.getPooledItemCount() > pooledCount;
+  }
+
+  /**
+   * @return the number of items currently held in the pool of this mount content, or -1 if the
+   *     pool doesn't report it or recycling is disabled
+   */
+  public static int getPooledContentCount(Context context, ContentAllocator poolableMountContent) {
+    final ItemPool pool = getMountContentPool(context, poolableMountContent);
+    return pool != null ? pool.getPooledItemCount() : -1;
+  }
+
   /**
    * Can be called to fill up a mount content pool for the specified MountContent types. If a pool
    * doesn't exist for a Mount Content type, a default one will be created with the specified size.
@@ -117,7 +153,8 @@ public class MountItemsPool {
     final ItemPool pool = getMountContentPool(context, poolableMountContent, poolSize);
     if (pool != null) {
       for (int i = 0; i < poolSize; i++) {
-        pool.release(poolableMountContent.createPoolableContent(context));
+        recordContentCreated(pool);
+        pool.releasePreallocated(poolableMountContent.createPoolableContent(context));
       }
     }
   }
@@ -133,6 +170,17 @@ public class MountItemsPool {
       return null;
     }
 
+    final Object lifecycle = poolableMountContent.getPoolableContentType();
+
+    // Fast path: the pool already exists, no need to take the global lock.
+    final Map<Object, ItemPool> existingPoolsMap = sMountContentPoolsByContext.get(context);
+    if (existingPoolsMap != null) {
+      final ItemPool existingPool = existingPoolsMap.get(lifecycle);
+      if (existingPool != null) {
+        return existingPool;
+      }
+    }
+
     synchronized (sMountContentLock) {
       Map<Object, ItemPool> poolsMap = sMountContentPoolsByContext.get(context);
       if (poolsMap == null) {
@@ -142,10 +190,9 @@ public class MountItemsPool {
         }
 
         ensureActivityCallbacks(context);
-        poolsMap = new HashMap<>();
+        poolsMap = new ConcurrentHashMap<>();
         sMountContentPoolsByContext.put(context, poolsMap);
       }
-      final Object lifecycle = poolableMountContent.getPoolableContentType();
 
       ItemPool pool = poolsMap.get(lifecycle);
       if (pool == null) {
@@ -252,14 +299,19 @@ public class MountItemsPool {
             "Activity callbacks must be invoked manually below ICS (API level 14)");
       }
       sActivityCallbacks = new PoolsActivityCallback();
-      ((Application) context.getApplicationContext())
-          .registerActivityLifecycleCallbacks(sActivityCallbacks);
+      final Application application = (Application) context.getApplicationContext();
+      application.registerActivityLifecycleCallbacks(sActivityCallbacks);
+      application.registerComponentCallbacks(sActivityCallbacks);
     }
   }
 
-  /** Empty implementation of the {@link Application.ActivityLifecycleCallbacks} interface */
+  /**
+   * Implementation of the {@link Application.ActivityLifecycleCallbacks} interface which clears
+   * pools of destroyed activities, and trims pools when the system is low on memory.
+   */
   @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
-  private static class PoolsActivityCallback implements Application.ActivityLifecycleCallbacks {
+  private static class PoolsActivityCallback
+      implements Application.ActivityLifecycleCallbacks, ComponentCallbacks2 {
 
     @Override
     public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
@@ -295,6 +347,21 @@ public class MountItemsPool {
     public void onActivityDestroyed(Activity activity) {
       MountItemsPool.onContextDestroyed(activity);
     }
+
+    @Override
+    public void onTrimMemory(int level) {
+      MountItemsPool.onTrimMemory(level);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+      // Do nothing.
+    }
+
+    @Override
+    public void onLowMemory() {
+      MountItemsPool.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+    }
   }
 
   public static void onContextCreated(Context context) {
@@ -315,6 +382,62 @@ public class MountItemsPool {
     }
   }
 
+  /**
+   * Trims the default pools in response to memory pressure. Pools are emptied entirely from {@link
+   * ComponentCallbacks2#TRIM_MEMORY_MODERATE} onwards, i.e. once the app is in the middle of the
+   * background LRU list, and for {@link ComponentCallbacks2#TRIM_MEMORY_RUNNING_CRITICAL}. For
+   * lower levels, e.g. {@link ComponentCallbacks2#TRIM_MEMORY_UI_HIDDEN} or {@link
+   * ComponentCallbacks2#TRIM_MEMORY_BACKGROUND}, they are only shrunk back to their initial size.
+   * Apps using manual callbacks (see {@link #sIsManualCallbacks}) should forward {@link
+   * ComponentCallbacks2#onTrimMemory(int)} here.
+   */
+  public static void onTrimMemory(int level) {
+    final boolean clearAll =
+        level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+            || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL;
+
+    for (Map<Object, ItemPool> poolMap : sMountContentPoolsByContext.values()) {
+      for (ItemPool pool : poolMap.values()) {
+        if (pool instanceof DefaultItemPool) {
+          ((DefaultItemPool) pool).trim(clearAll);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return hit/miss/creation counters of the default pools, aggregated per content type across
+   *     all Contexts. Pools provided by {@link ContentAllocator#createRecyclingPool()} are not
+   *     included.
+   */
+  public static List<PoolStats> getPoolStats() {
+    final Map<Object, PoolStats> statsByType = new LinkedHashMap<>();
+
+    for (Map<Object, ItemPool> poolMap : sMountContentPoolsByContext.values()) {
+      for (ItemPool pool : poolMap.values()) {
+        if (!(pool instanceof DefaultItemPool)) {
+          continue;
+        }
+
+        final DefaultItemPool defaultPool = (DefaultItemPool) pool;
+        final PoolStats stats = statsByType.get(defaultPool.mLifecycle);
+        if (stats == null) {
+          statsByType.put(defaultPool.mLifecycle, defaultPool.getStats());
+        } else {
+          stats.merge(defaultPool.getStats());
+        }
+      }
+    }
+
+    return new ArrayList<>(statsByType.values());
+  }
+
+  private static void recordContentCreated(ItemPool pool) {
+    if (pool instanceof DefaultItemPool) {
+      ((DefaultItemPool) pool).onContentCreated();
+    }
+  }
+
   @GuardedBy("sMountContentLock")
   private static <T> void clearMatchingContexts(Context context, Map<Context, T> poolsMap) {
     poolsMap.remove(context);
@@ -375,6 +498,16 @@ public class MountItemsPool {
      */
     void release(Object item);
 
+    /**
+     * Called when an item which was created to fill the pool, rather than acquired from it, is
+     * added to the pool.
+     *
+     * @param item the item to add to the pool
+     */
+    default void releasePreallocated(Object item) {
+      release(item);
+    }
+
     /**
      * Called early in the lifecycle to allow the pool implementation to preallocate items in the
      * pool (as released items)
@@ -383,40 +516,238 @@ public class MountItemsPool {
      * @param renderUnit the RenderUnit for the item
      */
     void maybePreallocateContent(Context c, ContentAllocator poolableMountContent);
+
+    /**
+     * @return the number of items currently held by the pool, or -1 if the pool doesn't track it
+     */
+    default int getPooledItemCount() {
+      return -1;
+    }
+
+    /**
+     * @return whether the pool would keep one more item given to {@link #releasePreallocated}, or
+     *     false if the pool doesn't track it
+     */
+    default boolean hasFreeCapacity() {
+      return false;
+    }
   }
 
+  /**
+   * The pool used when a {@link ContentAllocator} does not provide its own. It always keeps at
+   * least the requested number of items. If {@link
+   * RenderCoreConfig#adaptiveMountContentPoolMaxSize} is set, it grows up to that cap to match the
+   * peak number of items of its type that were in use at the same time.
+   */
   static class DefaultItemPool implements ItemPool {
 
-    private final Pools.SimplePool<Object> mPool;
     private final Object mLifecycle;
+    private final int mMinSize;
+
+    @GuardedBy("this")
+    private Object[] mItems;
+
+    @GuardedBy("this")
+    private int mSize;
+
+    /** Number of items acquired from this pool which have not been released yet. */
+    @GuardedBy("this")
+    private int mInUseCount;
+
+    @GuardedBy("this")
+    private int mPeakInUseCount;
+
+    @GuardedBy("this")
+    private long mHitCount;
+
+    @GuardedBy("this")
+    private long mMissCount;
+
+    @GuardedBy("this")
+    private long mCreationCount;
 
     public DefaultItemPool(Object lifecycle, int size) {
+      if (size <= 0) {
+        throw new IllegalArgumentException("The max pool size must be > 0");
+      }
       mLifecycle = lifecycle;
-      mPool = new Pools.SimplePool<Object>(size);
+      mMinSize = size;
+      mItems = new Object[size];
     }
 
     @Override
-    public Object acquire(Context c, ContentAllocator poolableMountContent) {
-      return mPool.acquire();
+    public synchronized Object acquire(Context c, ContentAllocator poolableMountContent) {
+      mInUseCount++;
+      if (mInUseCount > mPeakInUseCount) {
+        mPeakInUseCount = mInUseCount;
+      }
+
+      if (mSize == 0) {
+        mMissCount++;
+        return null;
+      }
+
+      mHitCount++;
+      final Object item = mItems[--mSize];
+      mItems[mSize] = null;
+      return item;
+    }
+
+    @Override
+    public synchronized void release(Object item) {
+      // Guards against items which were created for this pool before it started counting them.
+      mInUseCount = Math.max(0, mInUseCount - 1);
+      addItem(item);
     }
 
     @Override
-    public void release(Object item) {
-      try {
-        mPool.release(item);
-      } catch (IllegalStateException e) {
-        String metadata =
-            "Lifecycle: "
-                + ((mLifecycle instanceof Class)
-                    ? " <cls>" + ((Class) mLifecycle).getName() + "</cls>"
-                    : mLifecycle.toString());
-        throw new IllegalStateException(metadata, e);
+    public synchronized void releasePreallocated(Object item) {
+      // The item was never acquired, so it doesn't change the number of items in use.
+      addItem(item);
+    }
+
+    @GuardedBy("this")
+    private void addItem(Object item) {
+      for (int i = 0; i < mSize; i++) {
+        if (mItems[i] == item) {
+          throw new IllegalStateException(
+              "Lifecycle: "
+                  + ((mLifecycle instanceof Class)
+                      ? " <cls>" + ((Class) mLifecycle).getName() + "</cls>"
+                      : mLifecycle.toString()),
+              new IllegalStateException("Already in the pool!"));
+        }
+      }
+
+      final int capacity = getCapacity();
+      if (mSize >= capacity) {
+        return;
       }
+
+      if (mSize == mItems.length) {
+        final Object[] items = new Object[capacity];
+        System.arraycopy(mItems, 0, items, 0, mSize);
+        mItems = items;
+      }
+
+      mItems[mSize++] = item;
     }
 
     @Override
     public void maybePreallocateContent(Context c, ContentAllocator poolableMountContent) {
       // Do Nothing.
     }
+
+    @Override
+    public synchronized int getPooledItemCount() {
+      return mSize;
+    }
+
+    @Override
+    public synchronized boolean hasFreeCapacity() {
+      return mSize < getCapacity();
+    }
+
+    synchronized void onContentCreated() {
+      mCreationCount++;
+    }
+
+    /**
+     * Drops pooled items. If clearAll is false the pool keeps its initial size, otherwise
+     * it is emptied. In both cases the observed peak demand is forgotten.
+     */
+    synchronized void trim(boolean clearAll) {
+      final int newSize = clearAll ? 0 : Math.min(mSize, mMinSize);
+      for (int i = newSize; i < mSize; i++) {
+        mItems[i] = null;
+      }
+      mSize = newSize;
+      mPeakInUseCount = mInUseCount;
+
+      if (mItems.length > mMinSize) {
+        final Object[] items = new Object[mMinSize];
+        System.arraycopy(mItems, 0, items, 0, mSize);
+        mItems = items;
+      }
+    }
+
+    synchronized PoolStats getStats() {
+      return new PoolStats(
+          mLifecycle,
+          mHitCount,
+          mMissCount,
+          mCreationCount,
+          mSize,
+          getCapacity(),
+          mPeakInUseCount);
+    }
+
+    @GuardedBy("this")
+    private int getCapacity() {
+      final int maxSize = RenderCoreConfig.adaptiveMountContentPoolMaxSize;
+      if (maxSize <= mMinSize) {
+        return mMinSize;
+      }
+
+      return Math.min(maxSize, Math.max(mMinSize, mPeakInUseCount));
+    }
+  }
+
+  /** A snapshot of the counters of the pools of one content type. */
+  public static final class PoolStats {
+
+    public final Object contentType;
+    public long hitCount;
+    public long missCount;
+    public long creationCount;
+    public int pooledCount;
+    public int capacity;
+    public int peakInUseCount;
+
+    PoolStats(
+        Object contentType,
+        long hitCount,
+        long missCount,
+        long creationCount,
+        int pooledCount,
+        int capacity,
+        int peakInUseCount) {
+      this.contentType = contentType;
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.creationCount = creationCount;
+      this.pooledCount = pooledCount;
+      this.capacity = capacity;
+      this.peakInUseCount = peakInUseCount;
+    }
+
+    void merge(PoolStats other) {
+      hitCount += other.hitCount;
+      missCount += other.missCount;
+      creationCount += other.creationCount;
+      pooledCount += other.pooledCount;
+      capacity += other.capacity;
+      peakInUseCount = Math.max(peakInUseCount, other.peakInUseCount);
+    }
+
+    @Override
+    public String toString() {
+      return "PoolStats{"
+          + "contentType="
+          + contentType
+          + ", hits="
+          + hitCount
+          + ", misses="
+          + missCount
+          + ", creations="
+          + creationCount
+          + ", pooled="
+          + pooledCount
+          + ", capacity="
+          + capacity
+          + ", peakInUse="
+          + peakInUseCount
+          + '}';
+    }
   }
 }
@@ -33,4 +33,10 @@ public class RenderCoreConfig {
    * will safely clean Hosts so they can be released back to the pool.
    */
   public static boolean shouldIgnoreMountingErrors = false;
+
+  /**
+   * If greater than the configured pool size, the default mount content pools grow up to this many
+   * items per content type to match the peak number of items of that type in use at once.
+   */
+  public static int adaptiveMountContentPoolMaxSize = 0;
 }
@@ -132,6 +132,26 @@ public class ExtensionState<State> {
     mExtension.onMountItem(this, renderUnit, content, layoutData);
   }
 
+  public void onUnmountItemForUpdate(
+      RenderUnit<?> previousRenderUnit,
+      @Nullable Object previousLayoutData,
+      RenderUnit<?> nextRenderUnit,
+      @Nullable Object nextLayoutData,
+      Object content) {
+    mExtension.onUnmountItemForUpdate(
+        this, previousRenderUnit, previousLayoutData, nextRenderUnit, nextLayoutData, content);
+  }
+
+  public void onMountItemForUpdate(
+      RenderUnit<?> previousRenderUnit,
+      @Nullable Object previousLayoutData,
+      RenderUnit<?> nextRenderUnit,
+      @Nullable Object nextLayoutData,
+      Object content) {
+    mExtension.onMountItemForUpdate(
+        this, previousRenderUnit, previousLayoutData, nextRenderUnit, nextLayoutData, content);
+  }
+
   public void onBoundsAppliedToItem(RenderUnit renderUnit, Object content, Object layoutData) {
     mExtension.onBoundsAppliedToItem(this, renderUnit, content, layoutData);
   }
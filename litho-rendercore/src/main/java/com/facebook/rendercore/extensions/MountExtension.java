@@ -115,6 +115,36 @@ public abstract class MountExtension<Input, State> {
       final Object content,
       final @Nullable Object layoutData) {}
 
+  /**
+   * Called, instead of {@link #onUnmountItem}, when an item is unmounted because {@link
+   * #shouldUpdateItem} returned true; {@link #onMountItemForUpdate} will be called once the item is
+   * updated. Extensions which can update an item in place can override both methods, by default the
+   * previous item is unmounted.
+   */
+  public void onUnmountItemForUpdate(
+      final ExtensionState<State> extensionState,
+      final RenderUnit<?> previousRenderUnit,
+      final @Nullable Object previousLayoutData,
+      final RenderUnit<?> nextRenderUnit,
+      final @Nullable Object nextLayoutData,
+      final Object content) {
+    onUnmountItem(extensionState, previousRenderUnit, content, previousLayoutData);
+  }
+
+  /**
+   * Called, instead of {@link #onMountItem}, when an item is mounted because {@link
+   * #shouldUpdateItem} returned true. By default the next item is mounted.
+   */
+  public void onMountItemForUpdate(
+      final ExtensionState<State> extensionState,
+      final RenderUnit<?> previousRenderUnit,
+      final @Nullable Object previousLayoutData,
+      final RenderUnit<?> nextRenderUnit,
+      final @Nullable Object nextLayoutData,
+      final Object content) {
+    onMountItem(extensionState, nextRenderUnit, content, nextLayoutData);
+  }
+
   public void onBoundsAppliedToItem(
       final ExtensionState<State> extensionState,
       final RenderUnit<?> renderUnit,
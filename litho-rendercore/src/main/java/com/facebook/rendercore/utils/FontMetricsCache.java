@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.rendercore.utils;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.os.Build;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.util.ObjectsCompat;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A process wide cache of the font metrics used to measure text, keyed by the exact text size, the
+ * typeface instance, the letter spacing, the text locale and the font feature settings of a {@link
+ * Paint}. It holds at most {@link #MAX_SIZE} fonts and evicts the least recently used ones first.
+ *
+ * <p>It can be used from any thread. Lookups read an immutable hash table without locking nor
+ * allocating, probing it with the values of the paint. Misses are rare, so they copy the table,
+ * with the new metrics, under a lock: metrics missed concurrently by two threads are simply
+ * computed twice.
+ *
+ * <p>The common fonts of an app can be pre-warmed at startup with {@link #prewarm(Paint)}, the hit
+ * and miss counts tell how effective the cache is.
+ */
+public final class FontMetricsCache {
+
+  /** The maximum number of fonts whose metrics are cached. */
+  public static final int MAX_SIZE = 64;
+
+  // A power of two, so that the table is at most half full.
+  private static final int TABLE_SIZE = 2 * MAX_SIZE;
+
+  private static final String CAP_MEASUREMENT_TEXT = "T";
+
+  private static volatile Entry[] sTable = new Entry[TABLE_SIZE];
+  private static final AtomicLong sClock = new AtomicLong();
+  private static final AtomicLong sHitCount = new AtomicLong();
+  private static final AtomicLong sMissCount = new AtomicLong();
+
+  private FontMetricsCache() {}
+
+  /** @return the metrics of the font the given paint draws with. */
+  public static Metrics get(Paint paint) {
+    final Entry entry = find(sTable, paint);
+    if (entry != null) {
+      sHitCount.incrementAndGet();
+      entry.mLastUsed = sClock.incrementAndGet();
+      return entry.mMetrics;
+    }
+
+    sMissCount.incrementAndGet();
+    final Metrics metrics = Metrics.measure(paint);
+    put(paint, metrics);
+    return metrics;
+  }
+
+  /**
+   * Computes and caches the metrics of the font the given paint draws with, if they aren't cached
+   * yet. Lookups made by pre-warming are not counted as hits or misses.
+   */
+  public static void prewarm(Paint paint) {
+    if (find(sTable, paint) == null) {
+      put(paint, Metrics.measure(paint));
+    }
+  }
+
+  public static long getHitCount() {
+    return sHitCount.get();
+  }
+
+  public static long getMissCount() {
+    return sMissCount.get();
+  }
+
+  /** @return the number of fonts whose metrics are cached. */
+  public static int size() {
+    int size = 0;
+    for (Entry entry : sTable) {
+      if (entry != null) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  @VisibleForTesting
+  public static synchronized void clear() {
+    sTable = new Entry[TABLE_SIZE];
+    sHitCount.set(0);
+    sMissCount.set(0);
+  }
+
+  private static @Nullable Entry find(Entry[] table, Paint paint) {
+    final float textSize = paint.getTextSize();
+    final Typeface typeface = paint.getTypeface();
+    final float letterSpacing = getLetterSpacing(paint);
+    final @Nullable Locale locale = getTextLocale(paint);
+    final @Nullable String fontFeatureSettings = getFontFeatureSettings(paint);
+    final int hash = hash(textSize, typeface, letterSpacing, locale, fontFeatureSettings);
+
+    for (int i = hash & (TABLE_SIZE - 1); ; i = (i + 1) & (TABLE_SIZE - 1)) {
+      final Entry entry = table[i];
+      if (entry == null) {
+        return null;
+      }
+      if (entry.mHash == hash
+          && entry.matches(textSize, typeface, letterSpacing, locale, fontFeatureSettings)) {
+        return entry;
+      }
+    }
+  }
+
+  /**
+   * Publishes a copy of the table with the given metrics, evicting the least recently used entry
+   * if the table is full.
+   */
+  private static synchronized void put(Paint paint, Metrics metrics) {
+    final Entry[] table = sTable;
+    if (find(table, paint) != null) {
+      return;
+    }
+
+    Entry leastRecentlyUsed = null;
+    int size = 0;
+    for (Entry entry : table) {
+      if (entry != null) {
+        size++;
+        if (leastRecentlyUsed == null || entry.mLastUsed < leastRecentlyUsed.mLastUsed) {
+          leastRecentlyUsed = entry;
+        }
+      }
+    }
+
+    final Entry[] newTable = new Entry[TABLE_SIZE];
+    for (Entry entry : table) {
+      if (entry != null && (size < MAX_SIZE || entry != leastRecentlyUsed)) {
+        insert(newTable, entry);
+      }
+    }
+    insert(newTable, new Entry(paint, metrics, sClock.incrementAndGet()));
+
+    sTable = newTable;
+  }
+
+  private static void insert(Entry[] table, Entry entry) {
+    int i = entry.mHash & (TABLE_SIZE - 1);
+    while (table[i] != null) {
+      i = (i + 1) & (TABLE_SIZE - 1);
+    }
+    table[i] = entry;
+  }
+
+  private static int hash(
+      float textSize,
+      @Nullable Typeface typeface,
+      float letterSpacing,
+      @Nullable Locale locale,
+      @Nullable String fontFeatureSettings) {
+    int result = Float.floatToIntBits(textSize);
+    // Typefaces are compared by identity, the framework caches and reuses their instances.
+    result = 31 * result + System.identityHashCode(typeface);
+    result = 31 * result + Float.floatToIntBits(letterSpacing);
+    result = 31 * result + ObjectsCompat.hashCode(locale);
+    result = 31 * result + ObjectsCompat.hashCode(fontFeatureSettings);
+    // Spreads the high bits, since the table index only uses the low ones.
+    return result ^ (result >>> 16);
+  }
+
+  private static float getLetterSpacing(Paint paint) {
+    return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ? paint.getLetterSpacing() : 0;
+  }
+
+  private static @Nullable Locale getTextLocale(Paint paint) {
+    return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1
+        ? paint.getTextLocale()
+        : null;
+  }
+
+  private static @Nullable String getFontFeatureSettings(Paint paint) {
+    return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
+        ? paint.getFontFeatureSettings()
+        : null;
+  }
+
+  /** The metrics of a font, see {@link Paint.FontMetricsInt}. */
+  public static final class Metrics {
+
+    /** The distance between the top of the font's ascent and the top of a capital letter. */
+    public final int capHeightOffset;
+
+    /** The recommended distance below the baseline, see {@link Paint.FontMetricsInt#descent}. */
+    public final int descent;
+
+    /** The recommended line spacing, see {@link Paint#getFontMetricsInt(Paint.FontMetricsInt)}. */
+    public final int lineSpacing;
+
+    private Metrics(int capHeightOffset, int descent, int lineSpacing) {
+      this.capHeightOffset = capHeightOffset;
+      this.descent = descent;
+      this.lineSpacing = lineSpacing;
+    }
+
+    private static Metrics measure(Paint paint) {
+      final Paint.FontMetricsInt fontMetricsInt = new Paint.FontMetricsInt();
+      final int lineSpacing = paint.getFontMetricsInt(fontMetricsInt);
+      final Rect rect = new Rect();
+      paint.getTextBounds(CAP_MEASUREMENT_TEXT, 0, CAP_MEASUREMENT_TEXT.length(), rect);
+
+      return new Metrics(
+          -fontMetricsInt.ascent - rect.height(), fontMetricsInt.descent, lineSpacing);
+    }
+  }
+
+  /** The metrics of a font and the values of the paint they were measured with. */
+  private static final class Entry {
+
+    private final int mHash;
+    private final int mTextSizeBits;
+    private final @Nullable Typeface mTypeface;
+    private final int mLetterSpacingBits;
+    private final @Nullable Locale mLocale;
+    private final @Nullable String mFontFeatureSettings;
+    private final Metrics mMetrics;
+    private volatile long mLastUsed;
+
+    private Entry(Paint paint, Metrics metrics, long lastUsed) {
+      final float textSize = paint.getTextSize();
+      final float letterSpacing = getLetterSpacing(paint);
+      mTypeface = paint.getTypeface();
+      mLocale = getTextLocale(paint);
+      mFontFeatureSettings = getFontFeatureSettings(paint);
+      mHash = hash(textSize, mTypeface, letterSpacing, mLocale, mFontFeatureSettings);
+      mTextSizeBits = Float.floatToIntBits(textSize);
+      mLetterSpacingBits = Float.floatToIntBits(letterSpacing);
+      mMetrics = metrics;
+      mLastUsed = lastUsed;
+    }
+
+    private boolean matches(
+        float textSize,
+        @Nullable Typeface typeface,
+        float letterSpacing,
+        @Nullable Locale locale,
+        @Nullable String fontFeatureSettings) {
+      return mTextSizeBits == Float.floatToIntBits(textSize)
+          && mTypeface == typeface
+          && mLetterSpacingBits == Float.floatToIntBits(letterSpacing)
+          && ObjectsCompat.equals(mLocale, locale)
+          && ObjectsCompat.equals(mFontFeatureSettings, fontFeatureSettings);
+    }
+  }
+}
@@ -1775,10 +1775,13 @@ public class SectionTree {
     if (isTracing) {
       RenderCoreSystrace.beginSection("ChangeSetState.generateChangeSet");
     }
+    final long changeSetStartTime = LithoStats.getPhaseStartTime();
     try {
       return ChangeSetState.generateChangeSet(
           context, currentRoot, nextRoot, sectionsDebugLogger, sectionTreeTag, "", "", enableStats);
     } finally {
+      LithoStats.recordPhaseLatency(
+          LithoStats.PHASE_CHANGESET_GENERATION, nextRoot.getSimpleName(), changeSetStartTime);
       if (isTracing) {
         RenderCoreSystrace.endSection();
       }
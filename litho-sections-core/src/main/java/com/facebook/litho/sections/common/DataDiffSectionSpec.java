@@ -39,6 +39,7 @@ import com.facebook.litho.sections.SectionContext;
 import com.facebook.litho.sections.annotations.DiffSectionSpec;
 import com.facebook.litho.sections.annotations.OnDiff;
 import com.facebook.litho.sections.annotations.OnVerifyChangeSet;
+import com.facebook.litho.stats.LithoStats;
 import com.facebook.litho.widget.ComponentRenderInfo;
 import com.facebook.litho.widget.RecyclerBinderUpdateCallback;
 import com.facebook.litho.widget.RecyclerBinderUpdateCallback.ComponentContainer;
@@ -150,8 +151,10 @@ public class DataDiffSectionSpec<T> {
     if (isTracing) {
       RenderCoreSystrace.beginSection("DiffUtil.calculateDiff");
     }
+    final long dataDiffStartTime = LithoStats.getPhaseStartTime();
     final DiffUtil.DiffResult result =
         DiffUtil.calculateDiff(callback, isDetectMovesEnabled(detectMoves));
+    LithoStats.recordPhaseLatency(LithoStats.PHASE_DATA_DIFF, null, dataDiffStartTime);
     if (isTracing) {
       RenderCoreSystrace.endSection();
     }
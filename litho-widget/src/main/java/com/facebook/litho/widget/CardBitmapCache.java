@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.facebook.litho.widget;
+
+import android.graphics.Bitmap;
+import androidx.annotation.Nullable;
+import androidx.collection.LruCache;
+import java.util.Arrays;
+
+/**
+ * A process-wide cache of the bitmaps pre-rendered by {@link CardShadowDrawable} and {@link
+ * CardClipDrawable}, so that cards with the same corner radius, shadow sizes and colours share one
+ * bitmap instead of each building its own paths and shaders. The cache is bounded by the number of
+ * bytes of the bitmaps it holds and evicts the least recently used ones first.
+ *
+ * <p>Bitmaps are never recycled on eviction since drawables may still be drawing them.
+ */
+public final class CardBitmapCache {
+
+  static final int DEFAULT_MAX_SIZE_BYTES = 1024 * 1024;
+
+  private static final LruCache<Key, Bitmap> sCache =
+      new LruCache<Key, Bitmap>(DEFAULT_MAX_SIZE_BYTES) {
+        @Override
+        protected int sizeOf(Key key, Bitmap value) {
+          return value.getByteCount();
+        }
+      };
+
+  private static int sHitCount;
+  private static int sMissCount;
+
+  private CardBitmapCache() {}
+
+  /** @return the bitmap cached for the given key, or null if there's none. */
+  @Nullable
+  static synchronized Bitmap get(Key key) {
+    final Bitmap bitmap = sCache.get(key);
+    if (bitmap != null) {
+      sHitCount++;
+    } else {
+      sMissCount++;
+    }
+
+    return bitmap;
+  }
+
+  static synchronized void put(Key key, Bitmap bitmap) {
+    sCache.put(key, bitmap);
+  }
+
+  /** @return the number of lookups which found a cached bitmap. */
+  public static synchronized int getHitCount() {
+    return sHitCount;
+  }
+
+  /** @return the number of lookups which had to render a new bitmap. */
+  public static synchronized int getMissCount() {
+    return sMissCount;
+  }
+
+  /** @return the number of bytes of the bitmaps currently held by the cache. */
+  public static synchronized int getSizeBytes() {
+    return sCache.size();
+  }
+
+  /** Changes the maximum number of bytes of bitmaps the cache holds, evicting if necessary. */
+  public static synchronized void setMaxSizeBytes(int maxSizeBytes) {
+    sCache.resize(maxSizeBytes);
+  }
+
+  /** Evicts all the bitmaps and resets the hit and miss counters. */
+  public static synchronized void clear() {
+    sCache.evictAll();
+    sHitCount = 0;
+    sMissCount = 0;
+  }
+
+  /**
+   * Identifies a pre-rendered bitmap by the type of drawable which rendered it and the values it
+   * was rendered from, i.e. sizes in pixels, as given by {@link Float#floatToIntBits(float)}, and
+   * colours.
+   */
+  static final class Key {
+
+    static final int TYPE_SHADOW = 0;
+    static final int TYPE_CLIP_CORNER = 1;
+
+    private final int mType;
+    private final int[] mValues;
+    private final int mHashCode;
+
+    Key(int type, int... values) {
+      mType = type;
+      mValues = values;
+      mHashCode = 31 * type + Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+
+      final Key other = (Key) o;
+      return mType == other.mType && Arrays.equals(mValues, other.mValues);
+    }
+
+    @Override
+    public int hashCode() {
+      return mHashCode;
+    }
+  }
+}
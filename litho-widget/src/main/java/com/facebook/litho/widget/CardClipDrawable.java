@@ -16,6 +16,7 @@
 
 package com.facebook.litho.widget;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.ColorFilter;
 import android.graphics.Paint;
@@ -24,6 +25,8 @@ import android.graphics.PixelFormat;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.drawable.Drawable;
+import androidx.annotation.Nullable;
+import com.facebook.litho.config.ComponentsConfiguration;
 
 public class CardClipDrawable extends Drawable {
 
@@ -35,6 +38,8 @@ public class CardClipDrawable extends Drawable {
 
   private final Paint mCornerPaint;
   private final Path mCornerPath = new Path();
+  private final Paint mBitmapPaint;
+  private @Nullable Bitmap mCornerBitmap;
 
   private int mDisableClipCorners = NONE;
 
@@ -43,16 +48,20 @@ public class CardClipDrawable extends Drawable {
 
   public CardClipDrawable() {
     mCornerPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+    mBitmapPaint = new Paint(Paint.DITHER_FLAG);
   }
 
   @Override
   public void setAlpha(int alpha) {
     mCornerPaint.setAlpha(alpha);
+    // The alpha is part of the color the corner bitmap is rendered with.
+    mDirty = true;
   }
 
   @Override
   public void setColorFilter(ColorFilter cf) {
     mCornerPaint.setColorFilter(cf);
+    mBitmapPaint.setColorFilter(cf);
   }
 
   @Override
@@ -72,7 +81,10 @@ public class CardClipDrawable extends Drawable {
   @Override
   public void draw(Canvas canvas) {
     if (mDirty) {
-      buildClippingCorners();
+      mCornerBitmap = ComponentsConfiguration.useCardBitmapCache ? obtainCornerBitmap() : null;
+      if (mCornerBitmap == null) {
+        buildClippingCorners();
+      }
       mDirty = false;
     }
 
@@ -81,7 +93,7 @@ public class CardClipDrawable extends Drawable {
     if ((mDisableClipCorners & TOP_LEFT) == 0) {
       int saved = canvas.save();
       canvas.translate(bounds.left, bounds.top);
-      canvas.drawPath(mCornerPath, mCornerPaint);
+      drawCorner(canvas);
       canvas.restoreToCount(saved);
     }
 
@@ -89,7 +101,7 @@ public class CardClipDrawable extends Drawable {
       int saved = canvas.save();
       canvas.translate(bounds.right, bounds.bottom);
       canvas.rotate(180f);
-      canvas.drawPath(mCornerPath, mCornerPaint);
+      drawCorner(canvas);
       canvas.restoreToCount(saved);
     }
 
@@ -97,7 +109,7 @@ public class CardClipDrawable extends Drawable {
       int saved = canvas.save();
       canvas.translate(bounds.left, bounds.bottom);
       canvas.rotate(270f);
-      canvas.drawPath(mCornerPath, mCornerPaint);
+      drawCorner(canvas);
       canvas.restoreToCount(saved);
     }
 
@@ -105,7 +117,7 @@ public class CardClipDrawable extends Drawable {
       int saved = canvas.save();
       canvas.translate(bounds.right, bounds.top);
       canvas.rotate(90f);
-      canvas.drawPath(mCornerPath, mCornerPaint);
+      drawCorner(canvas);
       canvas.restoreToCount(saved);
     }
   }
@@ -131,6 +143,46 @@ public class CardClipDrawable extends Drawable {
     invalidateSelf();
   }
 
+  private void drawCorner(Canvas canvas) {
+    if (mCornerBitmap != null) {
+      canvas.drawBitmap(mCornerBitmap, 0, 0, mBitmapPaint);
+    } else {
+      canvas.drawPath(mCornerPath, mCornerPaint);
+    }
+  }
+
+  /**
+   * Gets the bitmap of a corner for the current radius and clipping color from the {@link
+   * CardBitmapCache}, rendering and caching it if there's none.
+   */
+  private @Nullable Bitmap obtainCornerBitmap() {
+    if (mCornerRadius <= 0) {
+      return null;
+    }
+
+    // Rounded up so that a fractional radius still fits in the bitmap.
+    final int cornerRadius = (int) Math.ceil(mCornerRadius);
+    final int color = mCornerPaint.getColor();
+    final CardBitmapCache.Key key =
+        new CardBitmapCache.Key(
+            CardBitmapCache.Key.TYPE_CLIP_CORNER, Float.floatToIntBits(mCornerRadius), color);
+
+    Bitmap bitmap = CardBitmapCache.get(key);
+    if (bitmap == null) {
+      bitmap = Bitmap.createBitmap(cornerRadius, cornerRadius, Bitmap.Config.ARGB_8888);
+
+      // Rendered without color filter, since the bitmap is shared.
+      final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+      paint.setColor(color);
+      buildClippingCorners();
+      new Canvas(bitmap).drawPath(mCornerPath, paint);
+
+      CardBitmapCache.put(key, bitmap);
+    }
+
+    return bitmap;
+  }
+
   private void buildClippingCorners() {
     mCornerPath.reset();
 
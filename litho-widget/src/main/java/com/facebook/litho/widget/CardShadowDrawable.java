@@ -16,6 +16,7 @@
 
 package com.facebook.litho.widget;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.ColorFilter;
 import android.graphics.LinearGradient;
@@ -27,6 +28,8 @@ import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Shader;
 import android.graphics.drawable.Drawable;
+import androidx.annotation.Nullable;
+import com.facebook.litho.config.ComponentsConfiguration;
 
 public class CardShadowDrawable extends Drawable {
 
@@ -45,6 +48,10 @@ public class CardShadowDrawable extends Drawable {
   private final Paint mCornerShadowLeftPaint;
   private final Paint mCornerShadowRightPaint;
 
+  private final Paint mBitmapPaint;
+  private final Rect mBitmapSrc = new Rect();
+  private final Rect mBitmapDst = new Rect();
+
   private float mCornerRadius;
   private float mShadowSize;
   private float mShadowLeftSizeOverride = UNDEFINED;
@@ -56,6 +63,13 @@ public class CardShadowDrawable extends Drawable {
   private boolean mHideBottomShadow;
 
   private boolean mDirty = true;
+  private boolean mPathsDirty = true;
+
+  private @Nullable Bitmap mShadowBitmap;
+  private int mBitmapCornerLeft;
+  private int mBitmapCornerTop;
+  private int mBitmapCornerRight;
+  private int mBitmapCornerBottom;
 
   public CardShadowDrawable() {
     mCornerShadowLeftPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
@@ -66,6 +80,10 @@ public class CardShadowDrawable extends Drawable {
 
     mEdgeShadowPaint = new Paint(mCornerShadowLeftPaint);
     mEdgeShadowPaint.setAntiAlias(false);
+
+    // Not filtered, so that stretching the 1px wide edges of the bitmap doesn't blend them with the
+    // corners.
+    mBitmapPaint = new Paint(Paint.DITHER_FLAG);
   }
 
   @Override
@@ -73,6 +91,7 @@ public class CardShadowDrawable extends Drawable {
     mCornerShadowLeftPaint.setAlpha(alpha);
     mCornerShadowRightPaint.setAlpha(alpha);
     mEdgeShadowPaint.setAlpha(alpha);
+    mBitmapPaint.setAlpha(alpha);
   }
 
   /**
@@ -172,6 +191,7 @@ public class CardShadowDrawable extends Drawable {
     mCornerShadowLeftPaint.setColorFilter(cf);
     mCornerShadowRightPaint.setColorFilter(cf);
     mEdgeShadowPaint.setColorFilter(cf);
+    mBitmapPaint.setColorFilter(cf);
   }
 
   @Override
@@ -182,14 +202,27 @@ public class CardShadowDrawable extends Drawable {
   @Override
   public void draw(Canvas canvas) {
     if (mDirty) {
-      buildShadow();
+      mShadowBitmap = ComponentsConfiguration.useCardBitmapCache ? obtainShadowBitmap() : null;
+      mPathsDirty = true;
       mDirty = false;
     }
 
     final Rect bounds = getBounds();
 
-    drawShadowCorners(canvas, bounds);
-    drawShadowEdges(canvas, bounds);
+    if (mShadowBitmap != null
+        && bounds.width() >= mBitmapCornerLeft + mBitmapCornerRight
+        && bounds.height() >= mBitmapCornerTop + mBitmapCornerBottom) {
+      drawShadowBitmap(canvas, bounds, mShadowBitmap);
+      return;
+    }
+
+    if (mPathsDirty) {
+      buildShadow();
+      mPathsDirty = false;
+    }
+
+    drawShadowCorners(canvas, bounds, mHideTopShadow, mHideBottomShadow);
+    drawShadowEdges(canvas, bounds, mHideTopShadow, mHideBottomShadow);
   }
 
   public void setShadowStartColor(int shadowStartColor) {
@@ -273,11 +306,25 @@ public class CardShadowDrawable extends Drawable {
   }
 
   public void setShadowLeftSizeOverride(float shadowLeftSize) {
+    if (mShadowLeftSizeOverride == shadowLeftSize) {
+      return;
+    }
+
     mShadowLeftSizeOverride = shadowLeftSize;
+
+    mDirty = true;
+    invalidateSelf();
   }
 
   public void setShadowRightSizeOverride(float shadowRightSizeOverride) {
+    if (mShadowRightSizeOverride == shadowRightSizeOverride) {
+      return;
+    }
+
     mShadowRightSizeOverride = shadowRightSizeOverride;
+
+    mDirty = true;
+    invalidateSelf();
   }
 
   private static void setPath(Path path, int shadowX, int shadowY, float cornerRadius) {
@@ -356,9 +403,154 @@ public class CardShadowDrawable extends Drawable {
     mEdgeShadowPaint.setAntiAlias(false);
   }
 
-  private void drawShadowCorners(Canvas canvas, Rect bounds) {
+  /**
+   * Gets the shadow bitmap for the current corner radius, shadow sizes and colours from the {@link
+   * CardBitmapCache}, rendering and caching it if there's none. The bitmap holds the four corners
+   * separated by a 1px wide column and row holding the edges, which are stretched when drawing.
+   */
+  private @Nullable Bitmap obtainShadowBitmap() {
+    final float shadowLeftSide =
+        mShadowLeftSizeOverride == UNDEFINED ? mShadowSize : mShadowLeftSizeOverride;
+    final float shadowRightSide =
+        mShadowRightSizeOverride == UNDEFINED ? mShadowSize : mShadowRightSizeOverride;
+    final float shadowDx = mShadowDx == UNDEFINED ? 0 : mShadowDx;
+    final float shadowDy = mShadowDy == UNDEFINED ? getDefaultShadowDy(mShadowSize) : mShadowDy;
+
+    final int shadowLeft = getShadowLeft(shadowLeftSide, shadowDx);
+    final int shadowRight = getShadowRight(shadowRightSide, shadowDx);
+    final int shadowTop = getShadowTop(mShadowSize, shadowDy);
+    final int shadowBottom = getShadowBottom(mShadowSize, shadowDy);
+
+    // The corners are rounded up so that a fractional radius still fits in the bitmap.
+    final int cornerRadius = (int) Math.ceil(mCornerRadius);
+    mBitmapCornerLeft = shadowLeft + cornerRadius;
+    mBitmapCornerTop = shadowTop + cornerRadius;
+    mBitmapCornerRight = shadowRight + cornerRadius;
+    mBitmapCornerBottom = shadowBottom + cornerRadius;
+
+    if (mBitmapCornerLeft < 0
+        || mBitmapCornerTop < 0
+        || mBitmapCornerRight < 0
+        || mBitmapCornerBottom < 0) {
+      return null;
+    }
+
+    final CardBitmapCache.Key key =
+        new CardBitmapCache.Key(
+            CardBitmapCache.Key.TYPE_SHADOW,
+            Float.floatToIntBits(mCornerRadius),
+            Float.floatToIntBits(mShadowSize),
+            Float.floatToIntBits(shadowLeftSide),
+            Float.floatToIntBits(shadowRightSide),
+            Float.floatToIntBits(shadowDx),
+            Float.floatToIntBits(shadowDy),
+            mShadowStartColor,
+            mShadowEndColor);
+
+    Bitmap bitmap = CardBitmapCache.get(key);
+    if (bitmap == null) {
+      bitmap =
+          Bitmap.createBitmap(
+              mBitmapCornerLeft + 1 + mBitmapCornerRight,
+              mBitmapCornerTop + 1 + mBitmapCornerBottom,
+              Bitmap.Config.ARGB_8888);
+
+      // Rendered by a drawable without alpha or color filter, since the bitmap is shared.
+      final CardShadowDrawable renderer = new CardShadowDrawable();
+      renderer.mShadowStartColor = mShadowStartColor;
+      renderer.mShadowEndColor = mShadowEndColor;
+      renderer.mCornerRadius = mCornerRadius;
+      renderer.mShadowSize = mShadowSize;
+      renderer.mShadowLeftSizeOverride = mShadowLeftSizeOverride;
+      renderer.mShadowRightSizeOverride = mShadowRightSizeOverride;
+      renderer.mShadowDx = mShadowDx;
+      renderer.mShadowDy = mShadowDy;
+      renderer.buildShadow();
+
+      final Canvas canvas = new Canvas(bitmap);
+      final Rect bounds = new Rect(0, 0, bitmap.getWidth(), bitmap.getHeight());
+      renderer.drawShadowCorners(canvas, bounds, false, false);
+      renderer.drawShadowEdges(canvas, bounds, false, false);
+
+      CardBitmapCache.put(key, bitmap);
+    }
+
+    return bitmap;
+  }
+
+  private void drawShadowBitmap(Canvas canvas, Rect bounds, Bitmap bitmap) {
+    final int srcMiddleLeft = mBitmapCornerLeft;
+    final int srcMiddleTop = mBitmapCornerTop;
+    final int dstMiddleLeft = bounds.left + mBitmapCornerLeft;
+    final int dstMiddleRight = bounds.right - mBitmapCornerRight;
+    final int dstMiddleTop = bounds.top + (mHideTopShadow ? 0 : mBitmapCornerTop);
+    final int dstMiddleBottom = bounds.bottom - (mHideBottomShadow ? 0 : mBitmapCornerBottom);
+
+    // The top, middle and bottom rows of the bitmap, each drawn as left, middle and right columns.
+    for (int row = 0; row < 3; row++) {
+      if ((row == 0 && mHideTopShadow) || (row == 2 && mHideBottomShadow)) {
+        continue;
+      }
+
+      switch (row) {
+        case 0:
+          mBitmapSrc.top = 0;
+          mBitmapSrc.bottom = srcMiddleTop;
+          mBitmapDst.top = bounds.top;
+          mBitmapDst.bottom = bounds.top + mBitmapCornerTop;
+          break;
+        case 1:
+          mBitmapSrc.top = srcMiddleTop;
+          mBitmapSrc.bottom = srcMiddleTop + 1;
+          mBitmapDst.top = dstMiddleTop;
+          mBitmapDst.bottom = dstMiddleBottom;
+          break;
+        default:
+          mBitmapSrc.top = srcMiddleTop + 1;
+          mBitmapSrc.bottom = bitmap.getHeight();
+          mBitmapDst.top = bounds.bottom - mBitmapCornerBottom;
+          mBitmapDst.bottom = bounds.bottom;
+          break;
+      }
+
+      for (int column = 0; column < 3; column++) {
+        // There's no shadow behind the content.
+        if (row == 1 && column == 1) {
+          continue;
+        }
+
+        switch (column) {
+          case 0:
+            mBitmapSrc.left = 0;
+            mBitmapSrc.right = srcMiddleLeft;
+            mBitmapDst.left = bounds.left;
+            mBitmapDst.right = dstMiddleLeft;
+            break;
+          case 1:
+            mBitmapSrc.left = srcMiddleLeft;
+            mBitmapSrc.right = srcMiddleLeft + 1;
+            mBitmapDst.left = dstMiddleLeft;
+            mBitmapDst.right = dstMiddleRight;
+            break;
+          default:
+            mBitmapSrc.left = srcMiddleLeft + 1;
+            mBitmapSrc.right = bitmap.getWidth();
+            mBitmapDst.left = dstMiddleRight;
+            mBitmapDst.right = bounds.right;
+            break;
+        }
+
+        if (!mBitmapDst.isEmpty() && !mBitmapSrc.isEmpty()) {
+          canvas.drawBitmap(bitmap, mBitmapSrc, mBitmapDst, mBitmapPaint);
+        }
+      }
+    }
+  }
+
+  private void drawShadowCorners(
+      Canvas canvas, Rect bounds, boolean hideTopShadow, boolean hideBottomShadow) {
     int saved = canvas.save();
-    if (!mHideTopShadow) {
+    if (!hideTopShadow) {
       // left-top
       canvas.translate(bounds.left, bounds.top);
       canvas.drawPath(mCornerShadowTopLeftPath, mCornerShadowLeftPaint);
@@ -372,7 +564,7 @@ public class CardShadowDrawable extends Drawable {
       canvas.restoreToCount(saved);
     }
 
-    if (!mHideBottomShadow) {
+    if (!hideBottomShadow) {
       // right-bottom
       saved = canvas.save();
       canvas.translate(bounds.right, bounds.bottom);
@@ -389,7 +581,8 @@ public class CardShadowDrawable extends Drawable {
     }
   }
 
-  private void drawShadowEdges(Canvas canvas, Rect bounds) {
+  private void drawShadowEdges(
+      Canvas canvas, Rect bounds, boolean hideTopShadow, boolean hideBottomShadow) {
 
     final float shadowDx = mShadowDx == UNDEFINED ? 0 : mShadowDx;
     final float shadowDy = mShadowDy == UNDEFINED ? getDefaultShadowDy(mShadowSize) : mShadowDy;
@@ -406,7 +599,7 @@ public class CardShadowDrawable extends Drawable {
 
     int saved = canvas.save();
 
-    if (!mHideTopShadow) {
+    if (!hideTopShadow) {
       // top
       canvas.translate(bounds.left, bounds.top);
       canvas.drawRect(
@@ -418,7 +611,7 @@ public class CardShadowDrawable extends Drawable {
       canvas.restoreToCount(saved);
     }
 
-    if (!mHideBottomShadow) {
+    if (!hideBottomShadow) {
       // bottom
       saved = canvas.save();
       canvas.translate(bounds.right, bounds.bottom);
@@ -437,9 +630,9 @@ public class CardShadowDrawable extends Drawable {
     canvas.translate(bounds.left, bounds.bottom);
     canvas.rotate(270f);
     canvas.drawRect(
-        mHideBottomShadow ? 0 : (paddingBottom + mCornerRadius),
+        hideBottomShadow ? 0 : (paddingBottom + mCornerRadius),
         0,
-        bounds.height() - (mHideTopShadow ? 0 : mCornerRadius + paddingTop),
+        bounds.height() - (hideTopShadow ? 0 : mCornerRadius + paddingTop),
         paddingLeft,
         mEdgeShadowPaint);
     canvas.restoreToCount(saved);
@@ -449,9 +642,9 @@ public class CardShadowDrawable extends Drawable {
     canvas.translate(bounds.right, bounds.top);
     canvas.rotate(90f);
     canvas.drawRect(
-        mHideTopShadow ? 0 : (paddingTop + mCornerRadius),
+        hideTopShadow ? 0 : (paddingTop + mCornerRadius),
         0,
-        bounds.height() - (mHideBottomShadow ? 0 : mCornerRadius + paddingBottom),
+        bounds.height() - (hideBottomShadow ? 0 : mCornerRadius + paddingBottom),
         paddingRight,
         mEdgeShadowPaint);
     canvas.restoreToCount(saved);
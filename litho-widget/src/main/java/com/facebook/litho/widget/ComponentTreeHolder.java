@@ -353,6 +353,16 @@ public class ComponentTreeHolder {
     }
   }
 
+  /**
+   * Cancels the async layout calculation which was scheduled for this tree but didn't start yet.
+   * The tree is invalidated if one was cancelled, so that it gets computed again when needed.
+   */
+  public synchronized void cancelPendingAsyncLayout() {
+    if (mComponentTree != null && mComponentTree.cancelPendingAsyncLayout()) {
+      mIsTreeValid = false;
+    }
+  }
+
   public synchronized void addMeasureListener(@Nullable MeasureListener measureListener) {
     if (mComponentTree != null) {
       mComponentTree.addMeasureListener(measureListener);
@@ -373,10 +383,34 @@ public class ComponentTreeHolder {
     return mIsTreeValid;
   }
 
+  /**
+   * @return whether the tree has a layout that can be used as is for the given size specs: either
+   *     it was requested with the same specs, or its committed layout has a measured size which is
+   *     still valid for them (e.g. an AT_MOST layout narrower than a new, smaller AT_MOST bound).
+   *     This is only a query: the reuse is counted by the {@link ComponentTree} when it actually
+   *     skips the layout.
+   */
   public synchronized boolean isTreeValidForSizeSpecs(int widthSpec, int heightSpec) {
-    return isTreeValid()
-        && mLastRequestedWidthSpec == widthSpec
-        && mLastRequestedHeightSpec == heightSpec;
+    if (!isTreeValid()) {
+      return false;
+    }
+
+    if (hasRequestedSizeSpecs(widthSpec, heightSpec)) {
+      return true;
+    }
+
+    return mComponentTree != null
+        && mComponentTree.hasCompatibleLayoutForCurrentRoot(widthSpec, heightSpec);
+  }
+
+  /** @return whether the tree is valid and its layout was requested with exactly these specs. */
+  public synchronized boolean isTreeValidForExactSizeSpecs(int widthSpec, int heightSpec) {
+    return isTreeValid() && hasRequestedSizeSpecs(widthSpec, heightSpec);
+  }
+
+  @GuardedBy("this")
+  private boolean hasRequestedSizeSpecs(int widthSpec, int heightSpec) {
+    return mLastRequestedWidthSpec == widthSpec && mLastRequestedHeightSpec == heightSpec;
   }
 
   public synchronized @Nullable ComponentTree getComponentTree() {
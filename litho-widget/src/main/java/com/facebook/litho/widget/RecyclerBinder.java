@@ -39,6 +39,7 @@ import androidx.annotation.AnyThread;
 import androidx.annotation.IntDef;
 import androidx.annotation.UiThread;
 import androidx.annotation.VisibleForTesting;
+import androidx.core.util.ObjectsCompat;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -63,6 +64,7 @@ import com.facebook.litho.LithoView;
 import com.facebook.litho.LithoView.LayoutManagerOverrideParams;
 import com.facebook.litho.LogTreePopulator;
 import com.facebook.litho.MeasureComparisonUtils;
+import com.facebook.litho.MountContentPreallocator;
 import com.facebook.litho.MountHelper;
 import com.facebook.litho.PerfEvent;
 import com.facebook.litho.RenderCompleteEvent;
@@ -87,9 +89,13 @@ import java.lang.reflect.Field;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
@@ -124,12 +130,20 @@ public class RecyclerBinder
   @GuardedBy("this")
   private final List<ComponentTreeHolder> mAsyncComponentTreeHolders = new ArrayList<>();
 
+  /**
+   * The position of the first inserted holder by the {@link #ID_CUSTOM_ATTR_KEY} attribute of its
+   * RenderInfo. Changes which shift other items shift the positions after them.
+   */
+  @GuardedBy("this")
+  private final Map<Object, IdPosition> mPositionsById = new HashMap<>();
+
   private volatile LayoutInfo mLayoutInfo;
   private final RecyclerView.Adapter mInternalAdapter;
   private final ComponentContext mComponentContext;
   @Nullable private final LayoutHandlerFactory mLayoutHandlerFactory;
   private final @Nullable LithoViewFactory mLithoViewFactory;
   private final ComponentTreeHolderFactory mComponentTreeHolderFactory;
+  private final NanoClock mNanoClock;
   private final Handler mMainThreadHandler = new Handler(Looper.getMainLooper());
   private final float mRangeRatio;
   private final AtomicBoolean mIsMeasured = new AtomicBoolean(false);
@@ -206,13 +220,36 @@ public class RecyclerBinder
   private @Nullable ComponentWarmer mComponentWarmer;
   private final RunnableHandler mPreallocateMountContentHandler;
   private final boolean mPreallocatePerMountSpec;
+  private final @Nullable MountContentPreallocator mMountContentPreallocator;
+  private final AtomicBoolean mIsMountContentPredictionScheduled = new AtomicBoolean(false);
+
+  @GuardedBy("this")
+  private int mPredictedRangeStart;
+
+  @GuardedBy("this")
+  private int mPredictedRangeEnd = -1;
+
+  private final Runnable mPredictMountContentDemandRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          mIsMountContentPredictionScheduled.set(false);
+          predictMountContentDemand();
+        }
+      };
+  private final int mSpeculativeViewportFillCount;
 
   private MeasureListener getMeasureListener(final ComponentTreeHolder holder) {
     return new MeasureListener() {
       @Override
       public void onSetRootAndSizeSpec(
           int layoutVersion, int width, int height, boolean stateUpdate) {
-        if (holder.getMeasuredHeight() == height) {
+        if (mMountContentPreallocator != null) {
+          // The mount content of the items in range is predicted again once their layouts commit.
+          requestMountContentPrediction();
+        }
+
+        if (!mHasDynamicItemHeight || holder.getMeasuredHeight() == height) {
           return;
         }
 
@@ -387,6 +424,19 @@ public class RecyclerBinder
         @Nullable ErrorEventHandler errorEventHandler);
   }
 
+  /** The clock the time spent applying async batches is measured with. */
+  interface NanoClock {
+    long nanoTime();
+  }
+
+  static final NanoClock DEFAULT_NANO_CLOCK =
+      new NanoClock() {
+        @Override
+        public long nanoTime() {
+          return System.nanoTime();
+        }
+      };
+
   static final ComponentTreeHolderFactory DEFAULT_COMPONENT_TREE_HOLDER_FACTORY =
       new ComponentTreeHolderFactory() {
         @Override
@@ -432,6 +482,7 @@ public class RecyclerBinder
     private @Nullable LayoutHandlerFactory layoutHandlerFactory;
     private ComponentTreeHolderFactory componentTreeHolderFactory =
         DEFAULT_COMPONENT_TREE_HOLDER_FACTORY;
+    private NanoClock nanoClock = DEFAULT_NANO_CLOCK;
     private ComponentContext componentContext;
     private @Nullable LithoViewFactory lithoViewFactory;
     private boolean isCircular;
@@ -455,6 +506,8 @@ public class RecyclerBinder
     private boolean isLayoutDiffingEnabled = ComponentsConfiguration.isLayoutDiffingEnabled;
     private RunnableHandler preallocateMountContentHandler;
     private boolean shouldPreallocatePerMountSpec;
+    private int maxPredictedPreallocationsPerFrame = 0;
+    private int speculativeViewportFillCount = 0;
     private @Nullable ComponentWarmer mComponentWarmer;
     private @Nullable LithoStartupLogger startupLogger;
     private RunnableHandler mAsyncInsertLayoutHandler;
@@ -549,6 +602,16 @@ public class RecyclerBinder
       return this;
     }
 
+    /**
+     * @param nanoClock the clock the time spent applying async batches is measured with. Defaults
+     *     to {@link #DEFAULT_NANO_CLOCK}.
+     */
+    @VisibleForTesting
+    Builder nanoClock(NanoClock nanoClock) {
+      this.nanoClock = nanoClock;
+      return this;
+    }
+
     public Builder preallocateMountContentHandler(
         @Nullable RunnableHandler preallocateMountContentHandler) {
       this.preallocateMountContentHandler = preallocateMountContentHandler;
@@ -560,6 +623,29 @@ public class RecyclerBinder
       return this;
     }
 
+    /**
+     * Experimental. If greater than 0, after computing the layouts of the items in range, the
+     * binder creates the View mount content those items will need and which isn't pooled yet. The
+     * content is created on the main thread while it is idle, at most {@code
+     * maxPreallocationsPerFrame} items per frame.
+     */
+    public Builder predictiveMountContentPreallocation(int maxPreallocationsPerFrame) {
+      this.maxPredictedPreallocationsPerFrame = maxPreallocationsPerFrame;
+      return this;
+    }
+
+    /**
+     * Experimental. If greater than 0, while the first measure fills the viewport, the layouts of
+     * the next {@code speculativeRowCount} items are dispatched to the layout threads of the items
+     * (see {@link #threadPoolConfig(LayoutThreadPoolConfiguration)}) while the current item is laid
+     * out on the measuring thread. Results are still consumed in order, and the layouts which
+     * didn't start yet are cancelled once the viewport is filled.
+     */
+    public Builder speculativeViewportFill(int speculativeRowCount) {
+      this.speculativeViewportFillCount = speculativeRowCount;
+      return this;
+    }
+
     /**
      * Set whether item prefetch should be enabled on the underlying RecyclerView.LayoutManager.
      * Defaults to false.
@@ -914,6 +1000,7 @@ public class RecyclerBinder
     mParentLifecycle = builder.lifecycleProvider;
 
     mComponentTreeHolderFactory = builder.componentTreeHolderFactory;
+    mNanoClock = builder.nanoClock;
     mEnableStableIds = builder.enableStableIds;
     mRecyclerBinderAdapterDelegate =
         builder.adapterDelegate != null
@@ -962,8 +1049,12 @@ public class RecyclerBinder
     mIsCircular = builder.isCircular;
     mHasDynamicItemHeight =
         mLayoutInfo.getScrollDirection() == HORIZONTAL ? builder.hasDynamicItemHeight : false;
+    mMountContentPreallocator =
+        builder.maxPredictedPreallocationsPerFrame > 0
+            ? new MountContentPreallocator(builder.maxPredictedPreallocationsPerFrame)
+            : null;
     mComponentTreeMeasureListenerFactory =
-        !mHasDynamicItemHeight
+        !mHasDynamicItemHeight && mMountContentPreallocator == null
             ? null
             : new ComponentTreeMeasureListenerFactory() {
               @Override
@@ -1007,6 +1098,7 @@ public class RecyclerBinder
     mIsLayoutDiffingEnabled = builder.isLayoutDiffingEnabled;
     mPreallocateMountContentHandler = builder.preallocateMountContentHandler;
     mPreallocatePerMountSpec = builder.shouldPreallocatePerMountSpec;
+    mSpeculativeViewportFillCount = builder.speculativeViewportFillCount;
     mComponentWarmer = builder.mComponentWarmer;
     mStartupLogger = builder.startupLogger;
     mErrorEventHandler = builder.errorEventHandler;
@@ -1235,6 +1327,9 @@ public class RecyclerBinder
         return;
       }
 
+      final long budgetMs = ComponentsConfiguration.asyncBatchApplyBudgetMs;
+      final long deadlineNanos =
+          budgetMs > 0 ? mNanoClock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs) : 0;
       boolean appliedBatch = false;
       while (true) {
         final AsyncBatch batch;
@@ -1248,12 +1343,15 @@ public class RecyclerBinder
           if (!isBatchReady(batch)) {
             break;
           }
-
-          mAsyncBatches.pollFirst();
         }
 
-        applyBatch(batch);
+        final boolean isBatchApplied = applyBatch(batch, deadlineNanos);
         appliedBatch |= batch.mIsDataChanged;
+        if (!isBatchApplied) {
+          // Out of time for this frame: the rest of the batch is applied on the next one.
+          ChoreographerCompatImpl.getInstance().postFrameCallback(mApplyReadyBatchesCallback);
+          break;
+        }
       }
 
       if (appliedBatch) {
@@ -1275,26 +1373,68 @@ public class RecyclerBinder
       return true;
     }
 
-    for (int i = 0, size = batch.mOperations.size(); i < size; i++) {
+    // Only check the operations which weren't ready the last time, as their layouts complete one
+    // by one and each completion checks the batch again.
+    final int first = Math.max(batch.mReadyOperationCount, batch.mAppliedOperationCount);
+    for (int i = first, size = batch.mOperations.size(); i < size; i++) {
       final AsyncOperation operation = batch.mOperations.get(i);
       if (operation instanceof AsyncInsertOperation
           && !((AsyncInsertOperation) operation).mHolder.hasCompletedLatestLayout()) {
+        batch.mReadyOperationCount = i;
         return false;
       }
     }
+    batch.mReadyOperationCount = batch.mOperations.size();
     return true;
   }
 
+  /**
+   * Applies the operations of the given batch, which is the first of {@link #mAsyncBatches}. The
+   * inserts of contiguous items are notified to the adapter as a single range.
+   *
+   * @param deadlineNanos if not 0, the {@link NanoClock#nanoTime()} after which the remaining
+   *     operations are left for a later call.
+   * @return whether all the operations of the batch have been applied.
+   */
   @UiThread
-  private void applyBatch(AsyncBatch batch) {
+  private boolean applyBatch(AsyncBatch batch, long deadlineNanos) {
     synchronized (this) {
-      for (int i = 0, size = batch.mOperations.size(); i < size; i++) {
+      final int start = batch.mAppliedOperationCount;
+      final int size = batch.mOperations.size();
+      int insertedPosition = 0;
+      int insertedCount = 0;
+      int i = start;
+      for (; i < size; i++) {
+        if (deadlineNanos != 0 && i > start && mNanoClock.nanoTime() > deadlineNanos) {
+          break;
+        }
+
         final AsyncOperation operation = batch.mOperations.get(i);
 
+        if (operation.mOperation == Operation.INSERT) {
+          final AsyncInsertOperation insertOperation = (AsyncInsertOperation) operation;
+          if (!applyAsyncInsert(insertOperation)) {
+            continue;
+          }
+
+          // An item inserted within or right after the range of items just inserted extends it.
+          final int position = insertOperation.mPosition;
+          if (insertedCount > 0
+              && position >= insertedPosition
+              && position <= insertedPosition + insertedCount) {
+            insertedCount++;
+          } else {
+            notifyAsyncInserts(insertedPosition, insertedCount);
+            insertedPosition = position;
+            insertedCount = 1;
+          }
+          continue;
+        }
+
+        notifyAsyncInserts(insertedPosition, insertedCount);
+        insertedCount = 0;
+
         switch (operation.mOperation) {
-          case Operation.INSERT:
-            applyAsyncInsert((AsyncInsertOperation) operation);
-            break;
           case Operation.UPDATE:
             final AsyncUpdateOperation updateOperation = (AsyncUpdateOperation) operation;
             updateItemAt(updateOperation.mPosition, updateOperation.mRenderInfo);
@@ -1320,18 +1460,33 @@ public class RecyclerBinder
             throw new RuntimeException("Unhandled operation type: " + operation.mOperation);
         }
       }
+
+      notifyAsyncInserts(insertedPosition, insertedCount);
+      batch.mAppliedOperationCount = i;
+      if (i < size) {
+        return false;
+      }
+
+      mAsyncBatches.pollFirst();
     }
 
     batch.mChangeSetCompleteCallback.onDataBound();
     mDataRenderedCallbacks.addLast(batch.mChangeSetCompleteCallback);
     maybeDispatchDataRendered();
+    return true;
   }
 
+  /**
+   * Adds the holder of an async insert to the holders, leaving the adapter to be notified by {@link
+   * #notifyAsyncInserts}.
+   *
+   * @return whether the holder was inserted, i.e. it wasn't inserted already.
+   */
   @GuardedBy("this")
   @UiThread
-  private void applyAsyncInsert(AsyncInsertOperation operation) {
+  private boolean applyAsyncInsert(AsyncInsertOperation operation) {
     if (operation.mHolder.isInserted()) {
-      return;
+      return false;
     }
 
     if (SectionsDebug.ENABLED) {
@@ -1340,10 +1495,25 @@ public class RecyclerBinder
 
     mRenderInfoViewCreatorController.maybeTrackViewCreator(operation.mHolder.getRenderInfo());
     mComponentTreeHolders.add(operation.mPosition, operation.mHolder);
+    onHolderIdsInserted(operation.mPosition, 1);
     operation.mHolder.setInserted(true);
-    mInternalAdapter.notifyItemInserted(operation.mPosition);
+    return true;
+  }
+
+  @GuardedBy("this")
+  @UiThread
+  private void notifyAsyncInserts(int position, int count) {
+    if (count == 0) {
+      return;
+    }
+
+    if (count == 1) {
+      mInternalAdapter.notifyItemInserted(position);
+    } else {
+      mInternalAdapter.notifyItemRangeInserted(position, count);
+    }
     final boolean shouldUpdate =
-        mViewportManager.insertAffectsVisibleRange(operation.mPosition, 1, mEstimatedViewportCount);
+        mViewportManager.insertAffectsVisibleRange(position, count, mEstimatedViewportCount);
     mViewportManager.setShouldUpdate(shouldUpdate);
   }
 
@@ -1472,8 +1642,11 @@ public class RecyclerBinder
       }
       toRelease = new ArrayList<>(mComponentTreeHolders);
       mComponentTreeHolders.clear();
+      mPositionsById.clear();
       for (RenderInfo renderInfo : renderInfos) {
-        mComponentTreeHolders.add(createComponentTreeHolder(renderInfo));
+        final ComponentTreeHolder holder = createComponentTreeHolder(renderInfo);
+        mComponentTreeHolders.add(holder);
+        onHolderIdsInserted(mComponentTreeHolders.size() - 1, 1);
       }
     }
     mInternalAdapter.notifyDataSetChanged();
@@ -1532,6 +1705,7 @@ public class RecyclerBinder
         throw new RuntimeException("Trying to do a sync insert when using asynchronous mutations!");
       }
       mComponentTreeHolders.add(position, holder);
+      onHolderIdsInserted(position, 1);
       mRenderInfoViewCreatorController.maybeTrackViewCreator(renderInfo);
     }
 
@@ -1662,6 +1836,7 @@ public class RecyclerBinder
         mComponentTreeHolders.add(position + i, holder);
         mRenderInfoViewCreatorController.maybeTrackViewCreator(renderInfo);
       }
+      onHolderIdsInserted(position, renderInfos.size());
     }
 
     mInternalAdapter.notifyItemRangeInserted(position, renderInfos.size());
@@ -1711,7 +1886,7 @@ public class RecyclerBinder
 
       assertNotNullRenderInfo(renderInfo);
       mRenderInfoViewCreatorController.maybeTrackViewCreator(renderInfo);
-      updateHolder(holder, renderInfo);
+      updateHolder(holder, position, renderInfo);
     }
 
     // If this item is rendered with a view (or was rendered with a view before now) we need to
@@ -1763,7 +1938,7 @@ public class RecyclerBinder
           }
 
           mRenderInfoViewCreatorController.maybeTrackViewCreator(newRenderInfo);
-          updateHolder(holder, newRenderInfo);
+          updateHolder(holder, position + i, newRenderInfo);
         }
       } catch (IndexOutOfBoundsException e) {
         final String[] names = new String[renderInfos.size()];
@@ -1804,7 +1979,9 @@ public class RecyclerBinder
     final boolean isNewPositionInRange;
     synchronized (this) {
       holder = mComponentTreeHolders.remove(fromPosition);
+      onHolderIdsRemoved(fromPosition, Collections.singletonList(holder));
       mComponentTreeHolders.add(toPosition, holder);
+      onHolderIdsInserted(toPosition, 1);
 
       isNewPositionInRange =
           mEstimatedViewportCount != UNSET
@@ -1841,6 +2018,7 @@ public class RecyclerBinder
     final ComponentTreeHolder holder;
     synchronized (this) {
       holder = mComponentTreeHolders.remove(position);
+      onHolderIdsRemoved(position, Collections.singletonList(holder));
     }
     mInternalAdapter.notifyItemRemoved(position);
 
@@ -1875,6 +2053,7 @@ public class RecyclerBinder
         final ComponentTreeHolder holder = mComponentTreeHolders.remove(position);
         toRelease.add(holder);
       }
+      onHolderIdsRemoved(position, toRelease);
     }
     mInternalAdapter.notifyItemRangeRemoved(position, count);
 
@@ -2475,6 +2654,9 @@ public class RecyclerBinder
 
     int numInserted = 0;
     int index = offset;
+    int speculativeEnd = offset + 1;
+    final List<ComponentTreeHolder> speculativeHolders =
+        mSpeculativeViewportFillCount > 0 ? new ArrayList<ComponentTreeHolder>() : null;
     while (filler.wantsMore() && index < holders.size()) {
       final ComponentTreeHolder holder = holders.get(index);
       final RenderInfo renderInfo = holder.getRenderInfo();
@@ -2485,6 +2667,19 @@ public class RecyclerBinder
         break;
       }
 
+      if (mSpeculativeViewportFillCount > 0) {
+        speculativeEnd =
+            dispatchSpeculativeLayouts(
+                holders,
+                speculativeHolders,
+                Math.max(speculativeEnd, index + 1),
+                index + 1 + mSpeculativeViewportFillCount,
+                widthSpec,
+                heightSpec);
+      }
+
+      // If the layout of this item was dispatched speculatively, this either joins the running
+      // calculation or takes over the one which didn't start yet.
       holder.computeLayoutSync(
           mComponentContext,
           mLayoutInfo.getChildWidthSpec(widthSpec, renderInfo),
@@ -2497,6 +2692,14 @@ public class RecyclerBinder
       numInserted++;
     }
 
+    // The viewport is filled: drop the speculative layouts which didn't start yet. This is a no-op
+    // for the items which were consumed, since their sync layout took over.
+    if (speculativeHolders != null) {
+      for (int i = 0, size = speculativeHolders.size(); i < size; i++) {
+        speculativeHolders.get(i).cancelPendingAsyncLayout();
+      }
+    }
+
     if (outputSize != null) {
       final int fill = filler.getFill();
       if (mLayoutInfo.getScrollDirection() == VERTICAL) {
@@ -2517,6 +2720,39 @@ public class RecyclerBinder
     return numInserted;
   }
 
+  /**
+   * Dispatches the async layouts of the items in [start, end) which don't have a valid layout yet,
+   * stopping at the first item rendering a View. The dispatched items are added to outHolders.
+   *
+   * @return the index after the last item which was considered.
+   */
+  @GuardedBy("this")
+  private int dispatchSpeculativeLayouts(
+      List<ComponentTreeHolder> holders,
+      List<ComponentTreeHolder> outHolders,
+      int start,
+      int end,
+      int widthSpec,
+      int heightSpec) {
+    final int last = Math.min(end, holders.size());
+    for (int i = start; i < last; i++) {
+      final ComponentTreeHolder holder = holders.get(i);
+      final RenderInfo renderInfo = holder.getRenderInfo();
+      if (renderInfo.rendersView()) {
+        return i;
+      }
+
+      final int childWidthSpec = mLayoutInfo.getChildWidthSpec(widthSpec, renderInfo);
+      final int childHeightSpec = mLayoutInfo.getChildHeightSpec(heightSpec, renderInfo);
+      if (!holder.isTreeValidForSizeSpecs(childWidthSpec, childHeightSpec)) {
+        holder.computeLayoutAsync(mComponentContext, childWidthSpec, childHeightSpec);
+        outHolders.add(holder);
+      }
+    }
+
+    return last;
+  }
+
   private void logFillViewportInserted(int numInserted, int totalSize) {
     if (SectionsDebug.ENABLED) {
       Log.d(
@@ -2543,7 +2779,10 @@ public class RecyclerBinder
 
   @GuardedBy("this")
   private void updateBatch(AsyncBatch batch) {
-    for (AsyncOperation operation : batch.mOperations) {
+    // The layouts being computed again, none of the remaining operations are ready any more.
+    batch.mReadyOperationCount = batch.mAppliedOperationCount;
+    for (int i = batch.mAppliedOperationCount, size = batch.mOperations.size(); i < size; i++) {
+      final AsyncOperation operation = batch.mOperations.get(i);
       if (!(operation instanceof AsyncInsertOperation)) {
         continue;
       }
@@ -3121,25 +3360,100 @@ public class RecyclerBinder
     mMountedView.getLayoutManager().startSmoothScroll(smoothScroller);
   }
 
+  /**
+   * @return the position of the item whose RenderInfo has the given {@link #ID_CUSTOM_ATTR_KEY}
+   *     attribute, or -1. If several items share the id, the first one is used.
+   */
   @UiThread
   private synchronized int getPositionForId(final Object id) {
     if (id == null) {
       return -1;
     }
-    for (int i = 0; i < mComponentTreeHolders.size(); i++) {
-      final ComponentTreeHolder componentTreeHolder = mComponentTreeHolders.get(i);
 
-      final RenderInfo renderInfo = componentTreeHolder.getRenderInfo();
-      if (renderInfo == null) {
-        continue;
+    final IdPosition idPosition = mPositionsById.get(id);
+    return idPosition != null ? idPosition.mPosition : -1;
+  }
+
+  /** Keeps the id index up to date for the given number of holders inserted at a position. */
+  @GuardedBy("this")
+  private void onHolderIdsInserted(int position, int count) {
+    if (position + count < mComponentTreeHolders.size()) {
+      shiftHolderIdPositions(position, count);
+    }
+
+    for (int i = position; i < position + count; i++) {
+      addHolderIdPosition(getHolderId(mComponentTreeHolders.get(i)), i);
+    }
+  }
+
+  /** Keeps the id index up to date for the given holders removed from a position. */
+  @GuardedBy("this")
+  private void onHolderIdsRemoved(int position, List<ComponentTreeHolder> holders) {
+    final int count = holders.size();
+    if (position < mComponentTreeHolders.size()) {
+      shiftHolderIdPositions(position + count, -count);
+    }
+
+    for (int i = 0; i < count; i++) {
+      removeHolderIdPosition(getHolderId(holders.get(i)), position, position + count);
+    }
+  }
+
+  /** Shifts the positions of the ids from the given position onwards by the given delta. */
+  @GuardedBy("this")
+  private void shiftHolderIdPositions(int fromPosition, int delta) {
+    for (IdPosition idPosition : mPositionsById.values()) {
+      if (idPosition.mPosition >= fromPosition) {
+        idPosition.mPosition += delta;
       }
-      @Nullable final Object childId = renderInfo.getCustomAttribute(ID_CUSTOM_ATTR_KEY);
+    }
+  }
 
-      if (id.equals(childId)) {
-        return i;
+  @GuardedBy("this")
+  private void addHolderIdPosition(@Nullable Object id, int position) {
+    if (id == null) {
+      return;
+    }
+
+    final IdPosition idPosition = mPositionsById.get(id);
+    if (idPosition == null) {
+      mPositionsById.put(id, new IdPosition(position));
+    } else {
+      idPosition.mCount++;
+      idPosition.mPosition = Math.min(idPosition.mPosition, position);
+    }
+  }
+
+  /**
+   * Removes a holder with the given id which was between the given positions, the other positions
+   * being already shifted. If it was the first holder with that id, the next one is looked up.
+   */
+  @GuardedBy("this")
+  private void removeHolderIdPosition(@Nullable Object id, int fromPosition, int toPosition) {
+    final IdPosition idPosition = id != null ? mPositionsById.get(id) : null;
+    if (idPosition == null) {
+      return;
+    }
+
+    if (--idPosition.mCount == 0) {
+      mPositionsById.remove(id);
+      return;
+    }
+
+    if (idPosition.mPosition >= fromPosition && idPosition.mPosition < toPosition) {
+      // Only happens when several holders share the id.
+      for (int i = fromPosition, size = mComponentTreeHolders.size(); i < size; i++) {
+        if (id.equals(getHolderId(mComponentTreeHolders.get(i)))) {
+          idPosition.mPosition = i;
+          return;
+        }
       }
     }
-    return -1;
+  }
+
+  private static @Nullable Object getHolderId(ComponentTreeHolder holder) {
+    final RenderInfo renderInfo = holder.getRenderInfo();
+    return renderInfo != null ? renderInfo.getCustomAttribute(ID_CUSTOM_ATTR_KEY) : null;
   }
 
   @UiThread
@@ -3344,6 +3658,7 @@ public class RecyclerBinder
       }
     }
 
+    final AtomicBoolean hasDispatchedLayouts = new AtomicBoolean();
     traverser.traverse(
         0,
         treeHoldersSize,
@@ -3352,14 +3667,69 @@ public class RecyclerBinder
         new RecyclerRangeTraverser.Processor() {
           @Override
           public boolean process(int index) {
-            return computeRangeLayoutAt(index, rangeStart, rangeEnd, treeHoldersSize);
+            return computeRangeLayoutAt(
+                index, rangeStart, rangeEnd, treeHoldersSize, hasDispatchedLayouts);
           }
         });
+
+    if (mMountContentPreallocator != null) {
+      synchronized (this) {
+        mPredictedRangeStart = rangeStart;
+        mPredictedRangeEnd = rangeEnd;
+      }
+
+      // Otherwise, the prediction is made once the layouts which were dispatched complete.
+      if (!hasDispatchedLayouts.get()) {
+        requestMountContentPrediction();
+      }
+    }
+  }
+
+  /**
+   * Schedules a single prediction on the main thread for all the requests made until it runs, as
+   * the layouts of the items in range complete one by one.
+   */
+  private void requestMountContentPrediction() {
+    if (mIsMountContentPredictionScheduled.compareAndSet(false, true)) {
+      mMainThreadHandler.post(mPredictMountContentDemandRunnable);
+    }
+  }
+
+  /**
+   * Asks the {@link MountContentPreallocator} to create the mount content needed by the items in
+   * range which have a completed layout but are not bound to a LithoView yet.
+   */
+  private void predictMountContentDemand() {
+    final List<ComponentTree> unboundTrees = new ArrayList<>();
+
+    synchronized (this) {
+      final int start = Math.max(0, mPredictedRangeStart);
+      final int end = Math.min(mPredictedRangeEnd, mComponentTreeHolders.size() - 1);
+      for (int i = start; i <= end; i++) {
+        final ComponentTreeHolder holder = mComponentTreeHolders.get(i);
+        if (holder.getRenderInfo().rendersView()
+            || !holder.isTreeValid()
+            || !holder.hasCompletedLatestLayout()) {
+          continue;
+        }
+
+        final ComponentTree componentTree = holder.getComponentTree();
+        if (componentTree != null && componentTree.getLithoView() == null) {
+          unboundTrees.add(componentTree);
+        }
+      }
+    }
+
+    mMountContentPreallocator.preallocateFor(unboundTrees);
   }
 
   /** @return Whether or not to continue layout computation for current range */
   private boolean computeRangeLayoutAt(
-      int index, int rangeStart, int rangeEnd, int treeHoldersSize) {
+      int index,
+      int rangeStart,
+      int rangeEnd,
+      int treeHoldersSize,
+      AtomicBoolean hasDispatchedLayouts) {
 
     final ComponentTreeHolder holder;
     final int childrenWidthSpec, childrenHeightSpec;
@@ -3384,6 +3754,7 @@ public class RecyclerBinder
     if ((index >= rangeStart || holder.getRenderInfo().isSticky()) && index <= rangeEnd) {
       if (!holder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
         holder.computeLayoutAsync(mComponentContext, childrenWidthSpec, childrenHeightSpec);
+        hasDispatchedLayouts.set(true);
       }
     } else {
       if (ThreadUtils.isMainThread()) {
@@ -3630,12 +4001,27 @@ public class RecyclerBinder
     private boolean mIsDataChanged;
     private ChangeSetCompleteCallback mChangeSetCompleteCallback;
     private @CommitPolicy int mCommitPolicy;
+    /** The number of operations, from the start, which have already been applied. */
+    private int mAppliedOperationCount;
+    /** The number of operations, from the start, known to be ready to be applied. */
+    private int mReadyOperationCount;
 
     public AsyncBatch(@CommitPolicy int commitPolicy) {
       mCommitPolicy = commitPolicy;
     }
   }
 
+  /** The position of the first holder with an id, and the number of holders sharing it. */
+  private static final class IdPosition {
+
+    private int mPosition;
+    private int mCount = 1;
+
+    private IdPosition(int position) {
+      mPosition = position;
+    }
+  }
+
   /** Default implementation of RecyclerBinderViewHolder */
   private static class BaseViewHolder extends RecyclerBinderViewHolder {
 
@@ -4061,7 +4447,8 @@ public class RecyclerBinder
         final int childrenWidthSpec = getActualChildrenWidthSpec(holder);
         final int childrenHeightSpec = getActualChildrenHeightSpec(holder);
 
-        if (size != null && holder.isTreeValidForSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
+        if (size != null
+            && holder.isTreeValidForExactSizeSpecs(childrenWidthSpec, childrenHeightSpec)) {
           size.width = SizeSpec.getSize(childrenWidthSpec);
           size.height = SizeSpec.getSize(childrenHeightSpec);
 
@@ -4096,9 +4483,16 @@ public class RecyclerBinder
   }
 
   @UiThread
-  private void updateHolder(ComponentTreeHolder holder, RenderInfo renderInfo) {
+  @GuardedBy("this")
+  private void updateHolder(ComponentTreeHolder holder, int position, RenderInfo renderInfo) {
     final RenderInfo previousRenderInfo = holder.getRenderInfo();
+    final Object previousId = getHolderId(holder);
     holder.setRenderInfo(renderInfo);
+    final Object id = getHolderId(holder);
+    if (!ObjectsCompat.equals(previousId, id)) {
+      removeHolderIdPosition(previousId, position, position + 1);
+      addHolderIdPosition(id, position);
+    }
     if (mLayoutHandlerFactory != null
         && mLayoutHandlerFactory.shouldUpdateLayoutHandler(previousRenderInfo, renderInfo)) {
       holder.updateLayoutHandler(mLayoutHandlerFactory.createLayoutCalculationHandler(renderInfo));
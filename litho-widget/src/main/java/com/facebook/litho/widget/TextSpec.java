@@ -82,6 +82,7 @@ import com.facebook.litho.annotations.OnUnmount;
 import com.facebook.litho.annotations.Prop;
 import com.facebook.litho.annotations.PropDefault;
 import com.facebook.litho.annotations.ResType;
+import com.facebook.rendercore.utils.FontMetricsCache;
 import com.facebook.widget.accessibility.delegates.AccessibleClickableSpan;
 import com.facebook.widget.accessibility.delegates.ContentDescriptionSpan;
 import com.facebook.yoga.YogaDirection;
@@ -379,7 +380,7 @@ class TextSpec {
       final TextPaint paint = newLayout.getPaint();
 
       final int layoutLineHeight =
-          Math.round(paint.getFontMetricsInt(null) * spacingMultiplier + extraSpacing);
+          Math.round(FontMetricsCache.get(paint).lineSpacing * spacingMultiplier + extraSpacing);
       preferredHeight += layoutLineHeight * (minLines - lineCount);
     }
 